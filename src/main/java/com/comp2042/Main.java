@@ -1,5 +1,6 @@
 package com.comp2042;
 
+import com.comp2042.controllers.SoakDirector;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -16,11 +17,17 @@ import java.util.ResourceBundle;
  * Its primary responsibility is to configure the primary stage (window),
  * load the initial scene (Main Menu), and display the application to the user.
  * </p>
+ * <p>
+ * Launching with the {@code --soak} program argument starts an unattended soak run
+ * (see {@link SoakDirector}) instead of waiting for the player.
+ * </p>
  * @author Chen Yu
  * @version 1.0
  */
 public class Main extends Application {
 
+    private SoakDirector soakDirector;
+
     /**
      * The main entry method for all JavaFX applications.
      * <p>
@@ -51,5 +58,20 @@ public class Main extends Application {
         Scene scene = new Scene(root, 1000, 700);
         primaryStage.setScene(scene);
         primaryStage.show();
+
+        if (getParameters().getRaw().contains("--soak")) {
+            soakDirector = new SoakDirector(scene);
+            soakDirector.start();
+        }
+    }
+
+    /**
+     * Writes the final soak report, if a soak run is active, when the application closes.
+     */
+    @Override
+    public void stop() {
+        if (soakDirector != null) {
+            soakDirector.stop();
+        }
     }
 }
\ No newline at end of file
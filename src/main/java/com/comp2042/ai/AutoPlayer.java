@@ -0,0 +1,272 @@
+package com.comp2042.ai;
+
+import com.comp2042.logic.InputEventListener;
+import com.comp2042.logic.bricks.BrickTypes;
+import com.comp2042.model.GameObserver;
+import com.comp2042.model.MoveEvent;
+import com.comp2042.model.ViewData;
+import com.comp2042.replay.ReplayAction;
+import com.comp2042.util.EventSource;
+import com.comp2042.util.EventType;
+
+import java.util.List;
+
+/**
+ * Plays any game mode by itself, pressing the same "keys" a player would.
+ * <p>
+ * <b>How it sees the game:</b> The player is a {@link GameObserver}, so it learns about the falling brick
+ * from the same notifications the renderer gets, and it reads the locked blocks through
+ * {@link InputEventListener#getBoard()}. It acts only through {@link InputEventListener}, so anything
+ * the game does with a key press (recording, undo history, scoring, sound) happens for the bot too.
+ * </p>
+ * <p>
+ * <b>Decisions:</b> When a brick appears, a {@link PlacementPlanner} picks where it should lock,
+ * possibly after a hold, from the board, the hold slot and the preview. Before every input the path is
+ * recomputed from the brick's current position, so gravity (or anything else that moves the brick)
+ * never puts the player off course; if the chosen spot has become unreachable, it simply plans again.
+ * </p>
+ * <p>
+ * <b>Pacing:</b> {@link #update(long)} spreads each brick's inputs evenly over
+ * {@code 1 / piecesPerSecond} seconds, ending with the hard drop, which suits demos (call it every
+ * frame). Load generators and simulations that want full speed call {@link #nextAction()} and apply
+ * the input themselves instead.
+ * </p>
+ */
+public final class AutoPlayer implements GameObserver {
+
+    /** Upper bound on inputs per {@link #update} call, so an unthrottled player cannot stall a frame. */
+    private static final int MAX_INPUTS_PER_UPDATE = 64;
+
+    private static final MoveEvent SOFT_DROP = new MoveEvent(EventType.DOWN, EventSource.USER);
+    private static final MoveEvent HARD_DROP = new MoveEvent(null, EventSource.USER);
+    private static final MoveEvent HOLD = new MoveEvent(EventType.HOLD, EventSource.USER);
+    private static final MoveEvent GRAVITY = new MoveEvent(EventType.DOWN, EventSource.THREAD);
+
+    private final InputEventListener game;
+    private final PlacementPlanner planner;
+    private final PlacementEnumerator placements = new PlacementEnumerator();
+    private long pieceNanos;
+    private ReplayAction[] path = new ReplayAction[64];
+
+    private ViewData view;
+    private boolean gameOver;
+    private int heldId;
+    private boolean canHold = true;
+
+    // the plan for the current brick
+    private boolean hasTarget;
+    private boolean targetHold;
+    private int heldBefore;
+    private int targetBrick;
+    private int targetRotation;
+    private int targetX;
+    private int targetY;
+    private int remainingInputs;
+
+    // pacing of the current brick
+    private boolean paced;
+    private long pieceDeadline;
+    private long lastInput;
+
+    /**
+     * Creates a player.
+     *
+     * @param game receives the inputs; usually the game controller.
+     * @param planner decides where each brick goes.
+     * @param piecesPerSecond how many bricks to place per second when driven by {@link #update}.
+     */
+    public AutoPlayer(InputEventListener game, PlacementPlanner planner, double piecesPerSecond) {
+        this.game = game;
+        this.planner = planner;
+        setPiecesPerSecond(piecesPerSecond);
+    }
+
+    /**
+     * Changes the playing speed; takes effect from the next brick.
+     *
+     * @param piecesPerSecond bricks per second; {@link Double#POSITIVE_INFINITY} for no delay.
+     * @throws IllegalArgumentException if the speed is not positive.
+     */
+    public void setPiecesPerSecond(double piecesPerSecond) {
+        if (!(piecesPerSecond > 0)) {
+            throw new IllegalArgumentException("Pieces per second must be positive: " + piecesPerSecond);
+        }
+        this.pieceNanos = (long) (1e9 / piecesPerSecond);
+    }
+
+    /**
+     * Works out the next input for the falling brick, without applying it.
+     *
+     * @return the input to apply, or null if there is no brick to play (before the first brick,
+     *         after game over, or if the brick cannot move anywhere).
+     */
+    public ReplayAction nextAction() {
+        if (view == null || gameOver) {
+            return null;
+        }
+        int[][] shape = view.getBrickData();
+        int brickId = brickIdOf(shape);
+        int rotation = PlacementEnumerator.rotationOf(brickId, shape);
+        if (rotation < 0) {
+            return null;
+        }
+        int[][] board = game.getBoard();
+        if (hasTarget && targetHold && heldId == heldBefore) {
+            if (canHold) {
+                return ReplayAction.HOLD;
+            }
+            hasTarget = false; // hold was used up elsewhere; plan without it
+        }
+        int index = hasTarget && targetBrick == brickId
+                ? find(board, brickId, rotation) : -1;
+        if (index < 0) {
+            Plan plan = planner.plan(board, brickId, rotation, view.getxPosition(), view.getyPosition(),
+                    heldId, canHold, previewOf(view));
+            if (plan == null) {
+                return null;
+            }
+            hasTarget = true;
+            targetHold = plan.isHold() && canHold;
+            heldBefore = heldId;
+            targetBrick = plan.getBrickId();
+            targetRotation = plan.getRotation();
+            targetX = plan.getX();
+            targetY = plan.getY();
+            if (targetHold) {
+                return ReplayAction.HOLD;
+            }
+            index = find(board, brickId, rotation);
+            if (index < 0) {
+                return null;
+            }
+        }
+        int length = placements.getPathLength(index);
+        if (path.length < length) {
+            path = new ReplayAction[Math.max(length, path.length * 2)];
+        }
+        placements.copyPath(index, path);
+        remainingInputs = length;
+        return path[0];
+    }
+
+    /** Looks up the target among the placements reachable from the brick's current position. */
+    private int find(int[][] board, int brickId, int rotation) {
+        int count = placements.enumerate(board, brickId, rotation, view.getxPosition(), view.getyPosition());
+        for (int i = 0; i < count; i++) {
+            if (placements.getRotation(i) == targetRotation && placements.getX(i) == targetX
+                    && placements.getY(i) == targetY) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Applies every input that is due by now, keeping to the configured pieces per second.
+     * Call it regularly (e.g. every frame) while the game is running.
+     *
+     * @param nowNanos the current time, e.g. from {@link System#nanoTime()}.
+     * @return the number of inputs applied.
+     */
+    public int update(long nowNanos) {
+        int applied = 0;
+        while (applied < MAX_INPUTS_PER_UPDATE) {
+            ReplayAction action = nextAction();
+            if (action == null) {
+                break;
+            }
+            if (!paced) {
+                paced = true;
+                pieceDeadline = nowNanos + pieceNanos;
+                lastInput = nowNanos;
+            }
+            // a hold goes out at once; the rest of the path shares what is left of this brick's time
+            long due = action == ReplayAction.HOLD ? lastInput
+                    : lastInput + Math.max(0, pieceDeadline - lastInput) / remainingInputs;
+            if (nowNanos < due) {
+                break;
+            }
+            apply(action);
+            applied++;
+            lastInput = nowNanos;
+        }
+        return applied;
+    }
+
+    /**
+     * Sends one input to the game through {@link InputEventListener}.
+     *
+     * @param action the input.
+     */
+    public void apply(ReplayAction action) {
+        switch (action) {
+            case LEFT -> game.onLeftEvent();
+            case RIGHT -> game.onRightEvent();
+            case ROTATE -> game.onRotateEvent();
+            case SOFT_DROP -> game.onDownEvent(SOFT_DROP);
+            case HARD_DROP -> game.onHardDropEvent(HARD_DROP);
+            case HOLD -> game.onHoldEvent(HOLD);
+            case GRAVITY -> game.onDownEvent(GRAVITY);
+            case UNDO -> game.onUndoEvent();
+            case REDO -> game.onRedoEvent();
+            case CHECKPOINT -> throw new IllegalArgumentException("Checkpoints are not inputs");
+        }
+    }
+
+    private static int[] previewOf(ViewData view) {
+        List<int[][]> shapes = view.getUpcomingBricksData();
+        int[] preview = new int[shapes.size()];
+        for (int i = 0; i < preview.length; i++) {
+            preview[i] = brickIdOf(shapes.get(i));
+        }
+        return preview;
+    }
+
+    private static int brickIdOf(int[][] shape) {
+        for (int[] row : shape) {
+            for (int value : row) {
+                if (value != 0) {
+                    return value;
+                }
+            }
+        }
+        return BrickTypes.NONE;
+    }
+
+    /**
+     * Keeps the latest view of the falling brick. A change of the hold slot without a lock in between
+     * means hold was pressed (by this player or anyone else), so it cannot be used again for this brick.
+     */
+    @Override
+    public void onBoardUpdated(ViewData viewData) {
+        view = viewData;
+        int held = brickIdOf(viewData.getHoldBrickData());
+        if (held != heldId) {
+            heldId = held;
+            canHold = false;
+        }
+    }
+
+    /**
+     * The locked blocks changed: a brick was placed, or a game started or was rewound.
+     * Either way the next brick is a new decision.
+     */
+    @Override
+    public void onGameBackgroundUpdated(int[][] boardMatrix) {
+        hasTarget = false;
+        canHold = true;
+        paced = false;
+        gameOver = false;
+    }
+
+    @Override
+    public void onGameOver() {
+        gameOver = true;
+    }
+
+    @Override public void onScoreUpdated(int score) {}
+    @Override public void onLevelUpdated(int level) {}
+    @Override public void onLineCleared(int lines, String message) {}
+    @Override public void onBrickDropped() {}
+    @Override public void onDangerStateChanged(boolean isDanger) {}
+}
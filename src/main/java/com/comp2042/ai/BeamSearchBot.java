@@ -0,0 +1,507 @@
+package com.comp2042.ai;
+
+import com.comp2042.util.GameConfiguration;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Plans with lookahead: a beam search over the falling brick, the hold slot and the preview.
+ * <p>
+ * <b>Search:</b> A search node is a board plus the bricks still to come (the one to play, the held one
+ * and a position in the preview). Each level expands every state in the beam into all of its reachable
+ * placements, with and without hold, scores the resulting boards with the same weighted
+ * {@link Feature}s as {@link HeuristicBot} (plus the reward for the lines cleared on the way there),
+ * and keeps the best {@code beamWidth} of them for the next level. After {@code depth} levels, or when the
+ * preview runs out, the plan is the first move on the way to the best state.
+ * </p>
+ * <p>
+ * <b>Parallelism:</b> Expanding a level is split across a {@link ForkJoinPool}, one state per task.
+ * Each task writes its candidates into its own state, and the beam is then chosen on the calling
+ * thread by walking the states in order, so the plan does not depend on the number of threads.
+ * Enumerators and feature calculators are not thread-safe, so tasks borrow them from a pool and give
+ * them back when done.
+ * </p>
+ * <p>
+ * <b>Transpositions:</b> Different move orders often lead to the same board with the same bricks to
+ * come. Every candidate is keyed by {@link BoardFeatures#getHash() its board's hash} and its upcoming
+ * bricks, and the tasks share a lock-free {@link TranspositionTable} that keeps each key's best score.
+ * A candidate with a strictly better twin is dropped on the spot; among equal twins, the beam keeps
+ * the first in state order and the table remembers it was taken. A lossy table can only let a twin
+ * through, never drop a unique board.
+ * </p>
+ * <p>
+ * <b>Reusing states:</b> Only the states that make it into the beam get a board, and they are built
+ * lazily by the task that expands them: copy the parent's board, lock the brick, remove full rows.
+ * Two generations of {@code beamWidth} states (the level being expanded and the one being filled) are
+ * allocated once and swapped every level, so a search allocates almost nothing after the first.
+ * </p>
+ * <p>
+ * One search at a time per instance; the pool may be shared, the table may not (each level starts a
+ * new table generation). A search on an interrupted thread gives up between levels and returns null,
+ * so a caller can abandon a search that is no longer wanted.
+ * </p>
+ */
+public final class BeamSearchBot implements PlacementPlanner {
+
+    private static final int SPAWN_X = GameConfiguration.BOARD_WIDTH / 2 - GameConfiguration.SPAWN_X_OFFSET;
+
+    /** Table slots per beam state: room for all candidates of a level at a comfortable load. */
+    private static final int TABLE_SLOTS_PER_STATE = 512;
+
+    /** Moves are packed into an int: hold flag, rotation, and x and y shifted by this bias. */
+    private static final int COORD_BIAS = 8;
+
+    private final int depth;
+    private final int beamWidth;
+    private final double[] weights;
+    private final double lineWeight;
+    private final ForkJoinPool pool;
+    private final ConcurrentLinkedQueue<Scratch> scratch = new ConcurrentLinkedQueue<>();
+    private final TranspositionTable table;
+
+    private final Node[] rootLevel = {new Node()};
+    private Node[] filling;
+    private Node[] spare;
+
+    // the beam of the level being chosen: a min-heap on score, so the worst kept candidate is on top
+    private final double[] heapScore;
+    private final int[] heapState;
+    private final int[] heapCandidate;
+    private int heapSize;
+
+    private long nodes;
+
+    /**
+     * Creates a bot with the default depth, beam width and weights, searching on the common pool.
+     */
+    public BeamSearchBot() {
+        this(GameConfiguration.BOT_SEARCH_DEPTH, GameConfiguration.BOT_BEAM_WIDTH, Feature.defaultWeights(),
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a bot.
+     *
+     * @param depth the number of bricks to look ahead, including the falling one.
+     * @param beamWidth the number of states kept per level.
+     * @param weights one weight per {@link Feature}, by ordinal; copied.
+     * @param pool the pool that expands the states.
+     * @throws IllegalArgumentException if the depth, width or number of weights is wrong.
+     */
+    public BeamSearchBot(int depth, int beamWidth, double[] weights, ForkJoinPool pool) {
+        this(depth, beamWidth, weights, pool, new TranspositionTable(
+                Math.max(1 << 12, beamWidth * TABLE_SLOTS_PER_STATE), TranspositionTable.Replacement.BEST_SCORE));
+    }
+
+    /**
+     * Creates a bot with its own transposition table, e.g. to size it or to read its metrics.
+     *
+     * @param depth the number of bricks to look ahead, including the falling one.
+     * @param beamWidth the number of states kept per level.
+     * @param weights one weight per {@link Feature}, by ordinal; copied.
+     * @param pool the pool that expands the states.
+     * @param table the table for spotting transpositions; should keep the best score per key.
+     * @throws IllegalArgumentException if the depth, width or number of weights is wrong.
+     */
+    public BeamSearchBot(int depth, int beamWidth, double[] weights, ForkJoinPool pool, TranspositionTable table) {
+        if (depth <= 0 || beamWidth <= 0) {
+            throw new IllegalArgumentException("Depth and beam width must be positive: " + depth + ", " + beamWidth);
+        }
+        if (weights.length != Feature.count()) {
+            throw new IllegalArgumentException("Expected " + Feature.count() + " weights, got " + weights.length);
+        }
+        this.depth = depth;
+        this.beamWidth = beamWidth;
+        this.weights = weights.clone();
+        this.lineWeight = weights[Feature.LINES_CLEARED.ordinal()];
+        this.pool = pool;
+        this.table = table;
+        this.filling = newGeneration(beamWidth);
+        this.spare = newGeneration(beamWidth);
+        this.heapScore = new double[beamWidth];
+        this.heapState = new int[beamWidth];
+        this.heapCandidate = new int[beamWidth];
+    }
+
+    private static Node[] newGeneration(int size) {
+        Node[] states = new Node[size];
+        for (int i = 0; i < size; i++) {
+            states[i] = new Node();
+        }
+        return states;
+    }
+
+    @Override
+    public Plan plan(int[][] board, int brickId, int rotation, int x, int y, int heldId, boolean canHold,
+                     int[] preview) {
+        Node root = rootLevel[0];
+        root.parent = null;
+        root.cells = copyBoard(board, root.cells);
+        root.playing = brickId;
+        root.held = heldId;
+        root.nextPreview = 0;
+        root.canHold = canHold;
+        root.startRotation = rotation;
+        root.startX = x;
+        root.startY = y;
+        root.score = 0;
+        root.lineReward = 0;
+        nodes = 0;
+
+        int levels = Math.min(depth, preview.length + 1);
+        Node[] level = rootLevel;
+        int size = 1;
+        for (int depthIndex = 0; depthIndex < levels; depthIndex++) {
+            boolean last = depthIndex == levels - 1;
+            if (Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+            table.newGeneration();
+            pool.invoke(new Expand(level, 0, size, preview, depthIndex, last));
+            heapSize = 0;
+            for (int s = 0; s < size; s++) {
+                Node state = level[s];
+                nodes += state.scored;
+                for (int k = 0; k < state.candidates; k++) {
+                    float score = (float) state.candidateScore[k];
+                    long twin = table.probe(state.candidateKey[k]);
+                    if (twin != TranspositionTable.MISS && TranspositionTable.score(twin) > score) {
+                        continue; // a better twin exists, or an equal one was taken already
+                    }
+                    offer(state.candidateScore[k], s, k);
+                    table.store(state.candidateKey[k], Float.POSITIVE_INFINITY, depthIndex);
+                }
+            }
+            if (heapSize == 0) {
+                // every state of this level tops out: settle for the best one that got here
+                return depthIndex == 0 ? null : bestOf(level, size);
+            }
+            Node[] children = filling;
+            for (int i = 0; i < heapSize; i++) {
+                children[i].become(level[heapState[i]], heapCandidate[i], preview, lineWeight);
+            }
+            if (last) {
+                return bestOf(children, heapSize);
+            }
+            filling = spare;
+            spare = children;
+            level = children;
+            size = heapSize;
+        }
+        throw new AssertionError("unreachable");
+    }
+
+    private static Plan bestOf(Node[] states, int size) {
+        Node best = states[0];
+        for (int i = 1; i < size; i++) {
+            if (states[i].score > best.score) {
+                best = states[i];
+            }
+        }
+        return new Plan(best.rootHold, best.rootBrick, best.rootRotation, best.rootX, best.rootY);
+    }
+
+    private void offer(double score, int state, int candidate) {
+        if (heapSize < beamWidth) {
+            int i = heapSize++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heapScore[parent] <= score) {
+                    break;
+                }
+                set(i, parent);
+                i = parent;
+            }
+            heapScore[i] = score;
+            heapState[i] = state;
+            heapCandidate[i] = candidate;
+        } else if (score > heapScore[0]) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && heapScore[child + 1] < heapScore[child]) {
+                    child++;
+                }
+                if (heapScore[child] >= score) {
+                    break;
+                }
+                set(i, child);
+                i = child;
+            }
+            heapScore[i] = score;
+            heapState[i] = state;
+            heapCandidate[i] = candidate;
+        }
+    }
+
+    private void set(int to, int from) {
+        heapScore[to] = heapScore[from];
+        heapState[to] = heapState[from];
+        heapCandidate[to] = heapCandidate[from];
+    }
+
+    /**
+     * @return the number of placements scored by the last search.
+     */
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    /**
+     * @return the transposition table shared by this bot's search threads.
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * @return the number of bricks looked ahead, including the falling one.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the number of states kept per level.
+     */
+    public int getBeamWidth() {
+        return beamWidth;
+    }
+
+    private static int[][] copyBoard(int[][] from, int[][] into) {
+        if (into == null) {
+            into = new int[from.length][from[0].length];
+        }
+        for (int r = 0; r < from.length; r++) {
+            System.arraycopy(from[r], 0, into[r], 0, from[r].length);
+        }
+        return into;
+    }
+
+    /** Mixes the bricks still to come into a key, so equal boards with different futures differ. */
+    private static long piecesKey(int playing, int held, int nextPreview) {
+        long z = (playing | held << 8 | (long) nextPreview << 16) * 0xD6E8FEB86659FD93L;
+        return z ^ (z >>> 32);
+    }
+
+    private static int pack(boolean hold, int rotation, int x, int y) {
+        return (hold ? 1 : 0) | rotation << 1 | (x + COORD_BIAS) << 3 | (y + COORD_BIAS) << 10;
+    }
+
+    private static boolean isHold(int move) {
+        return (move & 1) != 0;
+    }
+
+    private static int rotationOf(int move) {
+        return move >>> 1 & 3;
+    }
+
+    private static int xOf(int move) {
+        return (move >>> 3 & 0x7F) - COORD_BIAS;
+    }
+
+    private static int yOf(int move) {
+        return (move >>> 10 & 0x7F) - COORD_BIAS;
+    }
+
+    /** The non-thread-safe tools a task borrows. */
+    private static final class Scratch {
+        final PlacementEnumerator enumerator = new PlacementEnumerator();
+        final BoardFeatures features = new BoardFeatures();
+    }
+
+    /**
+     * One node of the search. Its board is only built when it is expanded.
+     */
+    private static final class Node {
+        int[][] cells;
+
+        // how this state is reached: the parent's board plus one locked brick
+        Node parent;
+        int played;
+        int move;
+
+        // the bricks still to come
+        int playing;
+        int held;
+        int nextPreview;
+        boolean canHold;
+        int startRotation;
+        int startX;
+        int startY;
+
+        double score;
+        double lineReward;
+
+        // the first move on the way here
+        boolean rootHold;
+        int rootBrick;
+        int rootRotation;
+        int rootX;
+        int rootY;
+
+        // filled in by expansion
+        int scored;
+        int candidates;
+        double[] candidateScore = new double[64];
+        int[] candidateMove = new int[64];
+        int[] candidatePlayed = new int[64];
+        int[] candidateLines = new int[64];
+        long[] candidateKey = new long[64];
+
+        /** Turns this state into the child reached by a candidate of {@code from}; the board comes later. */
+        void become(Node from, int candidate, int[] preview, double lineWeight) {
+            parent = from;
+            move = from.candidateMove[candidate];
+            played = from.candidatePlayed[candidate];
+            score = from.candidateScore[candidate];
+            lineReward = from.lineReward + lineWeight * from.candidateLines[candidate];
+            boolean hold = isHold(move);
+            held = from.heldAfter(hold);
+            int upcoming = from.upcomingAfter(hold);
+            playing = upcoming < preview.length ? preview[upcoming] : 0;
+            nextPreview = upcoming + 1;
+            canHold = true;
+            startRotation = 0;
+            startX = SPAWN_X;
+            startY = 0;
+            if (from.parent == null) {
+                rootHold = hold;
+                rootBrick = played;
+                rootRotation = rotationOf(move);
+                rootX = xOf(move);
+                rootY = yOf(move);
+            } else {
+                rootHold = from.rootHold;
+                rootBrick = from.rootBrick;
+                rootRotation = from.rootRotation;
+                rootX = from.rootX;
+                rootY = from.rootY;
+            }
+        }
+
+        /** The brick in the hold slot after a move of this state. */
+        int heldAfter(boolean hold) {
+            return hold ? playing : held;
+        }
+
+        /** The preview index of the brick that follows a move of this state. */
+        int upcomingAfter(boolean hold) {
+            // a hold from an empty slot brings in a preview brick, which moves the preview along
+            return hold && held == 0 ? nextPreview + 1 : nextPreview;
+        }
+
+        void ensureCapacity(int needed) {
+            if (candidateMove.length < needed) {
+                int size = Math.max(needed, candidateMove.length * 2);
+                candidateScore = Arrays.copyOf(candidateScore, size);
+                candidateMove = Arrays.copyOf(candidateMove, size);
+                candidatePlayed = Arrays.copyOf(candidatePlayed, size);
+                candidateLines = Arrays.copyOf(candidateLines, size);
+                candidateKey = Arrays.copyOf(candidateKey, size);
+            }
+        }
+    }
+
+    /**
+     * Expands a range of states of one level, splitting down to one state per task.
+     */
+    @SuppressWarnings("serial") // fork/join tasks are never serialized
+    private final class Expand extends RecursiveAction {
+        private final Node[] level;
+        private final int from;
+        private final int to;
+        private final int[] preview;
+        private final int depthIndex;
+        private final boolean last;
+
+        Expand(Node[] level, int from, int to, int[] preview, int depthIndex, boolean last) {
+            this.level = level;
+            this.from = from;
+            this.to = to;
+            this.preview = preview;
+            this.depthIndex = depthIndex;
+            this.last = last;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Expand(level, from, mid, preview, depthIndex, last),
+                        new Expand(level, mid, to, preview, depthIndex, last));
+                return;
+            }
+            Scratch tools = scratch.poll();
+            if (tools == null) {
+                tools = new Scratch();
+            }
+            try {
+                expand(level[from], tools);
+            } finally {
+                scratch.offer(tools);
+            }
+        }
+
+        private void expand(Node state, Scratch tools) {
+            state.scored = 0;
+            state.candidates = 0;
+            if (state.parent != null) {
+                state.cells = copyBoard(state.parent.cells, state.cells);
+                PlacementEnumerator.lock(state.cells, state.played, rotationOf(state.move), xOf(state.move),
+                        yOf(state.move));
+            }
+            tools.features.load(state.cells);
+            // below the last level, a child must know which brick it plays next; a hold from an
+            // empty slot uses up a preview brick, so that lineage runs out of preview one level early
+            int known = last ? Integer.MAX_VALUE : preview.length;
+            if (state.nextPreview < known) {
+                add(state, tools, false, state.playing, state.startRotation, state.startX, state.startY);
+            }
+            if (!state.canHold || state.held == state.playing) {
+                return; // holding an identical brick changes nothing
+            }
+            if (state.held != 0) {
+                if (state.nextPreview < known) {
+                    add(state, tools, true, state.held, 0, SPAWN_X, 0);
+                }
+            } else if (state.nextPreview < preview.length && state.nextPreview + 1 < known) {
+                add(state, tools, true, preview[state.nextPreview], 0, SPAWN_X, 0);
+            }
+        }
+
+        private void add(Node state, Scratch tools, boolean hold, int brickId, int rotation, int x, int y) {
+            PlacementEnumerator enumerator = tools.enumerator;
+            BoardFeatures features = tools.features;
+            int count = enumerator.enumerate(state.cells, brickId, rotation, x, y);
+            state.scored += count;
+            state.ensureCapacity(state.candidates + count);
+            int upcoming = state.upcomingAfter(hold);
+            long pieces = piecesKey(upcoming < preview.length ? preview[upcoming] : 0, state.heldAfter(hold), upcoming);
+            for (int i = 0; i < count; i++) {
+                int r = enumerator.getRotation(i);
+                int px = enumerator.getX(i);
+                int py = enumerator.getY(i);
+                double score = state.lineReward + features.evaluate(brickId, r, px, py, weights);
+                long key = features.getHash() ^ pieces;
+                long twin = table.probe(key);
+                if (twin != TranspositionTable.MISS && TranspositionTable.score(twin) > (float) score) {
+                    continue;
+                }
+                table.store(key, (float) score, depthIndex);
+                int k = state.candidates++;
+                state.candidateScore[k] = score;
+                state.candidateMove[k] = pack(hold, r, px, py);
+                state.candidatePlayed[k] = brickId;
+                state.candidateLines[k] = features.get(Feature.LINES_CLEARED);
+                state.candidateKey[k] = key;
+            }
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.comp2042.ai;
+
+import com.comp2042.model.PersistentGrid;
+import com.comp2042.util.GameConfiguration;
+
+import java.util.Arrays;
+
+/**
+ * Computes the {@link Feature}s of the board that would result from each candidate placement,
+ * without rebuilding the board for every candidate.
+ * <p>
+ * <b>Incremental evaluation:</b> {@link #load} scans the current board once and keeps per-row and
+ * per-column statistics (row masks and transitions, column masks, heights, holes and transitions)
+ * together with their totals. {@link #evaluate} then only recomputes what a placement touches: at most
+ * four rows and four columns, and the bumpiness and well terms of the columns next to them, adjusting
+ * the totals by the difference. No board cell is read again.
+ * </p>
+ * <p>
+ * <b>Line clears:</b> A clear shifts everything above it, so every column changes. Columns are kept
+ * as bit masks (bit 0 is the bottom row), which makes removing the cleared rows a single
+ * {@link Integer#compress} per column, and each column statistic is a couple of bit operations on
+ * the result. Rows that are not cleared keep their content, so row transitions still only change for
+ * the touched rows, plus two for each new empty row at the top.
+ * </p>
+ * <p>
+ * <b>Hashing:</b> {@link #getHash()} gives a 64-bit hash of the board a placement leaves behind, for
+ * spotting the same board reached by different moves. Each non-empty row contributes a mixed value of
+ * its index and content, combined with XOR, so a placement without clears only swaps the terms of its
+ * rows; after a clear, the rows are hashed again at their new indices.
+ * </p>
+ * <p>
+ * An instance is reused for every decision and is not thread-safe.
+ * </p>
+ */
+public final class BoardFeatures {
+
+    /** An empty row has one transition at each wall. */
+    private static final int EMPTY_ROW_TRANSITIONS = 2;
+
+    private final int width;
+    private final int height;
+    private final int fullRow;
+    private final int fullColumn;
+
+    // statistics of the loaded board
+    private final int[] rowMask;
+    private final int[] rowTransitions;
+    private final int[] column;
+    private final int[] heights;
+    private final int[] holes;
+    private final int[] columnTransitions;
+    private final int[] base = new int[Feature.count()];
+    private long baseHash;
+
+    // scratch space for one evaluation
+    private final int[] newColumn;
+    private final int[] newHeights;
+    private final int[] values = new int[Feature.count()];
+    private final int[] placedRows = new int[4];
+    private final int[] placedMasks = new int[4];
+    private int placedCount;
+    private int clearedRows;
+
+    /**
+     * Creates a calculator for the standard board size.
+     */
+    public BoardFeatures() {
+        this(GameConfiguration.BOARD_WIDTH, GameConfiguration.BOARD_HEIGHT);
+    }
+
+    /**
+     * Creates a calculator for boards of the given size.
+     *
+     * @param width the number of columns (2 to 30).
+     * @param height the number of rows (1 to 31).
+     * @throws IllegalArgumentException if the size is not supported.
+     */
+    public BoardFeatures(int width, int height) {
+        if (width < 2 || width > 30 || height < 1 || height > 31) {
+            throw new IllegalArgumentException("Unsupported board size " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.fullRow = (1 << width) - 1;
+        this.fullColumn = (1 << height) - 1;
+        rowMask = new int[height];
+        rowTransitions = new int[height];
+        column = new int[width];
+        heights = new int[width];
+        holes = new int[width];
+        columnTransitions = new int[width];
+        newColumn = new int[width];
+        newHeights = new int[width];
+    }
+
+    /**
+     * Scans a board and remembers its statistics for the following evaluations.
+     *
+     * @param grid the locked blocks.
+     */
+    public void load(PersistentGrid grid) {
+        load(grid.rows());
+    }
+
+    /**
+     * Scans a board and remembers its statistics for the following evaluations.
+     *
+     * @param board the locked blocks (0 is empty), {@code height} rows of {@code width} cells.
+     * @throws IllegalArgumentException if the board has the wrong size.
+     */
+    public void load(int[][] board) {
+        if (board.length != height || board[0].length != width) {
+            throw new IllegalArgumentException("Board is " + board[0].length + "x" + board.length
+                    + ", expected " + width + "x" + height);
+        }
+        Arrays.fill(column, 0);
+        int rowSum = 0;
+        long hash = 0;
+        for (int r = 0; r < height; r++) {
+            int mask = 0;
+            for (int c = 0; c < width; c++) {
+                if (board[r][c] != 0) {
+                    mask |= 1 << c;
+                    column[c] |= 1 << (height - 1 - r);
+                }
+            }
+            rowMask[r] = mask;
+            rowTransitions[r] = rowTransitions(mask);
+            rowSum += rowTransitions[r];
+            hash ^= rowHash(r, mask);
+        }
+        baseHash = hash;
+        int aggregate = 0;
+        int holeSum = 0;
+        int columnSum = 0;
+        for (int c = 0; c < width; c++) {
+            heights[c] = columnHeight(column[c]);
+            holes[c] = heights[c] - Integer.bitCount(column[c]);
+            columnTransitions[c] = columnTransitions(column[c]);
+            aggregate += heights[c];
+            holeSum += holes[c];
+            columnSum += columnTransitions[c];
+        }
+        base[Feature.AGGREGATE_HEIGHT.ordinal()] = aggregate;
+        base[Feature.HOLES.ordinal()] = holeSum;
+        base[Feature.BUMPINESS.ordinal()] = bumpiness(heights, 0, width - 2);
+        base[Feature.WELLS.ordinal()] = wells(heights, 0, width - 1);
+        base[Feature.ROW_TRANSITIONS.ordinal()] = rowSum;
+        base[Feature.COLUMN_TRANSITIONS.ordinal()] = columnSum;
+        base[Feature.LINES_CLEARED.ordinal()] = 0;
+    }
+
+    /**
+     * Computes the features of the loaded board after locking a brick, and scores them.
+     *
+     * @param brickId the brick type ID.
+     * @param rotation the rotation the brick locks in.
+     * @param x the column of the brick's shape matrix.
+     * @param y the row of the brick's shape matrix; the brick must fit there.
+     * @param weights one weight per {@link Feature}, by ordinal.
+     * @return the weighted sum of the features.
+     */
+    public double evaluate(int brickId, int rotation, int x, int y, double[] weights) {
+        measure(brickId, rotation, x, y);
+        double score = 0;
+        for (int i = 0; i < values.length; i++) {
+            score += weights[i] * values[i];
+        }
+        return score;
+    }
+
+    /**
+     * @param feature a feature.
+     * @return its value after the placement passed to the last {@link #evaluate} call.
+     */
+    public int get(Feature feature) {
+        return values[feature.ordinal()];
+    }
+
+    /**
+     * @param feature a feature.
+     * @return its value on the loaded board itself, before any placement.
+     */
+    public int getBase(Feature feature) {
+        return base[feature.ordinal()];
+    }
+
+    private void measure(int brickId, int rotation, int x, int y) {
+        int[] shape = PlacementEnumerator.shapeRows(brickId, rotation);
+        int touched = 0;
+        int lines = 0;
+        int cleared = 0;
+        int rowDelta = 0;
+        placedCount = 0;
+        for (int i = 0; i < shape.length; i++) {
+            if (shape[i] == 0) {
+                continue;
+            }
+            int r = y + i;
+            int bits = x >= 0 ? shape[i] << x : shape[i] >>> -x;
+            int bit = 1 << (height - 1 - r);
+            int row = rowMask[r] | bits;
+            placedRows[placedCount] = r;
+            placedMasks[placedCount++] = row;
+            if (row == fullRow) {
+                lines++;
+                cleared |= bit;
+                rowDelta -= rowTransitions[r];
+            } else {
+                rowDelta += rowTransitions(row) - rowTransitions[r];
+            }
+            for (int m = bits; m != 0; m &= m - 1) {
+                int c = Integer.numberOfTrailingZeros(m);
+                if ((touched & 1 << c) == 0) {
+                    touched |= 1 << c;
+                    newColumn[c] = column[c];
+                }
+                newColumn[c] |= bit;
+            }
+        }
+
+        int aggregate = base[Feature.AGGREGATE_HEIGHT.ordinal()];
+        int holeSum = base[Feature.HOLES.ordinal()];
+        int columnSum = base[Feature.COLUMN_TRANSITIONS.ordinal()];
+        int bumpiness;
+        int wells;
+        System.arraycopy(heights, 0, newHeights, 0, width);
+        if (lines == 0) {
+            for (int m = touched; m != 0; m &= m - 1) {
+                int c = Integer.numberOfTrailingZeros(m);
+                int h = columnHeight(newColumn[c]);
+                aggregate += h - heights[c];
+                holeSum += h - Integer.bitCount(newColumn[c]) - holes[c];
+                columnSum += columnTransitions(newColumn[c]) - columnTransitions[c];
+                newHeights[c] = h;
+            }
+            // only the neighbours of the touched columns can see a different height
+            int lo = Math.max(0, Integer.numberOfTrailingZeros(touched) - 1);
+            int hi = Math.min(width - 1, 31 - Integer.numberOfLeadingZeros(touched) + 1);
+            bumpiness = base[Feature.BUMPINESS.ordinal()]
+                    + bumpiness(newHeights, lo, hi - 1) - bumpiness(heights, lo, hi - 1);
+            wells = base[Feature.WELLS.ordinal()] + wells(newHeights, lo, hi) - wells(heights, lo, hi);
+        } else {
+            int keep = fullColumn & ~cleared;
+            aggregate = 0;
+            holeSum = 0;
+            columnSum = 0;
+            for (int c = 0; c < width; c++) {
+                int col = Integer.compress((touched & 1 << c) != 0 ? newColumn[c] : column[c], keep);
+                int h = columnHeight(col);
+                aggregate += h;
+                holeSum += h - Integer.bitCount(col);
+                columnSum += columnTransitions(col);
+                newHeights[c] = h;
+            }
+            bumpiness = bumpiness(newHeights, 0, width - 2);
+            wells = wells(newHeights, 0, width - 1);
+            rowDelta += lines * EMPTY_ROW_TRANSITIONS;
+        }
+
+        values[Feature.AGGREGATE_HEIGHT.ordinal()] = aggregate;
+        values[Feature.HOLES.ordinal()] = holeSum;
+        values[Feature.BUMPINESS.ordinal()] = bumpiness;
+        values[Feature.WELLS.ordinal()] = wells;
+        values[Feature.ROW_TRANSITIONS.ordinal()] = base[Feature.ROW_TRANSITIONS.ordinal()] + rowDelta;
+        values[Feature.COLUMN_TRANSITIONS.ordinal()] = columnSum;
+        values[Feature.LINES_CLEARED.ordinal()] = lines;
+        clearedRows = cleared;
+    }
+
+    /**
+     * @return the hash of the board left by the placement passed to the last {@link #evaluate} call;
+     *         the same as {@link #getBaseHash()} after loading that board.
+     */
+    public long getHash() {
+        if (clearedRows == 0) {
+            long hash = baseHash;
+            for (int i = 0; i < placedCount; i++) {
+                int r = placedRows[i];
+                hash ^= rowHash(r, rowMask[r]) ^ rowHash(r, placedMasks[i]);
+            }
+            return hash;
+        }
+        long hash = 0;
+        int shift = 0;
+        for (int r = height - 1; r >= 0; r--) {
+            if ((clearedRows & 1 << (height - 1 - r)) != 0) {
+                shift++;
+                continue;
+            }
+            int mask = rowMask[r];
+            for (int i = 0; i < placedCount; i++) {
+                if (placedRows[i] == r) {
+                    mask = placedMasks[i];
+                }
+            }
+            hash ^= rowHash(r + shift, mask);
+        }
+        return hash;
+    }
+
+    /**
+     * @return the hash of the loaded board.
+     */
+    public long getBaseHash() {
+        return baseHash;
+    }
+
+    private static long rowHash(int row, int mask) {
+        if (mask == 0) {
+            return 0;
+        }
+        // SplitMix64 finalizer
+        long z = ((long) row << 32 | mask) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int columnHeight(int column) {
+        return 32 - Integer.numberOfLeadingZeros(column);
+    }
+
+    private int columnTransitions(int column) {
+        // compare every cell with the one below it; the floor counts as filled
+        return Integer.bitCount((column ^ (column << 1 | 1)) & fullColumn);
+    }
+
+    private int rowTransitions(int row) {
+        // pad the row with a filled wall cell on each side
+        int padded = row << 1 | 1 | 1 << (width + 1);
+        return Integer.bitCount((padded ^ padded >>> 1) & ((1 << (width + 1)) - 1));
+    }
+
+    /** Sum of |h[c] - h[c + 1]| for c in [from, to]. */
+    private static int bumpiness(int[] h, int from, int to) {
+        int sum = 0;
+        for (int c = from; c <= to; c++) {
+            sum += Math.abs(h[c] - h[c + 1]);
+        }
+        return sum;
+    }
+
+    /** Cumulative well depth of the columns in [from, to]. */
+    private int wells(int[] h, int from, int to) {
+        int sum = 0;
+        for (int c = from; c <= to; c++) {
+            int left = c == 0 ? Integer.MAX_VALUE : h[c - 1];
+            int right = c == width - 1 ? Integer.MAX_VALUE : h[c + 1];
+            int depth = Math.min(left, right) - h[c];
+            if (depth > 0) {
+                sum += depth * (depth + 1) / 2;
+            }
+        }
+        return sum;
+    }
+}
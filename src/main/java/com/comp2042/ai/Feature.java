@@ -0,0 +1,74 @@
+package com.comp2042.ai;
+
+/**
+ * The board features a heuristic bot weighs when it compares placements.
+ * <p>
+ * Each feature describes the board <i>after</i> a placement (and its line clears). A weight vector is
+ * a {@code double[]} indexed by {@link #ordinal()}; the score of a placement is the weighted sum of its
+ * features, and the bot picks the highest score. Most weights are therefore negative ("less is
+ * better"), except for lines cleared.
+ * </p>
+ * <p>
+ * <b>Defaults:</b> The default weights come from well-known hand-tuned and evolved players for
+ * standard Tetris, rescaled to one another, and clear lines steadily without ever planning ahead.
+ * </p>
+ */
+public enum Feature {
+
+    /** Sum of all column heights. */
+    AGGREGATE_HEIGHT(-0.51),
+
+    /** Empty cells with at least one filled cell above them in the same column. */
+    HOLES(-0.36),
+
+    /** Sum of the height differences between neighbouring columns. */
+    BUMPINESS(-0.18),
+
+    /**
+     * Cumulative well depth: a column that is {@code d} rows lower than both neighbours (walls count
+     * as infinitely high) adds {@code 1 + 2 + ... + d}.
+     */
+    WELLS(-0.12),
+
+    /** Changes between filled and empty cells along each row, with the walls counted as filled. */
+    ROW_TRANSITIONS(-0.11),
+
+    /** Changes between filled and empty cells up each column, with the floor counted as filled. */
+    COLUMN_TRANSITIONS(-0.34),
+
+    /** Lines cleared by the placement. */
+    LINES_CLEARED(0.76);
+
+    private static final Feature[] VALUES = values();
+
+    private final double defaultWeight;
+
+    Feature(double defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+
+    /**
+     * @return the weight of this feature in {@link #defaultWeights()}.
+     */
+    public double getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    /**
+     * @return a new weight vector holding every feature's default weight.
+     */
+    public static double[] defaultWeights() {
+        double[] weights = new double[VALUES.length];
+        for (Feature feature : VALUES) {
+            weights[feature.ordinal()] = feature.defaultWeight;
+        }
+        return weights;
+    }
+
+    /**
+     * @return the number of features, i.e. the length of a weight vector.
+     */
+    public static int count() {
+        return VALUES.length;
+    }
+}
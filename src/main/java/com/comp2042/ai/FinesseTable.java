@@ -0,0 +1,341 @@
+package com.comp2042.ai;
+
+import com.comp2042.logic.WallKicks;
+import com.comp2042.util.GameConfiguration;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Knows the fewest key presses that put a brick into a given placement, so a player's inputs can be
+ * judged ("finesse").
+ * <p>
+ * <b>What a key press is:</b> One press of a key, however long it is held. Holding Left or Right
+ * slides the brick to the wall or the first block through key repeat (DAS), so a held move counts
+ * once, like a tap. The same goes for a held Down, which soft drops to the floor. There is only one
+ * rotate key, so a brick that has to point the other way needs three rotations. The hard drop that
+ * locks the brick is not counted.
+ * </p>
+ * <p>
+ * <b>Table:</b> Finesse is defined on an empty surface: where a brick spawns and drops straight
+ * down, only its rotation and column matter. For every brick, rotation and column, the shortest
+ * input sequence from the spawn position is found once with a breadth-first search over an empty
+ * board when the table is built. Looking it up while playing is a single array access.
+ * </p>
+ * <p>
+ * <b>Search fallback:</b> The table is only valid when nothing gets in the brick's way: the spawn
+ * rows are empty, and the placement is where a plain drop from there lands. Anything else (a stack
+ * reaching the spawn rows, a tuck under an overhang, a spin) is answered with the same breadth-first
+ * search over the actual board, this time with soft drops, which costs a few thousand states at
+ * most.
+ * </p>
+ * <p>
+ * A table's search buffers are reused, so it is not thread-safe: use one per thread.
+ * </p>
+ */
+public final class FinesseTable {
+
+    /**
+     * A key press, as counted for finesse.
+     */
+    public enum Key {
+        /** Tap Left: one column left. */
+        LEFT,
+        /** Tap Right: one column right. */
+        RIGHT,
+        /** Hold Left: slide left as far as the brick goes. */
+        DAS_LEFT,
+        /** Hold Right: slide right as far as the brick goes. */
+        DAS_RIGHT,
+        /** Rotate once, with wall kicks. */
+        ROTATE,
+        /** Hold Down: soft drop to the floor. */
+        SOFT_DROP
+    }
+
+    /** Shapes are 4x4 matrices, so a brick's origin can sit up to 3 cells left of (or above) the board. */
+    private static final int BIAS = 3;
+    private static final int MAX_ROTATIONS = 4;
+    private static final int SHAPE_SIZE = 4;
+    private static final Key[] KEYS = Key.values();
+
+    private final int width;
+    private final int height;
+    private final int columns; // x offsets, biased
+    private final int rows;    // y offsets, biased
+    private final int spawnX;
+
+    /** Per brick ID, per rotation, per biased column: the fewest presses on an empty board, or -1. */
+    private final int[][][] presses = new int[8][][];
+    /** The same, with the keys themselves. */
+    private final List<Key>[][][] sequences;
+
+    private final long[] walls;
+    private final int[] queue;
+    private final int[] parent;
+    private final byte[] move;
+    private final int[] cost;
+    private int reached;
+
+    /**
+     * Creates a table for the standard board size.
+     */
+    public FinesseTable() {
+        this(GameConfiguration.BOARD_WIDTH, GameConfiguration.BOARD_HEIGHT);
+    }
+
+    /**
+     * Creates a table for boards of the given size, and fills it for every brick.
+     *
+     * @param width the number of columns (at most 32).
+     * @param height the number of rows (at least 4).
+     * @throws IllegalArgumentException if the size is not supported.
+     */
+    public FinesseTable(int width, int height) {
+        if (width <= 0 || width > 32 || height < SHAPE_SIZE) {
+            throw new IllegalArgumentException("Unsupported board size " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.columns = width + BIAS;
+        this.rows = height + BIAS;
+        this.spawnX = width / 2 - GameConfiguration.SPAWN_X_OFFSET;
+
+        int states = MAX_ROTATIONS * rows * columns;
+        walls = new long[rows + SHAPE_SIZE];
+        queue = new int[states];
+        parent = new int[states];
+        move = new byte[states];
+        cost = new int[states];
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        List<Key>[][][] byBrick = new List[presses.length][][];
+        sequences = byBrick;
+        int[][] empty = new int[height][width];
+        for (int id = 1; id < presses.length; id++) {
+            int rotations = PlacementEnumerator.rotationCount(id);
+            presses[id] = new int[rotations][columns];
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            List<Key>[][] byRotation = new List[rotations][columns];
+            sequences[id] = byRotation;
+            for (int[] row : presses[id]) {
+                Arrays.fill(row, -1);
+            }
+            search(empty, id, 0, spawnX, 0, false);
+            for (int i = 0; i < reached; i++) {
+                int s = queue[i];
+                int r = rotationOf(s);
+                int bx = s % columns;
+                if (presses[id][r][bx] < 0) {
+                    presses[id][r][bx] = cost[s];
+                    sequences[id][r][bx] = Collections.unmodifiableList(Arrays.asList(pathTo(s)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Looks up the fewest presses for a placement on an empty surface.
+     *
+     * @param brickId the brick type ID.
+     * @param rotation the rotation the brick locks in.
+     * @param x the column of its shape matrix.
+     * @return the number of presses, or -1 if no brick gets there.
+     * @throws IllegalArgumentException if the brick or rotation is unknown.
+     */
+    public int optimalPresses(int brickId, int rotation, int x) {
+        int[] row = table(brickId, rotation);
+        int bx = x + BIAS;
+        return bx >= 0 && bx < columns ? row[bx] : -1;
+    }
+
+    /**
+     * Looks up the key presses behind {@link #optimalPresses}.
+     *
+     * @param brickId the brick type ID.
+     * @param rotation the rotation the brick locks in.
+     * @param x the column of its shape matrix.
+     * @return the presses in order (without the hard drop), or {@code null} if no brick gets there.
+     * @throws IllegalArgumentException if the brick or rotation is unknown.
+     */
+    public List<Key> optimalSequence(int brickId, int rotation, int x) {
+        table(brickId, rotation);
+        int bx = x + BIAS;
+        return bx >= 0 && bx < columns ? sequences[brickId][rotation][bx] : null;
+    }
+
+    private int[] table(int brickId, int rotation) {
+        if (brickId <= 0 || brickId >= presses.length || rotation < 0 || rotation >= presses[brickId].length) {
+            throw new IllegalArgumentException("Unknown brick " + brickId + " rotation " + rotation);
+        }
+        return presses[brickId][rotation];
+    }
+
+    /**
+     * Finds the fewest presses that lock a newly spawned brick in the given placement on a real board:
+     * from the table when the board does not get in the way, by searching otherwise.
+     *
+     * @param board the locked blocks (0 is empty), before the brick locks.
+     * @param brickId the brick type ID.
+     * @param rotation the rotation the brick locks in.
+     * @param x the column of its shape matrix.
+     * @param y the row of its shape matrix.
+     * @return the number of presses, or -1 if the placement cannot be reached from the spawn position.
+     * @throws IllegalArgumentException if the board size, brick or rotation does not match.
+     */
+    public int optimalPresses(int[][] board, int brickId, int rotation, int x, int y) {
+        if (board.length != height || board[0].length != width) {
+            throw new IllegalArgumentException("Board is " + board[0].length + "x" + board.length
+                    + ", expected " + width + "x" + height);
+        }
+        int fromTable = optimalPresses(brickId, rotation, x);
+        buildWalls(board);
+        if (fromTable >= 0 && spawnRowsEmpty(board) && dropRow(brickId, rotation, BIAS, x + BIAS) == y + BIAS) {
+            return fromTable;
+        }
+
+        search(board, brickId, 0, spawnX, 0, true);
+        for (int i = 0; i < reached; i++) {
+            int s = queue[i];
+            if (s % columns == x + BIAS && rotationOf(s) == rotation
+                    && dropRow(brickId, rotation, s / columns % rows, x + BIAS) == y + BIAS) {
+                return cost[s];
+            }
+        }
+        return -1;
+    }
+
+    private boolean spawnRowsEmpty(int[][] board) {
+        for (int r = 0; r < SHAPE_SIZE; r++) {
+            for (int cell : board[r]) {
+                if (cell != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void buildWalls(int[][] board) {
+        long outside = ~((1L << columns) - 1) | ((1L << BIAS) - 1);
+        Arrays.fill(walls, -1L);
+        for (int y = 0; y < height; y++) {
+            long row = outside;
+            for (int c = 0; c < width; c++) {
+                if (board[y][c] != 0) {
+                    row |= 1L << (c + BIAS);
+                }
+            }
+            walls[y + BIAS] = row;
+        }
+    }
+
+    private boolean fits(int brickId, int rotation, int by, int bx) {
+        if (bx < 0 || bx >= columns || by < 0 || by >= rows) {
+            return false;
+        }
+        int[] shape = PlacementEnumerator.shapeRows(brickId, rotation);
+        for (int i = 0; i < shape.length; i++) {
+            if ((walls[by + i] >>> bx & shape[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int dropRow(int brickId, int rotation, int by, int bx) {
+        if (!fits(brickId, rotation, by, bx)) {
+            return -1;
+        }
+        while (fits(brickId, rotation, by + 1, bx)) {
+            by++;
+        }
+        return by;
+    }
+
+    private int state(int rotation, int by, int bx) {
+        return (rotation * rows + by) * columns + bx;
+    }
+
+    private int rotationOf(int s) {
+        return s / (columns * rows);
+    }
+
+    /**
+     * Breadth-first search over {@code (rotation, y, x)} from a start position, one press per edge.
+     * Leaves the {@code reached} states in {@code queue}, in order of cost.
+     */
+    private void search(int[][] board, int brickId, int rotation, int x, int y, boolean softDrops) {
+        buildWalls(board);
+        Arrays.fill(cost, -1);
+        reached = 0;
+        int start = state(rotation, y + BIAS, x + BIAS);
+        if (!fits(brickId, rotation, y + BIAS, x + BIAS)) {
+            return;
+        }
+        int rotations = PlacementEnumerator.rotationCount(brickId);
+        queue[reached++] = start;
+        cost[start] = 0;
+        parent[start] = -1;
+
+        for (int head = 0; head < reached; head++) {
+            int s = queue[head];
+            int bx = s % columns;
+            int by = s / columns % rows;
+            int r = rotationOf(s);
+
+            if (fits(brickId, r, by, bx - 1)) {
+                visit(s, state(r, by, bx - 1), Key.LEFT);
+                int slide = bx - 1;
+                while (fits(brickId, r, by, slide - 1)) {
+                    slide--;
+                }
+                visit(s, state(r, by, slide), Key.DAS_LEFT);
+            }
+            if (fits(brickId, r, by, bx + 1)) {
+                visit(s, state(r, by, bx + 1), Key.RIGHT);
+                int slide = bx + 1;
+                while (fits(brickId, r, by, slide + 1)) {
+                    slide++;
+                }
+                visit(s, state(r, by, slide), Key.DAS_RIGHT);
+            }
+            if (rotations > 1) {
+                int next = (r + 1) % rotations;
+                for (int kick = 0; kick < WallKicks.count(brickId); kick++) {
+                    int kx = bx + WallKicks.dx(brickId, kick);
+                    int ky = by + WallKicks.dy(brickId, kick);
+                    if (fits(brickId, next, ky, kx)) {
+                        visit(s, state(next, ky, kx), Key.ROTATE);
+                        break;
+                    }
+                }
+            }
+            if (softDrops) {
+                int floor = dropRow(brickId, r, by, bx);
+                if (floor > by) {
+                    visit(s, state(r, floor, bx), Key.SOFT_DROP);
+                }
+            }
+        }
+    }
+
+    private void visit(int from, int to, Key key) {
+        if (cost[to] >= 0) {
+            return;
+        }
+        cost[to] = cost[from] + 1;
+        parent[to] = from;
+        move[to] = (byte) key.ordinal();
+        queue[reached++] = to;
+    }
+
+    private Key[] pathTo(int s) {
+        Key[] path = new Key[cost[s]];
+        for (int i = path.length; parent[s] >= 0; s = parent[s]) {
+            path[--i] = KEYS[move[s]];
+        }
+        return path;
+    }
+}
@@ -0,0 +1,119 @@
+package com.comp2042.ai;
+
+import com.comp2042.model.PersistentGrid;
+import com.comp2042.util.GameConfiguration;
+
+/**
+ * Picks a placement for the current brick by scoring every reachable placement with weighted
+ * {@link Feature}s.
+ * <p>
+ * <b>Decision:</b> The {@link PlacementEnumerator} lists where the brick can lock (including tucks and
+ * kicks), {@link BoardFeatures} scores the board each placement would leave behind, and the highest
+ * score wins. Ties go to the placement found first, which is the one with the shortest input path.
+ * The bot looks at the current brick only; it never holds and never plans for the next brick
+ * (see {@link BeamSearchBot} for that).
+ * </p>
+ * <p>
+ * After {@link #choose}, the enumerator still holds the chosen placement's path, so callers read the
+ * inputs from {@link #getEnumerator()}. One bot per thread.
+ * </p>
+ */
+public final class HeuristicBot implements PlacementPlanner {
+
+    private final PlacementEnumerator enumerator;
+    private final BoardFeatures features;
+    private final double[] weights;
+
+    /**
+     * Creates a bot with the {@link Feature#defaultWeights() default weights}.
+     */
+    public HeuristicBot() {
+        this(Feature.defaultWeights());
+    }
+
+    /**
+     * Creates a bot with custom weights for the standard board size.
+     *
+     * @param weights one weight per {@link Feature}, by ordinal; copied.
+     * @throws IllegalArgumentException if the number of weights is wrong.
+     */
+    public HeuristicBot(double[] weights) {
+        if (weights.length != Feature.count()) {
+            throw new IllegalArgumentException("Expected " + Feature.count() + " weights, got " + weights.length);
+        }
+        this.weights = weights.clone();
+        this.enumerator = new PlacementEnumerator();
+        this.features = new BoardFeatures(GameConfiguration.BOARD_WIDTH, GameConfiguration.BOARD_HEIGHT);
+    }
+
+    /**
+     * Chooses a placement for a newly spawned brick.
+     *
+     * @param grid the locked blocks.
+     * @param brickId the brick type ID.
+     * @return the index of the chosen placement in {@link #getEnumerator()}, or -1 if there is none.
+     */
+    public int choose(PersistentGrid grid, int brickId) {
+        return pickBest(grid.rows(), enumerator.enumerate(grid, brickId));
+    }
+
+    /**
+     * Chooses a placement for a brick that may already have moved.
+     *
+     * @param board the locked blocks.
+     * @param brickId the brick type ID.
+     * @param rotation the brick's current rotation.
+     * @param x the column of the brick's shape matrix.
+     * @param y the row of the brick's shape matrix.
+     * @return the index of the chosen placement in {@link #getEnumerator()}, or -1 if there is none.
+     */
+    public int choose(int[][] board, int brickId, int rotation, int x, int y) {
+        return pickBest(board, enumerator.enumerate(board, brickId, rotation, x, y));
+    }
+
+    /**
+     * Plans the falling brick greedily; the hold slot and the preview are ignored.
+     */
+    @Override
+    public Plan plan(int[][] board, int brickId, int rotation, int x, int y, int heldId, boolean canHold,
+                     int[] preview) {
+        int index = choose(board, brickId, rotation, x, y);
+        if (index < 0) {
+            return null;
+        }
+        return new Plan(false, brickId, enumerator.getRotation(index), enumerator.getX(index), enumerator.getY(index));
+    }
+
+    private int pickBest(int[][] board, int count) {
+        if (count == 0) {
+            return -1;
+        }
+        features.load(board);
+        int brickId = enumerator.getBrickId();
+        int best = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            double score = features.evaluate(brickId, enumerator.getRotation(i), enumerator.getX(i),
+                    enumerator.getY(i), weights);
+            if (score > bestScore) {
+                bestScore = score;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return the enumerator holding the placements (and paths) of the last decision.
+     */
+    public PlacementEnumerator getEnumerator() {
+        return enumerator;
+    }
+
+    /**
+     * @return a copy of this bot's weights.
+     */
+    public double[] getWeights() {
+        return weights.clone();
+    }
+}
@@ -0,0 +1,338 @@
+package com.comp2042.ai;
+
+import com.comp2042.logic.InputEventListener;
+import com.comp2042.logic.bricks.BrickTypes;
+import com.comp2042.model.GameObserver;
+import com.comp2042.model.ViewData;
+import com.comp2042.util.GameConfiguration;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Searches for a good placement of the falling brick in the background, so the UI can show it as a hint
+ * without ever waiting for the search.
+ * <p>
+ * <b>When it searches:</b> The service is a {@link GameObserver}. Whenever the locked blocks change or a
+ * different brick starts falling (a spawn, or a hold), it copies the board and the preview on the
+ * observer's thread and hands the copy to a single background thread. Moving or rotating the brick does
+ * not restart the search: the hint is where the brick should end up, not how to get there.
+ * </p>
+ * <p>
+ * <b>Cancellation:</b> Each request gets a new version number. Starting a new request makes every
+ * older one stale at once: its task is cancelled (which interrupts it, and {@link BeamSearchBot} gives
+ * up between levels), a stale search never publishes, and the listener is told with {@code null} that
+ * the hint on screen no longer applies. Because results cross threads, a hint can still arrive just
+ * after it went stale, so the receiver checks {@link #isCurrent} on its own thread before drawing.
+ * </p>
+ * <p>
+ * <b>Time budget:</b> The search deepens one brick of lookahead at a time (depth 1 is the greedy
+ * choice and takes well under a millisecond), publishing each result as soon as it is found, and stops
+ * deepening once the budget is spent or the preview runs out. So a hint appears almost immediately and
+ * improves while the player looks at it. Hints never suggest a hold.
+ * </p>
+ */
+public final class HintService implements GameObserver, AutoCloseable {
+
+    private final InputEventListener game;
+    private final Consumer<Hint> listener;
+    private final long budgetNanos;
+    private final BeamSearchBot[] bots;
+    private final ExecutorService executor;
+
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong searches = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+
+    // observer-thread state: what the running search is for
+    private boolean enabled = true;
+    private boolean boardChanged = true;
+    private int searchedBrick;
+    private int searchedHeld;
+    private Future<?> running;
+
+    /**
+     * Creates a service with the default budget and search size.
+     *
+     * @param game gives access to the locked blocks; usually the game controller.
+     * @param listener receives each hint on the search thread, and {@code null} when the current hint
+     *                 goes stale.
+     */
+    public HintService(InputEventListener game, Consumer<Hint> listener) {
+        this(game, listener, GameConfiguration.HINT_BUDGET_MILLIS, GameConfiguration.PREVIEW_COUNT + 1,
+                GameConfiguration.BOT_BEAM_WIDTH);
+    }
+
+    /**
+     * Creates a service.
+     *
+     * @param game gives access to the locked blocks; usually the game controller.
+     * @param listener receives each hint on the search thread, and {@code null} when the current hint
+     *                 goes stale.
+     * @param budgetMillis how long a request may keep deepening its search, in milliseconds.
+     * @param maxDepth the deepest lookahead tried, counting the falling brick.
+     * @param beamWidth the beam width of the deeper searches.
+     * @throws IllegalArgumentException if the budget is negative or the depth or width not positive.
+     */
+    public HintService(InputEventListener game, Consumer<Hint> listener, long budgetMillis, int maxDepth,
+                       int beamWidth) {
+        if (budgetMillis < 0 || maxDepth <= 0 || beamWidth <= 0) {
+            throw new IllegalArgumentException("Invalid hint search: " + budgetMillis + " ms, depth " + maxDepth
+                    + ", width " + beamWidth);
+        }
+        this.game = game;
+        this.listener = listener;
+        this.budgetNanos = budgetMillis * 1_000_000L;
+        this.bots = new BeamSearchBot[maxDepth];
+        for (int d = 0; d < maxDepth; d++) {
+            bots[d] = new BeamSearchBot(d + 1, beamWidth, Feature.defaultWeights(), ForkJoinPool.commonPool());
+        }
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hint-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Switches hints on or off, e.g. when the game mode changes. Switching off drops the current hint.
+     *
+     * @param enabled whether to search for hints.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        invalidate();
+    }
+
+    /**
+     * @return whether hints are searched for.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param hint a hint received by the listener, or null.
+     * @return whether it still describes the falling brick on the current board.
+     */
+    public boolean isCurrent(Hint hint) {
+        return hint != null && hint.version == version.get();
+    }
+
+    /**
+     * @return the number of searches started.
+     */
+    public long getSearchCount() {
+        return searches.get();
+    }
+
+    /**
+     * @return the number of searches abandoned before they finished.
+     */
+    public long getCancelledCount() {
+        return cancelled.get();
+    }
+
+    /**
+     * @return the number of hints handed to the listener.
+     */
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    /**
+     * Stops the search thread. The service does nothing afterwards.
+     */
+    @Override
+    public void close() {
+        enabled = false;
+        version.incrementAndGet();
+        executor.shutdownNow();
+    }
+
+    /** Makes the current hint (and any search for it) stale, and asks for a fresh search next time. */
+    private void invalidate() {
+        version.incrementAndGet();
+        boardChanged = true;
+        cancelRunning();
+        listener.accept(null);
+    }
+
+    private void cancelRunning() {
+        if (running != null && running.cancel(true)) {
+            cancelled.incrementAndGet();
+        }
+        running = null;
+    }
+
+    private void request(ViewData view, int brickId, int held) {
+        int rotation = PlacementEnumerator.rotationOf(brickId, view.getBrickData());
+        if (rotation < 0) {
+            return;
+        }
+        int[][] board = copy(game.getBoard());
+        int[] preview = previewOf(view);
+        int x = view.getxPosition();
+        int y = view.getyPosition();
+        long requested = version.incrementAndGet();
+        cancelRunning();
+        listener.accept(null);
+        boardChanged = false;
+        searchedBrick = brickId;
+        searchedHeld = held;
+        searches.incrementAndGet();
+        running = executor.submit(() -> search(requested, board, brickId, rotation, x, y, preview));
+    }
+
+    /** Runs on the search thread: deepens until the budget is spent, publishing every result. */
+    private void search(long requested, int[][] board, int brickId, int rotation, int x, int y, int[] preview) {
+        long start = System.nanoTime();
+        int deepest = Math.min(bots.length, preview.length + 1);
+        for (int depth = 1; depth <= deepest; depth++) {
+            if (version.get() != requested || Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            Plan plan = bots[depth - 1].plan(board, brickId, rotation, x, y, BrickTypes.NONE, false, preview);
+            if (plan == null || version.get() != requested) {
+                return; // no placement at all, or superseded while searching
+            }
+            published.incrementAndGet();
+            listener.accept(new Hint(requested, plan, depth, System.nanoTime() - start));
+            if (System.nanoTime() - start >= budgetNanos) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Restarts the search when a different brick is falling (a spawn or a hold), or the board changed.
+     */
+    @Override
+    public void onBoardUpdated(ViewData viewData) {
+        if (!enabled) {
+            return;
+        }
+        int brickId = brickIdOf(viewData.getBrickData());
+        int held = brickIdOf(viewData.getHoldBrickData());
+        if (boardChanged || brickId != searchedBrick || held != searchedHeld) {
+            request(viewData, brickId, held);
+        }
+    }
+
+    /**
+     * The locked blocks changed (a lock, a new game, an undo): the current hint is stale.
+     */
+    @Override
+    public void onGameBackgroundUpdated(int[][] boardMatrix) {
+        if (enabled) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void onGameOver() {
+        if (enabled) {
+            invalidate();
+        }
+    }
+
+    @Override public void onScoreUpdated(int score) {}
+    @Override public void onLevelUpdated(int level) {}
+    @Override public void onLineCleared(int lines, String message) {}
+    @Override public void onBrickDropped() {}
+    @Override public void onDangerStateChanged(boolean isDanger) {}
+
+    private static int[][] copy(int[][] board) {
+        int[][] copy = new int[board.length][];
+        for (int r = 0; r < board.length; r++) {
+            copy[r] = board[r].clone();
+        }
+        return copy;
+    }
+
+    private static int[] previewOf(ViewData view) {
+        List<int[][]> shapes = view.getUpcomingBricksData();
+        int[] preview = new int[shapes.size()];
+        for (int i = 0; i < preview.length; i++) {
+            preview[i] = brickIdOf(shapes.get(i));
+        }
+        return preview;
+    }
+
+    private static int brickIdOf(int[][] shape) {
+        for (int[] row : shape) {
+            for (int value : row) {
+                if (value != 0) {
+                    return value;
+                }
+            }
+        }
+        return BrickTypes.NONE;
+    }
+
+    /**
+     * A suggested placement for the falling brick.
+     */
+    public static final class Hint {
+
+        private final long version;
+        private final Plan plan;
+        private final int depth;
+        private final long elapsedNanos;
+
+        private Hint(long version, Plan plan, int depth, long elapsedNanos) {
+            this.version = version;
+            this.plan = plan;
+            this.depth = depth;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * @return where the brick should lock; never a hold.
+         */
+        public Plan getPlan() {
+            return plan;
+        }
+
+        /**
+         * @return the lookahead behind this hint, counting the falling brick.
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * @return the time from the request to this hint, in nanoseconds.
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * @return the brick in its locking rotation as a 4x4 shape matrix (cells hold the brick ID), to
+         *         be drawn with its top-left corner at {@link Plan#getX()}, {@link Plan#getY()}.
+         */
+        public int[][] getShape() {
+            int size = GameConfiguration.BRICK_MATRIX_SIZE;
+            int[][] shape = new int[size][size];
+            int[] rows = PlacementEnumerator.shapeRows(plan.getBrickId(), plan.getRotation());
+            for (int i = 0; i < rows.length; i++) {
+                for (int m = rows[i]; m != 0; m &= m - 1) {
+                    shape[i][Integer.numberOfTrailingZeros(m)] = plan.getBrickId();
+                }
+            }
+            return shape;
+        }
+
+        @Override
+        public String toString() {
+            return "Hint[" + plan + ", depth " + depth + ", " + elapsedNanos / 1_000 + " us]";
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.comp2042.ai;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What {@link PerfectClearSolver} found for one position: the placements that empty the board, or why
+ * there are none.
+ * <p>
+ * The placements are in playing order, one per locked brick; a placement with {@link Plan#isHold()}
+ * set is played by holding first. The last one clears the final line and leaves the board empty.
+ * </p>
+ */
+public final class PerfectClearResult {
+
+    /**
+     * How a search ended.
+     */
+    public enum Status {
+
+        /** A perfect clear was found. */
+        FOUND,
+
+        /** Every line height up to the limit was searched through: the known bricks cannot clear the board. */
+        IMPOSSIBLE,
+
+        /** The time limit ran out before a perfect clear was found or ruled out. */
+        TIMED_OUT
+    }
+
+    private final Status status;
+    private final List<Plan> placements;
+    private final int lines;
+    private final long nodes;
+    private final long elapsedNanos;
+
+    /**
+     * @param status how the search ended.
+     * @param placements the placements in playing order; empty unless found.
+     * @param lines the number of lines the perfect clear takes; 0 unless found.
+     * @param nodes the number of search nodes visited.
+     * @param elapsedNanos the wall time the search took.
+     */
+    public PerfectClearResult(Status status, List<Plan> placements, int lines, long nodes, long elapsedNanos) {
+        this.status = status;
+        this.placements = Collections.unmodifiableList(placements);
+        this.lines = lines;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return how the search ended.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return whether a perfect clear was found.
+     */
+    public boolean isFound() {
+        return status == Status.FOUND;
+    }
+
+    /**
+     * @return the placements in playing order; empty unless found.
+     */
+    public List<Plan> getPlacements() {
+        return placements;
+    }
+
+    /**
+     * @return the number of lines the perfect clear takes (the height the stack is built to); 0 unless found.
+     */
+    public int getLines() {
+        return lines;
+    }
+
+    /**
+     * @return the number of search nodes visited, over all threads.
+     */
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    /**
+     * @return the wall time the search took, in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "PerfectClear[" + status + (isFound() ? ", " + lines + " lines, " + placements : "")
+                + ", " + nodes + " nodes, " + elapsedNanos / 1_000_000 + " ms]";
+    }
+}
@@ -0,0 +1,601 @@
+package com.comp2042.ai;
+
+import com.comp2042.ai.PerfectClearResult.Status;
+import com.comp2042.util.GameConfiguration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Searches for a perfect clear: a sequence of placements of the known bricks (the falling one, the held
+ * one and the preview) after which the board is completely empty.
+ * <p>
+ * <b>Search:</b> A perfect clear fills the bottom {@code h} lines exactly, so the solver picks a line
+ * height first (the lowest that can work, then higher ones, up to the limit) and runs a depth-first
+ * search in which no brick may stick out above it. Every node tries the falling brick and, when the
+ * hold slot allows it, the other one, in all reachable positions found by {@link PlacementEnumerator};
+ * a line clear lowers the ceiling with the stack. Placements that cover the same cells are tried once,
+ * the deepest first, and since everything above the ceiling is empty, they are enumerated on a window
+ * of the rows under it plus room to turn a brick rather than on the whole board. The first placement
+ * sequence that empties the board is the answer.
+ * </p>
+ * <p>
+ * <b>Pruning:</b> Before a node is expanded it must pass two cheap tests that hold for every position a
+ * perfect clear can go through. <i>Cell count:</i> the empty cells under the ceiling come in fours,
+ * one brick each, and there must be enough bricks left to fill them. A height whose cell count is not
+ * a multiple of four is never searched. <i>Parity:</i> colour the columns alternately; every brick
+ * covers two cells of each colour except a vertical I (four of one), a vertical T and an L or J in any
+ * rotation (three and one), and a cleared line has five of each. So the difference between the empty cells of the two
+ * colours must be made up by the I, T, L and J bricks still to come. (The usual checkerboard colouring
+ * does not survive line clears, which shift the rows above by one; columns never shift.)
+ * </p>
+ * <p>
+ * <b>Memo:</b> Many orders of the same placements reach the same board with the same bricks to come.
+ * A node whose search comes back empty-handed is stored by a hash of its board, its bricks and its
+ * ceiling in a shared {@link TranspositionTable}, and every thread skips it from then on. Only
+ * exhausted nodes are stored, never ones given up for time, so a hit is always a real dead end.
+ * </p>
+ * <p>
+ * <b>Parallelism:</b> The placements of the first brick are the branches. They are searched as
+ * separate tasks on a {@link ForkJoinPool}, each with its own enumerator and boards. The answer is the
+ * solution of the lowest-numbered branch that has one, and a branch stops as soon as a lower one has
+ * succeeded, so without a time-out the result does not depend on the number of threads. Once the time
+ * limit passes every task gives up, and the search reports a time-out unless some branch has already
+ * found a solution. A zero limit means none, as with the {@link RolloutEvaluator} budget.
+ * </p>
+ * <p>
+ * One search at a time per instance; the pool may be shared.
+ * </p>
+ */
+public final class PerfectClearSolver {
+
+    private static final int SPAWN_X = GameConfiguration.BOARD_WIDTH / 2 - GameConfiguration.SPAWN_X_OFFSET;
+    private static final int I_BRICK = 1;
+    private static final int J_BRICK = 2;
+    private static final int L_BRICK = 3;
+    private static final int T_BRICK = 6;
+
+    /** Empty rows kept above the ceiling when enumerating: enough for any rotation of a brick. */
+    private static final int WINDOW_MARGIN = 4;
+
+    /** Memo entries: a few million dead ends fit, far more than a search gets to within its time limit. */
+    private static final int MEMO_CAPACITY = 1 << 20;
+
+    private static final int FOUND = 0;
+    private static final int DEAD = 1;
+    private static final int ABORTED = 2;
+
+    private final int maxLines;
+    private final long timeLimitNanos;
+    private final ForkJoinPool pool;
+    private final TranspositionTable memo = new TranspositionTable(MEMO_CAPACITY,
+            TranspositionTable.Replacement.ALWAYS);
+    private final ConcurrentLinkedQueue<Scratch> scratch = new ConcurrentLinkedQueue<>();
+
+    // the search in progress, read by the tasks
+    private int[] preview;
+    private long deadline;
+    private volatile boolean timedOut;
+    private final AtomicInteger solvedBranch = new AtomicInteger();
+    private final LongAdder nodes = new LongAdder();
+    private List<Plan>[] solutions;
+
+    /**
+     * Creates a solver with the default line limit and time limit, searching on the common pool.
+     */
+    public PerfectClearSolver() {
+        this(GameConfiguration.PC_MAX_LINES, Duration.ofMillis(GameConfiguration.PC_TIME_LIMIT_MILLIS),
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a solver.
+     *
+     * @param maxLines the highest perfect clear tried, in lines.
+     * @param timeLimit how long a search may take before it gives up; zero for no limit.
+     * @param pool the pool that searches the branches.
+     * @throws IllegalArgumentException if the line limit is not positive or does not fit the board, or
+     *                                  the time limit is negative.
+     */
+    public PerfectClearSolver(int maxLines, Duration timeLimit, ForkJoinPool pool) {
+        if (maxLines <= 0 || maxLines > GameConfiguration.BOARD_HEIGHT) {
+            throw new IllegalArgumentException("Line limit must be between 1 and the board height: " + maxLines);
+        }
+        if (timeLimit.isNegative()) {
+            throw new IllegalArgumentException("Time limit must not be negative: " + timeLimit);
+        }
+        this.maxLines = maxLines;
+        this.timeLimitNanos = timeLimit.toNanos();
+        this.pool = pool;
+    }
+
+    /**
+     * Searches for a perfect clear from a position.
+     *
+     * @param board the locked blocks (0 is empty).
+     * @param brickId the falling brick.
+     * @param rotation its current rotation index.
+     * @param x the column of its shape matrix.
+     * @param y the row of its shape matrix.
+     * @param heldId the brick in the hold slot, or {@link com.comp2042.logic.bricks.BrickTypes#NONE}.
+     * @param canHold whether the falling brick may still be swapped with the hold slot.
+     * @param preview the bricks known to come next, in order.
+     * @return the placements that empty the board, or why there are none.
+     * @throws IllegalArgumentException if a brick is unknown.
+     */
+    public PerfectClearResult solve(int[][] board, int brickId, int rotation, int x, int y, int heldId,
+                                    boolean canHold, int[] preview) {
+        long began = System.nanoTime();
+        checkBrick(brickId);
+        if (heldId != 0) {
+            checkBrick(heldId);
+        }
+        for (int id : preview) {
+            checkBrick(id);
+        }
+        this.preview = preview.clone();
+        this.deadline = timeLimitNanos > 0 ? began + timeLimitNanos : 0;
+        this.timedOut = false;
+        nodes.reset();
+        memo.newGeneration();
+
+        int height = board.length;
+        int width = board[0].length;
+        int filled = 0;
+        int stack = 0;
+        for (int r = 0; r < height; r++) {
+            for (int c = 0; c < width; c++) {
+                if (board[r][c] != 0) {
+                    filled++;
+                    stack = Math.max(stack, height - r);
+                }
+            }
+        }
+        int pieces = 1 + (heldId != 0 ? 1 : 0) + preview.length;
+
+        Scratch tools = borrow();
+        try {
+            for (int lines = Math.max(stack, 1); lines <= maxLines; lines++) {
+                int empty = width * lines - filled;
+                if (empty % 4 != 0 || empty / 4 > pieces) {
+                    continue;
+                }
+                List<Plan> solution = solveAt(board, lines, filled, brickId, rotation, x, y, heldId, canHold, tools);
+                if (solution != null) {
+                    return new PerfectClearResult(Status.FOUND, solution, lines, nodes.sum(), System.nanoTime() - began);
+                }
+                if (timedOut) {
+                    return new PerfectClearResult(Status.TIMED_OUT, List.of(), 0, nodes.sum(), System.nanoTime() - began);
+                }
+            }
+        } finally {
+            scratch.offer(tools);
+        }
+        return new PerfectClearResult(Status.IMPOSSIBLE, List.of(), 0, nodes.sum(), System.nanoTime() - began);
+    }
+
+    /** Searches one line height: the root's placements become branches, searched in parallel. */
+    private List<Plan> solveAt(int[][] board, int lines, int filled, int brickId, int rotation, int x, int y,
+                               int heldId, boolean canHold, Scratch tools) {
+        List<Branch> branches = new ArrayList<>();
+        if (feasible(board, lines, filled, brickId, heldId, 0)) {
+            addBranches(branches, tools, board, lines, false, brickId, rotation, x, y, heldId, 0);
+            if (canHold && heldId != brickId) {
+                if (heldId != 0) {
+                    addBranches(branches, tools, board, lines, true, heldId, 0, SPAWN_X, 0, brickId, 0);
+                } else if (preview.length > 0) {
+                    addBranches(branches, tools, board, lines, true, preview[0], 0, SPAWN_X, 0, brickId, 1);
+                }
+            }
+        }
+        if (branches.isEmpty()) {
+            return null;
+        }
+        solvedBranch.set(Integer.MAX_VALUE);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        List<Plan>[] perBranch = new List[branches.size()];
+        solutions = perBranch;
+        pool.invoke(new Branches(branches, board, lines, filled, 0, branches.size()));
+        int best = solvedBranch.get();
+        return best == Integer.MAX_VALUE ? null : solutions[best];
+    }
+
+    private void addBranches(List<Branch> branches, Scratch tools, int[][] board, int lines, boolean hold,
+                             int brickId, int rotation, int x, int y, int heldAfter, int next) {
+        int count = tools.enumerator.enumerate(board, brickId, rotation, x, y);
+        int[] moves = new int[count];
+        int kept = collect(tools, tools.enumerator, brickId, count, board.length - lines, 0, moves);
+        for (int i = 0; i < kept; i++) {
+            int move = moves[i];
+            branches.add(new Branch(new Plan(hold, brickId, rotationOf(move), xOf(move), yOf(move)), heldAfter, next));
+        }
+    }
+
+    /**
+     * Keeps the enumerated placements that stay under the ceiling, once per set of cells (an I or S
+     * standing in two rotations covers the same cells either way), deepest first: filling the bottom
+     * first finds clears sooner.
+     *
+     * @return the number of placements written to {@code moves}.
+     */
+    private static int collect(Scratch tools, PlacementEnumerator enumerator, int brickId, int count, int top,
+                               int offset, int[] moves) {
+        long[] cells = tools.cells(count);
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int r = enumerator.getRotation(i);
+            int px = enumerator.getX(i);
+            int py = enumerator.getY(i) + offset;
+            int[] shape = PlacementEnumerator.shapeRows(brickId, r);
+            int first = topRow(shape);
+            if (py + first < top) {
+                continue;
+            }
+            long key = py + first;
+            for (int row = first; row < shape.length; row++) {
+                long mask = px >= 0 ? (long) shape[row] << px : shape[row] >>> -px;
+                key = key << 10 | mask;
+            }
+            boolean seen = false;
+            for (int k = 0; k < kept && !seen; k++) {
+                seen = cells[k] == key;
+            }
+            if (seen) {
+                continue;
+            }
+            // insertion by depth, after the placements as deep, so the enumeration order breaks ties
+            int move = pack(r, px, py);
+            int depth = py + bottomRow(shape);
+            int k = kept++;
+            while (k > 0 && yOf(moves[k - 1]) + bottomRow(moves[k - 1], brickId) < depth) {
+                moves[k] = moves[k - 1];
+                cells[k] = cells[k - 1];
+                k--;
+            }
+            moves[k] = move;
+            cells[k] = key;
+        }
+        return kept;
+    }
+
+    /**
+     * Searches below one node. The node's board is {@code tools.boards[level]}.
+     *
+     * @return {@link #FOUND} (the path is in {@code tools.path}), {@link #DEAD} or {@link #ABORTED}.
+     */
+    private int search(Scratch tools, int branch, int level, int lines, int filled, int playing, int held,
+                       int next) {
+        if (timedOut || branch > solvedBranch.get()) {
+            return ABORTED;
+        }
+        if (deadline != 0 && System.nanoTime() - deadline > 0) {
+            timedOut = true;
+            return ABORTED;
+        }
+        int[][] board = tools.boards[level];
+        if (playing == 0 || !feasible(board, lines, filled, playing, held, next)) {
+            return DEAD;
+        }
+        long key = key(board, lines, playing, held, next);
+        if (memo.probe(key) != TranspositionTable.MISS) {
+            return DEAD;
+        }
+        tools.nodes++;
+        int outcome = tryBrick(tools, branch, level, lines, filled, false, playing, held, next);
+        if (outcome == DEAD && held != playing) {
+            if (held != 0) {
+                outcome = tryBrick(tools, branch, level, lines, filled, true, held, playing, next);
+            } else if (next < preview.length) {
+                outcome = tryBrick(tools, branch, level, lines, filled, true, preview[next], playing, next + 1);
+            }
+        }
+        if (outcome == DEAD) {
+            memo.store(key, 0f, lines);
+        }
+        return outcome;
+    }
+
+    /** Tries every placement of one brick below a node; the next brick comes from the preview at {@code next}. */
+    private int tryBrick(Scratch tools, int branch, int level, int lines, int filled, boolean hold, int brickId,
+                         int heldAfter, int next) {
+        int[][] board = tools.boards[level];
+        // above the ceiling the board is empty, so the rows under it plus room to turn a brick are enough
+        int window = Math.min(board.length, lines + WINDOW_MARGIN);
+        int offset = board.length - window;
+        PlacementEnumerator enumerator = tools.enumerator(window);
+        int count = enumerator.enumerate(tools.window(board, offset), brickId, 0, SPAWN_X, 0);
+        // the enumerator is reused further down, so keep this level's placements
+        int[] moves = tools.moves(level, count);
+        int kept = collect(tools, enumerator, brickId, count, board.length - lines, offset, moves);
+        int playingNext = next < preview.length ? preview[next] : 0;
+        for (int i = 0; i < kept; i++) {
+            int move = moves[i];
+            int outcome = place(tools, branch, level, lines, filled, brickId, rotationOf(move), xOf(move),
+                    yOf(move), playingNext, heldAfter, next + 1);
+            if (outcome != DEAD) {
+                if (outcome == FOUND) {
+                    tools.path[level] = new Plan(hold, brickId, rotationOf(move), xOf(move), yOf(move));
+                }
+                return outcome;
+            }
+        }
+        return DEAD;
+    }
+
+    /** Locks a brick into a copy of the level's board and searches on from there. */
+    private int place(Scratch tools, int branch, int level, int lines, int filled, int brickId, int rotation,
+                      int x, int y, int playing, int held, int next) {
+        tools.ensureDepth(level + 2);
+        int[][] child = tools.boards[level + 1];
+        copyBoard(tools.boards[level], child);
+        int cleared = PlacementEnumerator.lock(child, brickId, rotation, x, y);
+        int left = filled + 4 - cleared * child[0].length;
+        if (left == 0) {
+            tools.depth = level + 1;
+            return FOUND;
+        }
+        return search(tools, branch, level + 1, lines - cleared, left, playing, held, next);
+    }
+
+    /**
+     * The cell count and parity tests: whether the bricks still to come can possibly fill the empty
+     * cells under the ceiling.
+     */
+    private boolean feasible(int[][] board, int lines, int filled, int playing, int held, int next) {
+        int width = board[0].length;
+        int needed = (width * lines - filled) / 4;
+        int fours = 0;
+        int twos = 0;
+        int available = 0;
+        for (int i = -2; i < preview.length - next; i++) {
+            int id = i == -2 ? playing : i == -1 ? held : preview[next + i];
+            if (id == 0) {
+                continue;
+            }
+            available++;
+            if (id == I_BRICK) {
+                fours++;
+            } else if (id == T_BRICK || id == L_BRICK || id == J_BRICK) {
+                twos++;
+            }
+        }
+        if (needed > available) {
+            return false;
+        }
+        int imbalance = 0;
+        for (int r = board.length - lines; r < board.length; r++) {
+            int[] row = board[r];
+            for (int c = 0; c < width; c++) {
+                if (row[c] == 0) {
+                    imbalance += (c & 1) == 0 ? 1 : -1;
+                }
+            }
+        }
+        int useFours = Math.min(needed, fours);
+        int reach = 4 * useFours + 2 * Math.min(needed - useFours, twos);
+        return Math.abs(imbalance) <= reach;
+    }
+
+    /** Hashes the rows under the ceiling together with the bricks to come; everything above is empty. */
+    private static long key(int[][] board, int lines, int playing, int held, int next) {
+        long h = (lines | playing << 8 | held << 12 | (long) next << 16) * 0x9E3779B97F4A7C15L;
+        for (int r = board.length - lines; r < board.length; r++) {
+            int[] row = board[r];
+            long mask = 0;
+            for (int c = 0; c < row.length; c++) {
+                if (row[c] != 0) {
+                    mask |= 1L << c;
+                }
+            }
+            h = (h ^ mask) * 0xD6E8FEB86659FD93L;
+            h ^= h >>> 29;
+        }
+        return h ^ (h >>> 32);
+    }
+
+    /** The first row of a shape that has a cell in it. */
+    private static int topRow(int[] shape) {
+        int i = 0;
+        while (shape[i] == 0) {
+            i++;
+        }
+        return i;
+    }
+
+    /** The last row of a shape that has a cell in it. */
+    private static int bottomRow(int[] shape) {
+        int i = shape.length - 1;
+        while (shape[i] == 0) {
+            i--;
+        }
+        return i;
+    }
+
+    private static int bottomRow(int move, int brickId) {
+        return bottomRow(PlacementEnumerator.shapeRows(brickId, rotationOf(move)));
+    }
+
+    private static void checkBrick(int brickId) {
+        if (brickId < 1 || brickId > 7) {
+            throw new IllegalArgumentException("Unknown brick: " + brickId);
+        }
+    }
+
+    private static void copyBoard(int[][] from, int[][] into) {
+        for (int r = 0; r < from.length; r++) {
+            System.arraycopy(from[r], 0, into[r], 0, from[r].length);
+        }
+    }
+
+    private static int pack(int rotation, int x, int y) {
+        return rotation | (x + 8) << 2 | (y + 8) << 9;
+    }
+
+    private static int rotationOf(int move) {
+        return move & 3;
+    }
+
+    private static int xOf(int move) {
+        return (move >>> 2 & 0x7F) - 8;
+    }
+
+    private static int yOf(int move) {
+        return (move >>> 9 & 0x7F) - 8;
+    }
+
+    private Scratch borrow() {
+        Scratch tools = scratch.poll();
+        return tools != null ? tools : new Scratch();
+    }
+
+    /**
+     * @return the highest perfect clear tried, in lines.
+     */
+    public int getMaxLines() {
+        return maxLines;
+    }
+
+    /**
+     * @return the transposition table that remembers dead ends.
+     */
+    public TranspositionTable getMemo() {
+        return memo;
+    }
+
+    /** A first placement: the root of one branch of the search. */
+    private static final class Branch {
+        final Plan plan;
+        final int heldAfter;
+        final int next;
+
+        Branch(Plan plan, int heldAfter, int next) {
+            this.plan = plan;
+            this.heldAfter = heldAfter;
+            this.next = next;
+        }
+    }
+
+    /** The non-thread-safe tools a task borrows: an enumerator, and a board and move buffer per level. */
+    private static final class Scratch {
+        final PlacementEnumerator enumerator = new PlacementEnumerator();
+        final PlacementEnumerator[] windowEnumerators = new PlacementEnumerator[GameConfiguration.BOARD_HEIGHT + 1];
+        final int[][][] windows = new int[GameConfiguration.BOARD_HEIGHT + 1][][];
+        int[][][] boards = new int[0][][];
+        int[][] moves = new int[0][];
+        Plan[] path = new Plan[0];
+        long[] cells = new long[64];
+        int depth;
+        long nodes;
+
+        void ensureDepth(int levels) {
+            if (boards.length < levels) {
+                int size = Math.max(levels, boards.length * 2);
+                int[][][] grown = new int[size][][];
+                int[][] grownMoves = new int[size][];
+                System.arraycopy(boards, 0, grown, 0, boards.length);
+                System.arraycopy(moves, 0, grownMoves, 0, moves.length);
+                for (int i = boards.length; i < size; i++) {
+                    grown[i] = new int[GameConfiguration.BOARD_HEIGHT][GameConfiguration.BOARD_WIDTH];
+                    grownMoves[i] = new int[64];
+                }
+                boards = grown;
+                moves = grownMoves;
+                path = new Plan[size];
+            }
+        }
+
+        /** An enumerator for a window of the bottom rows. */
+        PlacementEnumerator enumerator(int height) {
+            if (windowEnumerators[height] == null) {
+                windowEnumerators[height] = new PlacementEnumerator(GameConfiguration.BOARD_WIDTH, height);
+            }
+            return windowEnumerators[height];
+        }
+
+        /** The rows of a board from {@code offset} down, without copying them. */
+        int[][] window(int[][] board, int offset) {
+            int height = board.length - offset;
+            if (windows[height] == null) {
+                windows[height] = new int[height][];
+            }
+            int[][] rows = windows[height];
+            System.arraycopy(board, offset, rows, 0, height);
+            return rows;
+        }
+
+        long[] cells(int count) {
+            if (cells.length < count) {
+                cells = new long[Math.max(count, cells.length * 2)];
+            }
+            return cells;
+        }
+
+        int[] moves(int level, int count) {
+            if (moves[level].length < count) {
+                moves[level] = new int[Math.max(count, moves[level].length * 2)];
+            }
+            return moves[level];
+        }
+    }
+
+    /**
+     * Searches a range of branches, splitting down to one branch per task.
+     */
+    @SuppressWarnings("serial") // fork/join tasks are never serialized
+    private final class Branches extends RecursiveAction {
+        private final List<Branch> branches;
+        private final int[][] board;
+        private final int lines;
+        private final int filled;
+        private final int from;
+        private final int to;
+
+        Branches(List<Branch> branches, int[][] board, int lines, int filled, int from, int to) {
+            this.branches = branches;
+            this.board = board;
+            this.lines = lines;
+            this.filled = filled;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Branches(branches, board, lines, filled, from, mid),
+                        new Branches(branches, board, lines, filled, mid, to));
+                return;
+            }
+            Scratch tools = borrow();
+            try {
+                tools.ensureDepth(2);
+                tools.nodes = 0;
+                copyBoard(board, tools.boards[0]);
+                Branch branch = branches.get(from);
+                Plan first = branch.plan;
+                int playing = branch.next < preview.length ? preview[branch.next] : 0;
+                int outcome = place(tools, from, 0, lines, filled, first.getBrickId(), first.getRotation(),
+                        first.getX(), first.getY(), playing, branch.heldAfter, branch.next + 1);
+                nodes.add(tools.nodes + 1);
+                if (outcome == FOUND) {
+                    tools.path[0] = first;
+                    List<Plan> solution = new ArrayList<>(tools.depth);
+                    for (int i = 0; i < tools.depth; i++) {
+                        solution.add(tools.path[i]);
+                    }
+                    solutions[from] = solution;
+                    solvedBranch.accumulateAndGet(from, Math::min);
+                }
+            } finally {
+                scratch.offer(tools);
+            }
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package com.comp2042.ai;
+
+import com.comp2042.logic.WallKicks;
+import com.comp2042.logic.bricks.Brick;
+import com.comp2042.logic.bricks.BrickTypes;
+import com.comp2042.model.PersistentGrid;
+import com.comp2042.replay.ReplayAction;
+import com.comp2042.util.GameConfiguration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds every position where a brick can lock, starting from where it is now, and the inputs that
+ * get it there.
+ * <p>
+ * <b>Why not just try hard drops:</b> Dropping the brick in every column and rotation misses
+ * placements that need the brick to move <i>after</i> it has fallen: tucks under an overhang, or
+ * rotations that kick it into a slot. The only exact answer is a search over everything the player
+ * can do, with the same rules as {@link com.comp2042.logic.board.SimpleBoard}: move left or right, soft
+ * drop one row, or rotate with the {@link WallKicks} of that brick.
+ * </p>
+ * <p>
+ * <b>How it works:</b> The search is a breadth-first search over states {@code (rotation, x, y)}.
+ * Before it starts, the board is turned into one bit mask per row (walls included), and from those a
+ * "fits" mask is computed for every rotation and row, with one bit per column offset: a handful of
+ * shifts and ORs per row instead of a cell-by-cell overlap test per state. Checking a move is then a
+ * single bit test, and a visited bitmap keeps every state from being expanded twice. For each state
+ * the search reaches, the row it would land on is found from the same masks (and remembered for the
+ * rows it passed, so each column is scanned about once). The first time a landing position is seen,
+ * it is recorded together with the state it was dropped from. Because the search is breadth-first,
+ * that is the shortest input sequence to the placement.
+ * </p>
+ * <p>
+ * <b>Performance:</b> All buffers are allocated once, sized for the board, and reused by every call,
+ * so enumerating in steady state allocates nothing. Results are read through index accessors for the
+ * same reason; {@link #getPath(int)} is a convenience that does allocate. An enumerator is not
+ * thread-safe: use one per thread.
+ * </p>
+ */
+public final class PlacementEnumerator {
+
+    /** Shapes are 4x4 matrices, so a brick's origin can sit up to 3 cells left of (or above) the board. */
+    private static final int BIAS = 3;
+    private static final int MAX_ROTATIONS = 4;
+
+    private static final byte LEFT = 0;
+    private static final byte RIGHT = 1;
+    private static final byte ROTATE = 2;
+    private static final byte DOWN = 3;
+    private static final ReplayAction[] ACTIONS = {
+            ReplayAction.LEFT, ReplayAction.RIGHT, ReplayAction.ROTATE, ReplayAction.SOFT_DROP
+    };
+
+    /** Per brick ID, per rotation, per shape row: the occupied columns as a bit mask. */
+    private static final int[][][] SHAPE_ROWS = new int[8][][];
+
+    static {
+        for (int id = 1; id < SHAPE_ROWS.length; id++) {
+            Brick brick = BrickTypes.create(id);
+            List<int[][]> shapes = brick.getShapeMatrix();
+            SHAPE_ROWS[id] = new int[shapes.size()][4];
+            for (int r = 0; r < shapes.size(); r++) {
+                int[][] shape = shapes.get(r);
+                for (int i = 0; i < shape.length; i++) {
+                    for (int j = 0; j < shape[i].length; j++) {
+                        if (shape[i][j] != 0) {
+                            SHAPE_ROWS[id][r][i] |= 1 << j;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private final int width;
+    private final int height;
+    private final int columns; // x offsets, biased
+    private final int rows;    // y offsets, biased
+    private final long columnMask;
+
+    private final long[] walls;
+    private final long[] fits;
+    private final long[] visited;
+    private final long[] placed;
+    private final int[] queue;
+    private final int[] parent;
+    private final byte[] move;
+    private final int[] depth;
+    private final int[] landing;
+    private final int[] droppedFrom;
+    private final int[] landingRow;
+
+    private int brickId;
+    private int rotations;
+    private int count;
+
+    /**
+     * Creates an enumerator for the standard board size.
+     */
+    public PlacementEnumerator() {
+        this(GameConfiguration.BOARD_WIDTH, GameConfiguration.BOARD_HEIGHT);
+    }
+
+    /**
+     * Creates an enumerator for boards of the given size.
+     *
+     * @param width the number of columns (at most 32).
+     * @param height the number of rows.
+     * @throws IllegalArgumentException if the size is not supported.
+     */
+    public PlacementEnumerator(int width, int height) {
+        if (width <= 0 || width > 32 || height <= 0) {
+            throw new IllegalArgumentException("Unsupported board size " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.columns = width + BIAS;
+        this.rows = height + BIAS;
+        this.columnMask = (1L << columns) - 1;
+
+        int states = MAX_ROTATIONS * rows * columns;
+        walls = new long[rows + 4];
+        fits = new long[MAX_ROTATIONS * rows];
+        visited = new long[(states + 63) >>> 6];
+        placed = new long[(states + 63) >>> 6];
+        queue = new int[states];
+        parent = new int[states];
+        move = new byte[states];
+        depth = new int[states];
+        landing = new int[states];
+        droppedFrom = new int[states];
+        landingRow = new int[states];
+    }
+
+    /**
+     * Enumerates the placements of a newly spawned brick.
+     *
+     * @param grid the locked blocks.
+     * @param brickId the brick type ID, as returned by {@link BrickTypes#idOf}.
+     * @return the number of placements found; 0 if the spawn position is blocked.
+     */
+    public int enumerate(PersistentGrid grid, int brickId) {
+        return enumerate(grid.rows(), brickId, 0, width / 2 - GameConfiguration.SPAWN_X_OFFSET, 0);
+    }
+
+    /**
+     * Enumerates the placements of a brick from any position, e.g. while it is already falling.
+     *
+     * @param board the locked blocks (0 is empty), {@code height} rows of {@code width} cells.
+     * @param brickId the brick type ID.
+     * @param rotation the current rotation index.
+     * @param x the column of the brick's shape matrix.
+     * @param y the row of the brick's shape matrix.
+     * @return the number of placements found; 0 if the start position is blocked.
+     * @throws IllegalArgumentException if the board size or brick does not match.
+     */
+    public int enumerate(int[][] board, int brickId, int rotation, int x, int y) {
+        if (board.length != height || board[0].length != width) {
+            throw new IllegalArgumentException("Board is " + board[0].length + "x" + board.length
+                    + ", expected " + width + "x" + height);
+        }
+        if (brickId <= 0 || brickId >= SHAPE_ROWS.length || rotation < 0 || rotation >= SHAPE_ROWS[brickId].length) {
+            throw new IllegalArgumentException("Unknown brick " + brickId + " rotation " + rotation);
+        }
+        this.brickId = brickId;
+        this.rotations = SHAPE_ROWS[brickId].length;
+        this.count = 0;
+        buildMasks(board);
+        Arrays.fill(visited, 0);
+        Arrays.fill(placed, 0);
+        Arrays.fill(landingRow, -1);
+
+        int bx = x + BIAS;
+        int by = y + BIAS;
+        if (bx < 0 || bx >= columns || by < 0 || by >= rows || !fits(rotation, by, bx)) {
+            return 0;
+        }
+        search(state(rotation, by, bx));
+        return count;
+    }
+
+    private void buildMasks(int[][] board) {
+        long outside = ~((1L << columns) - 1) | ((1L << BIAS) - 1);
+        Arrays.fill(walls, -1L);
+        for (int y = 0; y < height; y++) {
+            long row = outside;
+            int[] cells = board[y];
+            for (int c = 0; c < width; c++) {
+                if (cells[c] != 0) {
+                    row |= 1L << (c + BIAS);
+                }
+            }
+            walls[y + BIAS] = row;
+        }
+        for (int r = 0; r < rotations; r++) {
+            int[] shape = SHAPE_ROWS[brickId][r];
+            for (int by = 0; by < rows; by++) {
+                // bit bx of "blocked" is set if placing the shape's origin at bx overlaps a wall or block
+                long blocked = 0;
+                for (int i = 0; i < shape.length; i++) {
+                    long wall = walls[by + i];
+                    for (int bits = shape[i]; bits != 0; bits &= bits - 1) {
+                        blocked |= wall >>> Integer.numberOfTrailingZeros(bits);
+                    }
+                }
+                fits[r * rows + by] = ~blocked & columnMask;
+            }
+        }
+    }
+
+    private boolean fits(int rotation, int by, int bx) {
+        return (fits[rotation * rows + by] >>> bx & 1L) != 0;
+    }
+
+    private int state(int rotation, int by, int bx) {
+        return (rotation * rows + by) * columns + bx;
+    }
+
+    private void search(int start) {
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        mark(visited, start);
+        parent[start] = -1;
+        depth[start] = 0;
+
+        while (head < tail) {
+            int s = queue[head++];
+            int bx = s % columns;
+            int by = (s / columns) % rows;
+            int rotation = s / (columns * rows);
+
+            recordLanding(s, rotation, by, bx);
+
+            if (bx > 0 && fits(rotation, by, bx - 1)) {
+                tail = visit(s, state(rotation, by, bx - 1), LEFT, tail);
+            }
+            if (bx + 1 < columns && fits(rotation, by, bx + 1)) {
+                tail = visit(s, state(rotation, by, bx + 1), RIGHT, tail);
+            }
+            if (rotations > 1) {
+                int next = (rotation + 1) % rotations;
+                for (int kick = 0; kick < WallKicks.count(brickId); kick++) {
+                    int kx = bx + WallKicks.dx(brickId, kick);
+                    int ky = by + WallKicks.dy(brickId, kick);
+                    // outside the biased range the brick would be off the board, so it collides
+                    if (kx >= 0 && kx < columns && ky >= 0 && ky < rows && fits(next, ky, kx)) {
+                        tail = visit(s, state(next, ky, kx), ROTATE, tail);
+                        break;
+                    }
+                }
+            }
+            if (by + 1 < rows && fits(rotation, by + 1, bx)) {
+                tail = visit(s, state(rotation, by + 1, bx), DOWN, tail);
+            }
+        }
+    }
+
+    private int visit(int from, int to, byte action, int tail) {
+        if (isMarked(visited, to)) {
+            return tail;
+        }
+        mark(visited, to);
+        parent[to] = from;
+        move[to] = action;
+        depth[to] = depth[from] + 1;
+        queue[tail] = to;
+        return tail + 1;
+    }
+
+    private void recordLanding(int s, int rotation, int by, int bx) {
+        int y = by;
+        while (y + 1 < rows && fits(rotation, y + 1, bx)) {
+            int known = landingRow[state(rotation, y + 1, bx)];
+            if (known >= 0) {
+                y = known;
+                break;
+            }
+            y++;
+        }
+        // every row passed on the way down lands on the same row
+        for (int k = by; k < y; k++) {
+            landingRow[state(rotation, k, bx)] = y;
+        }
+        int land = state(rotation, y, bx);
+        if (!isMarked(placed, land)) {
+            mark(placed, land);
+            landing[count] = land;
+            droppedFrom[count] = s;
+            count++;
+        }
+    }
+
+    private static void mark(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private static boolean isMarked(long[] bits, int index) {
+        return (bits[index >>> 6] & 1L << index) != 0;
+    }
+
+    /**
+     * @return the number of placements found by the last call to {@code enumerate}.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return the brick type ID of the last enumeration.
+     */
+    public int getBrickId() {
+        return brickId;
+    }
+
+    /**
+     * @param index the placement, from 0 to {@link #getCount()} - 1.
+     * @return the rotation index the brick locks in.
+     */
+    public int getRotation(int index) {
+        return landing[checkIndex(index)] / (columns * rows);
+    }
+
+    /**
+     * @param index the placement.
+     * @return the column of the brick's shape matrix when it locks.
+     */
+    public int getX(int index) {
+        return landing[checkIndex(index)] % columns - BIAS;
+    }
+
+    /**
+     * @param index the placement.
+     * @return the row of the brick's shape matrix when it locks.
+     */
+    public int getY(int index) {
+        return landing[checkIndex(index)] / columns % rows - BIAS;
+    }
+
+    /**
+     * @param index the placement.
+     * @return the number of inputs to reach it, including the final hard drop.
+     */
+    public int getPathLength(int index) {
+        return depth[droppedFrom[checkIndex(index)]] + 1;
+    }
+
+    /**
+     * Writes the shortest input sequence for a placement: moves, rotations and soft drops, then a
+     * hard drop that locks the brick.
+     *
+     * @param index the placement.
+     * @param out receives the inputs; must hold at least {@link #getPathLength} entries.
+     * @return the number of inputs written.
+     */
+    public int copyPath(int index, ReplayAction[] out) {
+        int length = getPathLength(index);
+        out[length - 1] = ReplayAction.HARD_DROP;
+        int i = length - 1;
+        for (int s = droppedFrom[index]; parent[s] >= 0; s = parent[s]) {
+            out[--i] = ACTIONS[move[s]];
+        }
+        return length;
+    }
+
+    /**
+     * Convenience form of {@link #copyPath} that allocates a new list.
+     *
+     * @param index the placement.
+     * @return the inputs, ending with a hard drop.
+     */
+    public List<ReplayAction> getPath(int index) {
+        ReplayAction[] path = new ReplayAction[getPathLength(index)];
+        copyPath(index, path);
+        return new ArrayList<>(Arrays.asList(path));
+    }
+
+    /**
+     * Looks up the shape of a brick as row bit masks (bit {@code j} of row {@code i} is cell {@code (i, j)}
+     * of the 4x4 shape matrix). The array is shared and must not be modified.
+     *
+     * @param brickId the brick type ID.
+     * @param rotation the rotation index.
+     * @return one mask per row of the shape matrix.
+     */
+    public static int[] shapeRows(int brickId, int rotation) {
+        return SHAPE_ROWS[brickId][rotation];
+    }
+
+    /**
+     * @return the number of distinct rotations of a brick (1 for O, 4 for T).
+     */
+    static int rotationCount(int brickId) {
+        return SHAPE_ROWS[brickId].length;
+    }
+
+    /**
+     * Locks a brick into a board in place and removes the full rows, the way the game does once a
+     * placement is chosen. The brick must fit where it is put.
+     *
+     * @return the number of rows removed.
+     */
+    static int lock(int[][] cells, int brickId, int rotation, int x, int y) {
+        int[] shape = SHAPE_ROWS[brickId][rotation];
+        for (int i = 0; i < shape.length; i++) {
+            for (int m = shape[i]; m != 0; m &= m - 1) {
+                cells[y + i][x + Integer.numberOfTrailingZeros(m)] = brickId;
+            }
+        }
+        int width = cells[0].length;
+        int target = cells.length - 1;
+        for (int r = cells.length - 1; r >= 0; r--) {
+            boolean full = true;
+            for (int c = 0; c < width && full; c++) {
+                full = cells[r][c] != 0;
+            }
+            if (!full) {
+                if (target != r) {
+                    System.arraycopy(cells[r], 0, cells[target], 0, width);
+                }
+                target--;
+            }
+        }
+        int removed = target + 1;
+        for (; target >= 0; target--) {
+            Arrays.fill(cells[target], 0);
+        }
+        return removed;
+    }
+
+    /**
+     * Identifies which rotation of a brick a shape matrix shows, e.g. from {@link com.comp2042.model.ViewData}.
+     *
+     * @param brickId the brick type ID.
+     * @param shape a 4x4 shape matrix.
+     * @return the rotation index, or -1 if the shape is not a rotation of that brick.
+     */
+    public static int rotationOf(int brickId, int[][] shape) {
+        if (brickId <= 0 || brickId >= SHAPE_ROWS.length) {
+            return -1;
+        }
+        for (int r = 0; r < SHAPE_ROWS[brickId].length; r++) {
+            boolean same = true;
+            for (int i = 0; i < 4 && same; i++) {
+                int mask = 0;
+                if (i < shape.length) {
+                    for (int j = 0; j < shape[i].length; j++) {
+                        if (shape[i][j] != 0) {
+                            mask |= 1 << j;
+                        }
+                    }
+                }
+                same = mask == SHAPE_ROWS[brickId][r][i];
+            }
+            if (same) {
+                return r;
+            }
+        }
+        return -1;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Placement " + index + " of " + count);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,27 @@
+package com.comp2042.ai;
+
+/**
+ * Decides where the falling brick should lock, given everything a player can see.
+ * <p>
+ * <b>Strategy pattern:</b> The {@link AutoPlayer} only turns a {@link Plan} into key presses; how the
+ * plan is made is up to the implementation, from the greedy {@link HeuristicBot} to the lookahead of
+ * {@link BeamSearchBot}. Planners may ignore the hold slot and the preview if they do not use them.
+ * </p>
+ */
+public interface PlacementPlanner {
+
+    /**
+     * Plans the falling brick.
+     *
+     * @param board the locked blocks (0 is empty).
+     * @param brickId the falling brick's type ID.
+     * @param rotation its current rotation.
+     * @param x the column of its shape matrix.
+     * @param y the row of its shape matrix.
+     * @param heldId the type ID in the hold slot, or 0 if it is empty.
+     * @param canHold whether hold may still be used for this brick.
+     * @param preview the type IDs of the next bricks, nearest first; not modified.
+     * @return the plan, or null if the brick has nowhere to go.
+     */
+    Plan plan(int[][] board, int brickId, int rotation, int x, int y, int heldId, boolean canHold, int[] preview);
+}
@@ -0,0 +1,73 @@
+package com.comp2042.ai;
+
+/**
+ * A {@link PlacementPlanner}'s decision for the falling brick: whether to hold first, and where the
+ * brick that is then played should lock.
+ * <p>
+ * The placement is given as the lock position of the brick's shape matrix, the same coordinates
+ * {@link PlacementEnumerator} reports, so a player can look the path up from wherever the brick is.
+ * </p>
+ */
+public final class Plan {
+
+    private final boolean hold;
+    private final int brickId;
+    private final int rotation;
+    private final int x;
+    private final int y;
+
+    /**
+     * @param hold whether to press hold before moving.
+     * @param brickId the brick that locks: the falling brick, or the one hold brings in.
+     * @param rotation the rotation it locks in.
+     * @param x the column of its shape matrix.
+     * @param y the row of its shape matrix.
+     */
+    public Plan(boolean hold, int brickId, int rotation, int x, int y) {
+        this.hold = hold;
+        this.brickId = brickId;
+        this.rotation = rotation;
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * @return whether the plan starts with a hold.
+     */
+    public boolean isHold() {
+        return hold;
+    }
+
+    /**
+     * @return the type ID of the brick that locks.
+     */
+    public int getBrickId() {
+        return brickId;
+    }
+
+    /**
+     * @return the rotation the brick locks in.
+     */
+    public int getRotation() {
+        return rotation;
+    }
+
+    /**
+     * @return the column of the locked brick's shape matrix.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * @return the row of the locked brick's shape matrix.
+     */
+    public int getY() {
+        return y;
+    }
+
+    @Override
+    public String toString() {
+        return (hold ? "hold, " : "") + "brick " + brickId + " r" + rotation + " at " + x + "," + y;
+    }
+}
@@ -0,0 +1,115 @@
+package com.comp2042.ai;
+
+/**
+ * What {@link RolloutEvaluator} found out about one placement: how long the games played on from it
+ * lasted and how many points they scored, as means and sample variances over the rollouts.
+ * <p>
+ * Survival is counted in bricks locked after the placement, up to the rollout horizon; a rollout that
+ * reaches the horizon survived. The score is what the game awards for the lines cleared on the way.
+ * When a time budget stops the evaluation before the first rollout finishes, the count is 0 and the
+ * means are {@code NaN}.
+ * </p>
+ */
+public final class RolloutEstimate {
+
+    private final int rollouts;
+    private final int horizon;
+    private final double survivalMean;
+    private final double survivalVariance;
+    private final double survivalRate;
+    private final double scoreMean;
+    private final double scoreVariance;
+    private final long elapsedNanos;
+
+    /**
+     * @param rollouts the number of rollouts the figures are based on.
+     * @param horizon the number of bricks a rollout plays at most.
+     * @param survivalMean the mean number of bricks locked before topping out or reaching the horizon.
+     * @param survivalVariance the sample variance of that number.
+     * @param survivalRate the fraction of rollouts that reached the horizon.
+     * @param scoreMean the mean score of a rollout.
+     * @param scoreVariance the sample variance of the score.
+     * @param elapsedNanos the wall time the evaluation took.
+     */
+    public RolloutEstimate(int rollouts, int horizon, double survivalMean, double survivalVariance,
+                           double survivalRate, double scoreMean, double scoreVariance, long elapsedNanos) {
+        this.rollouts = rollouts;
+        this.horizon = horizon;
+        this.survivalMean = survivalMean;
+        this.survivalVariance = survivalVariance;
+        this.survivalRate = survivalRate;
+        this.scoreMean = scoreMean;
+        this.scoreVariance = scoreVariance;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return the number of rollouts that finished within the budget.
+     */
+    public int getRollouts() {
+        return rollouts;
+    }
+
+    /**
+     * @return the number of bricks a rollout plays at most.
+     */
+    public int getHorizon() {
+        return horizon;
+    }
+
+    /**
+     * @return the mean number of bricks locked after the placement.
+     */
+    public double getSurvivalMean() {
+        return survivalMean;
+    }
+
+    /**
+     * @return the sample variance of the number of bricks locked.
+     */
+    public double getSurvivalVariance() {
+        return survivalVariance;
+    }
+
+    /**
+     * @return the fraction of rollouts that did not top out.
+     */
+    public double getSurvivalRate() {
+        return survivalRate;
+    }
+
+    /**
+     * @return the mean score of a rollout.
+     */
+    public double getScoreMean() {
+        return scoreMean;
+    }
+
+    /**
+     * @return the sample variance of the score.
+     */
+    public double getScoreVariance() {
+        return scoreVariance;
+    }
+
+    /**
+     * @return the standard error of {@link #getScoreMean()}, for telling close candidates apart.
+     */
+    public double getScoreStandardError() {
+        return rollouts == 0 ? Double.NaN : Math.sqrt(scoreVariance / rollouts);
+    }
+
+    /**
+     * @return the wall time the evaluation took, in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rollouts: survived %.1f/%d bricks (sd %.1f, %.0f%% to the end), score %.0f (sd %.0f)",
+                rollouts, survivalMean, horizon, Math.sqrt(survivalVariance), 100 * survivalRate, scoreMean,
+                Math.sqrt(scoreVariance));
+    }
+}
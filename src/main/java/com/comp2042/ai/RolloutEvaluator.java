@@ -0,0 +1,398 @@
+package com.comp2042.ai;
+
+import com.comp2042.util.GameConfiguration;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Judges a placement by playing on from it: many short games (rollouts) with random bricks, whose
+ * survival and score are averaged into a {@link RolloutEstimate}.
+ * <p>
+ * <b>Why:</b> The weighted {@link Feature}s score a board by its shape, and a tall but tidy stack can
+ * look as good as a low one with a single awkward hole. Rollouts measure the risk directly: how often,
+ * and how soon, play from that board tops out, and how many points it makes on the way.
+ * </p>
+ * <p>
+ * <b>Rollouts:</b> Each rollout locks the placement into a copy of the board, then plays the known
+ * preview followed by fresh 7-bags, up to {@link Settings#horizon} bricks or until a brick cannot
+ * spawn. Every brick is placed by the {@link Policy}: a uniformly random reachable placement, or the
+ * best one by the weights, as {@link HeuristicBot} would play it. Scores use the game's line clear
+ * table, including the lines the evaluated placement clears itself.
+ * </p>
+ * <p>
+ * <b>Parallelism:</b> Rollouts are split across a {@link ForkJoinPool} a few at a time. Rollout
+ * {@code i} draws its bricks from the {@code i}-th {@link SplittableRandom#split() split} of the seed,
+ * made up front on the calling thread, and its results go into slot {@code i}; the slots are then
+ * combined in order. So a given seed gives the same estimate with any number of threads. Board copies,
+ * enumerators and feature calculators are pooled and borrowed per task, as in {@link BeamSearchBot}.
+ * </p>
+ * <p>
+ * <b>Time budget:</b> With a budget set (e.g. for hints computed while the player waits), tasks stop
+ * starting rollouts once it runs out, and the estimate covers the rollouts that finished. Which ones
+ * those are depends on timing, so only an unlimited budget is reproducible. A zero budget (the default)
+ * means no limit, as with the {@link PerfectClearSolver} time limit.
+ * </p>
+ * <p>
+ * One evaluation at a time per instance; the pool may be shared.
+ * </p>
+ */
+public final class RolloutEvaluator {
+
+    private static final int SPAWN_X = GameConfiguration.BOARD_WIDTH / 2 - GameConfiguration.SPAWN_X_OFFSET;
+    private static final int BRICK_TYPES = 7;
+
+    /** Rollouts per task: enough to pay for the task, few enough to balance and to notice the deadline. */
+    private static final int ROLLOUTS_PER_TASK = 4;
+
+    /**
+     * How a rollout places its bricks.
+     */
+    public enum Policy {
+
+        /** Any reachable placement, uniformly at random: fast, and pessimistic about the stack. */
+        RANDOM,
+
+        /** The best placement by the feature weights: slower, and closer to how the board will be played. */
+        GREEDY
+    }
+
+    private final Settings settings;
+    private final ForkJoinPool pool;
+    private final ConcurrentLinkedQueue<Scratch> scratch = new ConcurrentLinkedQueue<>();
+
+    // the evaluation in progress, read by the tasks
+    private int[][] start;
+    private int startScore;
+    private int[] preview;
+    private long deadline;
+    private SplittableRandom[] streams = new SplittableRandom[0];
+    private int[] survived = new int[0];
+    private int[] scores = new int[0];
+
+    /**
+     * Creates an evaluator with the default settings, running on the common pool.
+     */
+    public RolloutEvaluator() {
+        this(new Settings(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an evaluator.
+     *
+     * @param settings how many rollouts to play and how; later changes to it do not affect this evaluator.
+     * @param pool the pool that plays the rollouts.
+     */
+    public RolloutEvaluator(Settings settings, ForkJoinPool pool) {
+        this.settings = settings.copy();
+        this.pool = pool;
+    }
+
+    /**
+     * Plays the rollouts for one placement.
+     *
+     * @param board the locked blocks (0 is empty).
+     * @param brickId the brick to place.
+     * @param rotation the rotation it locks in.
+     * @param x the column of its shape matrix.
+     * @param y the row of its shape matrix.
+     * @param preview the bricks known to come next, played before the random ones.
+     * @param seed the seed of the random bricks (and placements).
+     * @return the survival and score statistics.
+     * @throws IllegalArgumentException if the brick does not fit there or the preview holds an unknown brick.
+     */
+    public RolloutEstimate evaluate(int[][] board, int brickId, int rotation, int x, int y, int[] preview, long seed) {
+        long began = System.nanoTime();
+        if (!fits(board, brickId, rotation, x, y)) {
+            throw new IllegalArgumentException("Brick " + brickId + " r" + rotation + " does not fit at " + x + "," + y);
+        }
+        for (int id : preview) {
+            if (id < 1 || id > BRICK_TYPES) {
+                throw new IllegalArgumentException("Unknown brick in preview: " + id);
+            }
+        }
+        start = copyBoard(board, start);
+        startScore = lineScore(PlacementEnumerator.lock(start, brickId, rotation, x, y));
+        this.preview = preview.clone();
+        long budget = settings.timeBudget.toNanos();
+        deadline = budget > 0 ? began + budget : 0;
+
+        int rollouts = settings.rollouts;
+        if (streams.length != rollouts) {
+            streams = new SplittableRandom[rollouts];
+            survived = new int[rollouts];
+            scores = new int[rollouts];
+        }
+        SplittableRandom root = new SplittableRandom(seed);
+        for (int i = 0; i < rollouts; i++) {
+            streams[i] = root.split();
+        }
+        Arrays.fill(survived, -1);
+        pool.invoke(new Rollouts(0, rollouts));
+
+        // Welford's running mean and variance, in rollout order
+        int count = 0;
+        int completed = 0;
+        double survivalMean = 0;
+        double survivalM2 = 0;
+        double scoreMean = 0;
+        double scoreM2 = 0;
+        for (int i = 0; i < rollouts; i++) {
+            if (survived[i] < 0) {
+                continue; // not started before the deadline
+            }
+            count++;
+            completed += survived[i] == settings.horizon ? 1 : 0;
+            double delta = survived[i] - survivalMean;
+            survivalMean += delta / count;
+            survivalM2 += delta * (survived[i] - survivalMean);
+            delta = scores[i] - scoreMean;
+            scoreMean += delta / count;
+            scoreM2 += delta * (scores[i] - scoreMean);
+        }
+        long elapsed = System.nanoTime() - began;
+        if (count == 0) {
+            return new RolloutEstimate(0, settings.horizon, Double.NaN, Double.NaN, Double.NaN, Double.NaN,
+                    Double.NaN, elapsed);
+        }
+        return new RolloutEstimate(count, settings.horizon, survivalMean, count > 1 ? survivalM2 / (count - 1) : 0,
+                (double) completed / count, scoreMean, count > 1 ? scoreM2 / (count - 1) : 0, elapsed);
+    }
+
+    /**
+     * @return the number of rollouts per evaluation, when the budget allows.
+     */
+    public int getRollouts() {
+        return settings.rollouts;
+    }
+
+    /**
+     * @return the number of bricks a rollout plays at most.
+     */
+    public int getHorizon() {
+        return settings.horizon;
+    }
+
+    /**
+     * @return the policy that places the bricks of a rollout.
+     */
+    public Policy getPolicy() {
+        return settings.policy;
+    }
+
+    private boolean expired() {
+        return deadline != 0 && System.nanoTime() - deadline >= 0;
+    }
+
+    /** Plays rollout {@code i} and records how many bricks it locked and what it scored. */
+    private void play(int i, Scratch tools) {
+        SplittableRandom random = streams[i];
+        int[][] cells = copyBoard(start, tools.cells);
+        tools.cells = cells;
+        tools.bagLeft = 0;
+        int score = startScore;
+        int locked = 0;
+        while (locked < settings.horizon) {
+            int brickId = locked < preview.length ? preview[locked] : tools.draw(random);
+            int count = tools.enumerator.enumerate(cells, brickId, 0, SPAWN_X, 0);
+            if (count == 0) {
+                break; // the brick cannot spawn: topped out
+            }
+            int choice = settings.policy == Policy.RANDOM ? random.nextInt(count) : best(cells, brickId, count, tools);
+            PlacementEnumerator enumerator = tools.enumerator;
+            score += lineScore(PlacementEnumerator.lock(cells, brickId, enumerator.getRotation(choice),
+                    enumerator.getX(choice), enumerator.getY(choice)));
+            locked++;
+        }
+        survived[i] = locked;
+        scores[i] = score;
+    }
+
+    private int best(int[][] cells, int brickId, int count, Scratch tools) {
+        PlacementEnumerator enumerator = tools.enumerator;
+        BoardFeatures features = tools.features;
+        features.load(cells);
+        int best = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            double score = features.evaluate(brickId, enumerator.getRotation(i), enumerator.getX(i),
+                    enumerator.getY(i), settings.weights);
+            if (score > bestScore) {
+                bestScore = score;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /** The points the game awards for clearing this many lines at once. */
+    private static int lineScore(int lines) {
+        return GameConfiguration.SCORE_PER_LINE * lines * lines;
+    }
+
+    private static boolean fits(int[][] board, int brickId, int rotation, int x, int y) {
+        if (brickId < 1 || brickId > BRICK_TYPES || rotation < 0
+                || rotation >= PlacementEnumerator.rotationCount(brickId)) {
+            return false;
+        }
+        int[] shape = PlacementEnumerator.shapeRows(brickId, rotation);
+        for (int i = 0; i < shape.length; i++) {
+            for (int m = shape[i]; m != 0; m &= m - 1) {
+                int r = y + i;
+                int c = x + Integer.numberOfTrailingZeros(m);
+                if (r < 0 || r >= board.length || c < 0 || c >= board[r].length || board[r][c] != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static int[][] copyBoard(int[][] from, int[][] into) {
+        if (into == null || into.length != from.length || into[0].length != from[0].length) {
+            into = new int[from.length][from[0].length];
+        }
+        for (int r = 0; r < from.length; r++) {
+            System.arraycopy(from[r], 0, into[r], 0, from[r].length);
+        }
+        return into;
+    }
+
+    /** The non-thread-safe tools a task borrows, including the board a rollout plays on. */
+    private static final class Scratch {
+        final PlacementEnumerator enumerator = new PlacementEnumerator();
+        final BoardFeatures features = new BoardFeatures();
+        final int[] bag = new int[BRICK_TYPES];
+        int bagLeft;
+        int[][] cells;
+
+        /** Draws the next brick from a 7-bag, shuffling a new one when it runs out. */
+        int draw(SplittableRandom random) {
+            if (bagLeft == 0) {
+                for (int i = 0; i < BRICK_TYPES; i++) {
+                    bag[i] = i + 1;
+                }
+                for (int i = BRICK_TYPES - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    int swap = bag[i];
+                    bag[i] = bag[j];
+                    bag[j] = swap;
+                }
+                bagLeft = BRICK_TYPES;
+            }
+            return bag[--bagLeft];
+        }
+    }
+
+    /**
+     * Plays a range of rollouts, splitting down to a few per task.
+     */
+    @SuppressWarnings("serial") // fork/join tasks are never serialized
+    private final class Rollouts extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        Rollouts(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ROLLOUTS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Rollouts(from, mid), new Rollouts(mid, to));
+                return;
+            }
+            Scratch tools = scratch.poll();
+            if (tools == null) {
+                tools = new Scratch();
+            }
+            try {
+                for (int i = from; i < to && !expired(); i++) {
+                    play(i, tools);
+                }
+            } finally {
+                scratch.offer(tools);
+            }
+        }
+    }
+
+    /**
+     * What an evaluator plays. Setters return the settings, so they can be chained.
+     */
+    public static final class Settings {
+
+        private int rollouts = GameConfiguration.ROLLOUT_COUNT;
+        private int horizon = GameConfiguration.ROLLOUT_HORIZON;
+        private Duration timeBudget = Duration.ZERO;
+        private Policy policy = Policy.GREEDY;
+        private double[] weights = Feature.defaultWeights();
+
+        /**
+         * @param rollouts the number of rollouts per evaluation.
+         * @return these settings.
+         */
+        public Settings rollouts(int rollouts) {
+            if (rollouts <= 0) {
+                throw new IllegalArgumentException("Rollout count must be positive: " + rollouts);
+            }
+            this.rollouts = rollouts;
+            return this;
+        }
+
+        /**
+         * @param horizon the number of bricks a rollout plays at most.
+         * @return these settings.
+         */
+        public Settings horizon(int horizon) {
+            if (horizon <= 0) {
+                throw new IllegalArgumentException("Horizon must be positive: " + horizon);
+            }
+            this.horizon = horizon;
+            return this;
+        }
+
+        /**
+         * @param timeBudget the wall time an evaluation may take; zero for no limit.
+         * @return these settings.
+         */
+        public Settings timeBudget(Duration timeBudget) {
+            if (timeBudget.isNegative()) {
+                throw new IllegalArgumentException("Time budget must not be negative: " + timeBudget);
+            }
+            this.timeBudget = timeBudget;
+            return this;
+        }
+
+        /**
+         * @param policy how rollouts place their bricks.
+         * @return these settings.
+         */
+        public Settings policy(Policy policy) {
+            this.policy = policy;
+            return this;
+        }
+
+        /**
+         * @param weights one weight per {@link Feature}, by ordinal, for the greedy policy; copied.
+         * @return these settings.
+         */
+        public Settings weights(double[] weights) {
+            if (weights.length != Feature.count()) {
+                throw new IllegalArgumentException("Expected " + Feature.count() + " weights, got " + weights.length);
+            }
+            this.weights = weights.clone();
+            return this;
+        }
+
+        private Settings copy() {
+            return new Settings().rollouts(rollouts).horizon(horizon).timeBudget(timeBudget).policy(policy)
+                    .weights(weights);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.comp2042.ai;
+
+import com.comp2042.logic.TSpinDetector;
+import com.comp2042.util.GameConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Analysis: scans a board for T-slots, the set-ups where a T brick rotated into place would lock as a
+ * T-spin.
+ * <p>
+ * <b>What is matched:</b> The classic slot for a T pointing down. Its three flat cells and the cell
+ * under its pivot are empty, both corners beside that lower cell are blocked (walls count), the cell
+ * above the pivot is empty, and at least one corner above the flat cells hangs over it. A T locked
+ * there after a rotation has three blocked corners, both of them on the side it points to, so it is a
+ * full T-spin by {@link TSpinDetector}'s rules. Each slot reports how many lines the T would clear
+ * (0, 1 or 2: a T-spin zero, single or double set-up) and whether the T can actually get there from
+ * its spawn position.
+ * </p>
+ * <p>
+ * <b>Bitboards:</b> Every row becomes an int with one bit per column, plus a set bit on either side
+ * for the walls. The pattern is then matched for all columns of a row at once with a few shifts and
+ * ANDs over that row and its two neighbours, so a scan is a handful of operations per row. Only the
+ * rows with a match are looked at column by column. Reachability comes from one run of
+ * {@link PlacementEnumerator} for the T, shared by all slots of the scan.
+ * </p>
+ * <p>
+ * A finder reuses its buffers and is not thread-safe: use one per thread.
+ * </p>
+ */
+public final class TSlotFinder {
+
+    private static final int T_BRICK = TSpinDetector.T_BRICK;
+
+    /** The rotation of the T pointing down, and its pivot within the shape matrix. */
+    private static final int DOWN_ROTATION;
+
+    static {
+        int down = -1;
+        for (int r = 0; r < PlacementEnumerator.rotationCount(T_BRICK); r++) {
+            int[] shape = PlacementEnumerator.shapeRows(T_BRICK, r);
+            int pr = TSpinDetector.pivotRow(r);
+            int pc = TSpinDetector.pivotColumn(r);
+            if (pr + 1 < shape.length && shape[pr] == 0b111 << (pc - 1) && shape[pr + 1] == 1 << pc) {
+                down = r;
+            }
+        }
+        if (down < 0) {
+            throw new ExceptionInInitializerError("No rotation of the T points down");
+        }
+        DOWN_ROTATION = down;
+    }
+
+    private final int width;
+    private final int height;
+    private final int full;
+    private final int[] rows;
+    private final PlacementEnumerator enumerator;
+
+    /**
+     * Creates a finder for the standard board size.
+     */
+    public TSlotFinder() {
+        this(GameConfiguration.BOARD_WIDTH, GameConfiguration.BOARD_HEIGHT);
+    }
+
+    /**
+     * Creates a finder for boards of the given size.
+     *
+     * @param width the number of columns (at most 30).
+     * @param height the number of rows.
+     * @throws IllegalArgumentException if the size is not supported.
+     */
+    public TSlotFinder(int width, int height) {
+        if (width <= 0 || width > 30 || height <= 0) {
+            throw new IllegalArgumentException("Unsupported board size " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.full = (1 << (width + 2)) - 1;
+        this.rows = new int[height];
+        this.enumerator = new PlacementEnumerator(width, height);
+    }
+
+    /**
+     * Scans a board for T-slots.
+     *
+     * @param board the locked blocks (0 is empty).
+     * @return the slots found, top to bottom and left to right.
+     * @throws IllegalArgumentException if the board size does not match.
+     */
+    public List<TSlot> find(int[][] board) {
+        if (board.length != height || board[0].length != width) {
+            throw new IllegalArgumentException("Board is " + board[0].length + "x" + board.length
+                    + ", expected " + width + "x" + height);
+        }
+        // bit c + 1 is column c; bits 0 and width + 1 are the walls
+        int walls = 1 | 1 << (width + 1);
+        for (int r = 0; r < height; r++) {
+            int mask = walls;
+            for (int c = 0; c < width; c++) {
+                if (board[r][c] != 0) {
+                    mask |= 1 << (c + 1);
+                }
+            }
+            rows[r] = mask;
+        }
+
+        List<TSlot> slots = new ArrayList<>();
+        int count = -1;
+        int pivotRow = TSpinDetector.pivotRow(DOWN_ROTATION);
+        int pivotColumn = TSpinDetector.pivotColumn(DOWN_ROTATION);
+        for (int r = 1; r + 1 < height; r++) {
+            int above = rows[r - 1];
+            int row = rows[r];
+            int below = rows[r + 1];
+            int empty = ~row;
+            // bit b: columns b - 1, b, b + 1 of the flat row are empty
+            int match = empty & empty << 1 & empty >>> 1;
+            // under the pivot empty, both lower corners blocked
+            match &= ~below & below << 1 & below >>> 1;
+            // above the pivot empty, at least one upper corner blocked
+            match &= ~above & (above << 1 | above >>> 1);
+            match &= full & ~walls;
+            if (match == 0) {
+                continue;
+            }
+            if (count < 0) {
+                count = enumerator.enumerate(board, T_BRICK, 0, width / 2 - GameConfiguration.SPAWN_X_OFFSET, 0);
+            }
+            for (int m = match; m != 0; m &= m - 1) {
+                int b = Integer.numberOfTrailingZeros(m);
+                int lines = ((row | 0b111 << (b - 1)) == full ? 1 : 0) + ((below | 1 << b) == full ? 1 : 0);
+                int x = b - 1 - pivotColumn;
+                int y = r - pivotRow;
+                slots.add(new TSlot(DOWN_ROTATION, x, y, lines, isPlacement(count, x, y)));
+            }
+        }
+        return slots;
+    }
+
+    private boolean isPlacement(int count, int x, int y) {
+        for (int i = 0; i < count; i++) {
+            if (enumerator.getRotation(i) == DOWN_ROTATION && enumerator.getX(i) == x && enumerator.getY(i) == y) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A T-slot: where the T would lock, and what it would do there.
+     */
+    public static final class TSlot {
+
+        private final int rotation;
+        private final int x;
+        private final int y;
+        private final int lines;
+        private final boolean reachable;
+
+        TSlot(int rotation, int x, int y, int lines, boolean reachable) {
+            this.rotation = rotation;
+            this.x = x;
+            this.y = y;
+            this.lines = lines;
+            this.reachable = reachable;
+        }
+
+        /**
+         * @return the rotation index the T locks in (pointing down).
+         */
+        public int getRotation() {
+            return rotation;
+        }
+
+        /**
+         * @return the column of the T's shape matrix when it locks.
+         */
+        public int getX() {
+            return x;
+        }
+
+        /**
+         * @return the row of the T's shape matrix when it locks.
+         */
+        public int getY() {
+            return y;
+        }
+
+        /**
+         * @return the number of lines the T-spin would clear: 0, 1 or 2.
+         */
+        public int getLines() {
+            return lines;
+        }
+
+        /**
+         * @return whether the T can get there from its spawn position.
+         */
+        public boolean isReachable() {
+            return reachable;
+        }
+
+        @Override
+        public String toString() {
+            return "TSlot[r" + rotation + " at " + x + "," + y + ", " + lines + " lines"
+                    + (reachable ? "" : ", unreachable") + "]";
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.comp2042.ai;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size, lock-free hash table of search results, shared by all threads of a search.
+ * <p>
+ * <b>Layout:</b> Open addressing over two parallel {@code long[]} arrays: the key slot and the value
+ * slot of an entry. A key is probed at its home index and the next {@value #PROBE_WINDOW} slots; there
+ * is no chaining and nothing is ever deleted, entries are only overwritten. A value packs a score,
+ * a search depth and the generation it was stored in (see {@link #newGeneration()}); entries of older
+ * generations are treated as absent.
+ * </p>
+ * <p>
+ * <b>Lock-free updates:</b> The key slot holds {@code key ^ value} rather than the key itself, so a
+ * reader that sees a key and a value from two different writes gets a mismatch instead of a wrong
+ * answer. Writers claim a slot with a compare-and-set on the key slot (through a {@link VarHandle}), and
+ * then publish the value with release semantics. A writer that loses the race scans again, and after a
+ * few lost races gives up: like every transposition table this one is lossy, and a search must treat a
+ * miss as "not known", never as "not there". No thread ever waits for another.
+ * </p>
+ * <p>
+ * <b>Replacement:</b> When a key is already present, or all slots of its window are taken by other
+ * keys, the {@link Replacement} policy decides whether the new entry wins. Stale entries always lose.
+ * </p>
+ * <p>
+ * <b>Metrics:</b> Probes, hits, stores, rejected stores, evictions and contention (lost
+ * compare-and-set races) are counted in {@link LongAdder}s, so counting itself does not contend.
+ * </p>
+ */
+public final class TranspositionTable {
+
+    /** Slots examined per key, starting at its home index. */
+    public static final int PROBE_WINDOW = 4;
+
+    /** Returned by {@link #probe} when the key is not found. Packed entries are never 0. */
+    public static final long MISS = 0L;
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int GENERATION_BITS = 24;
+    private static final int GENERATION_MASK = (1 << GENERATION_BITS) - 1;
+    private static final int MAX_DEPTH = 0xFF;
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * Decides whether a new entry replaces an existing one.
+     */
+    public enum Replacement {
+
+        /** The newest entry always wins. */
+        ALWAYS {
+            @Override
+            boolean replaces(long incoming, long existing) {
+                return true;
+            }
+        },
+
+        /** Deeper searches are worth more: the entry with the greater (or equal) depth wins. */
+        DEPTH_PREFERRED {
+            @Override
+            boolean replaces(long incoming, long existing) {
+                return depth(incoming) >= depth(existing);
+            }
+        },
+
+        /** The entry with the strictly higher score wins, so each key keeps its best score. */
+        BEST_SCORE {
+            @Override
+            boolean replaces(long incoming, long existing) {
+                return score(incoming) > score(existing);
+            }
+        };
+
+        /**
+         * @param incoming the packed entry being stored.
+         * @param existing a packed entry of the current generation in the way.
+         * @return whether {@code incoming} takes its slot.
+         */
+        abstract boolean replaces(long incoming, long existing);
+    }
+
+    private final long[] keys;
+    private final long[] values;
+    private final int mask;
+    private final Replacement policy;
+    private volatile int generation = 1;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder contention = new LongAdder();
+
+    /**
+     * Creates an empty table.
+     *
+     * @param capacity the number of entries, rounded up to a power of two.
+     * @param policy how to settle conflicts between entries.
+     * @throws IllegalArgumentException if the capacity is not positive or too large.
+     */
+    public TranspositionTable(int capacity, Replacement policy) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = Math.max(PROBE_WINDOW, Integer.highestOneBit(capacity - 1) << 1);
+        this.keys = new long[size];
+        this.values = new long[size];
+        this.mask = size - 1;
+        this.policy = policy;
+    }
+
+    /**
+     * Starts a new generation: every entry stored so far becomes stale, i.e. invisible to
+     * {@link #probe} and free to be overwritten. This is how a table is cleared between searches
+     * without touching its arrays. Call it while no other thread is using the table.
+     */
+    public void newGeneration() {
+        int next = (generation + 1) & GENERATION_MASK;
+        generation = next == 0 ? 1 : next;
+    }
+
+    /**
+     * Looks a key up.
+     *
+     * @param key the key; 0 is treated as 1.
+     * @return the packed entry (decode it with {@link #score} and {@link #depth}), or {@link #MISS}.
+     */
+    public long probe(long key) {
+        key = normalize(key);
+        probes.increment();
+        int current = generation;
+        int home = index(key);
+        for (int j = 0; j < PROBE_WINDOW; j++) {
+            int i = (home + j) & mask;
+            long value = (long) SLOTS.getAcquire(values, i);
+            long check = (long) SLOTS.getAcquire(keys, i);
+            if ((check ^ value) == key && value != 0 && generationOf(value) == current) {
+                hits.increment();
+                return value;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * Stores an entry, subject to the replacement policy.
+     *
+     * @param key the key; 0 is treated as 1.
+     * @param score the score to remember.
+     * @param depth the search depth behind the score, 0 to 255.
+     * @return true if the entry was written; false if the policy kept an existing entry or the store
+     *         lost too many races with other writers.
+     */
+    public boolean store(long key, float score, int depth) {
+        key = normalize(key);
+        long incoming = pack(score, Math.min(Math.max(depth, 0), MAX_DEPTH), generation);
+        int current = generationOf(incoming);
+        int home = index(key);
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            // the slot holding this key, else the first free one (empty or stale), else a victim
+            int match = -1;
+            int free = -1;
+            int victim = -1;
+            long matchCheck = 0;
+            long freeCheck = 0;
+            long victimCheck = 0;
+            long matchValue = 0;
+            long victimValue = 0;
+            for (int j = 0; j < PROBE_WINDOW; j++) {
+                int i = (home + j) & mask;
+                long value = (long) SLOTS.getAcquire(values, i);
+                long check = (long) SLOTS.getAcquire(keys, i);
+                if (value == 0 || generationOf(value) != current) {
+                    if (free < 0) {
+                        free = i;
+                        freeCheck = check;
+                    }
+                } else if ((check ^ value) == key) {
+                    match = i;
+                    matchCheck = check;
+                    matchValue = value;
+                    break;
+                } else if (victim < 0 || worse(value, victimValue)) {
+                    victim = i;
+                    victimCheck = check;
+                    victimValue = value;
+                }
+            }
+            int target;
+            long expected;
+            if (match >= 0) {
+                if (!policy.replaces(incoming, matchValue)) {
+                    rejected.increment();
+                    return false;
+                }
+                target = match;
+                expected = matchCheck;
+            } else if (free >= 0) {
+                target = free;
+                expected = freeCheck;
+            } else {
+                if (!policy.replaces(incoming, victimValue)) {
+                    rejected.increment();
+                    return false;
+                }
+                target = victim;
+                expected = victimCheck;
+            }
+            if (SLOTS.compareAndSet(keys, target, expected, key ^ incoming)) {
+                SLOTS.setRelease(values, target, incoming);
+                stores.increment();
+                if (target == victim && match < 0 && free < 0) {
+                    evictions.increment();
+                }
+                return true;
+            }
+            contention.increment();
+        }
+        return false;
+    }
+
+    /** Orders victims within a window: the entry the policy values least goes first. */
+    private boolean worse(long candidate, long than) {
+        return switch (policy) {
+            case ALWAYS -> false; // keep the first slot of the window
+            case DEPTH_PREFERRED -> depth(candidate) < depth(than);
+            case BEST_SCORE -> score(candidate) < score(than);
+        };
+    }
+
+    private int index(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static long normalize(long key) {
+        return key == 0 ? 1 : key;
+    }
+
+    private static long pack(float score, int depth, int generation) {
+        return (long) Float.floatToRawIntBits(score) << 32 | (long) depth << GENERATION_BITS | generation;
+    }
+
+    private static int generationOf(long entry) {
+        return (int) entry & GENERATION_MASK;
+    }
+
+    /**
+     * @param entry a packed entry returned by {@link #probe}.
+     * @return its score.
+     */
+    public static float score(long entry) {
+        return Float.intBitsToFloat((int) (entry >>> 32));
+    }
+
+    /**
+     * @param entry a packed entry returned by {@link #probe}.
+     * @return its search depth.
+     */
+    public static int depth(long entry) {
+        return (int) (entry >>> GENERATION_BITS) & MAX_DEPTH;
+    }
+
+    /**
+     * @return the number of entries the table can hold.
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    /**
+     * @return the replacement policy.
+     */
+    public Replacement getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return the number of {@link #probe} calls.
+     */
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    /**
+     * @return the number of probes that found their key.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return hits per probe, or 0 before the first probe.
+     */
+    public double getHitRate() {
+        long probed = probes.sum();
+        return probed == 0 ? 0 : (double) hits.sum() / probed;
+    }
+
+    /**
+     * @return the number of entries written.
+     */
+    public long getStores() {
+        return stores.sum();
+    }
+
+    /**
+     * @return the number of stores the replacement policy turned down.
+     */
+    public long getRejectedStores() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return the number of stores that overwrote a live entry of another key.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the number of compare-and-set races lost by writers.
+     */
+    public long getContention() {
+        return contention.sum();
+    }
+
+    /**
+     * Zeroes all counters; the entries are kept.
+     */
+    public void resetStats() {
+        probes.reset();
+        hits.reset();
+        stores.reset();
+        rejected.reset();
+        evictions.reset();
+        contention.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d slots, %s: %d probes, %.1f%% hits, %d stores, %d rejected, %d evictions, %d contended",
+                getCapacity(), policy, getProbes(), 100 * getHitRate(), getStores(), getRejectedStores(),
+                getEvictions(), getContention());
+    }
+}
@@ -0,0 +1,194 @@
+package com.comp2042.bot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Frames the messages of the external bot protocol on a pair of byte streams: the stdin and stdout
+ * of a bot process, seen from either end.
+ * <p>
+ * Every connection starts with one JSON line each way (the handshake, see {@link ExternalBot}), and
+ * then continues in the agreed format: one message per line, or a big-endian {@code i32} length
+ * before each message. Reading and writing go through one fixed buffer each, which is reused for
+ * every message, so a message must be handled (or copied) before the next one is read.
+ * </p>
+ * <p>
+ * Reading and writing may happen on two different threads, but each direction must stay on one.
+ * </p>
+ */
+public final class BotChannel {
+
+    /** The largest message accepted in either direction. */
+    public static final int MAX_MESSAGE = 64 * 1024;
+
+    private final InputStream in;
+    private final OutputStream out;
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(MAX_MESSAGE);
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(MAX_MESSAGE);
+    private boolean binary;
+
+    /**
+     * Wraps a pair of streams. The channel starts in JSON lines for the handshake.
+     *
+     * @param in the stream messages arrive on.
+     * @param out the stream messages are sent on.
+     */
+    public BotChannel(InputStream in, OutputStream out) {
+        this.in = new BufferedInputStream(in);
+        this.out = new BufferedOutputStream(out);
+    }
+
+    /**
+     * Switches the framing after the handshake.
+     *
+     * @param binary true for length-prefixed frames, false for lines.
+     */
+    public void setBinary(boolean binary) {
+        this.binary = binary;
+    }
+
+    /**
+     * @return whether messages are length-prefixed.
+     */
+    public boolean isBinary() {
+        return binary;
+    }
+
+    /**
+     * Reads the next message into the channel's read buffer.
+     *
+     * @return the buffer, positioned at the start of the message and limited at its end; or
+     *         {@code null} at the end of the stream.
+     * @throws IOException if reading fails or the message is larger than {@link #MAX_MESSAGE}.
+     */
+    public ByteBuffer read() throws IOException {
+        readBuffer.clear();
+        byte[] bytes = readBuffer.array();
+        if (binary) {
+            int b0 = in.read();
+            if (b0 < 0) {
+                return null;
+            }
+            int length = b0 << 24 | readByte() << 16 | readByte() << 8 | readByte();
+            if (length < 0 || length > MAX_MESSAGE) {
+                throw new IOException("Message of " + length + " bytes is too large");
+            }
+            for (int n = 0; n < length; ) {
+                int read = in.read(bytes, n, length - n);
+                if (read < 0) {
+                    throw new EOFException("Stream ended inside a message");
+                }
+                n += read;
+            }
+            readBuffer.limit(length);
+            return readBuffer;
+        }
+        int length = 0;
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                if (length == 0) {
+                    return null;
+                }
+                break;
+            }
+            if (length == MAX_MESSAGE) {
+                throw new IOException("Line is longer than " + MAX_MESSAGE + " bytes");
+            }
+            bytes[length++] = (byte) b;
+        }
+        if (length > 0 && bytes[length - 1] == '\r') {
+            length--;
+        }
+        readBuffer.limit(length);
+        return readBuffer;
+    }
+
+    private int readByte() throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("Stream ended inside a length prefix");
+        }
+        return b;
+    }
+
+    /**
+     * Clears and returns the channel's write buffer, to encode the next message into.
+     *
+     * @return the empty write buffer.
+     */
+    public ByteBuffer startMessage() {
+        return writeBuffer.clear();
+    }
+
+    /**
+     * Sends the message encoded into the write buffer since {@link #startMessage()}, and flushes.
+     *
+     * @throws IOException if writing fails.
+     */
+    public void send() throws IOException {
+        int length = writeBuffer.position();
+        if (binary) {
+            out.write(length >>> 24);
+            out.write(length >>> 16);
+            out.write(length >>> 8);
+            out.write(length);
+        }
+        out.write(writeBuffer.array(), 0, length);
+        if (!binary) {
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    /**
+     * Sends a text line, e.g. for the handshake, whatever the framing.
+     *
+     * @param line the line, without the line break.
+     * @throws IOException if writing fails.
+     */
+    public void sendLine(String line) throws IOException {
+        out.write(line.getBytes(StandardCharsets.UTF_8));
+        out.write('\n');
+        out.flush();
+    }
+
+    /**
+     * Reads a text line, e.g. for the handshake, whatever the framing.
+     *
+     * @return the line without its line break, or {@code null} at the end of the stream.
+     * @throws IOException if reading fails.
+     */
+    public String readLine() throws IOException {
+        boolean wasBinary = binary;
+        binary = false;
+        try {
+            ByteBuffer line = read();
+            return line == null ? null : new String(line.array(), 0, line.limit(), StandardCharsets.UTF_8);
+        } finally {
+            binary = wasBinary;
+        }
+    }
+
+    /**
+     * Closes both streams.
+     */
+    public void close() {
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // the other end is gone already
+        }
+        try {
+            in.close();
+        } catch (IOException ignored) {
+            // the other end is gone already
+        }
+    }
+}
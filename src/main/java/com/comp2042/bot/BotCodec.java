@@ -0,0 +1,791 @@
+package com.comp2042.bot;
+
+import com.comp2042.replay.ReplayAction;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts {@link BotTurn}s and {@link BotReply}s to and from the two wire formats of the external
+ * bot protocol.
+ * <p>
+ * <b>JSON lines:</b> One object per line, ASCII only. Bricks are letters ({@code I J L O S T Z}),
+ * the board is one integer per row, top row first, with bit {@code c} set if column {@code c} is
+ * filled. Coordinates are those of the brick's 4x4 shape matrix, as everywhere else in the game.
+ * </p>
+ * <pre>
+ *   host: {"type":"turn","id":7,"piece":"T","rotation":0,"x":3,"y":0,"hold":"","canHold":true,
+ *          "queue":"LJSZO","board":[0,0,...,1019,1023]}
+ *   bot:  {"type":"move","id":7,"hold":false,"rotation":1,"x":7,"y":20}
+ *   bot:  {"type":"keys","id":7,"keys":["rotate","right","softdrop","left"]}
+ *   bot:  {"type":"none","id":7}
+ * </pre>
+ * <p>
+ * Key names are {@code left right rotate softdrop harddrop hold}. Unknown fields are skipped, so
+ * either side can add fields without breaking the other.
+ * </p>
+ * <p>
+ * <b>Binary:</b> Each message is a frame of a big-endian {@code i32} length and that many bytes,
+ * starting with a type byte:
+ * </p>
+ * <pre>
+ *   turn   1, id i32, piece u8, rotation u8, x i8, y i8, hold u8 (0 = empty), canHold u8,
+ *          queueLength u8, queueLength x piece u8, height u16, height x row i32
+ *   move   2, id i32, hold u8, rotation u8, x i8, y i8
+ *   keys   3, id i32, count u8, count x {@link ReplayAction#getCode()} u8
+ *   none   4, id i32
+ *   quit   5
+ * </pre>
+ * <p>
+ * <b>No allocation:</b> Encoding writes into a caller's buffer and decoding reads from one into the
+ * reused holders, comparing names byte by byte instead of building strings. A codec keeps its JSON
+ * reader between messages, so it is not thread-safe: use one per thread. Malformed messages are
+ * reported with an {@link IllegalArgumentException}.
+ * </p>
+ */
+public final class BotCodec {
+
+    /** Protocol version, sent in the handshake. */
+    public static final int VERSION = 1;
+
+    static final byte TURN = 1;
+    static final byte MOVE = 2;
+    static final byte KEYS = 3;
+    static final byte NONE = 4;
+    static final byte QUIT = 5;
+
+    private static final String PIECES = "IJLOSTZ";
+
+    private static final byte[] F_TYPE = ascii("type");
+    private static final byte[] F_ID = ascii("id");
+    private static final byte[] F_PIECE = ascii("piece");
+    private static final byte[] F_ROTATION = ascii("rotation");
+    private static final byte[] F_X = ascii("x");
+    private static final byte[] F_Y = ascii("y");
+    private static final byte[] F_HOLD = ascii("hold");
+    private static final byte[] F_CAN_HOLD = ascii("canHold");
+    private static final byte[] F_QUEUE = ascii("queue");
+    private static final byte[] F_BOARD = ascii("board");
+    private static final byte[] F_KEYS = ascii("keys");
+
+    /** Message type names, indexed by type byte - 1. */
+    private static final byte[][] TYPES = {ascii("turn"), ascii("move"), ascii("keys"), ascii("none"), ascii("quit")};
+
+    private static final ReplayAction[] KEY_ACTIONS = {
+            ReplayAction.LEFT, ReplayAction.RIGHT, ReplayAction.ROTATE,
+            ReplayAction.SOFT_DROP, ReplayAction.HARD_DROP, ReplayAction.HOLD
+    };
+    private static final byte[][] KEY_NAMES = {
+            ascii("left"), ascii("right"), ascii("rotate"), ascii("softdrop"), ascii("harddrop"), ascii("hold")
+    };
+
+    private final boolean binary;
+    private final Cursor cursor = new Cursor();
+
+    /**
+     * Creates a codec for one of the two formats.
+     *
+     * @param binary true for length-prefixed binary frames, false for JSON lines.
+     */
+    public BotCodec(boolean binary) {
+        this.binary = binary;
+    }
+
+    /**
+     * @return whether this codec uses the binary format.
+     */
+    public boolean isBinary() {
+        return binary;
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * @param brickId a brick type ID from 1 to 7.
+     * @return its letter, e.g. 'T'.
+     */
+    public static char letterOf(int brickId) {
+        return PIECES.charAt(brickId - 1);
+    }
+
+    /**
+     * @param letter a brick letter.
+     * @return its type ID, or 0 if it is not a brick letter.
+     */
+    public static int brickIdOf(int letter) {
+        return PIECES.indexOf(Character.toUpperCase(letter)) + 1;
+    }
+
+    // --- turns ---
+
+    /**
+     * Encodes a turn as one message (without the line break or length prefix).
+     *
+     * @param turn the turn.
+     * @param out receives the message from its position on.
+     * @throws BufferOverflowException if the buffer is too small.
+     */
+    public void encodeTurn(BotTurn turn, ByteBuffer out) {
+        if (binary) {
+            out.put(TURN).putInt(turn.getId())
+                    .put((byte) turn.getBrickId()).put((byte) turn.getRotation())
+                    .put((byte) turn.getX()).put((byte) turn.getY())
+                    .put((byte) turn.getHeldId()).put((byte) (turn.canHold() ? 1 : 0))
+                    .put((byte) turn.getQueueLength());
+            for (int i = 0; i < turn.getQueueLength(); i++) {
+                out.put((byte) turn.getQueue(i));
+            }
+            out.putShort((short) turn.getHeight());
+            for (int r = 0; r < turn.getHeight(); r++) {
+                out.putInt(turn.getRow(r));
+            }
+            return;
+        }
+        put(out, "{\"type\":\"turn\",\"id\":");
+        putInt(out, turn.getId());
+        put(out, ",\"piece\":\"");
+        out.put((byte) letterOf(turn.getBrickId()));
+        put(out, "\",\"rotation\":");
+        putInt(out, turn.getRotation());
+        put(out, ",\"x\":");
+        putInt(out, turn.getX());
+        put(out, ",\"y\":");
+        putInt(out, turn.getY());
+        put(out, ",\"hold\":\"");
+        if (turn.getHeldId() != 0) {
+            out.put((byte) letterOf(turn.getHeldId()));
+        }
+        put(out, turn.canHold() ? "\",\"canHold\":true,\"queue\":\"" : "\",\"canHold\":false,\"queue\":\"");
+        for (int i = 0; i < turn.getQueueLength(); i++) {
+            out.put((byte) letterOf(turn.getQueue(i)));
+        }
+        put(out, "\",\"board\":[");
+        for (int r = 0; r < turn.getHeight(); r++) {
+            if (r > 0) {
+                out.put((byte) ',');
+            }
+            putInt(out, turn.getRow(r));
+        }
+        put(out, "]}");
+    }
+
+    /**
+     * Decodes a turn message.
+     *
+     * @param in the message, from its position to its limit; must be a heap buffer.
+     * @param width the board width agreed in the handshake.
+     * @param turn receives the turn.
+     * @throws IllegalArgumentException if the message is not a well-formed turn.
+     */
+    public void decodeTurn(ByteBuffer in, int width, BotTurn turn) {
+        if (binary) {
+            try {
+                if (in.get() != TURN) {
+                    throw new IllegalArgumentException("Not a turn message");
+                }
+                turn.setId(in.getInt());
+                int brickId = checkBrick(in.get());
+                int rotation = in.get();
+                turn.setBrick(brickId, rotation, in.get(), in.get());
+                int held = in.get();
+                turn.setHold(held == 0 ? 0 : checkBrick(held), in.get() != 0);
+                int queueLength = in.get() & 0xFF;
+                turn.setQueueLength(queueLength);
+                for (int i = 0; i < queueLength; i++) {
+                    turn.setQueue(i, checkBrick(in.get()));
+                }
+                int height = in.getShort() & 0xFFFF;
+                turn.resize(width, height);
+                for (int r = 0; r < height; r++) {
+                    turn.setRow(r, in.getInt());
+                }
+            } catch (BufferUnderflowException e) {
+                throw new IllegalArgumentException("Truncated turn message", e);
+            }
+            return;
+        }
+        Cursor c = cursor.reset(in);
+        boolean sawType = false;
+        int height = 0;
+        c.expect('{');
+        while (c.nextField()) {
+            if (c.fieldIs(F_TYPE)) {
+                if (c.readName(TYPES) != 0) {
+                    throw new IllegalArgumentException("Not a turn message");
+                }
+                sawType = true;
+            } else if (c.fieldIs(F_ID)) {
+                turn.setId(c.readInt());
+            } else if (c.fieldIs(F_PIECE)) {
+                turn.setBrick(c.readPiece(), turn.getRotation(), turn.getX(), turn.getY());
+            } else if (c.fieldIs(F_ROTATION)) {
+                turn.setBrick(turn.getBrickId(), c.readInt(), turn.getX(), turn.getY());
+            } else if (c.fieldIs(F_X)) {
+                turn.setBrick(turn.getBrickId(), turn.getRotation(), c.readInt(), turn.getY());
+            } else if (c.fieldIs(F_Y)) {
+                turn.setBrick(turn.getBrickId(), turn.getRotation(), turn.getX(), c.readInt());
+            } else if (c.fieldIs(F_HOLD)) {
+                turn.setHold(c.readPiece(), turn.canHold());
+            } else if (c.fieldIs(F_CAN_HOLD)) {
+                turn.setHold(turn.getHeldId(), c.readBoolean());
+            } else if (c.fieldIs(F_QUEUE)) {
+                c.expect('"');
+                int n = 0;
+                while (c.peek() != '"') {
+                    int id = brickIdOf(c.next());
+                    if (id == 0) {
+                        throw new IllegalArgumentException("Unknown brick in queue");
+                    }
+                    turn.setQueue(n++, id);
+                }
+                c.next();
+                turn.setQueueLength(n);
+            } else if (c.fieldIs(F_BOARD)) {
+                // the size is only known at the end, so the rows are counted first
+                int start = c.position();
+                height = c.countArray();
+                c.rewind(start);
+                turn.resize(width, height);
+                c.expect('[');
+                for (int r = 0; r < height; r++) {
+                    if (r > 0) {
+                        c.expect(',');
+                    }
+                    turn.setRow(r, c.readInt());
+                }
+                c.expect(']');
+            } else {
+                c.skipValue();
+            }
+        }
+        if (!sawType) {
+            throw new IllegalArgumentException("Message has no type");
+        }
+    }
+
+    // --- replies ---
+
+    /**
+     * Encodes a reply as one message (without the line break or length prefix).
+     *
+     * @param reply the reply.
+     * @param out receives the message from its position on.
+     * @throws BufferOverflowException if the buffer is too small.
+     */
+    public void encodeReply(BotReply reply, ByteBuffer out) {
+        if (binary) {
+            switch (reply.getKind()) {
+                case PLACEMENT -> out.put(MOVE).putInt(reply.getId()).put((byte) (reply.isHold() ? 1 : 0))
+                        .put((byte) reply.getRotation()).put((byte) reply.getX()).put((byte) reply.getY());
+                case KEYS -> {
+                    out.put(KEYS).putInt(reply.getId()).put((byte) reply.getKeyCount());
+                    for (int i = 0; i < reply.getKeyCount(); i++) {
+                        out.put((byte) reply.getKey(i).getCode());
+                    }
+                }
+                case NONE -> out.put(NONE).putInt(reply.getId());
+            }
+            return;
+        }
+        switch (reply.getKind()) {
+            case PLACEMENT -> {
+                put(out, "{\"type\":\"move\",\"id\":");
+                putInt(out, reply.getId());
+                put(out, reply.isHold() ? ",\"hold\":true,\"rotation\":" : ",\"hold\":false,\"rotation\":");
+                putInt(out, reply.getRotation());
+                put(out, ",\"x\":");
+                putInt(out, reply.getX());
+                put(out, ",\"y\":");
+                putInt(out, reply.getY());
+                out.put((byte) '}');
+            }
+            case KEYS -> {
+                put(out, "{\"type\":\"keys\",\"id\":");
+                putInt(out, reply.getId());
+                put(out, ",\"keys\":[");
+                for (int i = 0; i < reply.getKeyCount(); i++) {
+                    if (i > 0) {
+                        out.put((byte) ',');
+                    }
+                    out.put((byte) '"').put(KEY_NAMES[keyIndex(reply.getKey(i))]).put((byte) '"');
+                }
+                put(out, "]}");
+            }
+            case NONE -> {
+                put(out, "{\"type\":\"none\",\"id\":");
+                putInt(out, reply.getId());
+                out.put((byte) '}');
+            }
+        }
+    }
+
+    private static int keyIndex(ReplayAction key) {
+        for (int i = 0; i < KEY_ACTIONS.length; i++) {
+            if (KEY_ACTIONS[i] == key) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Not a key: " + key);
+    }
+
+    /**
+     * Decodes a reply message.
+     *
+     * @param in the message, from its position to its limit; must be a heap buffer.
+     * @param reply receives the reply.
+     * @throws IllegalArgumentException if the message is not a well-formed reply.
+     */
+    public void decodeReply(ByteBuffer in, BotReply reply) {
+        if (binary) {
+            try {
+                byte type = in.get();
+                int id = in.getInt();
+                switch (type) {
+                    case MOVE -> reply.setPlacement(id, in.get() != 0, in.get(), in.get(), in.get());
+                    case KEYS -> {
+                        reply.setKeys(id);
+                        int count = in.get() & 0xFF;
+                        for (int i = 0; i < count; i++) {
+                            reply.addKey(key(ReplayAction.fromCode(in.get())));
+                        }
+                    }
+                    case NONE -> reply.setNone(id);
+                    default -> throw new IllegalArgumentException("Not a reply message: type " + type);
+                }
+            } catch (BufferUnderflowException e) {
+                throw new IllegalArgumentException("Truncated reply message", e);
+            } catch (IllegalStateException e) {
+                throw new IllegalArgumentException(e.getMessage(), e);
+            }
+            return;
+        }
+        Cursor c = cursor.reset(in);
+        int type = -1;
+        int id = 0;
+        boolean hold = false;
+        int rotation = 0;
+        int x = 0;
+        int y = 0;
+        // keys are collected before the type is known; setKeys() would clear them
+        reply.setKeys(0);
+        c.expect('{');
+        while (c.nextField()) {
+            if (c.fieldIs(F_TYPE)) {
+                type = c.readName(TYPES);
+            } else if (c.fieldIs(F_ID)) {
+                id = c.readInt();
+            } else if (c.fieldIs(F_HOLD)) {
+                hold = c.readBoolean();
+            } else if (c.fieldIs(F_ROTATION)) {
+                rotation = c.readInt();
+            } else if (c.fieldIs(F_X)) {
+                x = c.readInt();
+            } else if (c.fieldIs(F_Y)) {
+                y = c.readInt();
+            } else if (c.fieldIs(F_KEYS)) {
+                c.expect('[');
+                boolean first = true;
+                while (c.peek() != ']') {
+                    if (!first) {
+                        c.expect(',');
+                    }
+                    first = false;
+                    int k = c.readName(KEY_NAMES);
+                    if (k < 0) {
+                        throw new IllegalArgumentException("Unknown key name");
+                    }
+                    try {
+                        reply.addKey(KEY_ACTIONS[k]);
+                    } catch (IllegalStateException e) {
+                        throw new IllegalArgumentException(e.getMessage(), e);
+                    }
+                }
+                c.next();
+            } else {
+                c.skipValue();
+            }
+        }
+        switch (type) {
+            case MOVE - 1 -> reply.setPlacement(id, hold, rotation, x, y);
+            case KEYS - 1 -> reply.setId(id);
+            case NONE - 1 -> reply.setNone(id);
+            default -> throw new IllegalArgumentException("Not a reply message");
+        }
+    }
+
+    private static ReplayAction key(ReplayAction action) {
+        for (ReplayAction key : KEY_ACTIONS) {
+            if (key == action) {
+                return action;
+            }
+        }
+        throw new IllegalArgumentException("Not a key code");
+    }
+
+    private static int checkBrick(int brickId) {
+        if (brickId < 1 || brickId > PIECES.length()) {
+            throw new IllegalArgumentException("Unknown brick " + brickId);
+        }
+        return brickId;
+    }
+
+    // --- control messages ---
+
+    /**
+     * Encodes the message that tells a bot to exit.
+     *
+     * @param out receives the message.
+     */
+    public void encodeQuit(ByteBuffer out) {
+        if (binary) {
+            out.put(QUIT);
+        } else {
+            put(out, "{\"type\":\"quit\"}");
+        }
+    }
+
+    /**
+     * @param in a message from the host, from its position to its limit; not consumed.
+     * @return whether it is the message to exit.
+     */
+    public boolean isQuit(ByteBuffer in) {
+        if (binary) {
+            return in.remaining() > 0 && in.get(in.position()) == QUIT;
+        }
+        Cursor c = cursor.reset(in);
+        c.expect('{');
+        while (c.nextField()) {
+            if (c.fieldIs(F_TYPE)) {
+                return c.readName(TYPES) == QUIT - 1;
+            }
+            c.skipValue();
+        }
+        return false;
+    }
+
+    // --- handshake ---
+
+    /**
+     * Builds the host's first line.
+     *
+     * @param width the board width.
+     * @param height the board height.
+     * @param binary whether the messages after the handshake are binary.
+     * @return the line, e.g. {@code {"type":"hello","protocol":1,"format":"json","width":10,"height":24}}.
+     */
+    public static String hello(int width, int height, boolean binary) {
+        return "{\"type\":\"hello\",\"protocol\":" + VERSION + ",\"format\":\"" + (binary ? "binary" : "json")
+                + "\",\"width\":" + width + ",\"height\":" + height + "}";
+    }
+
+    /**
+     * Builds the bot's answer to the hello line.
+     *
+     * @param name the bot's name, shown to players; quotes and backslashes are dropped.
+     * @return the line, e.g. {@code {"type":"ready","name":"sample"}}.
+     */
+    public static String ready(String name) {
+        return "{\"type\":\"ready\",\"name\":\"" + name.replaceAll("[\"\\\\]", "") + "\"}";
+    }
+
+    /**
+     * Reads one top-level field of a handshake line. Only for the handshake: it allocates.
+     *
+     * @param line a flat JSON object.
+     * @param name the field name.
+     * @return the value without quotes, or {@code null} if the field is missing.
+     */
+    public static String field(String line, String name) {
+        String key = "\"" + name + "\"";
+        int at = line.indexOf(key);
+        if (at < 0) {
+            return null;
+        }
+        int colon = line.indexOf(':', at + key.length());
+        if (colon < 0) {
+            return null;
+        }
+        int start = colon + 1;
+        while (start < line.length() && line.charAt(start) == ' ') {
+            start++;
+        }
+        if (start < line.length() && line.charAt(start) == '"') {
+            int close = line.indexOf('"', start + 1);
+            return close < 0 ? null : line.substring(start + 1, close);
+        }
+        int stop = start;
+        while (stop < line.length() && ",} ".indexOf(line.charAt(stop)) < 0) {
+            stop++;
+        }
+        return line.substring(start, stop);
+    }
+
+    // --- JSON output ---
+
+    private static void put(ByteBuffer out, String ascii) {
+        for (int i = 0; i < ascii.length(); i++) {
+            out.put((byte) ascii.charAt(i));
+        }
+    }
+
+    private static void putInt(ByteBuffer out, int value) {
+        if (value < 0) {
+            out.put((byte) '-');
+            if (value == Integer.MIN_VALUE) {
+                put(out, "2147483648");
+                return;
+            }
+            value = -value;
+        }
+        int digits = 1;
+        for (int v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        int end = out.position() + digits;
+        if (end > out.limit()) {
+            throw new BufferOverflowException();
+        }
+        for (int i = end - 1; i >= out.position(); i--) {
+            out.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        out.position(end);
+    }
+
+    // --- JSON input ---
+
+    /**
+     * Reads the flat JSON objects of the protocol straight from the bytes of a message.
+     */
+    private static final class Cursor {
+        private byte[] bytes;
+        private int end;
+        private int pos;
+        private int fieldStart;
+        private int fieldEnd;
+        private boolean first;
+
+        /** Starts reading a message; the buffer's position is left alone. */
+        Cursor reset(ByteBuffer in) {
+            if (!in.hasArray()) {
+                throw new IllegalArgumentException("Messages must be in heap buffers");
+            }
+            bytes = in.array();
+            pos = in.arrayOffset() + in.position();
+            end = in.arrayOffset() + in.limit();
+            first = true;
+            return this;
+        }
+
+        int position() {
+            return pos;
+        }
+
+        void rewind(int position) {
+            pos = position;
+        }
+
+        private void skipWhitespace() {
+            while (pos < end && (bytes[pos] == ' ' || bytes[pos] == '\t' || bytes[pos] == '\r' || bytes[pos] == '\n')) {
+                pos++;
+            }
+        }
+
+        int peek() {
+            skipWhitespace();
+            if (pos >= end) {
+                throw new IllegalArgumentException("Message ends too early");
+            }
+            return bytes[pos];
+        }
+
+        int next() {
+            int b = peek();
+            pos++;
+            return b;
+        }
+
+        void expect(char ch) {
+            if (next() != ch) {
+                throw new IllegalArgumentException("Expected '" + ch + "' at byte " + (pos - 1));
+            }
+        }
+
+        /** Moves to the next field name and past its colon; false at the end of the object. */
+        boolean nextField() {
+            if (peek() == '}') {
+                pos++;
+                return false;
+            }
+            if (!first) {
+                expect(',');
+            }
+            first = false;
+            expect('"');
+            fieldStart = pos;
+            while (pos < end && bytes[pos] != '"') {
+                pos++;
+            }
+            fieldEnd = pos;
+            expect('"');
+            expect(':');
+            return true;
+        }
+
+        boolean fieldIs(byte[] name) {
+            return equals(fieldStart, fieldEnd, name);
+        }
+
+        private boolean equals(int from, int to, byte[] name) {
+            if (to - from != name.length) {
+                return false;
+            }
+            for (int i = 0; i < name.length; i++) {
+                if (bytes[from + i] != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /** Reads a string and returns which of the names it is, or -1. */
+        int readName(byte[][] names) {
+            expect('"');
+            int start = pos;
+            while (pos < end && bytes[pos] != '"') {
+                pos++;
+            }
+            int stop = pos;
+            expect('"');
+            for (int i = 0; i < names.length; i++) {
+                if (equals(start, stop, names[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /** Reads a one-letter brick string; the empty string (or null) is 0. */
+        int readPiece() {
+            if (peek() == 'n') {
+                skipValue();
+                return 0;
+            }
+            expect('"');
+            if (peek() == '"') {
+                pos++;
+                return 0;
+            }
+            int id = brickIdOf(next());
+            expect('"');
+            if (id == 0) {
+                throw new IllegalArgumentException("Unknown brick letter");
+            }
+            return id;
+        }
+
+        int readInt() {
+            boolean negative = peek() == '-';
+            if (negative) {
+                pos++;
+            }
+            long value = 0;
+            int start = pos;
+            while (pos < end && bytes[pos] >= '0' && bytes[pos] <= '9') {
+                value = value * 10 + (bytes[pos++] - '0');
+                if (value > 1L << 32) {
+                    throw new IllegalArgumentException("Number too large");
+                }
+            }
+            if (pos == start) {
+                throw new IllegalArgumentException("Expected a number at byte " + pos);
+            }
+            return (int) (negative ? -value : value);
+        }
+
+        boolean readBoolean() {
+            int b = peek();
+            if (b == 't' && literal("true")) {
+                return true;
+            }
+            if (b == 'f' && literal("false")) {
+                return false;
+            }
+            throw new IllegalArgumentException("Expected true or false at byte " + pos);
+        }
+
+        private boolean literal(String word) {
+            if (end - pos < word.length()) {
+                return false;
+            }
+            for (int i = 0; i < word.length(); i++) {
+                if (bytes[pos + i] != word.charAt(i)) {
+                    return false;
+                }
+            }
+            pos += word.length();
+            return true;
+        }
+
+        /** Counts the elements of the array at the cursor, leaving the cursor after it. */
+        int countArray() {
+            expect('[');
+            if (peek() == ']') {
+                pos++;
+                return 0;
+            }
+            int count = 0;
+            do {
+                skipValue();
+                count++;
+            } while (next() == ',');
+            if (bytes[pos - 1] != ']') {
+                throw new IllegalArgumentException("Expected ']' at byte " + (pos - 1));
+            }
+            return count;
+        }
+
+        void skipValue() {
+            int b = peek();
+            if (b == '"') {
+                pos++;
+                while (pos < end && bytes[pos] != '"') {
+                    if (bytes[pos] == '\\') {
+                        pos++;
+                    }
+                    pos++;
+                }
+                expect('"');
+            } else if (b == '[' || b == '{') {
+                int depth = 0;
+                do {
+                    int ch = bytes[pos++];
+                    if (ch == '"') {
+                        pos--;
+                        skipValue();
+                    } else if (ch == '[' || ch == '{') {
+                        depth++;
+                    } else if (ch == ']' || ch == '}') {
+                        depth--;
+                    }
+                    if (depth > 0 && pos >= end) {
+                        throw new IllegalArgumentException("Message ends too early");
+                    }
+                } while (depth > 0);
+            } else {
+                int start = pos;
+                while (pos < end && bytes[pos] != ',' && bytes[pos] != '}' && bytes[pos] != ']'
+                        && bytes[pos] != ' ') {
+                    pos++;
+                }
+                if (pos == start) {
+                    throw new IllegalArgumentException("Expected a value at byte " + pos);
+                }
+            }
+        }
+    }
+}
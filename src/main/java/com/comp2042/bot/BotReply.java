@@ -0,0 +1,148 @@
+package com.comp2042.bot;
+
+import com.comp2042.replay.ReplayAction;
+
+/**
+ * A bot's answer to one {@link BotTurn}: a placement, a key sequence, or nothing.
+ * <p>
+ * Like the turn, a reply is a mutable holder that {@link BotCodec} decodes into, so reading a reply
+ * allocates nothing.
+ * </p>
+ */
+public final class BotReply {
+
+    /**
+     * What the bot answered.
+     */
+    public enum Kind {
+        /** Where the brick should lock, possibly after a hold. */
+        PLACEMENT,
+        /** The keys to press, in order; a hard drop is implied at the end. */
+        KEYS,
+        /** The bot has no move. */
+        NONE
+    }
+
+    /** The most keys a reply may carry. */
+    public static final int MAX_KEYS = 64;
+
+    private Kind kind = Kind.NONE;
+    private int id;
+    private boolean hold;
+    private int rotation;
+    private int x;
+    private int y;
+    private final ReplayAction[] keys = new ReplayAction[MAX_KEYS];
+    private int keyCount;
+
+    /**
+     * Makes this reply a placement.
+     *
+     * @param id the turn answered.
+     * @param hold whether to hold first.
+     * @param rotation the rotation the brick locks in.
+     * @param x the column of its shape matrix.
+     * @param y the row of its shape matrix.
+     */
+    public void setPlacement(int id, boolean hold, int rotation, int x, int y) {
+        this.kind = Kind.PLACEMENT;
+        this.id = id;
+        this.hold = hold;
+        this.rotation = rotation;
+        this.x = x;
+        this.y = y;
+        this.keyCount = 0;
+    }
+
+    /**
+     * Makes this reply an empty key sequence, to be filled with {@link #addKey}.
+     *
+     * @param id the turn answered.
+     */
+    public void setKeys(int id) {
+        this.kind = Kind.KEYS;
+        this.id = id;
+        this.hold = false;
+        this.keyCount = 0;
+    }
+
+    /**
+     * Appends a key to a key sequence.
+     *
+     * @param key a movement, rotation, soft drop, hold or hard drop.
+     * @throws IllegalStateException if the sequence is full.
+     */
+    public void addKey(ReplayAction key) {
+        if (keyCount == MAX_KEYS) {
+            throw new IllegalStateException("More than " + MAX_KEYS + " keys in one reply");
+        }
+        keys[keyCount++] = key;
+    }
+
+    /**
+     * Makes this reply "no move".
+     *
+     * @param id the turn answered.
+     */
+    public void setNone(int id) {
+        this.kind = Kind.NONE;
+        this.id = id;
+        this.keyCount = 0;
+    }
+
+    void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Copies another reply into this one.
+     *
+     * @param other the reply to copy.
+     */
+    public void copyFrom(BotReply other) {
+        this.kind = other.kind;
+        this.id = other.id;
+        this.hold = other.hold;
+        this.rotation = other.rotation;
+        this.x = other.x;
+        this.y = other.y;
+        this.keyCount = other.keyCount;
+        System.arraycopy(other.keys, 0, keys, 0, keyCount);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public boolean isHold() {
+        return hold;
+    }
+
+    public int getRotation() {
+        return rotation;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    /**
+     * @param index the position in the sequence.
+     * @return the key.
+     */
+    public ReplayAction getKey(int index) {
+        return keys[index];
+    }
+}
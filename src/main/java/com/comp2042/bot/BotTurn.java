@@ -0,0 +1,198 @@
+package com.comp2042.bot;
+
+import java.util.Arrays;
+
+/**
+ * One turn of the external bot protocol: everything a bot is told about the falling brick.
+ * <p>
+ * <b>Reused, not rebuilt:</b> A turn is a mutable holder that is filled in place every time a brick
+ * has to be planned, and encoded or decoded by {@link BotCodec} straight from and into its fields.
+ * The board is kept as one bit mask per row (bit {@code c} is column {@code c}), which is also how it
+ * goes over the wire, so filling a turn copies a few hundred ints and allocates nothing once the
+ * board size is known.
+ * </p>
+ */
+public final class BotTurn {
+
+    /** The most bricks of preview a turn carries. */
+    public static final int MAX_QUEUE = 16;
+
+    private int id;
+    private int width;
+    private int height;
+    private int[] rows = new int[0];
+    private int brickId;
+    private int rotation;
+    private int x;
+    private int y;
+    private int heldId;
+    private boolean canHold;
+    private final int[] queue = new int[MAX_QUEUE];
+    private int queueLength;
+
+    /**
+     * Fills the turn from the game's view of the falling brick.
+     *
+     * @param id the turn number the reply must carry.
+     * @param board the locked blocks (0 is empty); at most 31 columns.
+     * @param brickId the falling brick's type ID.
+     * @param rotation its current rotation.
+     * @param x the column of its shape matrix.
+     * @param y the row of its shape matrix.
+     * @param heldId the type ID in the hold slot, or 0 if it is empty.
+     * @param canHold whether hold may still be used for this brick.
+     * @param preview the type IDs of the next bricks, nearest first; only the first {@link #MAX_QUEUE} are sent.
+     * @throws IllegalArgumentException if the board is wider than 31 columns.
+     */
+    public void set(int id, int[][] board, int brickId, int rotation, int x, int y,
+                    int heldId, boolean canHold, int[] preview) {
+        int w = board[0].length;
+        if (w > 31) {
+            throw new IllegalArgumentException("Boards wider than 31 columns are not supported: " + w);
+        }
+        resize(w, board.length);
+        for (int r = 0; r < height; r++) {
+            int mask = 0;
+            int[] cells = board[r];
+            for (int c = 0; c < w; c++) {
+                if (cells[c] != 0) {
+                    mask |= 1 << c;
+                }
+            }
+            rows[r] = mask;
+        }
+        this.id = id;
+        this.brickId = brickId;
+        this.rotation = rotation;
+        this.x = x;
+        this.y = y;
+        this.heldId = heldId;
+        this.canHold = canHold;
+        this.queueLength = Math.min(preview.length, MAX_QUEUE);
+        System.arraycopy(preview, 0, queue, 0, queueLength);
+    }
+
+    /**
+     * Sets the board size, keeping the row buffer if it is big enough. The rows are cleared when the
+     * size changes.
+     */
+    void resize(int width, int height) {
+        if (rows.length < height) {
+            rows = new int[height];
+        } else if (this.height != height || this.width != width) {
+            Arrays.fill(rows, 0);
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    void setId(int id) {
+        this.id = id;
+    }
+
+    void setRow(int row, int mask) {
+        rows[row] = mask;
+    }
+
+    void setBrick(int brickId, int rotation, int x, int y) {
+        this.brickId = brickId;
+        this.rotation = rotation;
+        this.x = x;
+        this.y = y;
+    }
+
+    void setHold(int heldId, boolean canHold) {
+        this.heldId = heldId;
+        this.canHold = canHold;
+    }
+
+    void setQueueLength(int length) {
+        this.queueLength = Math.min(length, MAX_QUEUE);
+    }
+
+    void setQueue(int index, int brickId) {
+        if (index < MAX_QUEUE) {
+            queue[index] = brickId;
+        }
+    }
+
+    /**
+     * Writes the board into a matrix, e.g. for a planner that works on cells; 1 marks a block.
+     *
+     * @param board receives the cells; must be {@link #getHeight()} rows of {@link #getWidth()} cells.
+     */
+    public void copyBoard(int[][] board) {
+        for (int r = 0; r < height; r++) {
+            int mask = rows[r];
+            int[] cells = board[r];
+            for (int c = 0; c < width; c++) {
+                cells[c] = mask >>> c & 1;
+            }
+        }
+    }
+
+    /**
+     * Writes the preview into an array.
+     *
+     * @param preview receives the type IDs; must hold at least {@link #getQueueLength()} entries.
+     */
+    public void copyQueue(int[] preview) {
+        System.arraycopy(queue, 0, preview, 0, queueLength);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @param row the row, 0 at the top.
+     * @return the blocks of the row as a bit mask, bit {@code c} for column {@code c}.
+     */
+    public int getRow(int row) {
+        return rows[row];
+    }
+
+    public int getBrickId() {
+        return brickId;
+    }
+
+    public int getRotation() {
+        return rotation;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getHeldId() {
+        return heldId;
+    }
+
+    public boolean canHold() {
+        return canHold;
+    }
+
+    public int getQueueLength() {
+        return queueLength;
+    }
+
+    /**
+     * @param index the position in the preview, 0 for the next brick.
+     * @return the type ID.
+     */
+    public int getQueue(int index) {
+        return queue[index];
+    }
+}
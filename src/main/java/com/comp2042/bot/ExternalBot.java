@@ -0,0 +1,494 @@
+package com.comp2042.bot;
+
+import com.comp2042.ai.PlacementPlanner;
+import com.comp2042.ai.Plan;
+import com.comp2042.logic.WallKicks;
+import com.comp2042.logic.bricks.BrickTypes;
+import com.comp2042.replay.ReplayAction;
+import com.comp2042.sim.LatencyHistogram;
+import com.comp2042.util.GameConfiguration;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link PlacementPlanner} that asks a bot running as a child process, so engines written in any
+ * language can play the game.
+ * <p>
+ * <b>Protocol:</b> The host starts the bot and sends one JSON line, {@link BotCodec#hello}; the bot
+ * answers with {@link BotCodec#ready}. From then on the host sends a turn whenever a brick needs a
+ * plan, in JSON lines or length-prefixed binary as agreed, and the bot answers with a placement, a
+ * key sequence or "none" for that turn's id (see {@link BotCodec} for the messages). A key sequence is
+ * played out on the turn's board to find where it locks, so the game then drives the brick there
+ * like any other plan. At the end the host sends "quit" and closes the bot's stdin.
+ * </p>
+ * <p>
+ * <b>Non-blocking:</b> The game thread never touches the pipes. It encodes a turn into the channel's
+ * write buffer and hands it to a writer thread; a reader thread decodes every reply and publishes it.
+ * {@link #plan} waits at most the configured time for the answer; with a wait of zero it returns
+ * {@code null} at once and picks the answer up on a later call, which suits
+ * {@link com.comp2042.ai.AutoPlayer#update}, called every frame. A bot that stops reading cannot
+ * stall the game either: while the last turn is still being written, no new one is sent.
+ * </p>
+ * <p>
+ * <b>No per-turn garbage:</b> The turn, the replies and both message buffers are allocated once and
+ * reused; nothing like a {@link com.comp2042.model.ViewData} is built per turn. The only allocation
+ * is the {@link Plan} the planner interface returns.
+ * </p>
+ * <p>
+ * <b>Latency:</b> The time from handing a turn to the writer until its reply has been read is
+ * recorded for every answered turn, see {@link #getLatency()}.
+ * </p>
+ */
+public final class ExternalBot implements PlacementPlanner, AutoCloseable {
+
+    /** Per brick ID, per rotation, per shape row: the occupied columns as a bit mask. */
+    private static final int[][][] SHAPES = new int[8][][];
+
+    static {
+        for (int id = 1; id < SHAPES.length; id++) {
+            List<int[][]> shapes = BrickTypes.create(id).getShapeMatrix();
+            SHAPES[id] = new int[shapes.size()][4];
+            for (int r = 0; r < shapes.size(); r++) {
+                int[][] shape = shapes.get(r);
+                for (int i = 0; i < shape.length; i++) {
+                    for (int j = 0; j < shape[i].length; j++) {
+                        if (shape[i][j] != 0) {
+                            SHAPES[id][r][i] |= 1 << j;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private final Process process;
+    private final BotChannel channel;
+    private final BotCodec writeCodec;
+    private final BotCodec readCodec;
+    private final long waitNanos;
+    private final int width;
+    private final int height;
+    private final Thread reader;
+    private final Thread writer;
+    private final CountDownLatch handshake = new CountDownLatch(1);
+    private volatile String name;
+
+    // game thread
+    private final BotTurn turn = new BotTurn();
+    private final BotReply answer = new BotReply();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private int nextId;
+    private int pendingId = -1;
+    private long sentAt;
+    private long timeouts;
+
+    // handed between threads
+    private final Semaphore outgoing = new Semaphore(0);
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private final Object replyLock = new Object();
+    private final BotReply latest = new BotReply();
+    private boolean replyReady;
+    private long replyArrival;
+    private final AtomicLong malformed = new AtomicLong();
+    private volatile boolean quitting;
+    private volatile boolean closed;
+    private volatile String failure;
+
+    private ExternalBot(Process process, boolean binary, Duration wait, int width, int height) {
+        this.process = process;
+        this.channel = new BotChannel(process.getInputStream(), process.getOutputStream());
+        this.writeCodec = new BotCodec(binary);
+        this.readCodec = new BotCodec(binary);
+        this.waitNanos = wait.toNanos();
+        this.width = width;
+        this.height = height;
+        this.reader = new Thread(this::readLoop, "external-bot-reader");
+        this.writer = new Thread(this::writeLoop, "external-bot-writer");
+        reader.setDaemon(true);
+        writer.setDaemon(true);
+    }
+
+    /**
+     * Starts a bot for the standard board size and waits for its handshake.
+     *
+     * @param command the program and its arguments.
+     * @param binary whether to use binary frames after the handshake.
+     * @param wait how long {@link #plan} may wait for an answer; zero never waits.
+     * @return the connected bot.
+     * @throws IOException if the bot cannot be started or does not complete the handshake in time.
+     */
+    public static ExternalBot launch(List<String> command, boolean binary, Duration wait) throws IOException {
+        return launch(command, binary, wait, GameConfiguration.BOARD_WIDTH, GameConfiguration.BOARD_HEIGHT);
+    }
+
+    /**
+     * Starts a bot for boards of the given size and waits for its handshake.
+     *
+     * @param command the program and its arguments.
+     * @param binary whether to use binary frames after the handshake.
+     * @param wait how long {@link #plan} may wait for an answer; zero never waits.
+     * @param width the board width (at most 31).
+     * @param height the board height.
+     * @return the connected bot.
+     * @throws IOException if the bot cannot be started or does not complete the handshake in time.
+     * @throws IllegalArgumentException if the wait is negative or the board too wide.
+     */
+    public static ExternalBot launch(List<String> command, boolean binary, Duration wait, int width, int height)
+            throws IOException {
+        if (wait.isNegative()) {
+            throw new IllegalArgumentException("Negative wait: " + wait);
+        }
+        if (width <= 0 || width > 31 || height <= 0) {
+            throw new IllegalArgumentException("Unsupported board size " + width + "x" + height);
+        }
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        ExternalBot bot = new ExternalBot(process, binary, wait, width, height);
+        try {
+            bot.channel.sendLine(BotCodec.hello(width, height, binary));
+            bot.reader.start();
+            if (!bot.handshake.await(GameConfiguration.BOT_HANDSHAKE_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Bot did not answer the handshake within "
+                        + GameConfiguration.BOT_HANDSHAKE_MILLIS + " ms");
+            }
+            if (bot.name == null) {
+                throw new IOException("Bot handshake failed: " + bot.failure);
+            }
+        } catch (IOException e) {
+            bot.close();
+            throw e;
+        } catch (InterruptedException e) {
+            bot.close();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the bot", e);
+        }
+        bot.writer.start();
+        return bot;
+    }
+
+    private void readLoop() {
+        try {
+            String ready = channel.readLine();
+            if (ready == null || !"ready".equals(BotCodec.field(ready, "type"))) {
+                failure = ready == null ? "bot exited" : "expected ready, got " + ready;
+                return;
+            }
+            String botName = BotCodec.field(ready, "name");
+            channel.setBinary(writeCodec.isBinary());
+            name = botName == null ? "bot" : botName;
+            handshake.countDown();
+
+            BotReply incoming = new BotReply();
+            ByteBuffer message;
+            while ((message = channel.read()) != null) {
+                long arrival = System.nanoTime();
+                try {
+                    readCodec.decodeReply(message, incoming);
+                } catch (IllegalArgumentException e) {
+                    malformed.incrementAndGet();
+                    continue;
+                }
+                synchronized (replyLock) {
+                    latest.copyFrom(incoming);
+                    replyArrival = arrival;
+                    replyReady = true;
+                    replyLock.notifyAll();
+                }
+            }
+            failure = "bot closed its output";
+        } catch (IOException e) {
+            if (!closed) {
+                failure = e.getMessage();
+            }
+        } finally {
+            handshake.countDown();
+            closed = true;
+            synchronized (replyLock) {
+                replyLock.notifyAll();
+            }
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            while (true) {
+                outgoing.acquire();
+                channel.send();
+                writing.set(false);
+                if (quitting) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                failure = e.getMessage();
+            }
+            closed = true;
+        } catch (InterruptedException e) {
+            // closing
+        }
+    }
+
+    @Override
+    public Plan plan(int[][] board, int brickId, int rotation, int x, int y, int heldId, boolean canHold, int[] preview) {
+        if (closed) {
+            return null;
+        }
+        // an answer for another piece (this one locked while the bot was thinking) is of no use any more
+        if (pendingId >= 0 && !isPendingPiece(board, brickId, heldId, canHold)) {
+            pendingId = -1;
+        }
+        if (pendingId < 0 && !submit(board, brickId, rotation, x, y, heldId, canHold, preview)) {
+            return null;
+        }
+        if (!await()) {
+            if (waitNanos > 0) {
+                timeouts++;
+            }
+            return null;
+        }
+        return toPlan();
+    }
+
+    private boolean submit(int[][] board, int brickId, int rotation, int x, int y,
+                           int heldId, boolean canHold, int[] preview) {
+        if (writing.get()) {
+            return false;
+        }
+        if (board.length != height || board[0].length != width) {
+            throw new IllegalArgumentException("Board is " + board[0].length + "x" + board.length
+                    + ", expected " + width + "x" + height);
+        }
+        turn.set(nextId++ & Integer.MAX_VALUE, board, brickId, rotation, x, y, heldId, canHold, preview);
+        writeCodec.encodeTurn(turn, channel.startMessage());
+        pendingId = turn.getId();
+        sentAt = System.nanoTime();
+        writing.set(true);
+        outgoing.release();
+        return true;
+    }
+
+    /**
+     * Tells whether a call is still about the piece of the pending turn. A lock always changes the
+     * locked blocks, so a next piece of the same type (with the same hold slot) still shows up as a
+     * different board.
+     */
+    private boolean isPendingPiece(int[][] board, int brickId, int heldId, boolean canHold) {
+        if (brickId != turn.getBrickId() || heldId != turn.getHeldId() || canHold != turn.canHold()
+                || board.length != turn.getHeight()) {
+            return false;
+        }
+        for (int r = 0; r < board.length; r++) {
+            int[] cells = board[r];
+            int mask = 0;
+            for (int c = 0; c < cells.length; c++) {
+                if (cells[c] != 0) {
+                    mask |= 1 << c;
+                }
+            }
+            if (mask != turn.getRow(r)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Waits (at most the configured time) for the reply to the pending turn and takes it. */
+    private boolean await() {
+        long deadline = System.nanoTime() + waitNanos;
+        synchronized (replyLock) {
+            while (!(replyReady && latest.getId() == pendingId)) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0 || closed) {
+                    return false;
+                }
+                try {
+                    replyLock.wait(left / 1_000_000, (int) (left % 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            answer.copyFrom(latest);
+            replyReady = false;
+            latency.record(replyArrival - sentAt);
+        }
+        pendingId = -1;
+        return true;
+    }
+
+    private Plan toPlan() {
+        switch (answer.getKind()) {
+            case PLACEMENT:
+                // a hold the game cannot make is ignored, like a HOLD key in a key sequence
+                boolean hold = answer.isHold() && turn.canHold();
+                int brick = hold
+                        ? (turn.getHeldId() != 0 ? turn.getHeldId() : turn.getQueueLength() > 0 ? turn.getQueue(0) : 0)
+                        : turn.getBrickId();
+                if (brick == 0 || answer.getRotation() < 0 || answer.getRotation() >= SHAPES[brick].length) {
+                    return null;
+                }
+                return new Plan(hold, brick, answer.getRotation(), answer.getX(), answer.getY());
+            case KEYS:
+                return playKeys();
+            default:
+                return null;
+        }
+    }
+
+    /** Plays the key sequence of the answer on the turn's board and returns where the brick locks. */
+    private Plan playKeys() {
+        int brick = turn.getBrickId();
+        int rotation = turn.getRotation();
+        int x = turn.getX();
+        int y = turn.getY();
+        boolean held = false;
+        for (int i = 0; i < answer.getKeyCount(); i++) {
+            ReplayAction key = answer.getKey(i);
+            if (key == ReplayAction.HARD_DROP) {
+                break;
+            }
+            switch (key) {
+                case HOLD -> {
+                    if (held || !turn.canHold()) {
+                        continue;
+                    }
+                    int next = turn.getHeldId() != 0 ? turn.getHeldId()
+                            : turn.getQueueLength() > 0 ? turn.getQueue(0) : 0;
+                    if (next == 0) {
+                        return null;
+                    }
+                    held = true;
+                    brick = next;
+                    rotation = 0;
+                    x = width / 2 - GameConfiguration.SPAWN_X_OFFSET;
+                    y = 0;
+                    if (!fits(brick, rotation, x, y)) {
+                        return null;
+                    }
+                }
+                case LEFT -> x -= fits(brick, rotation, x - 1, y) ? 1 : 0;
+                case RIGHT -> x += fits(brick, rotation, x + 1, y) ? 1 : 0;
+                case SOFT_DROP -> y += fits(brick, rotation, x, y + 1) ? 1 : 0;
+                case ROTATE -> {
+                    int next = (rotation + 1) % SHAPES[brick].length;
+                    for (int kick = 0; kick < WallKicks.count(brick); kick++) {
+                        int kx = x + WallKicks.dx(brick, kick);
+                        int ky = y + WallKicks.dy(brick, kick);
+                        if (fits(brick, next, kx, ky)) {
+                            rotation = next;
+                            x = kx;
+                            y = ky;
+                            break;
+                        }
+                    }
+                }
+                default -> {
+                    // not a key
+                }
+            }
+        }
+        if (!fits(brick, rotation, x, y)) {
+            return null;
+        }
+        while (fits(brick, rotation, x, y + 1)) {
+            y++;
+        }
+        return new Plan(held, brick, rotation, x, y);
+    }
+
+    /** Collision test against the turn's board, with the same rules as the game's grid. */
+    private boolean fits(int brick, int rotation, int x, int y) {
+        int[] shape = SHAPES[brick][rotation];
+        for (int i = 0; i < shape.length; i++) {
+            if (shape[i] == 0) {
+                continue;
+            }
+            int row = y + i;
+            if (row < 0 || row >= height) {
+                return false;
+            }
+            long cells = x >= 0 ? (long) shape[i] << x : (long) shape[i] >>> -x;
+            if (x < 0 && (shape[i] & ((1 << -x) - 1)) != 0 || (cells >>> width) != 0
+                    || (cells & turn.getRow(row)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the name the bot gave in its handshake.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the round-trip times of answered turns, in nanoseconds; read it on the game thread.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return the number of {@link #plan} calls that waited the full time without an answer.
+     */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * @return the number of replies that could not be decoded and were ignored.
+     */
+    public long getMalformedReplies() {
+        return malformed.get();
+    }
+
+    /**
+     * @return whether the bot is still connected.
+     */
+    public boolean isAlive() {
+        return !closed && process.isAlive();
+    }
+
+    /**
+     * @return why the connection ended, or {@code null} while it is up or if it was closed normally.
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    /**
+     * Tells the bot to quit, gives it a moment to exit and then ends the process.
+     */
+    @Override
+    public void close() {
+        if (!closed && name != null && writer.isAlive() && writing.compareAndSet(false, true)) {
+            writeCodec.encodeQuit(channel.startMessage());
+            quitting = true;
+            outgoing.release();
+        }
+        try {
+            process.waitFor(500, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closed = true;
+        writer.interrupt();
+        channel.close();
+        process.destroy();
+        synchronized (replyLock) {
+            replyLock.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.comp2042.bot;
+
+import com.comp2042.ai.HeuristicBot;
+import com.comp2042.ai.PlacementEnumerator;
+import com.comp2042.ai.Plan;
+import com.comp2042.replay.ReplayAction;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A bot program for the external bot protocol, bundled so the protocol can be tried (and tested)
+ * offline: it plays the built-in {@link HeuristicBot} over stdin and stdout.
+ * <p>
+ * By default it answers with placements; with {@code --keys} it answers with the key sequence that
+ * reaches the placement instead, the way a bot that only knows about key presses would. It also serves
+ * as the reference for writing a bot in another language: read the hello line, answer with a ready
+ * line, then answer every turn until "quit" or the end of the input.
+ * </p>
+ */
+public final class SampleBot {
+
+    private SampleBot() {
+    }
+
+    /**
+     * Runs the bot on stdin and stdout.
+     *
+     * @param args {@code --keys} to answer with key sequences.
+     * @throws IOException if the host's streams fail.
+     */
+    public static void main(String[] args) throws IOException {
+        boolean keys = args.length > 0 && "--keys".equals(args[0]);
+        BotChannel channel = new BotChannel(System.in, System.out);
+        String hello = channel.readLine();
+        if (hello == null || !"hello".equals(BotCodec.field(hello, "type"))) {
+            System.err.println("SampleBot: expected a hello line, got " + hello);
+            return;
+        }
+        int width = Integer.parseInt(BotCodec.field(hello, "width"));
+        int height = Integer.parseInt(BotCodec.field(hello, "height"));
+        boolean binary = "binary".equals(BotCodec.field(hello, "format"));
+        channel.sendLine(BotCodec.ready(keys ? "sample-keys" : "sample"));
+        channel.setBinary(binary);
+
+        BotCodec codec = new BotCodec(binary);
+        BotTurn turn = new BotTurn();
+        BotReply reply = new BotReply();
+        HeuristicBot bot = new HeuristicBot();
+        int[][] board = new int[height][width];
+        int[] preview = new int[BotTurn.MAX_QUEUE];
+        int[] previewView = new int[0];
+        ReplayAction[] path = new ReplayAction[BotReply.MAX_KEYS];
+
+        ByteBuffer message;
+        while ((message = channel.read()) != null) {
+            if (codec.isQuit(message)) {
+                break;
+            }
+            codec.decodeTurn(message, width, turn);
+            turn.copyBoard(board);
+            turn.copyQueue(preview);
+            if (previewView.length != turn.getQueueLength()) {
+                previewView = new int[turn.getQueueLength()];
+            }
+            System.arraycopy(preview, 0, previewView, 0, previewView.length);
+            Plan plan = bot.plan(board, turn.getBrickId(), turn.getRotation(), turn.getX(), turn.getY(),
+                    turn.getHeldId(), turn.canHold(), previewView);
+            if (plan == null) {
+                reply.setNone(turn.getId());
+            } else if (keys) {
+                // the heuristic bot never holds, so its enumerator still has the placements of this brick
+                PlacementEnumerator enumerator = bot.getEnumerator();
+                reply.setKeys(turn.getId());
+                for (int i = 0; i < enumerator.getCount(); i++) {
+                    if (enumerator.getRotation(i) == plan.getRotation() && enumerator.getX(i) == plan.getX()
+                            && enumerator.getY(i) == plan.getY()) {
+                        int length = enumerator.copyPath(i, path);
+                        for (int k = 0; k < length; k++) {
+                            reply.addKey(path[k]);
+                        }
+                        break;
+                    }
+                }
+            } else {
+                reply.setPlacement(turn.getId(), plan.isHold(), plan.getRotation(), plan.getX(), plan.getY());
+            }
+            codec.encodeReply(reply, channel.startMessage());
+            channel.send();
+        }
+    }
+
+    /**
+     * Builds the command that runs this bot with the current JVM and class path, for
+     * {@link ExternalBot#launch}.
+     *
+     * @param args arguments for the bot, e.g. {@code --keys}.
+     * @return the command line.
+     */
+    public static List<String> command(String... args) {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(SampleBot.class.getName());
+        command.addAll(List.of(args));
+        return command;
+    }
+}
@@ -2,18 +2,24 @@ package com.comp2042.controllers;
 
 import com.comp2042.logic.GameHistory;
 import com.comp2042.logic.InputEventListener;
+import com.comp2042.logic.TimelineTree;
 import com.comp2042.logic.mode.GameMode;
 import com.comp2042.logic.mode.NormalMode;
+import com.comp2042.managers.FinesseTracker;
 import com.comp2042.managers.ScoreManager;
 import com.comp2042.logic.board.Board;
 import com.comp2042.model.BoardMemento;
 import com.comp2042.logic.board.SimpleBoard;
 import com.comp2042.model.*;
+import com.comp2042.replay.InputRecorder;
+import com.comp2042.replay.ReplayAction;
 import com.comp2042.util.EventSource;
 import com.comp2042.util.GameConfiguration;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
 
 /**
  * The central controller for the Tetris game logic.
@@ -33,10 +39,20 @@ public class GameController implements InputEventListener {
     private final Board board;
     private final ScoreManager scoreManager;
     private final GameHistory gameHistory;
+    private final TimelineTree timeline;
     private final List<GameObserver> observers = new ArrayList<>();
+    private final Random seedSource;
+    private final Supplier<GameSnapshot> keyframeSource = this::captureKeyframe;
+    private final Supplier<PieceLanding> landingSource = this::captureLanding;
+    private final FinesseTracker finesse;
 
     private GameMode currentMode;
     private int scoreAtSpawn;
+    private long gameSeed;
+    private InputRecorder inputRecorder;
+    private boolean recording;
+    private boolean recordingDone;
+    private int historyDepth;
 
     /**
      * Creates a new GameController with a fresh board, score manager,
@@ -46,14 +62,47 @@ public class GameController implements InputEventListener {
      * {@link #addObserver(GameObserver)}.</p>
      */
     public GameController() {
-        this.board = new SimpleBoard(GameConfiguration.BOARD_HEIGHT, GameConfiguration.BOARD_WIDTH);
-        this.scoreManager = new ScoreManager();
+        this(new SimpleBoard(GameConfiguration.BOARD_HEIGHT, GameConfiguration.BOARD_WIDTH), System.nanoTime());
+    }
+
+    /**
+     * Creates a GameController around a given board whose games are seeded deterministically.
+     * <p>
+     * Every game (including those started with {@link #createNewGame()}) draws its brick seed from
+     * a sequence derived from {@code seed}, so the same seed and the same inputs always produce
+     * the same games. This is what makes input-log replays possible.
+     * </p>
+     *
+     * @param board the board to play on
+     * @param seed the seed for the sequence of game seeds
+     */
+    public GameController(Board board, long seed) {
+        this(board, new ScoreManager(), seed);
+    }
+
+    /**
+     * Creates a GameController with an explicit score manager, e.g. one without file persistence
+     * for headless simulations.
+     *
+     * @param board the board to play on
+     * @param scoreManager the score manager to use
+     * @param seed the seed for the sequence of game seeds
+     */
+    public GameController(Board board, ScoreManager scoreManager, long seed) {
+        this.board = board;
+        this.seedSource = new Random(seed);
+        this.scoreManager = scoreManager;
         this.gameHistory = new GameHistory();
-        this.board.createNewBrick();
+        this.timeline = new TimelineTree();
+        int[][] matrix = board.getBoardMatrix();
+        this.finesse = new FinesseTracker(matrix[0].length, matrix.length);
+        this.gameSeed = seedSource.nextLong();
+        this.board.newGame(gameSeed);
         this.scoreAtSpawn = 0;
+        this.timeline.reset(board.getGrid(), 0, scoreManager.getLevel());
 
-        scoreManager.scoreProperty().addListener((obs, oldVal, newVal) -> notifyScore(newVal.intValue()));
-        scoreManager.levelProperty().addListener((obs, oldVal, newVal) -> notifyLevel(newVal.intValue()));
+        scoreManager.setScoreListener(this::notifyScore);
+        scoreManager.setLevelListener(this::notifyLevel);
         this.currentMode = new NormalMode();
     }
 
@@ -70,6 +119,134 @@ public class GameController implements InputEventListener {
         this.scoreManager.setLevelingEnabled(mode.isLevelingEnabled());
     }
 
+    /**
+     * Attaches a recorder that receives every input of every following game.
+     * A game is reported to the recorder from its first input until it ends.
+     *
+     * @param recorder the recorder, or {@code null} to stop recording
+     */
+    public void setInputRecorder(InputRecorder recorder) {
+        finishRecording();
+        this.inputRecorder = recorder;
+        this.recordingDone = false;
+    }
+
+    /**
+     * Exposes the finesse statistics of the current game; the UI feeds key presses into it.
+     *
+     * @return the tracker, reset with every new game
+     */
+    public FinesseTracker getFinesseTracker() {
+        return finesse;
+    }
+
+    /**
+     * @return the seed the brick generator of the current game was started with
+     */
+    public long getGameSeed() {
+        return gameSeed;
+    }
+
+    /**
+     * Reports the end of the current game to the input recorder, if one is recording.
+     * Called automatically on Game Over and when a new game starts; the UI calls it
+     * when the player leaves a game early.
+     */
+    public void finishRecording() {
+        if (!recording) {
+            return;
+        }
+        recording = false;
+        recordingDone = true;
+        inputRecorder.onGameEnded(
+                scoreManager.getScore(),
+                scoreManager.getTotalLinesCleared(),
+                scoreManager.getLevel(),
+                board.getGrid().contentHash()
+        );
+    }
+
+    /**
+     * Forwards an input to the recorder, starting the recording on the first input of a game.
+     *
+     * @param action the input about to be applied
+     */
+    private void record(ReplayAction action) {
+        if (inputRecorder == null || recordingDone) {
+            return;
+        }
+        if (!recording) {
+            recording = true;
+            inputRecorder.onGameStarted(gameSeed, currentMode);
+        }
+        inputRecorder.onAction(action);
+    }
+
+    /**
+     * Captures the complete state of the game in progress.
+     *
+     * @return a snapshot that {@link #restoreSnapshot(GameSnapshot)} can resume from exactly
+     */
+    public GameSnapshot captureSnapshot() {
+        return new GameSnapshot(
+                board.captureState(),
+                scoreManager.getScore(),
+                scoreManager.getTotalLinesCleared(),
+                scoreManager.getLevel(),
+                scoreAtSpawn,
+                gameHistory.peekState(),
+                gameHistory.getUndoCount(),
+                historyDepth
+        );
+    }
+
+    /**
+     * Resumes the game from a snapshot and redraws all observers.
+     * <p>
+     * The branching timeline restarts at the snapshot, so Undo cannot go back past it.
+     * </p>
+     *
+     * @param snapshot a state produced by {@link #captureSnapshot()}
+     */
+    public void restoreSnapshot(GameSnapshot snapshot) {
+        board.restoreFullState(snapshot.getBoard());
+        scoreManager.restoreState(snapshot.getScore(), snapshot.getLevel(), snapshot.getLines());
+        scoreAtSpawn = snapshot.getScoreAtSpawn();
+        gameHistory.restore(snapshot.getUndoState(), snapshot.getUndoCount());
+        timeline.reset(board.getGrid(), scoreAtSpawn, snapshot.getLevel());
+        historyDepth = snapshot.getHistoryDepth();
+        finesse.onPieceReset();
+
+        notifyBackground();
+        notifyBoard();
+        notifyScore(snapshot.getScore());
+        notifyLevel(snapshot.getLevel());
+    }
+
+    /**
+     * Captures the falling piece where it came to rest, for recorders that collect placements.
+     * Only called through {@link #landingSource}, and only by recorders that use it.
+     *
+     * @return the landing
+     */
+    private PieceLanding captureLanding() {
+        return new PieceLanding(board.captureState(), board.getUpcomingBrickIds());
+    }
+
+    /**
+     * Captures a snapshot for a replay keyframe, unless resuming from it could not reproduce
+     * the game: after an Undo in branching mode the current state has redo branches that a
+     * snapshot does not carry.
+     *
+     * @return the snapshot, or {@code null} if no keyframe should be taken now
+     */
+    private GameSnapshot captureKeyframe() {
+        if (currentMode.isBranchingUndoEnabled() && !timeline.getCursor().getChildren().isEmpty()) {
+            return null;
+        }
+        return captureSnapshot();
+    }
+
     // Observer management
     /**
      * Registers a new GameObserver to receive UI updates.
@@ -85,8 +262,8 @@ public class GameController implements InputEventListener {
         observers.add(observer);
         observer.onGameBackgroundUpdated(board.getBoardMatrix());
         observer.onBoardUpdated(board.getViewData());
-        observer.onScoreUpdated(scoreManager.scoreProperty().get());
-        observer.onLevelUpdated(scoreManager.levelProperty().get());
+        observer.onScoreUpdated(scoreManager.getScore());
+        observer.onLevelUpdated(scoreManager.getLevel());
         observer.onDangerStateChanged(board.isDangerState());
     }
 
@@ -124,6 +301,7 @@ public class GameController implements InputEventListener {
      * the controller will store the new record.
      */
     public void notifyGameOver() {
+        finishRecording();
         notifyDanger(false);
         if (currentMode.isHighScoreEnabled()) {
             scoreManager.checkAndSaveHighestScore();
@@ -158,29 +336,95 @@ public class GameController implements InputEventListener {
 
     private void saveState() {
         gameHistory.save(new BoardMemento(
-                board.getBoardMatrix(),
+                board.getGrid(),
                 scoreAtSpawn,
-                scoreManager.levelProperty().get()
+                scoreManager.getLevel()
         ));
     }
 
     /**
-     * Restores the previous board, score, and level state
-     * from gameHistory, respecting the undo limit defined
+     * Restores the previous board, score, and level state.
+     * Modes with branching undo step back through the {@link TimelineTree};
+     * other modes pop gameHistory, respecting the undo limit defined
      * by the active GameMode.
      *
      * <p>If no previous states are available, nothing happens.</p>
      */
     private void undo() {
-        int limit = currentMode.getUndoLimit();
-        BoardMemento previousState = gameHistory.popState(limit);
+        if (currentMode.isBranchingUndoEnabled()) {
+            BoardMemento previousState = timeline.undo();
+            if (previousState != null) {
+                moveInHistory(-1);
+            }
+            restore(previousState);
+        } else {
+            restore(gameHistory.popState(currentMode.getUndoLimit()));
+        }
+    }
+
+    /**
+     * Re-applies the most recently undone move from the timeline.
+     * Does nothing in modes without branching undo or when there is nothing to redo.
+     */
+    private void redo() {
+        if (currentMode.isBranchingUndoEnabled()) {
+            BoardMemento nextState = timeline.redo();
+            if (nextState != null) {
+                moveInHistory(1);
+            }
+            restore(nextState);
+        }
+    }
+
+    /**
+     * Tracks how deep in the timeline the current state is and reports it to the recorder,
+     * which needs it to know which keyframes an Undo has reached behind.
+     *
+     * @param delta +1 for a redo, -1 for an undo
+     */
+    private void moveInHistory(int delta) {
+        historyDepth += delta;
+        if (recording) {
+            inputRecorder.onHistoryRestored(historyDepth);
+        }
+    }
+
+    /**
+     * Moves the game to any state recorded in the timeline, e.g. to compare two branches.
+     *
+     * @param node a node of {@link #getTimeline()}
+     */
+    public void jumpTo(TimelineTree.Node node) {
+        int depthBefore = timeline.getCursor().getDepth();
+        BoardMemento state = timeline.jumpTo(node);
+        if (state != null) {
+            moveInHistory(timeline.getCursor().getDepth() - depthBefore);
+        }
+        restore(state);
+    }
+
+    /**
+     * Exposes the branching history so the UI or analysis tools can list its branches.
+     *
+     * @return the timeline of the current game
+     */
+    public TimelineTree getTimeline() {
+        return timeline;
+    }
 
+    /**
+     * Applies a saved state to the board and score, and notifies observers.
+     *
+     * @param previousState the state to apply, or {@code null} to do nothing
+     */
+    private void restore(BoardMemento previousState) {
         if (previousState == null) {
             return;
         }
-        board.restoreState(previousState.getBoardState());
+        board.restoreState(previousState.getGrid());
         scoreManager.restoreState(previousState.getScore(), previousState.getLevel());
         board.resetCurrentBrick();
+        finesse.onPieceReset();
 
         scoreAtSpawn = previousState.getScore();
 
@@ -194,6 +438,7 @@ public class GameController implements InputEventListener {
      * Handles all logic when a falling piece can no longer move down:
      * <ol>
      *   <li>Save current state for undo</li>
+     *   <li>Judge the player's key presses for the piece, if any</li>
      *   <li>Merge brick into background</li>
      *   <li>Clear completed rows</li>
      *   <li>Update score and notify observers</li>
@@ -204,19 +449,36 @@ public class GameController implements InputEventListener {
     private void handlePieceLanded() {
         saveState();
 
+        if (finesse.hasPendingPresses()) {
+            BoardState piece = board.captureState();
+            finesse.onPieceLocked(piece.getGrid().rows(), piece.getBrickId(), piece.getRotation(),
+                    piece.getX(), piece.getY());
+        }
+        if (recording) {
+            inputRecorder.onPieceLanded(landingSource);
+        }
         board.mergeBrickToBackground();
         ClearRow clearRow = board.clearRows();
         int linesCleared = clearRow.getLinesRemoved();
-        scoreManager.onRowsCleared(linesCleared);
+        TSpin spin = clearRow.getSpin();
+        scoreManager.onRowsCleared(linesCleared, spin);
+        if (recording) {
+            inputRecorder.onPieceLocked(board.getGrid().contentHash(), scoreManager.getScore());
+        }
 
-        if (linesCleared > 0) {
+        if (linesCleared > 0 || spin != TSpin.NONE) {
             String message = switch (linesCleared) {
+                case 0 -> "";
                 case 1 -> "SINGLE";
                 case 2 -> "DOUBLE";
                 case 3 -> "TRIPLE";
                 case GameConfiguration.LINES_FOR_TETRIS -> "TETRIS!";
                 default -> "NICE!";
             };
+            if (spin != TSpin.NONE) {
+                String name = spin == TSpin.MINI ? "MINI T-SPIN" : "T-SPIN";
+                message = message.isEmpty() ? name + "!" : name + " " + message;
+            }
             notifyLineClear(linesCleared, message);
         }
 
@@ -229,8 +491,15 @@ public class GameController implements InputEventListener {
         if (isGameOver) {
             currentMode.handleGameOver(this);
         } else {
-            scoreAtSpawn = scoreManager.scoreProperty().get();
+            scoreAtSpawn = scoreManager.getScore();
+            if (currentMode.isBranchingUndoEnabled()) {
+                timeline.commit(board.getGrid(), scoreAtSpawn, scoreManager.getLevel());
+                historyDepth++;
+            }
             notifyBoard();
+            if (recording) {
+                inputRecorder.onPieceSpawned(keyframeSource);
+            }
         }
     }
 
@@ -238,9 +507,17 @@ public class GameController implements InputEventListener {
     /** Undo input event triggered by the player. */
     @Override
     public void onUndoEvent() {
+        record(ReplayAction.UNDO);
         undo();
     }
 
+    /** Redo input event triggered by the player. */
+    @Override
+    public void onRedoEvent() {
+        record(ReplayAction.REDO);
+        redo();
+    }
+
     /**
      * Soft drop event. Moves the brick down by 1 cell.
      * If the brick cannot move further, it triggers landing logic.
@@ -249,6 +526,7 @@ public class GameController implements InputEventListener {
      */
     @Override
     public void onDownEvent(MoveEvent event) {
+        record(event.getEventSource() == EventSource.USER ? ReplayAction.SOFT_DROP : ReplayAction.GRAVITY);
         boolean canMove = board.moveBrickDown();
 
         if (!canMove) {
@@ -270,6 +548,7 @@ public class GameController implements InputEventListener {
      */
     @Override
     public void onHardDropEvent(MoveEvent event) {
+        record(ReplayAction.HARD_DROP);
         int rowsDropped = board.hardDrop();
         scoreManager.onHardDrop(rowsDropped);
         notifyBrickDropped();
@@ -279,7 +558,9 @@ public class GameController implements InputEventListener {
     /** Handles holding the current brick. */
     @Override
     public void onHoldEvent(MoveEvent event) {
+        record(ReplayAction.HOLD);
         boolean isGameOver = board.holdCurrentBrick();
+        finesse.onPieceReset();
         if (isGameOver) {
             currentMode.handleGameOver(this);
         } else {
@@ -290,6 +571,7 @@ public class GameController implements InputEventListener {
     /** Moves the brick left by one cell (if possible). */
     @Override
     public void onLeftEvent() {
+        record(ReplayAction.LEFT);
         board.moveBrickLeft();
         notifyBoard();
     }
@@ -297,6 +579,7 @@ public class GameController implements InputEventListener {
     /** Moves the brick right by one cell (if possible). */
     @Override
     public void onRightEvent() {
+        record(ReplayAction.RIGHT);
         board.moveBrickRight();
         notifyBoard();
     }
@@ -304,6 +587,7 @@ public class GameController implements InputEventListener {
     /** Rotates the brick counter-clockwise. */
     @Override
     public void onRotateEvent() {
+        record(ReplayAction.ROTATE);
         board.rotateLeftBrick();
         notifyBoard();
     }
@@ -317,14 +601,31 @@ public class GameController implements InputEventListener {
      * - undo history
      * - danger state
      *
+     * The previous game's recording is finished and the new game gets a fresh seed.
      * Observers are notified to redraw the board.
      */
     @Override
     public void createNewGame() {
-        board.newGame();
+        createNewGame(seedSource.nextLong());
+    }
+
+    /**
+     * Starts a new game whose brick sequence is determined by the given seed.
+     * Used to re-simulate a recorded game.
+     *
+     * @param seed the seed for the brick generator
+     */
+    public void createNewGame(long seed) {
+        finishRecording();
+        recordingDone = false;
+        gameSeed = seed;
+        historyDepth = 0;
+        board.newGame(gameSeed);
         scoreManager.reset();
+        finesse.reset();
         gameHistory.reset();
         scoreAtSpawn = 0;
+        timeline.reset(board.getGrid(), 0, scoreManager.getLevel());
 
         notifyDanger(false); // Reset music/shake
 
@@ -1,5 +1,11 @@
 package com.comp2042.controllers;
 
+import com.comp2042.ai.AutoPlayer;
+import com.comp2042.ai.BeamSearchBot;
+import com.comp2042.ai.HintService;
+import com.comp2042.ai.PlacementPlanner;
+import com.comp2042.ai.Plan;
+import com.comp2042.bot.ExternalBot;
 import com.comp2042.logic.InputEventListener;
 import com.comp2042.logic.mode.GameMode;
 import com.comp2042.managers.ScoreManager;
@@ -9,16 +15,25 @@ import com.comp2042.managers.KeyManager;
 import com.comp2042.managers.SoundManager;
 import com.comp2042.model.*;
 import com.comp2042.ui.*;
+import com.comp2042.replay.GhostRace;
+import com.comp2042.replay.Replay;
+import com.comp2042.replay.ReplayAction;
+import com.comp2042.replay.ReplayArchive;
+import com.comp2042.replay.ReplayPlayer;
+import com.comp2042.replay.ReplayRecorder;
 import com.comp2042.managers.EffectManager;
+import com.comp2042.managers.FinesseTracker;
 import com.comp2042.util.EventSource;
 import com.comp2042.util.EventType;
 import com.comp2042.util.GameConfiguration;
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
 import javafx.scene.control.Label;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.StackPane;
@@ -26,6 +41,9 @@ import javafx.scene.layout.VBox;
 import javafx.scene.text.Font;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.ResourceBundle;
 
 /**
@@ -38,6 +56,7 @@ import java.util.ResourceBundle;
  *   <li>Forwarding input events to the {@link GameController} (the Model)</li>
  *   <li>Updating UI when notified through {@link GameObserver}</li>
  *   <li>Managing UI panels such as pause and game-over screens</li>
+ *   <li>Racing the best archived game of the current mode as a small ghost board</li>
  * </ul>
  *
  * <p>Game updates are driven by {@link GameLoopManager}, which generates timed tick events
@@ -65,6 +84,11 @@ public class GuiController implements Initializable, GameObserver {
     @FXML private Label gameOverScoreLabel;
     @FXML private Label currentScoreLabel;
 
+    // Ghost Race
+    @FXML private VBox ghostPane;
+    @FXML private Canvas ghostCanvas;
+    @FXML private Label ghostScoreLabel;
+
     private SoundManager soundManager;
     private GameRenderer gameRenderer;
     private GameLoopManager gameLoopManager;
@@ -75,6 +99,19 @@ public class GuiController implements Initializable, GameObserver {
     private InputEventListener eventListener;
     private int currentScore = 0;
 
+    private GhostRenderer ghostRenderer;
+    private GhostRace ghostRace;
+    private AnimationTimer ghostTimer;
+    private String currentModeName;
+    private boolean ghostEnabled = true;
+
+    private AutoPlayer autoPlayer;
+    private AnimationTimer botTimer;
+    private boolean botEnabled;
+    private ExternalBot externalBot;
+
+    private HintService hintService;
+
     /**
      * Initializes all UI components, event managers, and the game renderer.
      *
@@ -100,7 +137,28 @@ public class GuiController implements Initializable, GameObserver {
         this.gameLoopManager = new GameLoopManager(this::onGameTick, countdownLabel);
         this.keyManager = new KeyManager(this, gameLoopManager);
         this.effectManager = new EffectManager(gamePanel);
+        this.ghostRenderer = new GhostRenderer(ghostCanvas, ghostScoreLabel, colorManager);
+        this.ghostTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                updateGhost();
+            }
+        };
         this.gameController = new GameController();
+        // timed by the play clock, like the ghost, so pauses and countdowns cannot put the two out of step
+        gameController.setInputRecorder(new ReplayRecorder(this::archiveReplay, gameLoopManager.getGameClock()));
+        this.autoPlayer = new AutoPlayer(gameController, createBotPlanner(), GameConfiguration.BOT_PIECES_PER_SECOND);
+        gameController.addObserver(autoPlayer);
+        // hints are searched off the FX thread and drawn back on it
+        this.hintService = new HintService(gameController, hint -> Platform.runLater(() -> showHint(hint)));
+        hintService.setEnabled(false);
+        gameController.addObserver(hintService);
+        this.botTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                updateAutoPlayer(now);
+            }
+        };
 
         gameController.addObserver(soundManager);
         soundManager.playMusic();
@@ -112,10 +170,26 @@ public class GuiController implements Initializable, GameObserver {
 
         this.setEventListener(gameController);
         rootPane.setOnKeyPressed(keyManager::handleInput);
+        rootPane.setOnKeyReleased(keyManager::handleRelease);
+        keyManager.setFinesseTracker(gameController.getFinesseTracker());
 
         resetUIState();
     }
 
+    /**
+     * Appends a finished game to the replay archive.
+     * Failures are logged rather than thrown so that saving can never interrupt play.
+     *
+     * @param replay the recorded game
+     */
+    private void archiveReplay(Replay replay) {
+        try (ReplayArchive archive = ReplayArchive.open(Path.of(GameConfiguration.PATH_REPLAY_DIR))) {
+            archive.append(replay);
+        } catch (IOException e) {
+            System.err.println("Could not archive replay: " + e.getMessage());
+        }
+    }
+
     /**
      * Applies a selected game mode to the model and adjusts UI visibility
      * (such as enabling or disabling the level counter).
@@ -126,6 +200,10 @@ public class GuiController implements Initializable, GameObserver {
         if (gameController != null) {
             gameController.setGameMode(mode);
         }
+        currentModeName = mode.getName();
+        if (hintService != null) {
+            hintService.setEnabled(mode.isHintEnabled());
+        }
         if (levelLabel != null) {
             levelLabel.setVisible(mode.isLevelLabelVisible());
         }
@@ -208,7 +286,13 @@ public class GuiController implements Initializable, GameObserver {
                 gameOverScoreLabel.setText("Highest Score: " + bestScore);
             }
             if (currentScoreLabel != null) {
-                currentScoreLabel.setText("Your Score: " + currentScore);
+                FinesseTracker finesse = gameController.getFinesseTracker();
+                String text = "Your Score: " + currentScore;
+                if (finesse.getPieces() > 0) {
+                    text += String.format("%nFinesse: %.0f%% (%d extra presses)",
+                            finesse.getAccuracy() * 100, finesse.getExtraPresses());
+                }
+                currentScoreLabel.setText(text);
             }
 
             gameOverPane.setVisible(true);
@@ -256,12 +340,151 @@ public class GuiController implements Initializable, GameObserver {
         resetUIState();
         rootPane.requestFocus();
         gameLoopManager.newGame();
+        loadGhost();
 
         if (soundManager != null) {
             soundManager.playMusic();
         }
     }
 
+    /**
+     * Loads the best archived game of the current mode as the ghost to race against.
+     * <p>
+     * The ghost is advanced once per frame by an {@link AnimationTimer}, using the pause-aware
+     * game clock of the {@link GameLoopManager}, so it freezes whenever the live game does.
+     * If nothing has been archived for this mode yet, the ghost panel stays hidden.
+     * </p>
+     */
+    private void loadGhost() {
+        ghostTimer.stop();
+        ghostRace = null;
+        if (currentModeName != null) {
+            try {
+                ghostRace = GhostRace.loadBest(Path.of(GameConfiguration.PATH_REPLAY_DIR), currentModeName);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Could not load ghost replay: " + e.getMessage());
+            }
+        }
+        ghostRenderer.reset();
+        if (ghostRace != null) {
+            ghostRace.addObserver(ghostRenderer);
+            ghostTimer.start();
+        }
+        updateGhostVisibility();
+    }
+
+    /**
+     * Advances the ghost to the live game's play time and repaints it if it changed.
+     * Called once per frame while a ghost is running.
+     */
+    private void updateGhost() {
+        if (ghostRace == null) {
+            return;
+        }
+        ghostRace.update(gameLoopManager.getGameClock().elapsedMillis());
+        if (ghostRace.isFinished()) {
+            // a game that was quit early ends without a game over event
+            ghostRenderer.onGameOver();
+            ghostTimer.stop();
+        }
+        ghostRenderer.render();
+    }
+
+    private void updateGhostVisibility() {
+        boolean visible = ghostEnabled && ghostRace != null;
+        ghostPane.setVisible(visible);
+        ghostPane.setManaged(visible);
+    }
+
+    /**
+     * Shows or hides the ghost race board. The ghost keeps running while hidden.
+     */
+    public void toggleGhost() {
+        ghostEnabled = !ghostEnabled;
+        updateGhostVisibility();
+    }
+
+    /**
+     * Switches the heuristic autoplayer on or off. While it is on, it plays the current game at
+     * {@link GameConfiguration#BOT_PIECES_PER_SECOND}; the keyboard keeps working alongside it.
+     */
+    public void toggleAutoPlayer() {
+        botEnabled = !botEnabled;
+        if (botEnabled) {
+            botTimer.start();
+        } else {
+            botTimer.stop();
+        }
+        rootPane.requestFocus();
+    }
+
+    /**
+     * Picks the autoplayer's planner: the external bot named by the {@code tetris.bot} system property
+     * if there is one, otherwise the built-in beam search. The external bot is never waited for, so a
+     * slow bot only delays its own moves; if it cannot be started, the built-in bot plays instead.
+     */
+    private PlacementPlanner createBotPlanner() {
+        String command = System.getProperty(GameConfiguration.BOT_COMMAND_PROPERTY);
+        if (command != null && !command.isBlank()) {
+            try {
+                externalBot = ExternalBot.launch(Arrays.asList(command.trim().split("\\s+")),
+                        Boolean.getBoolean(GameConfiguration.BOT_BINARY_PROPERTY), Duration.ZERO);
+                return externalBot;
+            } catch (IOException e) {
+                System.err.println("Could not start external bot: " + e.getMessage());
+            }
+        }
+        return new BeamSearchBot();
+    }
+
+    /**
+     * Lets the autoplayer press whatever keys are due this frame.
+     * Skipped while paused, counting down or after game over, like the keyboard.
+     */
+    private void updateAutoPlayer(long now) {
+        if (gameLoopManager.isPauseProperty().get() || gameLoopManager.isCountingDownProperty().get()
+                || gameLoopManager.isGameOverProperty().get()) {
+            return;
+        }
+        autoPlayer.update(now);
+    }
+
+    /**
+     * Draws a hint from the {@link HintService}, or clears the overlay when given {@code null}.
+     * Runs on the FX thread; a hint that went stale on its way here is dropped.
+     *
+     * @param hint the suggested placement, or null
+     */
+    private void showHint(HintService.Hint hint) {
+        if (hint == null) {
+            gameRenderer.clearHint();
+        } else if (hintService.isCurrent(hint)) {
+            Plan plan = hint.getPlan();
+            gameRenderer.showHint(hint.getShape(), plan.getX(), plan.getY());
+        }
+    }
+
+    /**
+     * Feeds one input straight to the model, as if the matching key had been pressed.
+     * Used by automated players; ignored while paused, counting down or after game over.
+     *
+     * @param action the input to apply
+     */
+    public void applyInput(ReplayAction action) {
+        if (gameLoopManager.isPauseProperty().get() || gameLoopManager.isCountingDownProperty().get()
+                || gameLoopManager.isGameOverProperty().get()) {
+            return;
+        }
+        ReplayPlayer.apply(gameController, action);
+    }
+
+    /**
+     * @return true while the game-over screen is showing.
+     */
+    public boolean isGameOver() {
+        return gameLoopManager.isGameOverProperty().get();
+    }
+
     /**
      * Toggles the pause state and shows/hides the pause panel.
      */
@@ -348,6 +571,13 @@ public class GuiController implements Initializable, GameObserver {
     @FXML
     public void handleMainMenuButton() {
         gameLoopManager.gameOver();
+        ghostTimer.stop();
+        botTimer.stop();
+        hintService.close();
+        if (externalBot != null) {
+            externalBot.close();
+        }
+        gameController.finishRecording();
         if (soundManager != null){
             soundManager.stopMusic();
         }
@@ -117,7 +117,21 @@ public class MainMenuController implements Initializable {
      * @throws IOException if FXML cannot be found or loaded
      */
     private void loadGameScene(ActionEvent event, GameMode mode) throws IOException {
-        URL location = getClass().getClassLoader().getResource("fxml/gameLayout.fxml");
+        Scene currentScene = ((Node) event.getSource()).getScene();
+        showGameScene(currentScene, mode);
+    }
+
+    /**
+     * Loads the game layout into a scene and starts a game in the given mode.
+     * Shared by the menu buttons and by tools that switch scenes automatically (see {@link SoakDirector}).
+     *
+     * @param scene the scene whose root is replaced
+     * @param mode the gameplay mode (Normal, Zen, etc.)
+     * @return the controller of the newly loaded game screen
+     * @throws IOException if FXML cannot be found or loaded
+     */
+    static GuiController showGameScene(Scene scene, GameMode mode) throws IOException {
+        URL location = MainMenuController.class.getClassLoader().getResource("fxml/gameLayout.fxml");
         if (location == null) {
             throw new IOException("Could not find fxml/gameLayout.fxml");
         }
@@ -131,9 +145,9 @@ public class MainMenuController implements Initializable {
         c.initGameMode(mode);
         c.startNewGame();
 
-        Scene currentScene = ((Node) event.getSource()).getScene();
-        currentScene.setRoot(root);
+        scene.setRoot(root);
 
         Platform.runLater(root::requestFocus);
+        return c;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+package com.comp2042.controllers;
+
+import com.comp2042.logic.mode.GameMode;
+import com.comp2042.logic.mode.NormalMode;
+import com.comp2042.logic.mode.ZenMode;
+import com.comp2042.sim.InputSource;
+import com.comp2042.sim.ResourceSampler;
+import com.comp2042.util.GameConfiguration;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.util.Duration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Runs the full JavaFX game unattended for days, to find resources that grow over time.
+ * <p>
+ * <b>What it exercises:</b> An autoplayer feeds random inputs to the current {@link GuiController}
+ * and presses "restart" after every game over. At a fixed interval the director leaves through the
+ * main menu and loads a fresh game scene, switching between Normal and Zen mode, so scene loading,
+ * controller wiring, notifications, level-up timelines and audio are all repeated many times.
+ * </p>
+ * <p>
+ * <b>What it measures:</b> A {@link ResourceSampler} records heap-after-GC, live threads and the
+ * number of nodes in the scene graph. Sampling happens on the JavaFX thread (the node count must),
+ * and the trend report is rewritten to {@link GameConfiguration#PATH_SOAK_DIR} after every sample,
+ * so the latest verdict survives if the kiosk is switched off. Started with the {@code --soak}
+ * program argument (see {@link com.comp2042.Main}).
+ * </p>
+ */
+public class SoakDirector {
+
+    private final Scene scene;
+    private final ResourceSampler sampler = new ResourceSampler();
+    private final InputSource inputs = InputSource.random(1L);
+    private final Path outputDirectory = Path.of(GameConfiguration.PATH_SOAK_DIR);
+
+    private Timeline inputTimeline;
+    private Timeline sampleTimeline;
+    private Timeline restartTimeline;
+    private GuiController current;
+    private int sceneLoads;
+
+    /**
+     * Creates a director for the application's scene.
+     *
+     * @param scene the scene whose root is swapped between menu and game screens
+     */
+    public SoakDirector(Scene scene) {
+        this.scene = scene;
+        sampler.addGauge("sceneNodes", () -> countNodes(scene.getRoot()));
+    }
+
+    /**
+     * Loads the first game scene and starts autoplay, sampling and periodic scene reloads.
+     */
+    public void start() {
+        loadNextScene();
+
+        inputTimeline = repeat(Duration.millis(1000.0 / GameConfiguration.SOAK_INPUTS_PER_SECOND), this::feedInput);
+        sampleTimeline = repeat(Duration.seconds(GameConfiguration.SOAK_SAMPLE_INTERVAL_SECONDS), this::sample);
+        restartTimeline = repeat(Duration.seconds(GameConfiguration.SOAK_SCENE_RESTART_SECONDS), this::loadNextScene);
+        sample();
+    }
+
+    /**
+     * Stops autoplay and writes the final report.
+     */
+    public void stop() {
+        inputTimeline.stop();
+        sampleTimeline.stop();
+        restartTimeline.stop();
+        sample();
+    }
+
+    private Timeline repeat(Duration interval, Runnable action) {
+        Timeline timeline = new Timeline(new KeyFrame(interval, e -> action.run()));
+        timeline.setCycleCount(Timeline.INDEFINITE);
+        timeline.play();
+        return timeline;
+    }
+
+    private void feedInput() {
+        if (current == null) {
+            return;
+        }
+        if (current.isGameOver()) {
+            current.startNewGame();
+        } else {
+            current.applyInput(inputs.next());
+        }
+    }
+
+    private void loadNextScene() {
+        if (current != null) {
+            // leave the way a player would, so the menu scene is loaded and torn down too
+            current.handleMainMenuButton();
+        }
+        GameMode mode = sceneLoads % 2 == 0 ? new NormalMode() : new ZenMode();
+        try {
+            current = MainMenuController.showGameScene(scene, mode);
+            sceneLoads++;
+        } catch (IOException e) {
+            System.err.println("Soak run could not load the game scene: " + e.getMessage());
+            current = null;
+        }
+    }
+
+    private void sample() {
+        sampler.sample();
+        try {
+            sampler.report().write(outputDirectory);
+        } catch (IOException e) {
+            System.err.println("Could not write soak report: " + e.getMessage());
+        }
+    }
+
+    private static long countNodes(Node node) {
+        long count = 1;
+        if (node instanceof Parent parent) {
+            for (Node child : parent.getChildrenUnmodifiable()) {
+                count += countNodes(child);
+            }
+        }
+        return count;
+    }
+}
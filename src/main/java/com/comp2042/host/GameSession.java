@@ -0,0 +1,411 @@
+package com.comp2042.host;
+
+import com.comp2042.controllers.GameController;
+import com.comp2042.logic.board.SimpleBoard;
+import com.comp2042.logic.mode.GameMode;
+import com.comp2042.managers.ScoreManager;
+import com.comp2042.model.GameObserver;
+import com.comp2042.model.ViewData;
+import com.comp2042.replay.ReplayAction;
+import com.comp2042.replay.ReplayPlayer;
+import com.comp2042.sim.LatencyHistogram;
+import com.comp2042.util.GameConfiguration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntToLongFunction;
+
+/**
+ * One headless game hosted by a {@link SessionHost}: its own {@link GameController}, board and
+ * gravity, driven from its own virtual thread.
+ * <p>
+ * <b>Actor model:</b> Nothing outside the session touches the controller. Inputs, gravity ticks,
+ * pause/resume, queries and teardown are all messages in the session's mailbox, and the session's
+ * virtual thread applies them one at a time, in arrival order. The engine therefore stays
+ * single-threaded (exactly as in the JavaFX game, where everything runs on the UI thread) while
+ * thousands of sessions run side by side. A blocked virtual thread costs a few hundred bytes of
+ * heap rather than an OS thread, so an idle session is almost free.
+ * </p>
+ * <p>
+ * <b>Gravity:</b> Instead of a timeline per game, the session schedules its next gravity tick on the
+ * host's shared {@link TimerWheel}. When the tick fires the wheel only posts a message; the session
+ * applies the drop, then schedules the next tick for the interval of its current level. Ticks are
+ * scheduled from the previous deadline, so processing time does not make the game drift slower. A
+ * session that falls more than one interval behind starts counting from "now" instead of firing a
+ * burst of catch-up drops. Each scheduled tick carries a generation number, so a tick that was
+ * already in the mailbox when the game was paused or restarted is recognised as stale and dropped.
+ * </p>
+ * <p>
+ * <b>Lifecycle:</b> {@link State#NEW} until the host starts it, then {@link State#RUNNING}.
+ * {@link #pause()} and {@link #resume()} stop and restart gravity and input handling. In modes that
+ * end (Normal), game over moves the session to {@link State#GAME_OVER} until {@link #restart()}.
+ * {@link #close()} rejects further messages, lets the thread drain its mailbox and exit, cancels
+ * gravity and moves the session to {@link State#CLOSED}. Checking for closing and queueing a message
+ * happen under one lock, so nothing can slip into the mailbox behind the final stop message; if the
+ * thread dies early instead, queries still waiting in the mailbox are failed rather than forgotten.
+ * </p>
+ */
+public final class GameSession {
+
+    /** The lifecycle states of a session. */
+    public enum State {
+        /** Created but not started. */
+        NEW,
+        /** Gravity is running and inputs are applied. */
+        RUNNING,
+        /** Gravity is stopped and inputs are ignored until resumed. */
+        PAUSED,
+        /** The game has ended; waiting for a restart. */
+        GAME_OVER,
+        /** Torn down; the session thread has exited or is about to. */
+        CLOSED
+    }
+
+    private static final Runnable STOP = () -> { };
+
+    private final long id;
+    private final GameMode mode;
+    private final long seed;
+    private final TimerWheel timer;
+    private final IntToLongFunction gravityMillis;
+    private final Consumer<GameSession> onClosed;
+    private final BlockingQueue<Runnable> mailbox = new LinkedBlockingQueue<>();
+    private final Object postLock = new Object();
+    private final GameController controller;
+
+    private volatile State state = State.NEW;
+    private volatile boolean closing;
+    private volatile long gravityTicks;
+    private volatile long inputsApplied;
+    private Thread thread;
+
+    // session thread only
+    private final LatencyHistogram gravityLateness = new LatencyHistogram();
+    private TimerWheel.Timeout gravity;
+    private long gravityGeneration;
+    private long nextGravityDeadline;
+    private int level = 1;
+
+    /**
+     * Creates a session; the host starts it.
+     *
+     * @param id the host-wide session id.
+     * @param mode the game mode.
+     * @param seed the seed of the first game.
+     * @param timer the wheel that drives gravity.
+     * @param gravityMillis maps the current level to the gravity interval.
+     * @param onClosed called on the session thread once the session has shut down.
+     */
+    GameSession(long id, GameMode mode, long seed, TimerWheel timer, IntToLongFunction gravityMillis,
+                Consumer<GameSession> onClosed) {
+        this.id = id;
+        this.mode = mode;
+        this.seed = seed;
+        this.timer = timer;
+        this.gravityMillis = gravityMillis;
+        this.onClosed = onClosed;
+        this.controller = new GameController(
+                new SimpleBoard(GameConfiguration.BOARD_HEIGHT, GameConfiguration.BOARD_WIDTH),
+                new ScoreManager(null), seed);
+        controller.setGameMode(mode);
+        controller.addObserver(new LifecycleObserver());
+    }
+
+    /**
+     * Starts the session thread and the first game.
+     */
+    void start() {
+        thread = Thread.ofVirtual().name("session-" + id).start(this::run);
+        post(() -> {
+            controller.createNewGame(seed);
+            state = State.RUNNING;
+            scheduleGravity(System.nanoTime());
+        });
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                Runnable message = mailbox.take();
+                if (message == STOP) {
+                    break;
+                }
+                message.run();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // a broken game only takes down its own session
+            System.err.println("Session " + id + " failed: " + e);
+        } finally {
+            synchronized (postLock) {
+                closing = true;
+            }
+            stopGravity();
+            state = State.CLOSED;
+            List<Runnable> unhandled = new ArrayList<>();
+            mailbox.drainTo(unhandled);
+            for (Runnable message : unhandled) {
+                if (message instanceof Query<?> query) {
+                    query.fail(closedException());
+                }
+            }
+            onClosed.accept(this);
+        }
+    }
+
+    private boolean post(Runnable message) {
+        synchronized (postLock) {
+            if (closing) {
+                return false;
+            }
+            mailbox.add(message);
+            return true;
+        }
+    }
+
+    private IllegalStateException closedException() {
+        return new IllegalStateException("Session " + id + " is closed");
+    }
+
+    /**
+     * Queues a player input. Inputs are ignored unless the session is running.
+     *
+     * @param action the input; checkpoints are not inputs.
+     * @return false if the session is closing and the input was not queued.
+     * @throws IllegalArgumentException if the action is a checkpoint.
+     */
+    public boolean submit(ReplayAction action) {
+        if (action == ReplayAction.CHECKPOINT) {
+            throw new IllegalArgumentException("Checkpoints are not inputs");
+        }
+        return post(() -> {
+            if (state == State.RUNNING) {
+                ReplayPlayer.apply(controller, action);
+                inputsApplied++;
+            }
+        });
+    }
+
+    /**
+     * Adds an observer to the game. Observers are called on the session thread and must not block.
+     *
+     * @param observer the observer.
+     * @return false if the session is closing.
+     */
+    public boolean addObserver(GameObserver observer) {
+        return post(() -> controller.addObserver(observer));
+    }
+
+    /**
+     * Runs a function against the game on the session thread, e.g. to read the board safely.
+     *
+     * @param query the function; must not keep a reference to the controller.
+     * @param <T> the result type.
+     * @return the result, or a future that fails if the session closes first or the query throws.
+     */
+    public <T> CompletableFuture<T> call(Function<GameController, T> query) {
+        Query<T> message = new Query<>(query);
+        if (!post(message)) {
+            message.fail(closedException());
+        }
+        return message.result;
+    }
+
+    /**
+     * Stops gravity and input handling until {@link #resume()}. Has no effect unless running.
+     */
+    public void pause() {
+        post(() -> {
+            if (state == State.RUNNING) {
+                stopGravity();
+                state = State.PAUSED;
+            }
+        });
+    }
+
+    /**
+     * Restarts gravity and input handling after {@link #pause()}. Has no effect unless paused.
+     */
+    public void resume() {
+        post(() -> {
+            if (state == State.PAUSED) {
+                state = State.RUNNING;
+                scheduleGravity(System.nanoTime());
+            }
+        });
+    }
+
+    /**
+     * Starts a new game (with a fresh seed) in any state except closed, like the restart button.
+     */
+    public void restart() {
+        post(() -> {
+            stopGravity();
+            controller.createNewGame();
+            state = State.RUNNING;
+            scheduleGravity(System.nanoTime());
+        });
+    }
+
+    /**
+     * Asks the session to shut down once the messages already queued have been handled. Messages
+     * posted after this call (including gravity ticks) are rejected.
+     */
+    public void close() {
+        synchronized (postLock) {
+            if (closing) {
+                return;
+            }
+            closing = true;
+            mailbox.add(STOP);
+        }
+    }
+
+    /**
+     * Waits for the session thread to exit.
+     *
+     * @param timeout the longest time to wait.
+     * @return true if the session has closed.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean awaitClosed(Duration timeout) throws InterruptedException {
+        return thread == null || thread.join(timeout);
+    }
+
+    private void scheduleGravity(long fromNanos) {
+        long interval = TimeUnit.MILLISECONDS.toNanos(gravityMillis.applyAsLong(level));
+        long now = System.nanoTime();
+        nextGravityDeadline = fromNanos + interval;
+        if (nextGravityDeadline < now) {
+            // more than a whole interval behind: skip the missed ticks instead of bursting
+            nextGravityDeadline = now + interval;
+        }
+        long generation = ++gravityGeneration;
+        gravity = timer.schedule(() -> post(() -> onGravity(generation)), nextGravityDeadline - now,
+                TimeUnit.NANOSECONDS);
+    }
+
+    private void stopGravity() {
+        gravityGeneration++;
+        if (gravity != null) {
+            gravity.cancel();
+            gravity = null;
+        }
+    }
+
+    private void onGravity(long generation) {
+        if (generation != gravityGeneration || state != State.RUNNING) {
+            return; // queued before a pause, restart or game over
+        }
+        long deadline = nextGravityDeadline;
+        gravityLateness.record(Math.max(0, System.nanoTime() - deadline));
+        ReplayPlayer.apply(controller, ReplayAction.GRAVITY);
+        gravityTicks++;
+        if (state == State.RUNNING && generation == gravityGeneration) {
+            scheduleGravity(deadline);
+        }
+    }
+
+    /**
+     * @return the host-wide id of this session.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return the game mode of this session.
+     */
+    public GameMode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return the current lifecycle state.
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return the number of gravity ticks applied so far.
+     */
+    public long getGravityTicks() {
+        return gravityTicks;
+    }
+
+    /**
+     * @return the number of player inputs applied so far.
+     */
+    public long getInputsApplied() {
+        return inputsApplied;
+    }
+
+    /**
+     * How late gravity ticks were applied compared to their deadline. Written by the session
+     * thread without locking, so read it only after the session has closed.
+     *
+     * @return the lateness histogram, in nanoseconds.
+     */
+    public LatencyHistogram getGravityLateness() {
+        return gravityLateness;
+    }
+
+    /**
+     * A {@link #call} waiting in the mailbox; kept recognisable so it can be failed if the session
+     * shuts down before handling it.
+     */
+    private final class Query<T> implements Runnable {
+
+        private final Function<GameController, T> query;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        Query(Function<GameController, T> query) {
+            this.query = query;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result.complete(query.apply(controller));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        void fail(IllegalStateException cause) {
+            result.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * Follows the game on the session thread to keep the lifecycle in step with it.
+     */
+    private final class LifecycleObserver implements GameObserver {
+        @Override public void onBoardUpdated(ViewData viewData) {}
+        @Override public void onGameBackgroundUpdated(int[][] boardMatrix) {}
+        @Override public void onScoreUpdated(int score) {}
+        @Override public void onLineCleared(int lines, String message) {}
+        @Override public void onBrickDropped() {}
+        @Override public void onDangerStateChanged(boolean isDanger) {}
+
+        @Override
+        public void onLevelUpdated(int newLevel) {
+            level = newLevel;
+        }
+
+        @Override
+        public void onGameOver() {
+            stopGravity();
+            state = State.GAME_OVER;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.comp2042.host;
+
+import com.comp2042.logic.GameSpeed;
+import com.comp2042.logic.mode.GameMode;
+import com.comp2042.util.GameConfiguration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Hosts many concurrent headless games in one JVM, one {@link GameSession} per connected client.
+ * <p>
+ * <b>Threads:</b> Every session runs on its own virtual thread, which is parked (and costs no OS
+ * thread) whenever its mailbox is empty. All sessions share a single {@link TimerWheel} for gravity,
+ * so the host needs one platform thread for timing plus the JVM's carrier pool, however many games
+ * are open.
+ * </p>
+ * <p>
+ * <b>Lifecycle:</b> {@link #open} creates and starts a session. A session removes itself from the
+ * host once it has shut down, whether it was closed by its client or failed. {@link #close()} closes
+ * every remaining session, waits for their threads and then stops the timer.
+ * </p>
+ */
+public final class SessionHost implements AutoCloseable {
+
+    /** How long {@link #close()} waits for each session thread to exit. */
+    private static final Duration SHUTDOWN_WAIT = Duration.ofSeconds(5);
+
+    private final TimerWheel timer;
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private volatile boolean closed;
+
+    /**
+     * Creates a host with a timer of the configured resolution.
+     */
+    public SessionHost() {
+        this(new TimerWheel("session-gravity", GameConfiguration.HOST_TIMER_TICK_MILLIS,
+                GameConfiguration.HOST_TIMER_WHEEL_SLOTS));
+    }
+
+    /**
+     * Creates a host that uses (and eventually closes) the given timer.
+     *
+     * @param timer the wheel that drives gravity for every session.
+     */
+    public SessionHost(TimerWheel timer) {
+        this.timer = timer;
+    }
+
+    /**
+     * Opens a session that uses the game's normal gravity speeds.
+     *
+     * @param mode the game mode.
+     * @param seed the seed of the first game.
+     * @return the running session.
+     * @throws IllegalStateException if the host has been closed.
+     */
+    public GameSession open(GameMode mode, long seed) {
+        return open(mode, seed, GameSpeed::tickIntervalMillis);
+    }
+
+    /**
+     * Opens a session with custom gravity, e.g. a fixed tick rate for load tests.
+     *
+     * @param mode the game mode.
+     * @param seed the seed of the first game.
+     * @param gravityMillis maps the current level to the gravity interval in milliseconds.
+     * @return the running session.
+     * @throws IllegalStateException if the host has been closed.
+     */
+    public GameSession open(GameMode mode, long seed, IntToLongFunction gravityMillis) {
+        if (closed) {
+            throw new IllegalStateException("Session host is closed");
+        }
+        GameSession session = new GameSession(nextId.getAndIncrement(), mode, seed, timer, gravityMillis,
+                s -> sessions.remove(s.getId()));
+        sessions.put(session.getId(), session);
+        session.start();
+        return session;
+    }
+
+    /**
+     * @param id the session id.
+     * @return the open session with that id, or null if there is none.
+     */
+    public GameSession get(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * @return the number of open sessions.
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * @return a snapshot of the open sessions.
+     */
+    public List<GameSession> getSessions() {
+        return new ArrayList<>(sessions.values());
+    }
+
+    /**
+     * Closes every session, waits for their threads to exit and stops the timer.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        List<GameSession> open = getSessions();
+        for (GameSession session : open) {
+            session.close();
+        }
+        try {
+            for (GameSession session : open) {
+                if (!session.awaitClosed(SHUTDOWN_WAIT)) {
+                    System.err.println("Session " + session.getId() + " did not shut down in time");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            timer.close();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.comp2042.host;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A hashed timer wheel: one thread that fires many coarse timeouts cheaply.
+ * <p>
+ * <b>Why a wheel:</b> The JavaFX game gives every game its own gravity {@code Timeline}. A host with
+ * thousands of headless sessions cannot afford one timer (let alone one sleeping thread) per game, and
+ * a priority queue would cost {@code O(log n)} per gravity tick. The wheel is an array of slots, each
+ * covering one tick of time. Scheduling drops a timeout into the slot its deadline falls in (with a
+ * count of extra rotations for far deadlines), and every tick the wheel thread fires the due entries of
+ * exactly one slot, so both scheduling and expiry are {@code O(1)}. The price is resolution: deadlines
+ * are rounded up to the next tick, which is fine for gravity intervals of tens of milliseconds.
+ * </p>
+ * <p>
+ * <b>Threading:</b> {@link #schedule} and {@link Timeout#cancel()} may be called from any thread; new
+ * timeouts go through a lock-free queue that only the wheel thread drains, so the slots themselves are
+ * never shared. Tasks run on the wheel thread and must be short and non-blocking: a session's gravity
+ * task only posts a message to the session's own thread.
+ * </p>
+ */
+public final class TimerWheel implements AutoCloseable {
+
+    private final long tickNanos;
+    private final List<Timeout>[] slots;
+    private final int mask;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private final long startNanos;
+
+    private volatile boolean running = true;
+    private long tick; // wheel thread only
+
+    /**
+     * Creates and starts a wheel.
+     *
+     * @param name the name of the wheel thread.
+     * @param tickMillis the resolution, in milliseconds.
+     * @param slotCount the number of slots; must be a power of two.
+     * @throws IllegalArgumentException if the tick is not positive or the slot count is not a power of two.
+     */
+    public TimerWheel(String name, long tickMillis, int slotCount) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive: " + tickMillis);
+        }
+        if (slotCount <= 0 || Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("Slot count must be a power of two: " + slotCount);
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        List<Timeout>[] wheel = new List[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+        this.slots = wheel;
+        this.mask = slotCount - 1;
+        this.startNanos = System.nanoTime();
+        this.worker = Thread.ofPlatform().name(name).daemon(true).start(this::turn);
+    }
+
+    /**
+     * Schedules a task to run once after a delay.
+     *
+     * @param task the task; runs on the wheel thread.
+     * @param delay the delay; zero or negative means "on the next tick".
+     * @param unit the unit of the delay.
+     * @return a handle that can cancel the task.
+     * @throws IllegalStateException if the wheel has been closed.
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timer wheel is closed");
+        }
+        Timeout timeout = new Timeout(task, System.nanoTime() + Math.max(0, unit.toNanos(delay)));
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * @return the resolution of this wheel, in nanoseconds.
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * Stops the wheel thread. Timeouts that have not fired yet never will.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void turn() {
+        while (running) {
+            long deadline = startNanos + (tick + 1) * tickNanos;
+            long now;
+            while ((now = System.nanoTime()) < deadline && running) {
+                LockSupport.parkNanos(this, deadline - now);
+            }
+            if (!running) {
+                break;
+            }
+            transferPending();
+            expire(slots[(int) (tick & mask)]);
+            tick++;
+        }
+        pending.clear();
+    }
+
+    /**
+     * Moves newly scheduled timeouts into their slots. A deadline that is already due lands in the
+     * current slot and fires this tick.
+     */
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            // deadlines are rounded up, so a timeout never fires before it is due
+            long dueTick = Math.ceilDiv(timeout.deadlineNanos - startNanos, tickNanos) - 1;
+            long ticks = Math.max(dueTick, tick);
+            timeout.remainingRounds = (dueTick - tick) / slots.length;
+            slots[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout> slot) {
+        int kept = 0;
+        for (int i = 0, n = slot.size(); i < n; i++) {
+            Timeout timeout = slot.get(i);
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            if (timeout.remainingRounds <= 0) {
+                timeout.fire();
+                continue;
+            }
+            timeout.remainingRounds--;
+            slot.set(kept++, timeout);
+        }
+        slot.subList(kept, slot.size()).clear();
+    }
+
+    /**
+     * A scheduled task that has not necessarily fired yet.
+     */
+    public static final class Timeout {
+
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int FIRED = 2;
+
+        private static final VarHandle STATE;
+
+        static {
+            try {
+                STATE = MethodHandles.lookup().findVarHandle(Timeout.class, "state", int.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private final Runnable task;
+        private final long deadlineNanos;
+        private volatile int state;
+        private long remainingRounds; // wheel thread only
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Prevents the task from running if it has not started yet.
+         *
+         * @return true if this call cancelled the task; false if it had already fired or been cancelled.
+         */
+        public boolean cancel() {
+            return STATE.compareAndSet(this, WAITING, CANCELLED);
+        }
+
+        /**
+         * @return true if the timeout was cancelled before it fired.
+         */
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        /**
+         * @return the {@link System#nanoTime()} at which the task became due.
+         */
+        public long getDeadlineNanos() {
+            return deadlineNanos;
+        }
+
+        private void fire() {
+            if (!STATE.compareAndSet(this, WAITING, FIRED)) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // one faulty task must not stop the timer for everyone else
+                System.err.println("Timer task failed: " + e);
+            }
+        }
+    }
+}
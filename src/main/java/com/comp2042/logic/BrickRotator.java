@@ -45,6 +45,15 @@ public class BrickRotator {
         return brick.getShapeMatrix().get(currentShape);
     }
 
+    /**
+     * Retrieves the current rotation index.
+     *
+     * @return the index into the brick's shape list (0 is the spawn orientation).
+     */
+    public int getCurrentShapeIndex() {
+        return currentShape;
+    }
+
     /**
      * Updates the current rotation index to a specific state.
      * <p>
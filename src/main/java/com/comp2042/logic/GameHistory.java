@@ -1,6 +1,7 @@
 package com.comp2042.logic;
 
 import com.comp2042.model.BoardMemento;
+import com.comp2042.util.GameConfiguration;
 
 import java.util.Stack;
 
@@ -15,6 +16,10 @@ import java.util.Stack;
  * It enforces the undo limits defined by the active {@link com.comp2042.logic.mode.GameMode},
  * ensuring that players in Normal Mode cannot exceed the allowed number of reverts.
  * </p>
+ * <p>
+ * Modes with branching undo (Zen Mode) use {@link TimelineTree} instead, which keeps every
+ * line of play and supports Redo.
+ * </p>
  */
 public class GameHistory {
 
@@ -60,6 +65,16 @@ public class GameHistory {
         return history.pop();
     }
 
+    /**
+     * Attempts to revert the game using the Normal Mode undo limit.
+     *
+     * @return the previous {@link BoardMemento} if successful; {@code null} if the limit is reached or history is empty.
+     * @see #popState(int)
+     */
+    public BoardMemento popState() {
+        return popState(GameConfiguration.UNDO_LIMIT_NORMAL);
+    }
+
     /**
      * Clears the undo history and resets the usage counter.
      * <p>
@@ -80,4 +95,28 @@ public class GameHistory {
     public int getUndoCount() {
         return undoCount;
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves the save point that the next undo would restore, without consuming it.
+     *
+     * @return the saved state, or {@code null} if there is none.
+     */
+    public BoardMemento peekState() {
+        return history.isEmpty() ? null : history.peek();
+    }
+
+    /**
+     * Replaces the history with a previously captured save point and usage count.
+     * Used to resume a game from a full snapshot.
+     *
+     * @param memento the save point, or {@code null} for none.
+     * @param undoCount the number of undos already used.
+     */
+    public void restore(BoardMemento memento, int undoCount) {
+        history.clear();
+        if (memento != null) {
+            history.push(memento);
+        }
+        this.undoCount = undoCount;
+    }
+}
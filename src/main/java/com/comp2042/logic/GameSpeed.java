@@ -0,0 +1,35 @@
+package com.comp2042.logic;
+
+import com.comp2042.util.GameConfiguration;
+
+/**
+ * The timing rules of the game: how often gravity pulls the active piece down at each level.
+ * <p>
+ * <b>Why separate:</b> The JavaFX {@link com.comp2042.managers.GameLoopManager} turns these intervals
+ * into animation timelines, but headless tools (replay simulation, bots, batch runs) need the same
+ * rule without a UI toolkit. Keeping the lookup here gives both a single source of truth.
+ * </p>
+ */
+public final class GameSpeed {
+
+    private GameSpeed() {
+    }
+
+    /**
+     * Looks up the gravity interval for a level, as defined by {@link GameConfiguration#LEVEL_SPEEDS}.
+     * Levels below 1 use the first speed; levels beyond the table use the fastest one.
+     *
+     * @param level the game level (1-based).
+     * @return the time between gravity ticks, in milliseconds.
+     */
+    public static long tickIntervalMillis(int level) {
+        int index = level - 1;
+        if (index < 0) {
+            index = 0;
+        }
+        if (index >= GameConfiguration.LEVEL_SPEEDS.size()) {
+            index = GameConfiguration.LEVEL_SPEEDS.size() - 1;
+        }
+        return GameConfiguration.LEVEL_SPEEDS.get(index);
+    }
+}
@@ -81,4 +81,10 @@ public interface InputEventListener {
      * Reverts the game state using the Memento pattern.
      */
     void onUndoEvent();
+
+    /**
+     * Triggered when the user requests to "Redo" a previously undone move.
+     * Only has an effect in modes with a branching timeline.
+     */
+    void onRedoEvent();
 }
\ No newline at end of file
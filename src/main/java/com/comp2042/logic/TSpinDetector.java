@@ -0,0 +1,155 @@
+package com.comp2042.logic;
+
+import com.comp2042.logic.bricks.BrickTypes;
+import com.comp2042.model.PersistentGrid;
+import com.comp2042.model.TSpin;
+
+import java.util.List;
+
+/**
+ * Classifies a T brick's lock as a T-spin, a mini T-spin or neither, by the three-corner rule.
+ * <p>
+ * <b>The rule:</b> A lock counts as a spin only when the last successful action was a rotation. Then
+ * the four cells diagonally around the T's pivot are looked at, with walls and floor counting as
+ * blocked. Three or more blocked make a spin; it is a full T-spin if both corners on the side the
+ * T points to (its "front") are among them, and a mini otherwise. The guideline also upgrades a mini
+ * to a full T-spin when the rotation needed a far kick (one that moves the brick three cells or more);
+ * that rule is kept, although the kick table of this game has no such kick.
+ * </p>
+ * <p>
+ * <b>Constant time:</b> The pivot and the corner offsets of every rotation are worked out once from
+ * the T brick's shapes, and the verdict for every rotation and every combination of blocked
+ * corners is precomputed into a table. Classifying a lock is four cell reads, packed into a 4-bit
+ * corner mask, and one table lookup.
+ * </p>
+ */
+public final class TSpinDetector {
+
+    /** Brick type ID of the T brick (see {@link BrickTypes}). */
+    public static final int T_BRICK = 6;
+
+    /** The kick index reported when the last successful action was not a rotation. */
+    public static final int NO_ROTATION = -1;
+
+    // corner k sits at (pivot row + CORNER_DY[k], pivot column + CORNER_DX[k])
+    private static final int[] CORNER_DX = {-1, 1, -1, 1};
+    private static final int[] CORNER_DY = {-1, -1, 1, 1};
+
+    private static final int[] PIVOT_ROW;
+    private static final int[] PIVOT_COL;
+    /** Per rotation and corner mask: the verdict. */
+    private static final TSpin[][] VERDICT;
+
+    static {
+        List<int[][]> shapes = BrickTypes.create(T_BRICK).getShapeMatrix();
+        int rotations = shapes.size();
+        PIVOT_ROW = new int[rotations];
+        PIVOT_COL = new int[rotations];
+        VERDICT = new TSpin[rotations][16];
+        for (int r = 0; r < rotations; r++) {
+            int[][] shape = shapes.get(r);
+            int front = 0;
+            for (int i = 0; i < shape.length; i++) {
+                for (int j = 0; j < shape[i].length; j++) {
+                    if (shape[i][j] != 0 && neighbours(shape, i, j) == 3) {
+                        PIVOT_ROW[r] = i;
+                        PIVOT_COL[r] = j;
+                        front = frontMask(shape, i, j);
+                    }
+                }
+            }
+            for (int mask = 0; mask < 16; mask++) {
+                if (Integer.bitCount(mask) < 3) {
+                    VERDICT[r][mask] = TSpin.NONE;
+                } else {
+                    VERDICT[r][mask] = (mask & front) == front ? TSpin.FULL : TSpin.MINI;
+                }
+            }
+        }
+    }
+
+    private TSpinDetector() {
+    }
+
+    private static boolean filled(int[][] shape, int i, int j) {
+        return i >= 0 && j >= 0 && i < shape.length && j < shape[i].length && shape[i][j] != 0;
+    }
+
+    private static int neighbours(int[][] shape, int i, int j) {
+        return (filled(shape, i - 1, j) ? 1 : 0) + (filled(shape, i + 1, j) ? 1 : 0)
+                + (filled(shape, i, j - 1) ? 1 : 0) + (filled(shape, i, j + 1) ? 1 : 0);
+    }
+
+    /** The corners next to the pivot's one neighbour that has no neighbour opposite it: the T's nose. */
+    private static int frontMask(int[][] shape, int i, int j) {
+        int noseY = 0;
+        int noseX = 0;
+        int[][] directions = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+        for (int[] d : directions) {
+            if (filled(shape, i + d[0], j + d[1]) && !filled(shape, i - d[0], j - d[1])) {
+                noseY = d[0];
+                noseX = d[1];
+            }
+        }
+        int mask = 0;
+        for (int k = 0; k < 4; k++) {
+            if (CORNER_DY[k] == noseY || CORNER_DX[k] == noseX) {
+                mask |= 1 << k;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Classifies the lock of a brick.
+     *
+     * @param grid the locked blocks, before the brick is merged into them.
+     * @param brickId the brick type ID.
+     * @param rotation the rotation index it locks in.
+     * @param x the column of its shape matrix.
+     * @param y the row of its shape matrix.
+     * @param kick the kick index of the last successful action if it was a rotation, or
+     *             {@link #NO_ROTATION}.
+     * @return the kind of spin; {@link TSpin#NONE} unless a T locks right after a rotation.
+     */
+    public static TSpin classify(PersistentGrid grid, int brickId, int rotation, int x, int y, int kick) {
+        if (brickId != T_BRICK || kick == NO_ROTATION) {
+            return TSpin.NONE;
+        }
+        int row = y + PIVOT_ROW[rotation];
+        int col = x + PIVOT_COL[rotation];
+        int mask = 0;
+        for (int k = 0; k < 4; k++) {
+            if (blocked(grid, row + CORNER_DY[k], col + CORNER_DX[k])) {
+                mask |= 1 << k;
+            }
+        }
+        TSpin verdict = VERDICT[rotation][mask];
+        if (verdict == TSpin.MINI
+                && Math.abs(WallKicks.dx(T_BRICK, kick)) + Math.abs(WallKicks.dy(T_BRICK, kick)) >= 3) {
+            return TSpin.FULL;
+        }
+        return verdict;
+    }
+
+    private static boolean blocked(PersistentGrid grid, int row, int col) {
+        // outside the board counts as blocked, like the game's collision test
+        return row < 0 || row >= grid.getHeight() || col < 0 || col >= grid.getWidth() || grid.get(row, col) != 0;
+    }
+
+    /**
+     * @param rotation a rotation index of the T brick.
+     * @return the row of its pivot within the 4x4 shape matrix.
+     */
+    public static int pivotRow(int rotation) {
+        return PIVOT_ROW[rotation];
+    }
+
+    /**
+     * @param rotation a rotation index of the T brick.
+     * @return the column of its pivot within the 4x4 shape matrix.
+     */
+    public static int pivotColumn(int rotation) {
+        return PIVOT_COL[rotation];
+    }
+}
@@ -0,0 +1,480 @@
+package com.comp2042.logic;
+
+import com.comp2042.model.BoardMemento;
+import com.comp2042.model.CompactMemento;
+import com.comp2042.model.PersistentGrid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * A branching Undo/Redo history where no state is ever thrown away by undoing.
+ * <p>
+ * <b>Design Pattern: Memento (Caretaker)</b><br>
+ * Like {@link GameHistory}, this class stores save points on behalf of the
+ * {@link com.comp2042.controllers.GameController}. Instead of a stack, it keeps a tree:
+ * undoing moves a cursor to the parent node, and playing a different move from there adds a
+ * new child, so the previous line of play survives as a sibling branch that can be revisited.
+ * </p>
+ * <p>
+ * <b>Compact deltas:</b> Only the root holds a full grid. Every other node stores the rows that
+ * changed relative to its parent, each packed into a {@code long} (see
+ * {@link CompactMemento#packRow}), together with the score and level. Moving the cursor between
+ * any two nodes walks up to their common ancestor and down again, applying only the deltas on
+ * that path.
+ * </p>
+ * <p>
+ * <b>Memory bound:</b> When the estimated size of all deltas exceeds the configured budget, the
+ * least recently visited leaves that are not on the path to the cursor are pruned. If the
+ * history is a single long line, the oldest states are folded into the root instead.
+ * </p>
+ */
+public class TimelineTree {
+
+    /** Default memory budget for stored deltas (4 MB). */
+    public static final long DEFAULT_MEMORY_BUDGET = 4L * 1024 * 1024;
+
+    private static final int NODE_OVERHEAD_BYTES = 64;
+    private static final byte[] NO_ROWS = new byte[0];
+    private static final long[] NO_WORDS = new long[0];
+
+    private final long memoryBudgetBytes;
+
+    private Node root;
+    private Node cursor;
+    private PersistentGrid rootGrid;
+    private PersistentGrid cursorGrid;
+    private int nextId;
+    private long clock;
+    private long usedBytes;
+    private int nodeCount;
+    private int rootDepth;
+    private long pruneStamp;
+
+    /**
+     * Creates a timeline with the {@link #DEFAULT_MEMORY_BUDGET}.
+     */
+    public TimelineTree() {
+        this(DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * Creates a timeline with a custom memory budget.
+     *
+     * @param memoryBudgetBytes the approximate number of bytes the deltas may occupy before pruning starts.
+     */
+    public TimelineTree(long memoryBudgetBytes) {
+        this.memoryBudgetBytes = memoryBudgetBytes;
+    }
+
+    /**
+     * Discards the whole tree and starts a new one from the given state.
+     * Called when a new game starts or the board is wiped.
+     *
+     * @param grid the starting grid.
+     * @param score the starting score.
+     * @param level the starting level.
+     * @throws IllegalArgumentException if the grid is too wide to pack a row into a single {@code long}
+     * or too tall to index its rows with a byte.
+     */
+    public void reset(PersistentGrid grid, int score, int level) {
+        if (grid.getWidth() > CompactMemento.CELLS_PER_WORD || grid.getHeight() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Timeline supports at most " + CompactMemento.CELLS_PER_WORD
+                    + " columns and " + Byte.MAX_VALUE + " rows");
+        }
+        nextId = 0;
+        clock = 0;
+        usedBytes = 0;
+        nodeCount = 1;
+        rootDepth = 0;
+        root = new Node(this, nextId++, null, NO_ROWS, NO_WORDS, NO_WORDS, score, level);
+        rootGrid = grid;
+        cursor = root;
+        cursorGrid = grid;
+        touch(root);
+    }
+
+    /**
+     * Records a new state as a child of the cursor and moves the cursor to it.
+     * <p>
+     * If the cursor already has a child with exactly the same state (e.g. the player undid and then
+     * repeated the same move), that child is reused instead of creating a duplicate branch.
+     * </p>
+     *
+     * @param grid the grid after the move.
+     * @param score the score after the move.
+     * @param level the level after the move.
+     * @return the node representing the new state.
+     */
+    public Node commit(PersistentGrid grid, int score, int level) {
+        requireStarted();
+        int changed = 0;
+        for (int row = 0; row < grid.getHeight(); row++) {
+            if (rowDiffers(cursorGrid, grid, row)) {
+                changed++;
+            }
+        }
+        byte[] rows = new byte[changed];
+        long[] before = new long[changed];
+        long[] after = new long[changed];
+        int index = 0;
+        for (int row = 0; row < grid.getHeight(); row++) {
+            if (rowDiffers(cursorGrid, grid, row)) {
+                rows[index] = (byte) row;
+                before[index] = CompactMemento.packRow(cursorGrid, row);
+                after[index] = CompactMemento.packRow(grid, row);
+                index++;
+            }
+        }
+
+        for (Node child : cursor.children) {
+            if (child.score == score && child.level == level && child.sameDelta(rows, after)) {
+                cursor = child;
+                cursorGrid = grid;
+                touch(child);
+                return child;
+            }
+        }
+
+        Node node = new Node(this, nextId++, cursor, rows, before, after, score, level);
+        cursor.children.add(node);
+        cursor = node;
+        cursorGrid = grid;
+        nodeCount++;
+        usedBytes += node.sizeBytes();
+        touch(node);
+
+        if (usedBytes > memoryBudgetBytes) {
+            prune();
+        }
+        return node;
+    }
+
+    /**
+     * Moves the cursor to its parent.
+     *
+     * @return the state of the parent, or {@code null} if the cursor is already at the root.
+     */
+    public BoardMemento undo() {
+        requireStarted();
+        if (cursor.parent == null) {
+            return null;
+        }
+        return jumpTo(cursor.parent);
+    }
+
+    /**
+     * Moves the cursor to the most recently visited child, i.e. re-applies the last undone move.
+     *
+     * @return the state of that child, or {@code null} if the cursor has no children.
+     */
+    public BoardMemento redo() {
+        requireStarted();
+        Node best = null;
+        for (Node child : cursor.children) {
+            if (best == null || child.lastVisited > best.lastVisited) {
+                best = child;
+            }
+        }
+        return best == null ? null : jumpTo(best);
+    }
+
+    /**
+     * Moves the cursor to any node of the tree.
+     * <p>
+     * The grid is rebuilt by undoing the deltas from the cursor up to the common ancestor and then
+     * applying the deltas down to the target, so the cost depends only on the length of that path.
+     * </p>
+     *
+     * @param target a node belonging to this tree.
+     * @return the state stored at the target.
+     * @throws IllegalArgumentException if the node was pruned or belongs to another tree.
+     */
+    public BoardMemento jumpTo(Node target) {
+        requireStarted();
+        if (!contains(target)) {
+            throw new IllegalArgumentException("Node " + target.id + " is not part of this timeline");
+        }
+        Node ancestor = commonAncestor(cursor, target);
+        PersistentGrid.Editor editor = cursorGrid.edit();
+
+        for (Node n = cursor; n != ancestor; n = n.parent) {
+            for (int i = 0; i < n.rows.length; i++) {
+                editor.setPackedRow(n.rows[i], n.before[i]);
+            }
+        }
+
+        List<Node> descent = new ArrayList<>();
+        for (Node n = target; n != ancestor; n = n.parent) {
+            descent.add(n);
+        }
+        for (int k = descent.size() - 1; k >= 0; k--) {
+            Node n = descent.get(k);
+            for (int i = 0; i < n.rows.length; i++) {
+                editor.setPackedRow(n.rows[i], n.after[i]);
+            }
+        }
+
+        cursor = target;
+        cursorGrid = editor.build();
+        touch(target);
+        return new BoardMemento(cursorGrid, target.score, target.level);
+    }
+
+    /**
+     * @return the node the game is currently at.
+     */
+    public Node getCursor() {
+        return cursor;
+    }
+
+    /**
+     * @return the oldest state still kept in the tree.
+     */
+    public Node getRoot() {
+        return root;
+    }
+
+    /**
+     * @return the number of nodes currently kept.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return the approximate memory used by all stored deltas, in bytes.
+     */
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    private void requireStarted() {
+        if (root == null) {
+            throw new IllegalStateException("Timeline has not been reset with a starting state");
+        }
+    }
+
+    private void touch(Node node) {
+        node.lastVisited = ++clock;
+    }
+
+    private boolean contains(Node node) {
+        Node n = node;
+        while (n.parent != null) {
+            if (!n.parent.children.contains(n)) {
+                return false;
+            }
+            n = n.parent;
+        }
+        return n == root;
+    }
+
+    private static Node commonAncestor(Node a, Node b) {
+        while (a.depth > b.depth) a = a.parent;
+        while (b.depth > a.depth) b = b.parent;
+        while (a != b) {
+            a = a.parent;
+            b = b.parent;
+        }
+        return a;
+    }
+
+    private static boolean rowDiffers(PersistentGrid a, PersistentGrid b, int row) {
+        int[] left = a.rows()[row];
+        int[] right = b.rows()[row];
+        if (left == right) {
+            return false;
+        }
+        for (int col = 0; col < left.length; col++) {
+            if (left[col] != right[col]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Frees memory until usage falls below 90% of the budget.
+     * Cold side branches go first; if only the active line is left, the root is advanced.
+     * <p>
+     * The cursor's path is pinned and the prunable leaves are collected in a single pass, then taken
+     * coldest first; a parent whose last child goes becomes a candidate itself.
+     * </p>
+     */
+    private void prune() {
+        long target = memoryBudgetBytes * 9 / 10;
+        long stamp = ++pruneStamp;
+        List<Node> path = new ArrayList<>();
+        for (Node n = cursor; n != null; n = n.parent) {
+            n.pinned = stamp;
+            path.add(n);
+        }
+
+        PriorityQueue<Node> leaves = new PriorityQueue<>(Comparator.comparingLong((Node n) -> n.lastVisited));
+        List<Node> stack = new ArrayList<>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            Node n = stack.removeLast();
+            if (n.children.isEmpty()) {
+                if (n.pinned != stamp) {
+                    leaves.add(n);
+                }
+            } else {
+                stack.addAll(n.children);
+            }
+        }
+        while (usedBytes > target && !leaves.isEmpty()) {
+            Node victim = leaves.poll();
+            Node parent = victim.parent;
+            parent.children.remove(victim);
+            usedBytes -= victim.sizeBytes();
+            nodeCount--;
+            if (parent.children.isEmpty() && parent.pinned != stamp) {
+                leaves.add(parent);
+            }
+        }
+
+        // path runs from the cursor up to the root, so the root's child on it comes just before the root
+        for (int i = path.size() - 2; usedBytes > target && i >= 0; i--) {
+            foldRoot(path.get(i));
+        }
+    }
+
+    /**
+     * Folds the root into its child on the cursor's path, dropping any other branches of the root.
+     * The child becomes the root itself, so references to it stay valid.
+     */
+    private void foldRoot(Node next) {
+        for (Node sibling : root.children) {
+            if (sibling != next) {
+                usedBytes -= subtreeBytes(sibling);
+                nodeCount -= subtreeCount(sibling);
+            }
+        }
+        PersistentGrid.Editor editor = rootGrid.edit();
+        for (int i = 0; i < next.rows.length; i++) {
+            editor.setPackedRow(next.rows[i], next.after[i]);
+        }
+        rootGrid = editor.build();
+        usedBytes -= next.sizeBytes();
+        nodeCount--;
+
+        root.children.clear();
+        next.parent = null;
+        next.rows = NO_ROWS;
+        next.before = NO_WORDS;
+        next.after = NO_WORDS;
+        root = next;
+        rootDepth = next.depth;
+    }
+
+    private static long subtreeBytes(Node node) {
+        long total = node.sizeBytes();
+        for (Node child : node.children) {
+            total += subtreeBytes(child);
+        }
+        return total;
+    }
+
+    private static int subtreeCount(Node node) {
+        int total = 1;
+        for (Node child : node.children) {
+            total += subtreeCount(child);
+        }
+        return total;
+    }
+
+    /**
+     * A single state in the timeline, stored as a delta against its parent.
+     */
+    public static final class Node {
+
+        private final TimelineTree tree;
+        private final int id;
+        private Node parent;
+        private final int depth; // counted from the first root; the tree's rootDepth is subtracted
+        private byte[] rows;
+        private long[] before;
+        private long[] after;
+        private final int score;
+        private final int level;
+        private final List<Node> children = new ArrayList<>(1);
+        private long lastVisited;
+        private long pinned;
+
+        private Node(TimelineTree tree, int id, Node parent, byte[] rows, long[] before, long[] after,
+                     int score, int level) {
+            this.tree = tree;
+            this.id = id;
+            this.parent = parent;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+            this.rows = rows;
+            this.before = before;
+            this.after = after;
+            this.score = score;
+            this.level = level;
+        }
+
+        private boolean sameDelta(byte[] otherRows, long[] otherAfter) {
+            return Arrays.equals(rows, otherRows) && Arrays.equals(after, otherAfter);
+        }
+
+        private long sizeBytes() {
+            return NODE_OVERHEAD_BYTES + rows.length + 2L * Long.BYTES * after.length;
+        }
+
+        /**
+         * @return a number identifying this node, unique within one game.
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * @return the previous state, or {@code null} for the root.
+         */
+        public Node getParent() {
+            return parent;
+        }
+
+        /**
+         * @return the alternative continuations recorded from this state.
+         */
+        public List<Node> getChildren() {
+            return Collections.unmodifiableList(children);
+        }
+
+        /**
+         * @return the number of moves between the root and this node.
+         */
+        public int getDepth() {
+            return depth - tree.rootDepth;
+        }
+
+        /**
+         * @return the number of grid rows this node changed relative to its parent.
+         */
+        public int getChangedRowCount() {
+            return rows.length;
+        }
+
+        /**
+         * @return the score saved at this node.
+         */
+        public int getScore() {
+            return score;
+        }
+
+        /**
+         * @return the level saved at this node.
+         */
+        public int getLevel() {
+            return level;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.comp2042.logic;
+
+import com.comp2042.logic.bricks.BrickTypes;
+
+/**
+ * The wall kick tables: where a rotated brick may be shifted when its new orientation collides.
+ * <p>
+ * <b>How kicks are used:</b> A rotation first tries the new orientation in place, then each offset in
+ * table order, and settles on the first position that does not collide. If none fits, the rotation
+ * fails. The I brick is four cells long and has its own, wider table; every other brick shares the
+ * standard one. Negative {@code y} moves the brick up.
+ * </p>
+ * <p>
+ * <b>Why shared:</b> {@link com.comp2042.logic.board.SimpleBoard} applies these kicks to the live
+ * brick, and search code (such as the bot's placement enumerator) must replay exactly the same rules to
+ * predict where a rotation ends up. Keeping the table in one place means the two can never disagree.
+ * Offsets are exposed through index accessors, so callers never hold (or could modify) the tables.
+ * </p>
+ */
+public final class WallKicks {
+
+    /** Brick type ID of the I brick (see {@link BrickTypes}). */
+    private static final int I_BRICK = 1;
+
+    // {dx, dy} per kick, tried in order
+    private static final int[][] I_KICKS = {{0, 0}, {-2, 0}, {1, 0}, {-2, 1}, {1, -2}};
+    private static final int[][] STANDARD_KICKS = {{0, 0}, {-1, 0}, {1, 0}, {0, -1}, {-1, -1}, {1, -1}};
+
+    private WallKicks() {
+    }
+
+    private static int[][] table(int brickId) {
+        return brickId == I_BRICK ? I_KICKS : STANDARD_KICKS;
+    }
+
+    /**
+     * @param brickId the brick type ID, as returned by {@link BrickTypes#idOf}.
+     * @return the number of positions a rotation of that brick tries.
+     */
+    public static int count(int brickId) {
+        return table(brickId).length;
+    }
+
+    /**
+     * @param brickId the brick type ID.
+     * @param kick the kick index, from 0 to {@link #count} - 1.
+     * @return the horizontal shift of that kick.
+     */
+    public static int dx(int brickId, int kick) {
+        return table(brickId)[kick][0];
+    }
+
+    /**
+     * @param brickId the brick type ID.
+     * @param kick the kick index, from 0 to {@link #count} - 1.
+     * @return the vertical shift of that kick (negative is up).
+     */
+    public static int dy(int brickId, int kick) {
+        return table(brickId)[kick][1];
+    }
+}
@@ -1,6 +1,8 @@
 package com.comp2042.logic.board;
 
+import com.comp2042.model.BoardState;
 import com.comp2042.model.ClearRow;
+import com.comp2042.model.PersistentGrid;
 import com.comp2042.model.ViewData;
 
 /**
@@ -48,6 +50,15 @@ public interface Board {
      */
     boolean rotateLeftBrick();
 
+    /**
+     * Reports how the active brick got where it is: the wall kick used by the last successful action
+     * if that was a rotation, which is what decides whether a lock can be a T-spin.
+     *
+     * @return the kick index, or {@link com.comp2042.logic.TSpinDetector#NO_ROTATION} if the last
+     *         successful action was a move or a drop (or the brick has not moved since it spawned).
+     */
+    int getLastRotationKick();
+
     /**
      * Spawns a new random brick at the top of the board.
      *
@@ -63,6 +74,14 @@ public interface Board {
      */
     int[][] getBoardMatrix();
 
+    /**
+     * Retrieves the immutable grid of locked blocks.
+     * Holding on to the returned reference is a constant-time snapshot of the board.
+     *
+     * @return the current {@link PersistentGrid}.
+     */
+    PersistentGrid getGrid();
+
     /**
      * Captures a snapshot of the current board state for the View.
      * This includes the active brick, ghost piece position, hold brick, and next bricks.
@@ -73,14 +92,16 @@ public interface Board {
 
     /**
      * Locks the current active brick into the board matrix.
-     * Called when a brick lands and can no longer move.
+     * Called when a brick lands and can no longer move. The lock is classified as a T-spin (or not)
+     * before the brick is merged, and the result is reported by the following {@link #clearRows()}.
      */
     void mergeBrickToBackground();
 
     /**
      * Scans the board for full rows, removes them, and shifts blocks down.
      *
-     * @return a {@link ClearRow} object containing the number of cleared lines and the updated matrix.
+     * @return a {@link ClearRow} object containing the number of cleared lines, the updated matrix and
+     *         the T-spin made by the brick locked last.
      */
     ClearRow clearRows();
 
@@ -90,6 +111,14 @@ public interface Board {
      */
     void newGame();
 
+    /**
+     * Resets the board and restarts the brick sequence from a seed.
+     * Two boards started with the same seed and fed the same inputs end up in the same state.
+     *
+     * @param seed the seed for the brick generator.
+     */
+    void newGame(long seed);
+
     /**
      * Instantly drops the current brick to the lowest valid position.
      *
@@ -112,6 +141,34 @@ public interface Board {
      */
     void restoreState(int[][] savedGrid);
 
+    /**
+     * Restores the board to a previously captured grid without copying.
+     *
+     * @param savedGrid the grid from a {@link com.comp2042.model.BoardMemento}.
+     */
+    void restoreState(PersistentGrid savedGrid);
+
+    /**
+     * Captures the complete board state, including the falling piece, hold slot and brick sequence.
+     *
+     * @return a snapshot from which {@link #restoreFullState(BoardState)} can resume the game exactly.
+     */
+    BoardState captureState();
+
+    /**
+     * Lists the bricks that will spawn next, as the preview shows them.
+     *
+     * @return their type IDs, nearest first; a new array.
+     */
+    int[] getUpcomingBrickIds();
+
+    /**
+     * Resumes a game from a state produced by {@link #captureState()}.
+     *
+     * @param state the state to resume from.
+     */
+    void restoreFullState(BoardState state);
+
     /**
      * Resets the position of the current brick to the spawn point.
      * Used during Zen Mode board clears to maintain continuity.
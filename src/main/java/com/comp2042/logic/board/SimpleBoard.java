@@ -1,14 +1,19 @@
 package com.comp2042.logic.board;
 
 import com.comp2042.logic.BrickRotator;
+import com.comp2042.logic.TSpinDetector;
+import com.comp2042.logic.WallKicks;
 import com.comp2042.logic.bricks.Brick;
 import com.comp2042.logic.bricks.BrickGenerator;
+import com.comp2042.logic.bricks.BrickTypes;
 import com.comp2042.logic.bricks.RandomBrickGenerator;
+import com.comp2042.model.BoardState;
 import com.comp2042.model.ClearRow;
 import com.comp2042.model.NextShapeInfo;
+import com.comp2042.model.PersistentGrid;
+import com.comp2042.model.TSpin;
 import com.comp2042.model.ViewData;
 import com.comp2042.util.GameConfiguration;
-import com.comp2042.util.MatrixOperations;
 
 import java.awt.Point;
 import java.util.ArrayList;
@@ -19,13 +24,16 @@ import java.util.List;
  * <p>
  * This class serves as the core <b>Model</b> component for the gameplay physics. It manages:
  * <ul>
- * <li>The 2D integer matrix representing the grid state (0 for empty, values for colors).</li>
+ * <li>The {@link PersistentGrid} representing the locked blocks (0 for empty, values for colors).</li>
  * <li>The active falling {@link Brick} and its coordinates.</li>
  * <li>Collision detection logic (walls, floor, and other blocks).</li>
  * <li>Complex mechanics like Wall Kicks (SRS) and Hard Drops.</li>
+ * <li>The last successful action (and its kick, if it was a rotation), so a lock can be classified
+ * as a T-spin by {@link TSpinDetector}.</li>
  * </ul>
  * <p>
- * It delegates mathematical matrix operations to {@link MatrixOperations} to keep this class focused on game rules.
+ * It delegates grid operations (collision, merging, row clearing) to {@link PersistentGrid} to keep this class focused on game rules.
+ * Because the grid is immutable and shares unchanged rows between versions, snapshots for Undo are constant-time.
  */
 public class SimpleBoard implements Board {
 
@@ -33,10 +41,12 @@ public class SimpleBoard implements Board {
     private final int height;
     private final BrickGenerator brickGenerator;
     private final BrickRotator brickRotator;
-    private int[][] currentGameMatrix;
+    private PersistentGrid grid;
     private Point currentOffset;
     private Brick heldBrick;
     private boolean canHold;
+    private int lastKick = TSpinDetector.NO_ROTATION;
+    private TSpin lastSpin = TSpin.NONE;
 
     /**
      * Constructs a new board with specific dimensions.
@@ -46,10 +56,22 @@ public class SimpleBoard implements Board {
      * @param width the number of columns
      */
     public SimpleBoard(int height, int width) {
+        this(height, width, new RandomBrickGenerator());
+    }
+
+    /**
+     * Constructs a new board that draws its bricks from the given generator.
+     * Passing a seeded generator makes the whole game reproducible.
+     *
+     * @param height the number of rows (including hidden rows)
+     * @param width the number of columns
+     * @param brickGenerator the source of new bricks
+     */
+    public SimpleBoard(int height, int width, BrickGenerator brickGenerator) {
         this.height = height;
         this.width = width;
-        currentGameMatrix = new int[height][width];
-        brickGenerator = new RandomBrickGenerator();
+        grid = PersistentGrid.empty(height, width);
+        this.brickGenerator = brickGenerator;
         brickRotator = new BrickRotator();
         this.heldBrick = null;
         this.canHold = true;
@@ -63,9 +85,64 @@ public class SimpleBoard implements Board {
      */
     @Override
     public void restoreState(int[][] savedGrid) {
-        for (int i = 0; i < height; i++) {
-            System.arraycopy(savedGrid[i], 0, currentGameMatrix[i], 0, width);
+        grid = PersistentGrid.of(savedGrid);
+    }
+
+    /**
+     * Adopts a previously captured grid as the current board.
+     * Since grids are immutable, this is a constant-time reference swap.
+     *
+     * @param savedGrid the grid snapshot to restore
+     */
+    @Override
+    public void restoreState(PersistentGrid savedGrid) {
+        grid = savedGrid;
+    }
+
+    @Override
+    public PersistentGrid getGrid() {
+        return grid;
+    }
+
+    @Override
+    public BoardState captureState() {
+        return new BoardState(
+                grid,
+                BrickTypes.idOf(brickRotator.getBrick()),
+                brickRotator.getCurrentShapeIndex(),
+                (int) currentOffset.getX(),
+                (int) currentOffset.getY(),
+                BrickTypes.idOf(heldBrick),
+                canHold,
+                brickGenerator.saveState()
+        );
+    }
+
+    @Override
+    public int[] getUpcomingBrickIds() {
+        List<Brick> upcoming = brickGenerator.getUpcomingBricks();
+        int[] ids = new int[upcoming.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = BrickTypes.idOf(upcoming.get(i));
         }
+        return ids;
+    }
+
+    /**
+     * Resumes from a full snapshot. Fresh brick instances are created from the saved type IDs.
+     *
+     * @param state the state to resume from
+     */
+    @Override
+    public void restoreFullState(BoardState state) {
+        grid = state.getGrid();
+        brickRotator.setBrick(BrickTypes.create(state.getBrickId()));
+        brickRotator.setCurrentShape(state.getRotation());
+        currentOffset = new Point(state.getX(), state.getY());
+        heldBrick = BrickTypes.create(state.getHeldBrickId());
+        canHold = state.canHold();
+        lastKick = TSpinDetector.NO_ROTATION;
+        brickGenerator.restoreState(state.getGeneratorState());
     }
 
     /**
@@ -76,6 +153,7 @@ public class SimpleBoard implements Board {
     public void resetCurrentBrick() {
         this.currentOffset = new Point(getStartX(), 0);
         brickRotator.setBrick(brickRotator.getBrick());
+        lastKick = TSpinDetector.NO_ROTATION;
     }
 
     /**
@@ -104,12 +182,13 @@ public class SimpleBoard implements Board {
             currentOffset = new Point(getStartX(), 0);
 
             // Instead of calling newGame(), set the game-over flag.
-            if (MatrixOperations.intersect(currentGameMatrix, brickRotator.getCurrentShape(), (int) currentOffset.getX(), (int) currentOffset.getY())) {
+            if (grid.intersects(brickRotator.getCurrentShape(), (int) currentOffset.getX(), (int) currentOffset.getY())) {
                 isGameOver = true;
             }
         }
 
         canHold = false;
+        lastKick = TSpinDetector.NO_ROTATION;
         return isGameOver; // Return the final game-over state to the GameController
     }
 
@@ -124,7 +203,8 @@ public class SimpleBoard implements Board {
         Brick currentBrick = brickGenerator.getBrick();
         brickRotator.setBrick(currentBrick);
         currentOffset = new Point(getStartX(), 0);
-        return MatrixOperations.intersect(currentGameMatrix, brickRotator.getCurrentShape(), (int) currentOffset.getX(), (int) currentOffset.getY());
+        lastKick = TSpinDetector.NO_ROTATION;
+        return grid.intersects(brickRotator.getCurrentShape(), (int) currentOffset.getX(), (int) currentOffset.getY());
     }
 
     /**
@@ -141,12 +221,23 @@ public class SimpleBoard implements Board {
      */
     @Override
     public void newGame() {
-        currentGameMatrix = new int[height][width];
+        grid = PersistentGrid.empty(height, width);
         heldBrick = null;
         canHold = true;
         createNewBrick();
     }
 
+    /**
+     * Reseeds the brick generator and then resets the board.
+     *
+     * @param seed the seed for the new brick sequence
+     */
+    @Override
+    public void newGame(long seed) {
+        brickGenerator.reseed(seed);
+        newGame();
+    }
+
     /**
      * Packages the current game state into a ViewData object for the UI.
      * Includes calculations for the "Ghost Piece" (where the block would land).
@@ -191,7 +282,7 @@ public class SimpleBoard implements Board {
 
     /**
      * Helper method to attempt a move.
-     * Checks collision using {@link MatrixOperations#intersect}.
+     * Checks collision using {@link PersistentGrid#intersects}.
      *
      * @param dx change in x
      * @param dy change in y
@@ -201,8 +292,7 @@ public class SimpleBoard implements Board {
         Point p = new Point(currentOffset);
         p.translate(dx, dy);
 
-        boolean conflict = MatrixOperations.intersect(
-                currentGameMatrix,
+        boolean conflict = grid.intersects(
                 brickRotator.getCurrentShape(),
                 (int) p.getX(),
                 (int) p.getY()
@@ -212,13 +302,14 @@ public class SimpleBoard implements Board {
             return false;
         } else {
             currentOffset = p;
+            lastKick = TSpinDetector.NO_ROTATION;
             return true;
         }
     }
 
     /**
      * Rotates the brick counter-clockwise with SRS (Super Rotation System) wall kicks.
-     * Attempts to rotate; if blocked, tries specific offset positions (kicks) to find a valid fit.
+     * Attempts to rotate; if blocked, tries the offsets from {@link WallKicks} in order to find a valid fit.
      *
      * @return true if rotation was successful
      */
@@ -226,70 +317,63 @@ public class SimpleBoard implements Board {
     public boolean rotateLeftBrick() {
         NextShapeInfo nextShape = brickRotator.getNextShape();
         int[][] shape = nextShape.getShape();
-        Point[] kickOffsets;
-
-        if (brickRotator.getBrick().getClass().getSimpleName().equals("IBrick")) {
-            kickOffsets = new Point[]{
-                    new Point(0, 0),
-                    new Point(-2, 0),
-                    new Point(1, 0),
-                    new Point(-2, 1),
-                    new Point(1, -2)
-            };
-        } else {
-            kickOffsets = new Point[]{
-                    new Point(0, 0),
-                    new Point(-1, 0),
-                    new Point(1, 0),
-                    new Point(0, -1),
-                    new Point(-1, -1),
-                    new Point(1, -1)
-            };
-        }
-
-        for (Point kick : kickOffsets) {
-            Point checkPosition = new Point(currentOffset);
-            checkPosition.translate((int) kick.getX(), (int) kick.getY());
-
-            boolean conflict = MatrixOperations.intersect(
-                    currentGameMatrix,
-                    shape,
-                    (int) checkPosition.getX(),
-                    (int) checkPosition.getY()
-            );
+        int brickId = BrickTypes.idOf(brickRotator.getBrick());
+        int x = (int) currentOffset.getX();
+        int y = (int) currentOffset.getY();
 
-            if (!conflict) {
+        for (int kick = 0; kick < WallKicks.count(brickId); kick++) {
+            int checkX = x + WallKicks.dx(brickId, kick);
+            int checkY = y + WallKicks.dy(brickId, kick);
+            if (!grid.intersects(shape, checkX, checkY)) {
                 brickRotator.setCurrentShape(nextShape.getPosition());
-                currentOffset = checkPosition;
+                currentOffset = new Point(checkX, checkY);
+                lastKick = kick;
                 return true;
             }
         }
         return false;
     }
 
+    @Override
+    public int getLastRotationKick() {
+        return lastKick;
+    }
+
+    /**
+     * Returns the locked blocks backed by the current {@link PersistentGrid}.
+     * The rows are shared with saved snapshots and must be treated as read-only.
+     */
     @Override
     public int[][] getBoardMatrix() {
-        return currentGameMatrix;
+        return grid.rows();
     }
 
     /**
      * Locks the current active brick into the board matrix.
+     * Only the rows covered by the brick are copied; the rest are shared with the previous grid.
+     * The corners around a T are read before the merge, to classify the lock as a T-spin.
      */
     @Override
     public void mergeBrickToBackground() {
-        currentGameMatrix = MatrixOperations.merge(currentGameMatrix, brickRotator.getCurrentShape(), (int) currentOffset.getX(), (int) currentOffset.getY());
+        lastSpin = TSpinDetector.classify(grid, BrickTypes.idOf(brickRotator.getBrick()),
+                brickRotator.getCurrentShapeIndex(), (int) currentOffset.getX(), (int) currentOffset.getY(), lastKick);
+        grid = grid.merge(brickRotator.getCurrentShape(), (int) currentOffset.getX(), (int) currentOffset.getY());
     }
 
     /**
      * Scans the board for filled rows and clears them.
      *
-     * @return a ClearRow object containing stats about lines removed
+     * @return a ClearRow object containing stats about lines removed, and the T-spin of the last lock
      */
     @Override
     public ClearRow clearRows() {
-        ClearRow clearRow = MatrixOperations.checkRemoving(currentGameMatrix);
-        currentGameMatrix = clearRow.getNewMatrix();
-        return clearRow;
+        int linesRemoved = grid.countFullRows();
+        if (linesRemoved > 0) {
+            grid = grid.clearFullRows();
+        }
+        TSpin spin = lastSpin;
+        lastSpin = TSpin.NONE;
+        return new ClearRow(linesRemoved, grid.rows(), spin);
     }
 
     /**
@@ -311,7 +395,7 @@ public class SimpleBoard implements Board {
      */
     private int getDropPosition() {
         int y = (int) currentOffset.getY();
-        while (!MatrixOperations.intersect(currentGameMatrix, brickRotator.getCurrentShape(), (int) currentOffset.getX(), y + 1)) {
+        while (!grid.intersects(brickRotator.getCurrentShape(), (int) currentOffset.getX(), y + 1)) {
             y++;
         }
         return y;
@@ -333,7 +417,7 @@ public class SimpleBoard implements Board {
 
         for (int i = hiddenRows; i < hiddenRows + dangerZoneHeight; i++) {
             for (int j = 0; j < width; j++) {
-                if (currentGameMatrix[i][j] != 0) {
+                if (grid.get(i, j) != 0) {
                     return true;
                 }
             }
@@ -33,4 +33,31 @@ public interface BrickGenerator {
      * @return a List of upcoming {@link Brick} objects.
      */
     List<Brick> getUpcomingBricks();
+
+    /**
+     * Restarts the sequence so that it is fully determined by the given seed.
+     * <p>
+     * Used when a new game starts, so that the game can later be replayed from its seed.
+     * </p>
+     *
+     * @param seed the seed for the new sequence.
+     */
+    void reseed(long seed);
+
+    /**
+     * Captures the generator's exact position in its sequence.
+     * Restoring the result with {@link #restoreState(byte[])} makes the generator continue with
+     * exactly the same bricks it would have produced from this point.
+     *
+     * @return an opaque, compact encoding of the state.
+     */
+    byte[] saveState();
+
+    /**
+     * Restores a state produced by {@link #saveState()}.
+     *
+     * @param state the saved state.
+     * @throws IllegalArgumentException if the state was not produced by this kind of generator.
+     */
+    void restoreState(byte[] state);
 }
\ No newline at end of file
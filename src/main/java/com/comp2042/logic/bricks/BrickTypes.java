@@ -0,0 +1,59 @@
+package com.comp2042.logic.bricks;
+
+/**
+ * Maps bricks to and from their numeric type IDs.
+ * <p>
+ * A brick's type ID is the color code used in its shape matrices (I=1, J=2, L=3, O=4, S=5, T=6, Z=7),
+ * so it fits in 3 bits and matches what is stored in the grid. This lets saved states refer to bricks
+ * without exposing the package-private brick classes.
+ * </p>
+ */
+public final class BrickTypes {
+
+    /** The ID used for "no brick", e.g. an empty hold slot. */
+    public static final int NONE = 0;
+
+    private BrickTypes() {
+    }
+
+    /**
+     * Determines the type ID of a brick from its shape.
+     *
+     * @param brick the brick, or {@code null}.
+     * @return the type ID, or {@link #NONE} for {@code null}.
+     */
+    public static int idOf(Brick brick) {
+        if (brick == null) {
+            return NONE;
+        }
+        for (int[] row : brick.getShapeMatrix().getFirst()) {
+            for (int value : row) {
+                if (value != 0) {
+                    return value;
+                }
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Creates a new brick of the given type.
+     *
+     * @param id the type ID.
+     * @return a new brick, or {@code null} for {@link #NONE}.
+     * @throws IllegalArgumentException if the ID is unknown.
+     */
+    public static Brick create(int id) {
+        return switch (id) {
+            case NONE -> null;
+            case 1 -> new IBrick();
+            case 2 -> new JBrick();
+            case 3 -> new LBrick();
+            case 4 -> new OBrick();
+            case 5 -> new SBrick();
+            case 6 -> new TBrick();
+            case 7 -> new ZBrick();
+            default -> throw new IllegalArgumentException("Unknown brick type " + id);
+        };
+    }
+}
@@ -1,8 +1,8 @@
 package com.comp2042.logic.bricks;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Deque;
 import java.util.List;
 
@@ -21,6 +21,11 @@ import java.util.List;
  * <p>
  * This ensures that a player will never go more than 12 turns without seeing a specific piece.
  * </p>
+ * <p>
+ * <b>Reproducibility:</b> Shuffling uses a small SplitMix64 generator whose whole state is a
+ * single {@code long}. Two generators created with the same seed always produce the same
+ * sequence, which is what allows recorded games to be replayed exactly.
+ * </p>
  */
 public class RandomBrickGenerator implements BrickGenerator {
 
@@ -28,11 +33,40 @@ public class RandomBrickGenerator implements BrickGenerator {
     private final Deque<Brick> nextBricks = new ArrayDeque<>();
     private static final int PREVIEW_COUNT = 4;
 
+    private long rngState;
+
     /**
-     * Constructs a new generator and pre-fills the queue.
+     * Constructs a new generator with an arbitrary seed and pre-fills the queue.
      * Ensures that the game starts with a full set of upcoming pieces ready for the View.
      */
     public RandomBrickGenerator() {
+        this(System.nanoTime());
+    }
+
+    /**
+     * Constructs a new generator whose sequence is fully determined by the seed.
+     *
+     * @param seed the seed for the shuffle.
+     */
+    public RandomBrickGenerator(long seed) {
+        restart(seed);
+    }
+
+    /**
+     * Discards the current bag and preview queue and restarts the sequence from a seed.
+     *
+     * @param seed the seed for the shuffle.
+     */
+    @Override
+    public void reseed(long seed) {
+        restart(seed);
+    }
+
+    // shared with the constructor, which must not call the overridable reseed
+    private void restart(long seed) {
+        rngState = seed;
+        bag.clear();
+        nextBricks.clear();
         fillQueue();
     }
 
@@ -40,7 +74,7 @@ public class RandomBrickGenerator implements BrickGenerator {
      * Refills the internal bag if empty and draws the next piece.
      * <p>
      * When the bag empties, this method instantiates all 7 {@link Brick} types
-     * (I, J, L, O, S, T, Z) and uses {@link Collections#shuffle(List)} to randomize them.
+     * (I, J, L, O, S, T, Z) and shuffles them with a Fisher-Yates shuffle.
      * </p>
      *
      * @return a single Brick from the current bag.
@@ -55,11 +89,74 @@ public class RandomBrickGenerator implements BrickGenerator {
             bag.add(new TBrick());
             bag.add(new ZBrick());
 
-            Collections.shuffle(bag);
+            for (int i = bag.size() - 1; i > 0; i--) {
+                int j = nextInt(i + 1);
+                Brick tmp = bag.get(i);
+                bag.set(i, bag.get(j));
+                bag.set(j, tmp);
+            }
         }
         return bag.remove(0);
     }
 
+    /**
+     * Encodes the RNG state followed by the type IDs of the remaining bag and the preview queue.
+     *
+     * @return the saved state (at most 8 + 2 + 7 + 5 bytes).
+     */
+    @Override
+    public byte[] saveState() {
+        ByteBuffer out = ByteBuffer.allocate(Long.BYTES + 2 + bag.size() + nextBricks.size());
+        out.putLong(rngState);
+        out.put((byte) bag.size());
+        for (Brick brick : bag) {
+            out.put((byte) BrickTypes.idOf(brick));
+        }
+        out.put((byte) nextBricks.size());
+        for (Brick brick : nextBricks) {
+            out.put((byte) BrickTypes.idOf(brick));
+        }
+        return out.array();
+    }
+
+    @Override
+    public void restoreState(byte[] state) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(state);
+            long savedRng = in.getLong();
+            List<Brick> savedBag = new ArrayList<>();
+            for (int i = in.get(); i > 0; i--) {
+                savedBag.add(BrickTypes.create(in.get()));
+            }
+            List<Brick> savedQueue = new ArrayList<>();
+            for (int i = in.get(); i > 0; i--) {
+                savedQueue.add(BrickTypes.create(in.get()));
+            }
+            rngState = savedRng;
+            bag.clear();
+            bag.addAll(savedBag);
+            nextBricks.clear();
+            nextBricks.addAll(savedQueue);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid generator state", e);
+        }
+    }
+
+    /**
+     * Draws the next value from the SplitMix64 sequence.
+     *
+     * @param bound the exclusive upper bound.
+     * @return a value between 0 (inclusive) and {@code bound} (exclusive).
+     */
+    private int nextInt(int bound) {
+        rngState += 0x9E3779B97F4A7C15L;
+        long z = rngState;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (int) ((z >>> 1) % bound);
+    }
+
     /**
      * Ensures the {@code nextBricks} queue always contains enough pieces
      * to satisfy the UI preview requirements (defined by {@code PREVIEW_COUNT}).
@@ -20,6 +20,13 @@ import com.comp2042.controllers.GameController;
  */
 public interface GameMode {
 
+    /**
+     * Provides a stable identifier for this mode, used when saving replays.
+     *
+     * @return the mode name (e.g., "NORMAL" or "ZEN").
+     */
+    String getName();
+
     /**
      * Determines if the current game session should be recorded in the high score file.
      *
@@ -56,6 +63,28 @@ public interface GameMode {
      */
     int getUndoLimit();
 
+    /**
+     * Determines whether Undo keeps a branching timeline (with Redo) instead of a single save point.
+     * <p>
+     * With branching enabled, undoing and then playing a different move creates a new branch
+     * rather than discarding the old line of play, so players can compare alternatives.
+     * </p>
+     *
+     * @return true to use the {@link com.comp2042.logic.TimelineTree}; false for the limited single-step undo.
+     */
+    boolean isBranchingUndoEnabled();
+
+    /**
+     * Determines whether the UI suggests a placement for the falling brick.
+     * <p>
+     * The suggestion is searched for in the background by a {@link com.comp2042.ai.HintService}
+     * and drawn as a second ghost.
+     * </p>
+     *
+     * @return true to show placement hints; false to leave the player on their own.
+     */
+    boolean isHintEnabled();
+
     /**
      * Defines the behavior when a game-over condition (brick overflow) is met.
      * <p>
@@ -0,0 +1,57 @@
+package com.comp2042.logic.mode;
+
+/**
+ * Resolves {@link GameMode} strategies from the names stored in saved data such as replays.
+ * <p>
+ * Keeping this lookup in one place means a new mode only needs to be registered here to become
+ * available to every tool that reloads a recorded game.
+ * </p>
+ */
+public final class GameModes {
+
+    private GameModes() {
+    }
+
+    /**
+     * Creates a fresh instance of the mode with the given name.
+     *
+     * @param name the value returned by {@link GameMode#getName()}.
+     * @return a new mode instance.
+     * @throws IllegalArgumentException if no mode has that name.
+     */
+    public static GameMode forName(String name) {
+        return switch (name) {
+            case NormalMode.NAME -> new NormalMode();
+            case ZenMode.NAME -> new ZenMode();
+            default -> throw new IllegalArgumentException("Unknown game mode: " + name);
+        };
+    }
+
+    /**
+     * Maps a mode name to a one-byte code for compact binary indexes.
+     *
+     * @param name the value returned by {@link GameMode#getName()}.
+     * @return a code from 1 to 255, or 0 if the name is unknown.
+     */
+    public static int codeOf(String name) {
+        return switch (name) {
+            case NormalMode.NAME -> 1;
+            case ZenMode.NAME -> 2;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Reverses {@link #codeOf(String)}.
+     *
+     * @param code the stored code.
+     * @return the mode name, or {@code null} if the code is unknown.
+     */
+    public static String nameOf(int code) {
+        return switch (code) {
+            case 1 -> NormalMode.NAME;
+            case 2 -> ZenMode.NAME;
+            default -> null;
+        };
+    }
+}
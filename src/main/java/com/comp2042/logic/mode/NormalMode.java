@@ -17,6 +17,16 @@ import com.comp2042.util.GameConfiguration;
  */
 public class NormalMode implements GameMode {
 
+    /** The identifier stored in replays recorded in this mode. */
+    public static final String NAME = "NORMAL";
+
+    /**
+     * {@inheritDoc}
+     * @return {@value #NAME}.
+     */
+    @Override
+    public String getName() { return NAME; }
+
     /**
      * {@inheritDoc}
      * @return true, as competitive play requires tracking high scores.
@@ -59,6 +69,20 @@ public class NormalMode implements GameMode {
         return GameConfiguration.UNDO_LIMIT_NORMAL;
     }
 
+    /**
+     * {@inheritDoc}
+     * @return false, keeping the single, limited undo step of competitive play.
+     */
+    @Override
+    public boolean isBranchingUndoEnabled() { return false; }
+
+    /**
+     * {@inheritDoc}
+     * @return false, as competitive games are played without help.
+     */
+    @Override
+    public boolean isHintEnabled() { return false; }
+
     /**
      * Triggers the standard "Game Over" sequence.
      * <p>
@@ -11,12 +11,24 @@ import com.comp2042.controllers.GameController;
  * <li>Game speed remains constant (no leveling up).</li>
  * <li>"Danger" effects (shaking, intense music) are suppressed.</li>
  * <li>The player has infinite "Undos" to practice placement.</li>
+ * <li>Undo/Redo follow a branching timeline, so alternative lines of play can be compared.</li>
+ * <li>A suggested placement for each brick is drawn as a second ghost.</li>
  * <li>Game Over results in an immediate board reset rather than a termination screen.</li>
  * </ul>
  * </p>
  */
 public class ZenMode implements GameMode {
 
+    /** The identifier stored in replays recorded in this mode. */
+    public static final String NAME = "ZEN";
+
+    /**
+     * {@inheritDoc}
+     * @return {@value #NAME}.
+     */
+    @Override
+    public String getName() { return NAME; }
+
     /**
      * {@inheritDoc}
      * @return false, as Zen mode is for practice and does not track competitive records.
@@ -59,6 +71,20 @@ public class ZenMode implements GameMode {
         return Integer.MAX_VALUE;  // Infinite undos
     }
 
+    /**
+     * {@inheritDoc}
+     * @return true, letting practice players branch off and revisit earlier lines of play.
+     */
+    @Override
+    public boolean isBranchingUndoEnabled() { return true; }
+
+    /**
+     * {@inheritDoc}
+     * @return true, as a practice mode is where a suggestion helps a player learn.
+     */
+    @Override
+    public boolean isHintEnabled() { return true; }
+
     /**
      * Triggers the Zen Mode "Auto-Restart" sequence.
      * <p>
@@ -0,0 +1,166 @@
+package com.comp2042.managers;
+
+import com.comp2042.ai.FinesseTable;
+
+/**
+ * Compares the keys the player pressed for each brick with the fewest that would have done, and
+ * keeps per-game statistics of the difference ("finesse errors").
+ * <p>
+ * <b>Input side:</b> The {@link KeyManager} reports every <i>new</i> press of a move, rotate or soft
+ * drop key through {@link #onKeyPressed()}. Key repeat while a key is held down is not a new press,
+ * which is what makes a held key count once, as it does in {@link FinesseTable}. Hard drop is not
+ * counted on either side.
+ * </p>
+ * <p>
+ * <b>Game side:</b> The {@link com.comp2042.controllers.GameController} reports each lock with the
+ * board it locked on, and calls {@link #onPieceReset()} when the brick goes back to its spawn
+ * position (Hold, Undo) so only the presses of the brick's last life count. Bricks that locked
+ * without a single counted press (played by the bot, a replay, or just gravity) are not judged.
+ * </p>
+ * <p>
+ * <b>Performance:</b> The table is built on the first judged brick, so games that are never played
+ * by hand never pay for it. From then on a lock costs one table lookup, or one small search when the
+ * board gets in the way.
+ * </p>
+ */
+public class FinesseTracker {
+
+    private final int width;
+    private final int height;
+    private FinesseTable table;
+
+    private int pending;
+    private int pieces;
+    private int faults;
+    private int presses;
+    private int optimalPresses;
+    private int extraPresses;
+    private int lastExtra;
+
+    /**
+     * Creates a tracker for boards of the given size.
+     *
+     * @param width the number of columns.
+     * @param height the number of rows.
+     */
+    public FinesseTracker(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Counts a new press of a move, rotate or soft drop key for the falling brick.
+     */
+    public void onKeyPressed() {
+        pending++;
+    }
+
+    /**
+     * @return whether the falling brick has counted presses, i.e. whether its lock will be judged.
+     */
+    public boolean hasPendingPresses() {
+        return pending > 0;
+    }
+
+    /**
+     * Forgets the presses of the falling brick, because it is back at its spawn position.
+     */
+    public void onPieceReset() {
+        pending = 0;
+    }
+
+    /**
+     * Judges the lock of the falling brick and starts counting for the next one.
+     *
+     * @param board the locked blocks before the brick joins them.
+     * @param brickId the brick type ID.
+     * @param rotation the rotation it locked in.
+     * @param x the column of its shape matrix.
+     * @param y the row of its shape matrix.
+     */
+    public void onPieceLocked(int[][] board, int brickId, int rotation, int x, int y) {
+        int used = pending;
+        pending = 0;
+        if (used == 0) {
+            return;
+        }
+        if (table == null) {
+            table = new FinesseTable(width, height);
+        }
+        int optimal = table.optimalPresses(board, brickId, rotation, x, y);
+        if (optimal < 0) {
+            return;
+        }
+        // gravity can do the work of a soft drop, so fewer presses than the optimum is not an error
+        lastExtra = Math.max(0, used - optimal);
+        pieces++;
+        presses += used;
+        optimalPresses += optimal;
+        extraPresses += lastExtra;
+        if (lastExtra > 0) {
+            faults++;
+        }
+    }
+
+    /**
+     * Clears the statistics for a new game.
+     */
+    public void reset() {
+        pending = 0;
+        pieces = 0;
+        faults = 0;
+        presses = 0;
+        optimalPresses = 0;
+        extraPresses = 0;
+        lastExtra = 0;
+    }
+
+    /**
+     * @return the number of bricks judged this game.
+     */
+    public int getPieces() {
+        return pieces;
+    }
+
+    /**
+     * @return the number of judged bricks that took more presses than needed.
+     */
+    public int getFaults() {
+        return faults;
+    }
+
+    /**
+     * @return the presses made for the judged bricks.
+     */
+    public int getPresses() {
+        return presses;
+    }
+
+    /**
+     * @return the fewest presses the judged bricks could have been placed with.
+     */
+    public int getOptimalPresses() {
+        return optimalPresses;
+    }
+
+    /**
+     * @return the presses beyond the optimum, summed over the judged bricks.
+     */
+    public int getExtraPresses() {
+        return extraPresses;
+    }
+
+    /**
+     * @return the presses the last judged brick took beyond the optimum.
+     */
+    public int getLastExtraPresses() {
+        return lastExtra;
+    }
+
+    /**
+     * @return the share of judged bricks placed without a fault, from 0 to 1 (1 before any brick).
+     */
+    public double getAccuracy() {
+        return pieces == 0 ? 1.0 : (pieces - faults) / (double) pieces;
+    }
+}
@@ -1,5 +1,7 @@
 package com.comp2042.managers;
 
+import com.comp2042.logic.GameSpeed;
+import com.comp2042.util.GameClock;
 import com.comp2042.util.GameConfiguration;
 import javafx.animation.KeyFrame;
 import javafx.animation.PauseTransition;
@@ -25,6 +27,7 @@ import javafx.util.Duration;
  * <li>Handling start, pause, resume, and stop states.</li>
  * <li>Executing the "Countdown" sequence before a game begins.</li>
  * <li>Adjusting tick speed dynamically based on the level.</li>
+ * <li>Keeping a {@link GameClock} that only runs while the game is actually being played.</li>
  * </ul>
  */
 public class GameLoopManager {
@@ -37,6 +40,7 @@ public class GameLoopManager {
     private long currentSpeedMillis;
     private final Runnable onTickAction;
     private final Label countdownLabel;
+    private final GameClock gameClock = new GameClock();
 
     /**
      * Constructs a new GameLoopManager.
@@ -54,7 +58,7 @@ public class GameLoopManager {
      * The timeline is created but not started until the countdown finishes.
      */
     public void initGameLoop() {
-        this.currentSpeedMillis = GameConfiguration.LEVEL_SPEEDS.getFirst();
+        this.currentSpeedMillis = GameSpeed.tickIntervalMillis(1);
         this.timeLine = createTimeline(this.currentSpeedMillis);
     }
 
@@ -78,6 +82,7 @@ public class GameLoopManager {
      */
     private void startGame() {
         isCountingDown.set(false);
+        gameClock.start();
         if (timeLine != null) {
             timeLine.play();
         }
@@ -96,8 +101,10 @@ public class GameLoopManager {
         }
         isPause.set(!isPause.get());
         if (isPause.get()) {
+            gameClock.pause();
             if (timeLine != null) timeLine.pause();
         } else {
+            gameClock.start();
             if (timeLine != null) timeLine.play();
         }
     }
@@ -107,6 +114,7 @@ public class GameLoopManager {
      */
     public void gameOver() {
         if (timeLine != null) timeLine.stop();
+        gameClock.pause();
         isGameOver.setValue(Boolean.TRUE);
     }
 
@@ -123,6 +131,7 @@ public class GameLoopManager {
 
         isPause.setValue(Boolean.FALSE);
         isGameOver.setValue(Boolean.FALSE);
+        gameClock.reset();
 
         updateLevel(1); // Reset speed
         showCountdown(); // Start countdown
@@ -131,21 +140,14 @@ public class GameLoopManager {
     /**
      * Updates the game loop speed based on the current level.
      * <p>
-     * It retrieves the target speed from {@link GameConfiguration}. If the speed has changed,
+     * It retrieves the target speed from {@link GameSpeed}. If the speed has changed,
      * the current timeline is stopped and replaced with a new one running at the faster rate.
      * </p>
      *
      * @param level the current game level (1-based index).
      */
     public void updateLevel(int level) {
-        int index = level - 1;
-
-        if (index < 0) index = 0;
-        if (index >= GameConfiguration.LEVEL_SPEEDS.size()) {
-            index = GameConfiguration.LEVEL_SPEEDS.size() - 1;
-        }
-
-        long newSpeed = GameConfiguration.LEVEL_SPEEDS.get(index);
+        long newSpeed = GameSpeed.tickIntervalMillis(level);
 
         if (this.currentSpeedMillis == newSpeed || timeLine == null) {
             return;
@@ -197,6 +199,16 @@ public class GameLoopManager {
         countdownTimeline.play();
     }
 
+    /**
+     * Exposes the play-time clock. It is reset by {@link #newGame()}, starts when the countdown
+     * finishes, and stops while paused or after game over.
+     *
+     * @return the clock of the current game.
+     */
+    public GameClock getGameClock() {
+        return gameClock;
+    }
+
     public BooleanProperty isPauseProperty() {
         return isPause;
     }
@@ -8,6 +8,9 @@ import com.comp2042.util.EventType;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Manages keyboard input handling for the application.
  * <p>
@@ -19,12 +22,19 @@ import javafx.scene.input.KeyEvent;
  * It routes system-level commands (Pause, Mute, New Game) to the {@link GuiController}
  * and gameplay commands (Move, Rotate, Drop) to the {@link InputEventListener} (the Model).
  * </p>
+ * <p>
+ * It also tells key presses apart from key repeat by remembering which keys are down until they are
+ * released, and reports each new press of a move, rotate or soft drop key to the
+ * {@link FinesseTracker}.
+ * </p>
  */
 public class KeyManager {
 
     private final GuiController guiController;
     private final GameLoopManager gameLoopManager;
     private InputEventListener eventListener;
+    private FinesseTracker finesseTracker;
+    private final Set<KeyCode> heldKeys = EnumSet.noneOf(KeyCode.class);
 
     /**
      * Constructs a new KeyManager.
@@ -47,12 +57,30 @@ public class KeyManager {
         this.eventListener = eventListener;
     }
 
+    /**
+     * Sets the tracker that counts key presses for finesse statistics.
+     *
+     * @param finesseTracker the tracker, or {@code null} to stop counting.
+     */
+    public void setFinesseTracker(FinesseTracker finesseTracker) {
+        this.finesseTracker = finesseTracker;
+    }
+
+    /**
+     * Forgets that a key is held down, so its next press counts as a new one.
+     *
+     * @param keyEvent the raw key release event from JavaFX.
+     */
+    public void handleRelease(KeyEvent keyEvent) {
+        heldKeys.remove(keyEvent.getCode());
+    }
+
     /**
      * The central handler for all keyboard events.
      * <p>
      * This method executes a hierarchy of checks:
      * <ol>
-     * <li>Global Toggles (Pause 'P', Mute 'M') - Always active.</li>
+     * <li>Global Toggles (Pause 'P', Mute 'M', Ghost 'G', Autoplayer 'B') - Always active.</li>
      * <li>State Blocks - Ignores input if counting down.</li>
      * <li>Menu Shortcuts - Allows 'N' for New Game even if Game Over.</li>
      * <li>Gameplay Controls - Maps WASD/Arrows to movement only if the game is running.</li>
@@ -63,6 +91,8 @@ public class KeyManager {
      */
     public void handleInput(KeyEvent keyEvent) {
         KeyCode code = keyEvent.getCode();
+        // key repeat sends more presses without a release in between
+        boolean newPress = heldKeys.add(code);
 
         // Global Controls
         if (code == KeyCode.P) {
@@ -77,6 +107,18 @@ public class KeyManager {
             return;
         }
 
+        if (code == KeyCode.G) {
+            guiController.toggleGhost();
+            keyEvent.consume();
+            return;
+        }
+
+        if (code == KeyCode.B) {
+            guiController.toggleAutoPlayer();
+            keyEvent.consume();
+            return;
+        }
+
         // Block Input during Countdown
         if (gameLoopManager.isCountingDownProperty().get()) {
             keyEvent.consume();
@@ -93,6 +135,9 @@ public class KeyManager {
 
         // Active Gameplay Controls
         if (eventListener != null) {
+            if (newPress && finesseTracker != null && isFinesseKey(code)) {
+                finesseTracker.onKeyPressed();
+            }
             switch (code) {
                 case LEFT:
                 case A:
@@ -119,6 +164,9 @@ public class KeyManager {
                 case R:
                     eventListener.onUndoEvent();
                     break;
+                case Y:
+                    eventListener.onRedoEvent();
+                    break;
                 case N:
                     guiController.startNewGame();
                     break;
@@ -126,4 +174,23 @@ public class KeyManager {
         }
         keyEvent.consume(); // Prevent event bubbling
     }
+
+    /**
+     * @return whether presses of the key count for finesse: moves, rotation and soft drop.
+     */
+    private static boolean isFinesseKey(KeyCode code) {
+        switch (code) {
+            case LEFT:
+            case A:
+            case RIGHT:
+            case D:
+            case UP:
+            case W:
+            case DOWN:
+            case S:
+                return true;
+            default:
+                return false;
+        }
+    }
 }
\ No newline at end of file
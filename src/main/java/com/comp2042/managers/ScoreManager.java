@@ -1,10 +1,11 @@
 package com.comp2042.managers;
 
 import com.comp2042.model.Score;
+import com.comp2042.model.TSpin;
 import com.comp2042.util.GameConfiguration;
 import com.comp2042.util.ScoreFileHandler;
-import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.SimpleIntegerProperty;
+
+import java.util.function.IntConsumer;
 
 /**
  * Manages the player's current score, level progression, and high score tracking.
@@ -18,6 +19,11 @@ import javafx.beans.property.SimpleIntegerProperty;
  * {@code levelingEnabled}) that allow the active {@link com.comp2042.logic.mode.GameMode}
  * to enable or disable features (e.g., disabling leveling in Zen Mode) without changing internal logic.
  * </p>
+ * <p>
+ * <b>Headless:</b> Score and level are plain {@code int}s. Interested parties register
+ * {@link IntConsumer} callbacks instead of binding to UI properties, so the scoring rules run (and
+ * are tested) without any UI toolkit, and an update costs one field write and one call.
+ * </p>
  * @author Chen Yu
  * @version 1.0
  */
@@ -25,9 +31,12 @@ public class ScoreManager {
 
     private static final int SCORE_PER_LINE = GameConfiguration.SCORE_PER_LINE;
     private static final int LINES_PER_LEVEL_UP = GameConfiguration.LINES_PER_LEVEL_UP;
+    private static final int TSPIN_SCORE = GameConfiguration.TSPIN_SCORE;
+    private static final int TSPIN_MINI_SCORE = GameConfiguration.TSPIN_MINI_SCORE;
 
     private int totalLinesCleared = 0;
-    private final IntegerProperty currentLevel = new SimpleIntegerProperty(1);
+    private int currentLevel = 1;
+    private IntConsumer levelListener;
     private final Score score = new Score();
     private int highestScore = 0;
     private final ScoreFileHandler fileHandler;
@@ -44,8 +53,21 @@ public class ScoreManager {
      * </p>
      */
     public ScoreManager() {
-        this.fileHandler = new ScoreFileHandler(GameConfiguration.PATH_HIGHEST_SCORE);
-        this.highestScore = fileHandler.loadHighScore();
+        this(new ScoreFileHandler(GameConfiguration.PATH_HIGHEST_SCORE));
+    }
+
+    /**
+     * Constructs a ScoreManager backed by a specific file handler.
+     * <p>
+     * Passing {@code null} keeps the high score in memory only, which is what headless tools
+     * (such as the replay player) use so that simulated games never touch the player's record.
+     * </p>
+     *
+     * @param fileHandler the persistence handler, or {@code null} to disable persistence.
+     */
+    public ScoreManager(ScoreFileHandler fileHandler) {
+        this.fileHandler = fileHandler;
+        this.highestScore = loadHighScore();
     }
 
     /**
@@ -77,8 +99,20 @@ public class ScoreManager {
      * @param savedLevel the level value to restore.
      */
     public void restoreState(int savedScore, int savedLevel) {
-        this.score.scoreProperty().set(savedScore);
-        this.currentLevel.set(savedLevel);
+        this.score.set(savedScore);
+        setLevel(savedLevel);
+    }
+
+    /**
+     * Restores the score, level and line count, e.g. when resuming a replay from a keyframe.
+     *
+     * @param savedScore the score value to restore.
+     * @param savedLevel the level value to restore.
+     * @param savedLines the total lines cleared to restore.
+     */
+    public void restoreState(int savedScore, int savedLevel, int savedLines) {
+        restoreState(savedScore, savedLevel);
+        this.totalLinesCleared = savedLines;
     }
 
     /**
@@ -92,10 +126,12 @@ public class ScoreManager {
     public boolean checkAndSaveHighestScore() {
         if (!savingEnabled) return false;
 
-        int current = score.scoreProperty().get();
+        int current = score.getValue();
         if (current > highestScore) {
             highestScore = current;
-            fileHandler.saveHighScore(highestScore);
+            if (fileHandler != null) {
+                fileHandler.saveHighScore(highestScore);
+            }
             return true;
         }
         return false;
@@ -111,16 +147,58 @@ public class ScoreManager {
     }
 
     /**
-     * Exposes the score property for UI binding.
-     * @return the generic IntegerProperty for the score.
+     * Retrieves the total number of lines cleared since the last reset.
+     *
+     * @return the line count.
+     */
+    public int getTotalLinesCleared() {
+        return totalLinesCleared;
+    }
+
+    /**
+     * Retrieves the current score.
+     *
+     * @return the score integer.
+     */
+    public int getScore() {
+        return score.getValue();
+    }
+
+    /**
+     * Retrieves the current level.
+     *
+     * @return the level integer (1-based).
      */
-    public IntegerProperty scoreProperty(){ return score.scoreProperty(); }
+    public int getLevel() {
+        return currentLevel;
+    }
 
     /**
-     * Exposes the level property for UI binding.
-     * @return the generic IntegerProperty for the level.
+     * Registers the callback that receives the new score whenever it changes.
+     *
+     * @param listener the callback, or {@code null} to remove it.
      */
-    public IntegerProperty levelProperty(){ return currentLevel; }
+    public void setScoreListener(IntConsumer listener) {
+        score.setOnChange(listener);
+    }
+
+    /**
+     * Registers the callback that receives the new level whenever it changes.
+     *
+     * @param listener the callback, or {@code null} to remove it.
+     */
+    public void setLevelListener(IntConsumer listener) {
+        this.levelListener = listener;
+    }
+
+    private void setLevel(int level) {
+        if (level != currentLevel) {
+            currentLevel = level;
+            if (levelListener != null) {
+                levelListener.accept(level);
+            }
+        }
+    }
 
     /**
      * Resets the score and level to initial values (0 and 1).
@@ -131,30 +209,55 @@ public class ScoreManager {
      */
     public void reset(){
         totalLinesCleared = 0;
-        currentLevel.set(1);
+        setLevel(1);
         score.reset();
-        highestScore = fileHandler.loadHighScore();
+        highestScore = loadHighScore();
+    }
+
+    private int loadHighScore() {
+        return fileHandler != null ? fileHandler.loadHighScore() : highestScore;
     }
 
     /**
      * Calculates score rewards for clearing lines and handles level progression.
      * <p>
      * If {@code levelingEnabled} is true, this method checks if the total lines cleared
-     * exceed the threshold for the next level and updates the level property accordingly.
+     * exceed the threshold for the next level and updates the level accordingly.
      * </p>
      *
      * @param linesRemoved the number of lines cleared in a single drop (1-4).
      */
     public void onRowsCleared(int linesRemoved){
+        onRowsCleared(linesRemoved, TSpin.NONE);
+    }
+
+    /**
+     * Calculates score rewards for a lock that may have been a T-spin.
+     * <p>
+     * A T-spin is worth {@code TSPIN_SCORE * (lines + 1)} and a mini T-spin
+     * {@code TSPIN_MINI_SCORE * 2^lines}, instead of the plain line score; both score even when no
+     * line is cleared. Level progression counts only the lines, as for plain clears.
+     * </p>
+     *
+     * @param linesRemoved the number of lines cleared in a single drop (0-4).
+     * @param spin the kind of T-spin the locked brick made.
+     */
+    public void onRowsCleared(int linesRemoved, TSpin spin){
+        int scoreBonus = switch (spin) {
+            case FULL -> TSPIN_SCORE * (linesRemoved + 1);
+            case MINI -> TSPIN_MINI_SCORE << linesRemoved;
+            case NONE -> SCORE_PER_LINE * linesRemoved * linesRemoved;
+        };
+        score.add(scoreBonus);
         if (linesRemoved > 0){
-            int scoreBonus = SCORE_PER_LINE * linesRemoved * linesRemoved;
-            score.add(scoreBonus);
             totalLinesCleared += linesRemoved;
 
             if (levelingEnabled) {
-                while (totalLinesCleared >= currentLevel.get() * LINES_PER_LEVEL_UP){
-                    currentLevel.set(currentLevel.get() + 1);
+                int level = currentLevel;
+                while (totalLinesCleared >= level * LINES_PER_LEVEL_UP){
+                    level++;
                 }
+                setLevel(level);
             }
         }
     }
@@ -1,7 +1,5 @@
 package com.comp2042.model;
 
-import java.util.Arrays;
-
 /**
  * Represents a snapshot of the game state at a specific point in time.
  * <p>
@@ -11,14 +9,15 @@ import java.util.Arrays;
  * can save it and the {@link com.comp2042.controllers.GameController} (Originator) can restore it later.
  * </p>
  * <p>
- * <b>Immutability:</b> This class is immutable. The constructor performs a deep copy
- * of the board matrix to ensure that subsequent changes to the active game board
- * do not corrupt the saved history states.
+ * <b>Immutability:</b> This class is immutable. The grid is stored as a {@link PersistentGrid},
+ * whose rows are never modified after publication, so subsequent changes to the active game
+ * board cannot corrupt the saved history states. Capturing a grid the board already owns is a
+ * constant-time reference copy; only the legacy {@code int[][]} constructor pays for a deep copy.
  * </p>
  */
 public final class BoardMemento {
 
-    private final int[][] boardState;
+    private final PersistentGrid grid;
     private final int score;
     private final int level;
 
@@ -30,14 +29,21 @@ public final class BoardMemento {
      * @param level the current level at the time of saving.
      */
     public BoardMemento(int[][] board, int score, int level) {
+        this(PersistentGrid.of(board), score, level);
+    }
+
+    /**
+     * Creates a new Memento that references an immutable grid directly.
+     * No cells are copied, so this is a constant-time snapshot.
+     *
+     * @param grid the grid to capture.
+     * @param score the current score at the time of saving.
+     * @param level the current level at the time of saving.
+     */
+    public BoardMemento(PersistentGrid grid, int score, int level) {
+        this.grid = grid;
         this.score = score;
         this.level = level;
-
-        // Deep copy the 2D array to ensure immutability
-        this.boardState = new int[board.length][];
-        for (int i = 0; i < board.length; i++) {
-            this.boardState[i] = Arrays.copyOf(board[i], board[i].length);
-        }
     }
 
     /**
@@ -47,11 +53,16 @@ public final class BoardMemento {
      * Modifying this return value will not affect the stored memento.
      */
     public int[][] getBoardState() {
-        int[][] copy = new int[boardState.length][];
-        for (int i = 0; i < boardState.length; i++) {
-            copy[i] = Arrays.copyOf(boardState[i], boardState[i].length);
-        }
-        return copy;
+        return grid.toMatrix();
+    }
+
+    /**
+     * Retrieves the saved grid without copying.
+     *
+     * @return the immutable {@link PersistentGrid} captured by this snapshot.
+     */
+    public PersistentGrid getGrid() {
+        return grid;
     }
 
     /**
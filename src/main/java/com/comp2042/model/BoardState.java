@@ -0,0 +1,82 @@
+package com.comp2042.model;
+
+/**
+ * An immutable capture of everything a {@link com.comp2042.logic.board.Board} needs to continue a game
+ * exactly where it left off.
+ * <p>
+ * Unlike {@link BoardMemento}, which only restores the locked blocks for Undo, this also holds the
+ * falling piece, the hold slot and the brick generator's position, so a game resumed from it produces
+ * the same future as the original. Bricks are referred to by their
+ * {@link com.comp2042.logic.bricks.BrickTypes type ID}.
+ * </p>
+ */
+public final class BoardState {
+
+    private final PersistentGrid grid;
+    private final int brickId;
+    private final int rotation;
+    private final int x;
+    private final int y;
+    private final int heldBrickId;
+    private final boolean canHold;
+    private final byte[] generatorState;
+
+    /**
+     * Creates a board state.
+     *
+     * @param grid the locked blocks.
+     * @param brickId the type ID of the falling brick.
+     * @param rotation the rotation index of the falling brick.
+     * @param x the column of the falling brick.
+     * @param y the row of the falling brick.
+     * @param heldBrickId the type ID of the held brick, or 0 if the slot is empty.
+     * @param canHold whether Hold is still allowed for the falling brick.
+     * @param generatorState the brick generator's saved state (not copied).
+     */
+    public BoardState(PersistentGrid grid, int brickId, int rotation, int x, int y,
+                      int heldBrickId, boolean canHold, byte[] generatorState) {
+        this.grid = grid;
+        this.brickId = brickId;
+        this.rotation = rotation;
+        this.x = x;
+        this.y = y;
+        this.heldBrickId = heldBrickId;
+        this.canHold = canHold;
+        this.generatorState = generatorState;
+    }
+
+    public PersistentGrid getGrid() {
+        return grid;
+    }
+
+    public int getBrickId() {
+        return brickId;
+    }
+
+    public int getRotation() {
+        return rotation;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getHeldBrickId() {
+        return heldBrickId;
+    }
+
+    public boolean canHold() {
+        return canHold;
+    }
+
+    /**
+     * @return the brick generator's saved state; must not be modified.
+     */
+    public byte[] getGeneratorState() {
+        return generatorState;
+    }
+}
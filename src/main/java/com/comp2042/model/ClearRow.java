@@ -5,10 +5,11 @@ import com.comp2042.util.MatrixOperations;
 /**
  * An immutable data carrier that represents the result of a row-clearing operation.
  * <p>
- * This class packages two critical pieces of information generated when the board checks for full lines:
+ * This class packages the information generated when the board checks for full lines:
  * <ul>
  * <li>The count of lines removed (used by {@link com.comp2042.managers.ScoreManager} for calculating points).</li>
  * <li>The updated board matrix (used to update the game state after rows collapse).</li>
+ * <li>Whether the brick that was just locked made a {@link TSpin} (scored even when no line is removed).</li>
  * </ul>
  * </p>
  */
@@ -16,16 +17,29 @@ public final class ClearRow {
 
     private final int linesRemoved;
     private final int[][] newMatrix;
+    private final TSpin spin;
 
     /**
-     * Constructs a new ClearRow result object.
+     * Constructs a new ClearRow result object for a lock that was not a spin.
      *
      * @param linesRemoved the integer count of rows cleared (0 to 4).
      * @param newMatrix the new state of the board grid after clearing and shifting.
      */
     public ClearRow(int linesRemoved, int[][] newMatrix) {
+        this(linesRemoved, newMatrix, TSpin.NONE);
+    }
+
+    /**
+     * Constructs a new ClearRow result object.
+     *
+     * @param linesRemoved the integer count of rows cleared (0 to 4).
+     * @param newMatrix the new state of the board grid after clearing and shifting.
+     * @param spin the kind of T-spin the locked brick made.
+     */
+    public ClearRow(int linesRemoved, int[][] newMatrix, TSpin spin) {
         this.linesRemoved = linesRemoved;
         this.newMatrix = newMatrix;
+        this.spin = spin;
     }
 
     /**
@@ -37,6 +51,15 @@ public final class ClearRow {
         return linesRemoved;
     }
 
+    /**
+     * Retrieves the kind of T-spin the locked brick made.
+     *
+     * @return {@link TSpin#NONE} unless a T brick locked right after a rotation into a spin.
+     */
+    public TSpin getSpin() {
+        return spin;
+    }
+
     /**
      * Retrieves the updated grid matrix.
      * <p>
@@ -0,0 +1,272 @@
+package com.comp2042.model;
+
+import java.util.Arrays;
+
+/**
+ * A bit-packed snapshot of the game state, designed for keeping thousands of save points in memory.
+ * <p>
+ * <b>Encoding:</b> Every cell color fits in 3 bits (0 = empty, 1-7 = brick colors), so cells are
+ * packed 21 to a {@code long} (63 of 64 bits used, so no cell straddles two words). Empty rows at
+ * the top of the board are not stored at all; instead their count is kept as a run-length prefix.
+ * A typical mid-game board of 24x10 cells therefore needs around 8-12 longs instead of 24 separate
+ * {@code int[]} rows.
+ * </p>
+ * <p>
+ * <b>Immutability:</b> Like {@link BoardMemento}, this class is immutable. Encoding reads straight
+ * from a {@link PersistentGrid} and decoding builds grid rows directly, so neither direction goes
+ * through an intermediate {@code int[][]} copy.
+ * </p>
+ */
+public final class CompactMemento {
+
+    /** Number of bits used to store one cell. */
+    public static final int BITS_PER_CELL = 3;
+
+    /** Number of cells stored in each {@code long}. */
+    public static final int CELLS_PER_WORD = Long.SIZE / BITS_PER_CELL;
+
+    private static final int CELL_MASK = (1 << BITS_PER_CELL) - 1;
+
+    private final int height;
+    private final int width;
+    private final int emptyPrefix;
+    private final long[] cells;
+    private final int score;
+    private final int level;
+
+    private CompactMemento(int height, int width, int emptyPrefix, long[] cells, int score, int level) {
+        this.height = height;
+        this.width = width;
+        this.emptyPrefix = emptyPrefix;
+        this.cells = cells;
+        this.score = score;
+        this.level = level;
+    }
+
+    /**
+     * Packs a grid together with the score and level.
+     *
+     * @param grid the grid to encode.
+     * @param score the current score at the time of saving.
+     * @param level the current level at the time of saving.
+     * @return the compact snapshot.
+     * @throws IllegalArgumentException if a cell holds a value that does not fit in 3 bits.
+     */
+    public static CompactMemento encode(PersistentGrid grid, int score, int level) {
+        int height = grid.getHeight();
+        int width = grid.getWidth();
+
+        int emptyPrefix = 0;
+        while (emptyPrefix < height && grid.isRowEmpty(emptyPrefix)) {
+            emptyPrefix++;
+        }
+
+        int storedCells = (height - emptyPrefix) * width;
+        long[] cells = new long[wordsFor(storedCells)];
+        int index = 0;
+        for (int row = emptyPrefix; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                int value = grid.get(row, col);
+                if (value < 0 || value > CELL_MASK) {
+                    throw new IllegalArgumentException("Cell value " + value + " does not fit in " + BITS_PER_CELL + " bits");
+                }
+                cells[index / CELLS_PER_WORD] |= (long) value << ((index % CELLS_PER_WORD) * BITS_PER_CELL);
+                index++;
+            }
+        }
+        return new CompactMemento(height, width, emptyPrefix, cells, score, level);
+    }
+
+    /**
+     * Packs an existing {@link BoardMemento}.
+     *
+     * @param memento the snapshot to compress.
+     * @return the compact equivalent.
+     */
+    public static CompactMemento of(BoardMemento memento) {
+        return encode(memento.getGrid(), memento.getScore(), memento.getLevel());
+    }
+
+    /**
+     * Rebuilds a snapshot from its raw parts, e.g. when reading it back from a file.
+     *
+     * @param height the number of rows of the original grid.
+     * @param width the number of columns of the original grid.
+     * @param emptyPrefix the number of leading empty rows that were not stored.
+     * @param cells the packed cell words (copied).
+     * @param score the saved score.
+     * @param level the saved level.
+     * @return the reconstructed snapshot.
+     * @throws IllegalArgumentException if the word count does not match the dimensions.
+     */
+    public static CompactMemento fromParts(int height, int width, int emptyPrefix, long[] cells, int score, int level) {
+        if (emptyPrefix < 0 || emptyPrefix > height || cells.length != wordsFor((height - emptyPrefix) * width)) {
+            throw new IllegalArgumentException("Packed cells do not match a " + height + "x" + width + " grid");
+        }
+        return new CompactMemento(height, width, emptyPrefix, cells.clone(), score, level);
+    }
+
+    /**
+     * Unpacks the grid. Every empty row of the result shares one array, matching
+     * {@link PersistentGrid#empty(int, int)}.
+     *
+     * @return a new grid equal to the one that was encoded.
+     */
+    public PersistentGrid decodeGrid() {
+        int[] emptyRow = new int[width];
+        int[][] rows = new int[height][];
+        for (int row = 0; row < emptyPrefix; row++) {
+            rows[row] = emptyRow;
+        }
+        int index = 0;
+        for (int row = emptyPrefix; row < height; row++) {
+            int[] values = null;
+            for (int col = 0; col < width; col++) {
+                int value = cellAtIndex(index++);
+                if (value != 0) {
+                    if (values == null) {
+                        values = new int[width];
+                    }
+                    values[col] = value;
+                }
+            }
+            rows[row] = values != null ? values : emptyRow;
+        }
+        return PersistentGrid.wrap(rows, width);
+    }
+
+    /**
+     * Expands this snapshot back into a regular {@link BoardMemento}.
+     *
+     * @return a memento holding the same grid, score and level.
+     */
+    public BoardMemento toMemento() {
+        return new BoardMemento(decodeGrid(), score, level);
+    }
+
+    /**
+     * Reads a single cell without decoding the whole grid.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return the color code at that cell (0 is empty).
+     */
+    public int cellAt(int row, int col) {
+        if (row < emptyPrefix) {
+            return 0;
+        }
+        return cellAtIndex((row - emptyPrefix) * width + col);
+    }
+
+    private int cellAtIndex(int index) {
+        long word = cells[index / CELLS_PER_WORD];
+        return (int) (word >>> ((index % CELLS_PER_WORD) * BITS_PER_CELL)) & CELL_MASK;
+    }
+
+    /**
+     * Packs a single grid row into one {@code long} using the same 3-bit cell layout.
+     * Rows of up to {@link #CELLS_PER_WORD} cells are supported.
+     *
+     * @param grid the grid to read from.
+     * @param row the row index.
+     * @return the packed row (0 for an empty row).
+     */
+    public static long packRow(PersistentGrid grid, int row) {
+        long word = 0;
+        for (int col = grid.getWidth() - 1; col >= 0; col--) {
+            word = (word << BITS_PER_CELL) | (grid.get(row, col) & CELL_MASK);
+        }
+        return word;
+    }
+
+    /**
+     * Expands a row produced by {@link #packRow(PersistentGrid, int)}.
+     *
+     * @param word the packed row.
+     * @param width the number of columns.
+     * @return a new array holding the row's cells.
+     */
+    public static int[] unpackRow(long word, int width) {
+        int[] row = new int[width];
+        for (int col = 0; col < width; col++) {
+            row[col] = (int) (word >>> (col * BITS_PER_CELL)) & CELL_MASK;
+        }
+        return row;
+    }
+
+    private static int wordsFor(int cellCount) {
+        return (cellCount + CELLS_PER_WORD - 1) / CELLS_PER_WORD;
+    }
+
+    /**
+     * Estimates the heap footprint of this snapshot, assuming a 64-bit JVM with compressed pointers.
+     *
+     * @return the approximate size in bytes, including the packed array.
+     */
+    public int estimatedSizeBytes() {
+        int objectBytes = 12 + 5 * Integer.BYTES + 4;
+        int arrayBytes = 16 + cells.length * Long.BYTES;
+        return objectBytes + arrayBytes;
+    }
+
+    /**
+     * @return a copy of the packed cell words.
+     */
+    public long[] getCells() {
+        return cells.clone();
+    }
+
+    /**
+     * @return the number of rows of the encoded grid.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return the number of columns of the encoded grid.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the number of leading empty rows omitted from the packed data.
+     */
+    public int getEmptyPrefix() {
+        return emptyPrefix;
+    }
+
+    /**
+     * Retrieves the score saved in this snapshot.
+     * @return the score integer.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Retrieves the level saved in this snapshot.
+     * @return the level integer.
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CompactMemento other)) return false;
+        return height == other.height && width == other.width && emptyPrefix == other.emptyPrefix
+                && score == other.score && level == other.level && Arrays.equals(cells, other.cells);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(cells);
+        result = 31 * result + emptyPrefix;
+        result = 31 * result + score;
+        result = 31 * result + level;
+        return result;
+    }
+}
@@ -48,12 +48,12 @@ public interface GameObserver {
     void onLevelUpdated(int level);
 
     /**
-     * Triggered when one or more rows are cleared.
+     * Triggered when one or more rows are cleared, or a T-spin is made (which may clear none).
      * <p>
-     * Used to display visual notifications (e.g., "TETRIS!") or play celebration sounds.
+     * Used to display visual notifications (e.g., "TETRIS!", "T-SPIN DOUBLE") or play celebration sounds.
      * </p>
      *
-     * @param lines the number of lines cleared in this event.
+     * @param lines the number of lines cleared in this event (0 for a T-spin that clears nothing).
      * @param message the notification text associated with the clear (e.g., "Single", "Double").
      */
     void onLineCleared(int lines, String message);
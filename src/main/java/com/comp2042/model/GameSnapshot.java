@@ -0,0 +1,80 @@
+package com.comp2042.model;
+
+/**
+ * An immutable capture of a whole game in progress: the board, the scoring state and the undo state.
+ * <p>
+ * Produced and consumed by {@link com.comp2042.controllers.GameController}. Replays store these as
+ * keyframes so playback can jump into the middle of a game instead of re-simulating it from the start.
+ * </p>
+ */
+public final class GameSnapshot {
+
+    private final BoardState board;
+    private final int score;
+    private final int lines;
+    private final int level;
+    private final int scoreAtSpawn;
+    private final BoardMemento undoState;
+    private final int undoCount;
+    private final int historyDepth;
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param board the complete board state.
+     * @param score the current score.
+     * @param lines the total lines cleared.
+     * @param level the current level.
+     * @param scoreAtSpawn the score when the falling piece spawned (what Undo restores).
+     * @param undoState the save point of the single-step undo history, or {@code null}.
+     * @param undoCount the number of undos already used.
+     * @param historyDepth the number of moves between the start of the game and the current state,
+     *                     as seen by the branching undo timeline.
+     */
+    public GameSnapshot(BoardState board, int score, int lines, int level, int scoreAtSpawn,
+                        BoardMemento undoState, int undoCount, int historyDepth) {
+        this.board = board;
+        this.score = score;
+        this.lines = lines;
+        this.level = level;
+        this.scoreAtSpawn = scoreAtSpawn;
+        this.undoState = undoState;
+        this.undoCount = undoCount;
+        this.historyDepth = historyDepth;
+    }
+
+    public BoardState getBoard() {
+        return board;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLines() {
+        return lines;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getScoreAtSpawn() {
+        return scoreAtSpawn;
+    }
+
+    /**
+     * @return the single-step undo save point, or {@code null} if there is none.
+     */
+    public BoardMemento getUndoState() {
+        return undoState;
+    }
+
+    public int getUndoCount() {
+        return undoCount;
+    }
+
+    public int getHistoryDepth() {
+        return historyDepth;
+    }
+}
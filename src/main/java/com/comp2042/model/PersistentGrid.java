@@ -0,0 +1,342 @@
+package com.comp2042.model;
+
+import java.util.Arrays;
+
+/**
+ * An immutable, structurally shared representation of the locked blocks on the board.
+ * <p>
+ * <b>Persistence:</b> Every row array held by this class is treated as read-only once it has been
+ * published. Operations that "change" the grid (locking a brick, clearing rows) return a
+ * <i>new</i> grid that reuses every untouched row by reference and only allocates the rows
+ * that actually changed. All empty rows of a given width share a single array.
+ * </p>
+ * <p>
+ * <b>Snapshots:</b> Because a grid never changes after construction, capturing a save point
+ * (e.g., for the Undo feature) is a constant-time reference copy, and memory only grows with
+ * the rows that differ between versions.
+ * </p>
+ */
+public final class PersistentGrid {
+
+    private final int[][] rows;
+    private final int width;
+
+    private PersistentGrid(int[][] rows, int width) {
+        this.rows = rows;
+        this.width = width;
+    }
+
+    /**
+     * Creates an empty grid where every row references the same shared empty row.
+     *
+     * @param height the number of rows.
+     * @param width the number of columns.
+     * @return a new empty grid.
+     */
+    public static PersistentGrid empty(int height, int width) {
+        int[] emptyRow = new int[width];
+        int[][] rows = new int[height][];
+        Arrays.fill(rows, emptyRow);
+        return new PersistentGrid(rows, width);
+    }
+
+    /**
+     * Creates a grid from a plain matrix.
+     * <p>
+     * The matrix is deep copied, so later changes to the source array do not affect the grid.
+     * </p>
+     *
+     * @param matrix the source 2D array (values are copied, not referenced).
+     * @return a new grid holding the same cells.
+     */
+    public static PersistentGrid of(int[][] matrix) {
+        int width = matrix.length > 0 ? matrix[0].length : 0;
+        int[][] rows = new int[matrix.length][];
+        for (int i = 0; i < matrix.length; i++) {
+            rows[i] = Arrays.copyOf(matrix[i], matrix[i].length);
+        }
+        return new PersistentGrid(rows, width);
+    }
+
+    /**
+     * Wraps rows that the caller guarantees will never be modified again.
+     * Used by decoders that build fresh rows and want to avoid a second copy.
+     *
+     * @param rows freshly built rows, ownership of which passes to the grid.
+     * @param width the number of columns.
+     * @return a grid backed directly by the given rows.
+     */
+    static PersistentGrid wrap(int[][] rows, int width) {
+        return new PersistentGrid(rows, width);
+    }
+
+    /**
+     * @return the number of rows in the grid.
+     */
+    public int getHeight() {
+        return rows.length;
+    }
+
+    /**
+     * @return the number of columns in the grid.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Reads a single cell.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return the color code at that cell (0 is empty).
+     */
+    public int get(int row, int col) {
+        return rows[row][col];
+    }
+
+    /**
+     * Checks whether a row contains no blocks.
+     *
+     * @param row the row index.
+     * @return true if every cell of the row is empty.
+     */
+    public boolean isRowEmpty(int row) {
+        int[] r = rows[row];
+        for (int value : r) {
+            if (value != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Exposes the backing rows without copying.
+     * <p>
+     * <b>Read-only:</b> The returned array and its rows are shared with every snapshot that
+     * references this grid. Callers must never write into it; use {@link #toMatrix()} when a
+     * mutable copy is required.
+     * </p>
+     *
+     * @return the shared backing matrix.
+     */
+    public int[][] rows() {
+        return rows;
+    }
+
+    /**
+     * Creates an independent, mutable copy of the grid.
+     *
+     * @return a new 2D integer array containing the grid state.
+     */
+    public int[][] toMatrix() {
+        int[][] copy = new int[rows.length][];
+        for (int i = 0; i < rows.length; i++) {
+            copy[i] = Arrays.copyOf(rows[i], width);
+        }
+        return copy;
+    }
+
+    /**
+     * Returns a new grid with a brick locked into it.
+     * <p>
+     * Only the rows touched by a non-zero cell of the brick are copied; all other rows are shared
+     * with this grid. Cells of the brick that fall outside the grid are ignored.
+     * </p>
+     *
+     * @param brick the shape matrix of the brick to lock.
+     * @param x the x-coordinate of the brick.
+     * @param y the y-coordinate of the brick.
+     * @return the merged grid.
+     */
+    public PersistentGrid merge(int[][] brick, int x, int y) {
+        int[][] next = rows.clone();
+        for (int i = 0; i < brick.length; i++) {
+            int targetY = y + i;
+            if (targetY < 0 || targetY >= rows.length) {
+                continue;
+            }
+            int[] row = null;
+            for (int j = 0; j < brick[i].length; j++) {
+                int targetX = x + j;
+                if (brick[i][j] != 0 && targetX >= 0 && targetX < width) {
+                    if (row == null) {
+                        row = Arrays.copyOf(rows[targetY], width);
+                    }
+                    row[targetX] = brick[i][j];
+                }
+            }
+            if (row != null) {
+                next[targetY] = row;
+            }
+        }
+        return new PersistentGrid(next, width);
+    }
+
+    /**
+     * Counts the rows that are completely filled.
+     *
+     * @return the number of full rows.
+     */
+    public int countFullRows() {
+        int count = 0;
+        for (int[] row : rows) {
+            if (isFull(row)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns a new grid with all full rows removed and the rows above shifted down.
+     * <p>
+     * Shifting is a reference move: surviving rows are shared, and the vacated rows at the top
+     * all point at one shared empty row.
+     * </p>
+     *
+     * @return the cleared grid, or this grid if no row was full.
+     */
+    public PersistentGrid clearFullRows() {
+        int[][] next = new int[rows.length][];
+        int target = rows.length - 1;
+        for (int i = rows.length - 1; i >= 0; i--) {
+            if (!isFull(rows[i])) {
+                next[target--] = rows[i];
+            }
+        }
+        if (target < 0) {
+            return this;
+        }
+        int[] emptyRow = new int[width];
+        for (int i = target; i >= 0; i--) {
+            next[i] = emptyRow;
+        }
+        return new PersistentGrid(next, width);
+    }
+
+    /**
+     * Checks if a brick collides with the grid boundaries or existing blocks.
+     *
+     * @param brick the shape matrix of the brick.
+     * @param x the top-left X coordinate of the brick.
+     * @param y the top-left Y coordinate of the brick.
+     * @return true if a collision is detected; false otherwise.
+     */
+    public boolean intersects(int[][] brick, int x, int y) {
+        for (int i = 0; i < brick.length; i++) {
+            for (int j = 0; j < brick[i].length; j++) {
+                if (brick[i][j] == 0) {
+                    continue;
+                }
+                int targetX = x + j;
+                int targetY = y + i;
+                if (targetY < 0 || targetY >= rows.length || targetX < 0 || targetX >= width
+                        || rows[targetY][targetX] != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes a 64-bit FNV-1a hash of every cell.
+     * Equal grids always hash the same, which lets replays verify a board without storing it.
+     *
+     * @return the content hash.
+     */
+    public long contentHash() {
+        long hash = 0xcbf29ce484222325L;
+        for (int[] row : rows) {
+            for (int value : row) {
+                hash ^= value;
+                hash *= 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Counts how many rows this grid shares by reference with another grid.
+     * Useful for diagnostics and tests of the structural sharing.
+     *
+     * @param other the grid to compare against.
+     * @return the number of row indices whose arrays are identical objects.
+     */
+    public int sharedRowCount(PersistentGrid other) {
+        int shared = 0;
+        int n = Math.min(rows.length, other.rows.length);
+        for (int i = 0; i < n; i++) {
+            if (rows[i] == other.rows[i]) {
+                shared++;
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Starts a batch of row replacements that produces a new grid.
+     * The outer row array is copied once, however many rows are replaced.
+     *
+     * @return an editor based on this grid.
+     */
+    public Editor edit() {
+        return new Editor(rows.clone(), width);
+    }
+
+    /**
+     * Accumulates row replacements and publishes them as a new {@link PersistentGrid}.
+     * <p>
+     * Rows that are not replaced stay shared with the source grid. Once {@link #build()} has
+     * been called the editor must not be used again.
+     * </p>
+     */
+    public static final class Editor {
+
+        private final int[][] rows;
+        private final int width;
+        private int[] emptyRow;
+
+        private Editor(int[][] rows, int width) {
+            this.rows = rows;
+            this.width = width;
+        }
+
+        /**
+         * Replaces a row with the cells of a packed row (see {@link CompactMemento#packRow}).
+         *
+         * @param row the row index.
+         * @param packedRow the packed cell values.
+         * @return this editor.
+         */
+        public Editor setPackedRow(int row, long packedRow) {
+            if (packedRow == 0) {
+                if (emptyRow == null) {
+                    emptyRow = new int[width];
+                }
+                rows[row] = emptyRow;
+            } else {
+                rows[row] = CompactMemento.unpackRow(packedRow, width);
+            }
+            return this;
+        }
+
+        /**
+         * @return the grid containing all replacements made so far.
+         */
+        public PersistentGrid build() {
+            return new PersistentGrid(rows, width);
+        }
+    }
+
+    private static boolean isFull(int[] row) {
+        for (int value : row) {
+            if (value == 0) {
+                return false;
+            }
+        }
+        return row.length > 0;
+    }
+}
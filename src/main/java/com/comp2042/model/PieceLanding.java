@@ -0,0 +1,49 @@
+package com.comp2042.model;
+
+/**
+ * An immutable capture of a piece that has just come to rest, before it is merged into the board.
+ * <p>
+ * Produced by {@link com.comp2042.controllers.GameController} for
+ * {@link com.comp2042.replay.InputRecorder#onPieceLanded}. Together, the board without the piece, the
+ * piece, the hold slot and the preview are what a player (or a bot) decided on; the piece's final
+ * position is what they decided.
+ * </p>
+ */
+public final class PieceLanding {
+
+    private final BoardState state;
+    private final int[] upcoming;
+
+    /**
+     * Creates a landing.
+     *
+     * @param state the board with the locked blocks only, and the piece at its final position.
+     * @param upcoming the type IDs of the next bricks, nearest first (not copied).
+     */
+    public PieceLanding(BoardState state, int[] upcoming) {
+        this.state = state;
+        this.upcoming = upcoming;
+    }
+
+    /**
+     * @return the locked blocks without the piece, the piece's type, rotation and position, and the hold slot.
+     */
+    public BoardState getState() {
+        return state;
+    }
+
+    /**
+     * @return the number of bricks in the preview.
+     */
+    public int getUpcomingCount() {
+        return upcoming.length;
+    }
+
+    /**
+     * @param index the position in the preview, 0 for the next brick.
+     * @return the type ID.
+     */
+    public int getUpcoming(int index) {
+        return upcoming[index];
+    }
+}
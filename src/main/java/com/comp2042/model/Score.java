@@ -1,32 +1,50 @@
 package com.comp2042.model;
 
-import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.SimpleIntegerProperty;
+import java.util.function.IntConsumer;
 
 /**
- * Encapsulates the game score using JavaFX properties to support data binding.
+ * Encapsulates the game score as a plain integer with an optional change callback.
  * <p>
- * <b>Design Pattern: Observer (via JavaFX)</b><br>
- * By wrapping the score in an {@link IntegerProperty}, this class allows the View
- * ({@link com.comp2042.ui.GameRenderer}) to listen for changes automatically.
- * When the score is updated here, the UI label updates itself without manual intervention.
+ * <b>Design Pattern: Observer (callback)</b><br>
+ * A single {@link IntConsumer} is told about every change of the value, so the rest of the game
+ * (and, through it, the View) can react to score updates. The callback only fires when the value
+ * actually changes, and no UI toolkit is needed to hold or observe the score, which keeps the game
+ * rules runnable headless.
  * </p>
  */
 public final class Score {
 
-    private final IntegerProperty score = new SimpleIntegerProperty(0);
+    private int value;
+    private IntConsumer onChange;
 
     /**
-     * Retrieves the observable property object for the score.
-     * <p>
-     * Callers can attach listeners to this property to react to score changes
-     * in real-time.
-     * </p>
+     * Registers the callback that receives the new score after every change.
      *
-     * @return the {@link IntegerProperty} wrapping the score value.
+     * @param onChange the callback, or {@code null} to remove it.
      */
-    public IntegerProperty scoreProperty() {
-        return score;
+    public void setOnChange(IntConsumer onChange) {
+        this.onChange = onChange;
+    }
+
+    /**
+     * @return the current score.
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * Replaces the current score, e.g. when restoring an undo state.
+     *
+     * @param newValue the new score.
+     */
+    public void set(int newValue) {
+        if (newValue != value) {
+            value = newValue;
+            if (onChange != null) {
+                onChange.accept(newValue);
+            }
+        }
     }
 
     /**
@@ -35,7 +53,7 @@ public final class Score {
      * @param i the points to add to the current total.
      */
     public void add(int i){
-        score.setValue(score.getValue() + i);
+        set(value + i);
     }
 
     /**
@@ -43,6 +61,6 @@ public final class Score {
      * Called when starting a new game or restarting in Zen Mode.
      */
     public void reset() {
-        score.setValue(0);
+        set(0);
     }
-}
\ No newline at end of file
+}
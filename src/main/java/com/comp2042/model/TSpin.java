@@ -0,0 +1,20 @@
+package com.comp2042.model;
+
+/**
+ * How a T brick was locked, by the three-corner rule (see {@link com.comp2042.logic.TSpinDetector}).
+ * <p>
+ * Any lock that is not a T brick, or whose last successful action was a move or a drop rather than
+ * a rotation, is {@link #NONE}.
+ * </p>
+ */
+public enum TSpin {
+
+    /** Not a spin. */
+    NONE,
+
+    /** Three corners around the pivot are blocked, but only one of the two the T points towards. */
+    MINI,
+
+    /** Three corners are blocked, including both the T points towards. */
+    FULL
+}
@@ -0,0 +1,161 @@
+package com.comp2042.replay;
+
+import com.comp2042.controllers.GameController;
+import com.comp2042.model.GameObserver;
+import com.comp2042.util.GameConfiguration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Races a recorded game alongside the live one, so the player can see a "ghost" of an earlier run.
+ * <p>
+ * <b>How it works:</b> The ghost is a second, headless {@link GameController} driven by a
+ * {@link ReplayPlayer}. Once per frame the caller passes in the live game's play time (see
+ * {@link com.comp2042.util.GameClock}) and the ghost applies every recorded event up to that time.
+ * This only keeps the boards in step if the ghost was recorded on the same kind of clock (see
+ * {@link ReplayRecorder#ReplayRecorder(java.util.function.Consumer, com.comp2042.util.GameClock)}):
+ * then both times count play from the end of the countdown, however often either game was paused.
+ * </p>
+ * <p>
+ * <b>Frame budget:</b> A frame normally applies zero or one event, which costs a few microseconds.
+ * To keep a long stall (e.g. the window being dragged) from turning into one expensive frame, each
+ * {@link #update(long)} applies at most a fixed number of events and leaves the rest for the next
+ * frames. The time spent in each update is measured so the cost can be checked at runtime.
+ * </p>
+ */
+public final class GhostRace {
+
+    private final Replay replay;
+    private final ReplayPlayer player;
+    private final int maxEventsPerUpdate;
+
+    private long lastUpdateNanos;
+    private long maxUpdateNanos;
+    private long totalUpdateNanos;
+    private long updateCount;
+
+    /**
+     * Creates a ghost using the default per-frame event budget.
+     *
+     * @param replay the recorded game to race against.
+     * @throws IllegalArgumentException if the replay names an unknown game mode.
+     */
+    public GhostRace(Replay replay) {
+        this(replay, GameConfiguration.GHOST_MAX_EVENTS_PER_FRAME);
+    }
+
+    /**
+     * Creates a ghost with a custom per-frame event budget.
+     *
+     * @param replay the recorded game to race against.
+     * @param maxEventsPerUpdate the most events a single {@link #update(long)} may apply.
+     * @throws IllegalArgumentException if the replay names an unknown game mode or the budget is not positive.
+     */
+    public GhostRace(Replay replay, int maxEventsPerUpdate) {
+        if (maxEventsPerUpdate <= 0) {
+            throw new IllegalArgumentException("Event budget must be positive: " + maxEventsPerUpdate);
+        }
+        this.replay = replay;
+        this.player = new ReplayPlayer(replay);
+        this.maxEventsPerUpdate = maxEventsPerUpdate;
+    }
+
+    /**
+     * Loads the highest-scoring archived game of a mode as a ghost.
+     *
+     * @param archiveDirectory the directory holding the replay archive.
+     * @param modeName the game mode to race in.
+     * @return the ghost, or null if no game of that mode has been archived yet.
+     * @throws IOException if the archive cannot be read.
+     */
+    public static GhostRace loadBest(Path archiveDirectory, String modeName) throws IOException {
+        if (!Files.exists(archiveDirectory.resolve(ReplayArchive.INDEX_FILE))) {
+            return null;
+        }
+        try (ReplayArchive archive = ReplayArchive.open(archiveDirectory)) {
+            List<ReplayArchive.Entry> best = archive.top(modeName, 1);
+            if (best.isEmpty()) {
+                return null;
+            }
+            return new GhostRace(archive.read(best.getFirst()));
+        }
+    }
+
+    /**
+     * Attaches an observer (typically a renderer) to the ghost game.
+     * The observer immediately receives the current ghost state.
+     *
+     * @param observer the observer to notify about ghost updates.
+     */
+    public void addObserver(GameObserver observer) {
+        player.getController().addObserver(observer);
+    }
+
+    /**
+     * Brings the ghost up to the live game's play time, within the per-frame event budget.
+     *
+     * @param liveMillis the live game's play time in milliseconds.
+     * @return the number of events applied; 0 means the ghost state did not change.
+     */
+    public int update(long liveMillis) {
+        long start = System.nanoTime();
+        int applied = player.advanceTo(liveMillis, maxEventsPerUpdate);
+        lastUpdateNanos = System.nanoTime() - start;
+        maxUpdateNanos = Math.max(maxUpdateNanos, lastUpdateNanos);
+        totalUpdateNanos += lastUpdateNanos;
+        updateCount++;
+        return applied;
+    }
+
+    /**
+     * @return true once the recorded game has been played to its end (or no longer matches).
+     */
+    public boolean isFinished() {
+        return player.isFinished();
+    }
+
+    /**
+     * @return the replay time of the last event the ghost applied, in milliseconds.
+     */
+    public long getPositionMillis() {
+        return player.getPositionMillis();
+    }
+
+    /**
+     * @return the headless game driven by the ghost.
+     */
+    GameController getController() {
+        return player.getController();
+    }
+
+    /**
+     * @return the recorded game being raced.
+     */
+    public Replay getReplay() {
+        return replay;
+    }
+
+    /**
+     * @return the time spent in the most recent {@link #update(long)}, in nanoseconds.
+     */
+    public long getLastUpdateNanos() {
+        return lastUpdateNanos;
+    }
+
+    /**
+     * @return the time spent in the slowest {@link #update(long)} so far, in nanoseconds.
+     */
+    public long getMaxUpdateNanos() {
+        return maxUpdateNanos;
+    }
+
+    /**
+     * @return the mean time spent per {@link #update(long)}, in nanoseconds.
+     */
+    public long getAverageUpdateNanos() {
+        return updateCount == 0 ? 0 : totalUpdateNanos / updateCount;
+    }
+}
@@ -0,0 +1,83 @@
+package com.comp2042.replay;
+
+import com.comp2042.logic.mode.GameMode;
+import com.comp2042.model.GameSnapshot;
+import com.comp2042.model.PieceLanding;
+
+import java.util.function.Supplier;
+
+/**
+ * Receives every state-changing input of a game as it is played.
+ * <p>
+ * The {@link com.comp2042.controllers.GameController} calls these hooks from its
+ * {@link com.comp2042.logic.InputEventListener} methods. Implementations must be cheap: they run
+ * on the game thread for every key press and gravity tick.
+ * </p>
+ */
+public interface InputRecorder {
+
+    /**
+     * Called right after a new game has been set up, before any input is applied.
+     *
+     * @param seed the seed the brick generator was started with.
+     * @param mode the active game mode.
+     */
+    void onGameStarted(long seed, GameMode mode);
+
+    /**
+     * Called for each input, before it is applied to the board.
+     *
+     * @param action the input being applied.
+     */
+    void onAction(ReplayAction action);
+
+    /**
+     * Called when a piece has come to rest, before it is merged into the board and full rows are
+     * cleared; {@link #onPieceLocked} follows. Recorders that learn from where pieces are placed can
+     * pull the landing from the supplier; taking it is not free, so it should only be requested when
+     * it is actually used.
+     *
+     * @param landing supplies the board without the piece, the piece at its final position, the hold
+     *                slot and the preview.
+     */
+    default void onPieceLanded(Supplier<PieceLanding> landing) {
+    }
+
+    /**
+     * Called after a piece has locked and full rows have been cleared, before the next piece spawns.
+     * Recorders may store this to let a replay verify the game piece by piece.
+     *
+     * @param boardHash the {@link com.comp2042.model.PersistentGrid#contentHash()} of the board.
+     * @param score the score after the lock.
+     */
+    default void onPieceLocked(long boardHash, int score) {
+    }
+
+    /**
+     * Called after the next piece has spawned following a lock.
+     * Recorders that keep keyframes can pull a full snapshot from the supplier; taking one is not
+     * free, so it should only be requested when a keyframe is actually due.
+     *
+     * @param snapshot supplies the current game state, or {@code null} when no keyframe may be taken now.
+     */
+    default void onPieceSpawned(Supplier<GameSnapshot> snapshot) {
+    }
+
+    /**
+     * Called when a branching Undo or Redo moves the game to another point of its timeline.
+     *
+     * @param historyDepth the number of moves between the start of the game and the restored state.
+     */
+    default void onHistoryRestored(int historyDepth) {
+    }
+
+    /**
+     * Called when the game ends, either by Game Over or because a new game is started.
+     *
+     * @param score the final score.
+     * @param lines the total number of lines cleared.
+     * @param level the final level.
+     * @param boardHash the {@link com.comp2042.model.PersistentGrid#contentHash()} of the final board.
+     */
+    void onGameEnded(int score, int lines, int level, long boardHash);
+}
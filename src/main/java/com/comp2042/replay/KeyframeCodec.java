@@ -0,0 +1,148 @@
+package com.comp2042.replay;
+
+import com.comp2042.model.BoardMemento;
+import com.comp2042.model.BoardState;
+import com.comp2042.model.CompactMemento;
+import com.comp2042.model.GameSnapshot;
+import com.comp2042.model.PersistentGrid;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Serializes {@link GameSnapshot}s into the compact form stored as replay keyframes.
+ * <p>
+ * Grids are written with the {@link CompactMemento} bit packing (3 bits per cell, leading empty rows
+ * skipped) and small integers as varints, so a mid-game keyframe is typically 100-200 bytes.
+ * </p>
+ */
+final class KeyframeCodec {
+
+    private static final int MAX_VARINT_BYTES = 10;
+
+    private KeyframeCodec() {
+    }
+
+    /**
+     * Encodes a snapshot.
+     *
+     * @param snapshot the state to encode.
+     * @return the encoded bytes.
+     */
+    static byte[] encode(GameSnapshot snapshot) {
+        BoardState board = snapshot.getBoard();
+        CompactMemento grid = CompactMemento.encode(board.getGrid(), 0, 0);
+        BoardMemento undo = snapshot.getUndoState();
+        CompactMemento undoGrid = undo != null ? CompactMemento.encode(undo.getGrid(), 0, 0) : null;
+
+        byte[] out = new byte[16 * MAX_VARINT_BYTES + board.getGeneratorState().length
+                + gridSize(grid) + (undoGrid != null ? gridSize(undoGrid) : 0)];
+        int pos = 0;
+        pos = VarInts.write(snapshot.getScore(), out, pos);
+        pos = VarInts.write(snapshot.getLines(), out, pos);
+        pos = VarInts.write(snapshot.getLevel(), out, pos);
+        pos = VarInts.write(snapshot.getScoreAtSpawn(), out, pos);
+        pos = VarInts.write(snapshot.getUndoCount(), out, pos);
+        pos = VarInts.write(snapshot.getHistoryDepth(), out, pos);
+
+        pos = writeGrid(grid, out, pos);
+        out[pos++] = (byte) board.getBrickId();
+        out[pos++] = (byte) board.getRotation();
+        pos = VarInts.write(zigZag(board.getX()), out, pos);
+        pos = VarInts.write(zigZag(board.getY()), out, pos);
+        out[pos++] = (byte) board.getHeldBrickId();
+        out[pos++] = (byte) (board.canHold() ? 1 : 0);
+        byte[] generator = board.getGeneratorState();
+        pos = VarInts.write(generator.length, out, pos);
+        System.arraycopy(generator, 0, out, pos, generator.length);
+        pos += generator.length;
+
+        out[pos++] = (byte) (undoGrid != null ? 1 : 0);
+        if (undoGrid != null) {
+            pos = VarInts.write(undo.getScore(), out, pos);
+            pos = VarInts.write(undo.getLevel(), out, pos);
+            pos = writeGrid(undoGrid, out, pos);
+        }
+        return Arrays.copyOf(out, pos);
+    }
+
+    /**
+     * Decodes a snapshot starting at the buffer's position and advances past it.
+     *
+     * @param in the encoded keyframe.
+     * @return the snapshot.
+     * @throws IllegalStateException if the data is corrupt.
+     */
+    static GameSnapshot decode(ByteBuffer in) {
+        try {
+            int score = (int) VarInts.read(in);
+            int lines = (int) VarInts.read(in);
+            int level = (int) VarInts.read(in);
+            int scoreAtSpawn = (int) VarInts.read(in);
+            int undoCount = (int) VarInts.read(in);
+            int historyDepth = (int) VarInts.read(in);
+
+            PersistentGrid grid = readGrid(in);
+            int brickId = in.get();
+            int rotation = in.get();
+            int x = unZigZag(VarInts.read(in));
+            int y = unZigZag(VarInts.read(in));
+            int heldBrickId = in.get();
+            boolean canHold = in.get() != 0;
+            byte[] generator = new byte[(int) VarInts.read(in)];
+            in.get(generator);
+            BoardState board = new BoardState(grid, brickId, rotation, x, y, heldBrickId, canHold, generator);
+
+            BoardMemento undo = null;
+            if (in.get() != 0) {
+                int undoScore = (int) VarInts.read(in);
+                int undoLevel = (int) VarInts.read(in);
+                undo = new BoardMemento(readGrid(in), undoScore, undoLevel);
+            }
+            return new GameSnapshot(board, score, lines, level, scoreAtSpawn, undo, undoCount, historyDepth);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Corrupt replay keyframe", e);
+        }
+    }
+
+    private static int gridSize(CompactMemento grid) {
+        return 3 * MAX_VARINT_BYTES + grid.getCells().length * Long.BYTES;
+    }
+
+    private static int writeGrid(CompactMemento grid, byte[] out, int pos) {
+        pos = VarInts.write(grid.getHeight(), out, pos);
+        pos = VarInts.write(grid.getWidth(), out, pos);
+        pos = VarInts.write(grid.getEmptyPrefix(), out, pos);
+        for (long word : grid.getCells()) {
+            for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+                out[pos++] = (byte) (word >>> shift);
+            }
+        }
+        return pos;
+    }
+
+    private static PersistentGrid readGrid(ByteBuffer in) {
+        int height = (int) VarInts.read(in);
+        int width = (int) VarInts.read(in);
+        int emptyPrefix = (int) VarInts.read(in);
+        int storedCells = (height - emptyPrefix) * width;
+        long[] cells = new long[(storedCells + CompactMemento.CELLS_PER_WORD - 1) / CompactMemento.CELLS_PER_WORD];
+        for (int i = 0; i < cells.length; i++) {
+            long word = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+                word |= (in.get() & 0xFFL) << shift;
+            }
+            cells[i] = word;
+        }
+        return CompactMemento.fromParts(height, width, emptyPrefix, cells, 0, 0).decodeGrid();
+    }
+
+    private static long zigZag(int value) {
+        return Integer.toUnsignedLong((value << 1) ^ (value >> 31));
+    }
+
+    private static int unZigZag(long value) {
+        int v = (int) value;
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
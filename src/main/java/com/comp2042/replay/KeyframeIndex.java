@@ -0,0 +1,122 @@
+package com.comp2042.replay;
+
+import com.comp2042.model.GameSnapshot;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The keyframes of a {@link Replay}: periodic full-state snapshots plus where in the input log each one
+ * was taken.
+ * <p>
+ * <b>Random access:</b> The positions are held in primitive arrays sorted by time, so finding the
+ * keyframe for a seek target is a binary search. Snapshots stay encoded in one shared buffer and are
+ * only decoded when a seek actually lands on them.
+ * </p>
+ */
+public final class KeyframeIndex {
+
+    /** An index without keyframes, used by replays recorded before keyframes existed. */
+    public static final KeyframeIndex EMPTY =
+            new KeyframeIndex(new long[0], new int[0], new int[0], new int[0], ByteBuffer.allocate(0));
+
+    private final long[] timeMillis;
+    private final int[] eventIndex;
+    private final int[] logOffset;
+    private final int[] dataOffset;
+    private final ByteBuffer data;
+
+    /**
+     * Creates an index. The arrays are used directly and must not be modified afterwards.
+     *
+     * @param timeMillis the replay time of each keyframe, ascending.
+     * @param eventIndex the number of log events before each keyframe.
+     * @param logOffset the byte offset in the input log of the first event after each keyframe.
+     * @param dataOffset the byte offset in {@code data} of each encoded snapshot.
+     * @param data the encoded snapshots (the buffer's remaining bytes are used; it is not copied).
+     */
+    KeyframeIndex(long[] timeMillis, int[] eventIndex, int[] logOffset, int[] dataOffset, ByteBuffer data) {
+        this.timeMillis = timeMillis;
+        this.eventIndex = eventIndex;
+        this.logOffset = logOffset;
+        this.dataOffset = dataOffset;
+        this.data = data.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * @return the number of keyframes.
+     */
+    public int size() {
+        return timeMillis.length;
+    }
+
+    /**
+     * @param i the keyframe number.
+     * @return the replay time of the keyframe in milliseconds.
+     */
+    public long getTimeMillis(int i) {
+        return timeMillis[i];
+    }
+
+    /**
+     * @param i the keyframe number.
+     * @return the number of log events that precede the keyframe.
+     */
+    public int getEventIndex(int i) {
+        return eventIndex[i];
+    }
+
+    /**
+     * @param i the keyframe number.
+     * @return the byte offset in the input log where playback resumes after the keyframe.
+     */
+    public int getLogOffset(int i) {
+        return logOffset[i];
+    }
+
+    /**
+     * Decodes the snapshot of a keyframe.
+     *
+     * @param i the keyframe number.
+     * @return the game state at the keyframe.
+     */
+    public GameSnapshot snapshot(int i) {
+        return KeyframeCodec.decode(data.duplicate().position(dataOffset[i]));
+    }
+
+    /**
+     * Finds the latest keyframe at or before a point in time.
+     *
+     * @param time the replay time in milliseconds.
+     * @return the keyframe number, or -1 if every keyframe is later.
+     */
+    public int floor(long time) {
+        int low = 0;
+        int high = timeMillis.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (timeMillis[mid] <= time) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return the total size of the encoded snapshots in bytes.
+     */
+    public int getDataSize() {
+        return data.remaining();
+    }
+
+    ByteBuffer getData() {
+        return data.duplicate();
+    }
+
+    int getDataOffset(int i) {
+        return dataOffset[i];
+    }
+}
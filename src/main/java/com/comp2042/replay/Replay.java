@@ -0,0 +1,255 @@
+package com.comp2042.replay;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An immutable recording of one game: how it started, every input, and how it ended.
+ * <p>
+ * The inputs are kept in their compact encoded form (see {@link ReplayRecorder}): each event is a
+ * single unsigned varint holding the milliseconds since the previous event in the upper bits and
+ * the {@link ReplayAction} code in the lower {@value ReplayAction#CODE_BITS} bits
+ * ({@link ReplayAction#CHECKPOINT} events carry two more varints). The log is
+ * exposed as a read-only buffer and iterated with an {@link EventCursor}, so a replay loaded from
+ * disk is never expanded into one object per event.
+ * </p>
+ */
+public final class Replay {
+
+    private final int formatVersion;
+    private final String modeName;
+    private final long seed;
+    private final long startEpochMillis;
+    private final int eventCount;
+    private final ByteBuffer inputLog;
+    private final int finalScore;
+    private final int finalLines;
+    private final int finalLevel;
+    private final long finalBoardHash;
+    private final KeyframeIndex keyframes;
+
+    /**
+     * Creates a replay.
+     *
+     * @param formatVersion the {@link ReplayCodec} version the log was written with.
+     * @param modeName the {@link com.comp2042.logic.mode.GameMode#getName()} of the recorded game.
+     * @param seed the brick generator seed.
+     * @param startEpochMillis wall-clock time the game started.
+     * @param eventCount the number of events in the log.
+     * @param inputLog the encoded events (the buffer's remaining bytes are used; it is not copied).
+     * @param finalScore the score at the end of the game.
+     * @param finalLines the lines cleared at the end of the game.
+     * @param finalLevel the level at the end of the game.
+     * @param finalBoardHash the content hash of the final board.
+     */
+    public Replay(int formatVersion, String modeName, long seed, long startEpochMillis, int eventCount, ByteBuffer inputLog,
+                  int finalScore, int finalLines, int finalLevel, long finalBoardHash) {
+        this(formatVersion, modeName, seed, startEpochMillis, eventCount, inputLog,
+                finalScore, finalLines, finalLevel, finalBoardHash, KeyframeIndex.EMPTY);
+    }
+
+    /**
+     * Creates a replay with keyframes for random access.
+     *
+     * @param formatVersion the {@link ReplayCodec} version the log was written with.
+     * @param modeName the {@link com.comp2042.logic.mode.GameMode#getName()} of the recorded game.
+     * @param seed the brick generator seed.
+     * @param startEpochMillis wall-clock time the game started.
+     * @param eventCount the number of events in the log.
+     * @param inputLog the encoded events (the buffer's remaining bytes are used; it is not copied).
+     * @param finalScore the score at the end of the game.
+     * @param finalLines the lines cleared at the end of the game.
+     * @param finalLevel the level at the end of the game.
+     * @param finalBoardHash the content hash of the final board.
+     * @param keyframes the keyframes taken during the game.
+     */
+    public Replay(int formatVersion, String modeName, long seed, long startEpochMillis, int eventCount, ByteBuffer inputLog,
+                  int finalScore, int finalLines, int finalLevel, long finalBoardHash, KeyframeIndex keyframes) {
+        this.formatVersion = formatVersion;
+        this.modeName = modeName;
+        this.seed = seed;
+        this.startEpochMillis = startEpochMillis;
+        this.eventCount = eventCount;
+        this.inputLog = inputLog.slice().asReadOnlyBuffer();
+        this.finalScore = finalScore;
+        this.finalLines = finalLines;
+        this.finalLevel = finalLevel;
+        this.finalBoardHash = finalBoardHash;
+        this.keyframes = keyframes;
+    }
+
+    /**
+     * @return the format version the log was written with.
+     */
+    public int getFormatVersion() {
+        return formatVersion;
+    }
+
+    /**
+     * @return true if the log contains {@link ReplayAction#CHECKPOINT} events.
+     */
+    public boolean hasCheckpoints() {
+        return formatVersion >= ReplayCodec.VERSION_CHECKPOINTS;
+    }
+
+    public String getModeName() {
+        return modeName;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public int getFinalScore() {
+        return finalScore;
+    }
+
+    public int getFinalLines() {
+        return finalLines;
+    }
+
+    public int getFinalLevel() {
+        return finalLevel;
+    }
+
+    public long getFinalBoardHash() {
+        return finalBoardHash;
+    }
+
+    /**
+     * @return the keyframes for seeking; empty for replays recorded without them.
+     */
+    public KeyframeIndex getKeyframes() {
+        return keyframes;
+    }
+
+    /**
+     * @return a read-only view of the encoded input log, positioned at its start.
+     */
+    public ByteBuffer getInputLog() {
+        return inputLog.duplicate();
+    }
+
+    /**
+     * @return the size of the encoded input log in bytes.
+     */
+    public int getInputLogSize() {
+        return inputLog.remaining();
+    }
+
+    /**
+     * Creates a cursor positioned before the first event.
+     *
+     * @return a new cursor over the input log.
+     */
+    public EventCursor cursor() {
+        return new EventCursor(inputLog.duplicate());
+    }
+
+    /**
+     * Folds a 64-bit board hash into the 32 bits stored by checkpoints.
+     *
+     * @param boardHash the full hash.
+     * @return the folded hash as an unsigned value.
+     */
+    public static long foldHash(long boardHash) {
+        return (boardHash ^ (boardHash >>> 32)) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Walks the input log one event at a time without allocating per event.
+     */
+    public static final class EventCursor {
+
+        private final ByteBuffer log;
+        private long timeMillis;
+        private ReplayAction action;
+        private long checkpointHash;
+        private int checkpointScore;
+        private int index = -1;
+
+        private EventCursor(ByteBuffer log) {
+            this.log = log;
+        }
+
+        /**
+         * Advances to the next event.
+         *
+         * @return false if the log is exhausted.
+         * @throws IllegalStateException if the log is corrupt.
+         */
+        public boolean next() {
+            if (!log.hasRemaining()) {
+                return false;
+            }
+            long packed = VarInts.read(log);
+            action = ReplayAction.fromCode((int) (packed & ((1 << ReplayAction.CODE_BITS) - 1)));
+            if (action == null) {
+                throw new IllegalStateException("Unknown action code in replay at event " + (index + 1));
+            }
+            timeMillis += packed >>> ReplayAction.CODE_BITS;
+            if (action == ReplayAction.CHECKPOINT) {
+                checkpointHash = VarInts.read(log);
+                checkpointScore = (int) VarInts.read(log);
+            }
+            index++;
+            return true;
+        }
+
+        /**
+         * Moves the cursor so that the next call to {@link #next()} reads the event at a log offset.
+         *
+         * @param logOffset the byte offset of the next event.
+         * @param eventsBefore the number of events before that offset.
+         * @param time the replay time at that offset.
+         */
+        void reposition(int logOffset, int eventsBefore, long time) {
+            log.position(logOffset);
+            index = eventsBefore - 1;
+            timeMillis = time;
+            action = null;
+        }
+
+        /**
+         * @return the action of the current event.
+         */
+        public ReplayAction getAction() {
+            return action;
+        }
+
+        /**
+         * @return the folded board hash of the current {@link ReplayAction#CHECKPOINT} event.
+         */
+        public long getCheckpointHash() {
+            return checkpointHash;
+        }
+
+        /**
+         * @return the score of the current {@link ReplayAction#CHECKPOINT} event.
+         */
+        public int getCheckpointScore() {
+            return checkpointScore;
+        }
+
+        /**
+         * @return the milliseconds from the start of the game to the current event.
+         */
+        public long getTimeMillis() {
+            return timeMillis;
+        }
+
+        /**
+         * @return the zero-based number of the current event.
+         */
+        public int getIndex() {
+            return index;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.comp2042.replay;
+
+/**
+ * Enumerates every input that can change the state of a recorded game.
+ * <p>
+ * Each action has a fixed 4-bit code that is written into replay files. The codes are part of the
+ * file format: existing values must never be renumbered, only new ones appended.
+ * </p>
+ */
+public enum ReplayAction {
+    /** A gravity tick from the game loop (no points awarded). */
+    GRAVITY(0),
+    /** The player pressing Down (soft drop). */
+    SOFT_DROP(1),
+    LEFT(2),
+    RIGHT(3),
+    ROTATE(4),
+    HARD_DROP(5),
+    HOLD(6),
+    UNDO(7),
+    REDO(8),
+    /**
+     * Not an input: a verification record written after each piece locks. It is followed by two
+     * varints, the folded board hash and the score, so a replay can detect divergence as early as
+     * the piece where it happens.
+     */
+    CHECKPOINT(9);
+
+    /** Number of bits reserved for the action code when packed next to a time delta. */
+    public static final int CODE_BITS = 4;
+
+    private static final ReplayAction[] BY_CODE = new ReplayAction[1 << CODE_BITS];
+
+    static {
+        for (ReplayAction action : values()) {
+            BY_CODE[action.code] = action;
+        }
+    }
+
+    private final int code;
+
+    ReplayAction(int code) {
+        this.code = code;
+    }
+
+    /**
+     * @return the code written to replay files for this action.
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Looks up an action by its file code without allocating.
+     *
+     * @param code the code read from a replay.
+     * @return the matching action, or {@code null} if the code is unknown.
+     */
+    public static ReplayAction fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
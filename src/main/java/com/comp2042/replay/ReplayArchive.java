@@ -0,0 +1,325 @@
+package com.comp2042.replay;
+
+import com.comp2042.logic.mode.GameModes;
+import com.comp2042.util.GameConfiguration;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * An append-only store for thousands of replays: one data file plus a fixed-size index.
+ * <p>
+ * <b>Layout:</b> {@value #DATA_FILE} holds encoded replays ({@link ReplayCodec}) back to back.
+ * {@value #INDEX_FILE} holds one {@value #RECORD_SIZE}-byte record per replay (big-endian):
+ * </p>
+ * <pre>
+ *   offset       i64  position of the replay in the data file
+ *   length       i32  encoded size in bytes
+ *   score        i32
+ *   lines        i32
+ *   startMillis  i64  wall-clock start of the game
+ *   level        u16
+ *   mode         u8   {@link GameModes#codeOf(String)}
+ *   reserved     u8
+ * </pre>
+ * <p>
+ * <b>Append-only:</b> A replay is written to the data file and forced to disk before it is indexed,
+ * so the index record is the commit point. A crash can at worst leave unreferenced bytes at the end of the data
+ * file or a partial index record, which is discarded when the archive is opened.
+ * </p>
+ * <p>
+ * <b>Reads:</b> Both files are read through {@link FileChannel#map}. Queries such as
+ * {@link #top(String, int)} scan only the index, never decoding a replay, and {@link #read(Entry)}
+ * decodes straight from a slice of the data mapping, so the input log and keyframes of the returned
+ * {@link Replay} are not copied onto the heap.
+ * </p>
+ * <p>
+ * Instances are not thread-safe.
+ * </p>
+ */
+public final class ReplayArchive implements Closeable {
+
+    /** Name of the file holding the concatenated replays. */
+    public static final String DATA_FILE = "replays.dat";
+
+    /** Name of the index file. */
+    public static final String INDEX_FILE = "replays.idx";
+
+    /** Size of one index record in bytes. */
+    public static final int RECORD_SIZE = 32;
+
+    private final FileChannel data;
+    private final FileChannel index;
+    private MappedByteBuffer dataMap;
+    private MappedByteBuffer indexMap;
+    private int recordCount;
+
+    private ReplayArchive(FileChannel data, FileChannel index, int recordCount) {
+        this.data = data;
+        this.index = index;
+        this.recordCount = recordCount;
+    }
+
+    /**
+     * Opens an archive, creating the directory and files if needed.
+     *
+     * @param directory the directory holding the archive files.
+     * @return the open archive.
+     * @throws IOException if the files cannot be opened.
+     */
+    public static ReplayArchive open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel data = FileChannel.open(directory.resolve(DATA_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel index;
+        try {
+            index = FileChannel.open(directory.resolve(INDEX_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            data.close();
+            throw e;
+        }
+        long indexSize = index.size();
+        if (indexSize % RECORD_SIZE != 0) {
+            // drop a record that was only partially written
+            indexSize -= indexSize % RECORD_SIZE;
+            index.truncate(indexSize);
+        }
+        return new ReplayArchive(data, index, (int) (indexSize / RECORD_SIZE));
+    }
+
+    /**
+     * Appends a replay to the archive.
+     *
+     * @param replay the replay to store.
+     * @return the index entry of the stored replay.
+     * @throws IOException if writing fails.
+     */
+    public Entry append(Replay replay) throws IOException {
+        ByteBuffer encoded = ReplayCodec.encode(replay);
+        long offset = data.size();
+        int length = encoded.remaining();
+        writeFully(data, encoded, offset);
+        // the index record must never reach the disk before the bytes it points at
+        data.force(false);
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE).order(ByteOrder.BIG_ENDIAN);
+        record.putLong(offset);
+        record.putInt(length);
+        record.putInt(replay.getFinalScore());
+        record.putInt(replay.getFinalLines());
+        record.putLong(replay.getStartEpochMillis());
+        record.putShort((short) Math.min(replay.getFinalLevel(), 0xFFFF));
+        record.put((byte) GameModes.codeOf(replay.getModeName()));
+        record.put((byte) 0);
+        writeFully(index, record.flip(), (long) recordCount * RECORD_SIZE);
+
+        return new Entry(recordCount++, offset, length, replay.getFinalScore(), replay.getFinalLines(),
+                replay.getStartEpochMillis(), replay.getFinalLevel(), replay.getModeName());
+    }
+
+    /**
+     * @return the number of replays in the archive.
+     */
+    public int size() {
+        return recordCount;
+    }
+
+    /**
+     * Reads one index record.
+     *
+     * @param i the record number, from 0 to {@link #size()} - 1.
+     * @return the entry.
+     * @throws IOException if the index cannot be mapped.
+     */
+    public Entry entry(int i) throws IOException {
+        if (i < 0 || i >= recordCount) {
+            throw new IndexOutOfBoundsException("No replay " + i + " in an archive of " + recordCount);
+        }
+        ByteBuffer map = indexMap();
+        int base = i * RECORD_SIZE;
+        return new Entry(i, map.getLong(base), map.getInt(base + 8), map.getInt(base + 12), map.getInt(base + 16),
+                map.getLong(base + 20), Short.toUnsignedInt(map.getShort(base + 28)),
+                GameModes.nameOf(Byte.toUnsignedInt(map.get(base + 30))));
+    }
+
+    /**
+     * Finds the highest-scoring replays, using only the index.
+     * <p>
+     * The index is scanned once while a bounded min-heap keeps the best {@code limit} records,
+     * so the cost is linear in the archive size and no replay is decoded.
+     * </p>
+     *
+     * @param modeName only include this mode, or {@code null} for all modes.
+     * @param limit the maximum number of results.
+     * @return the entries, best score first; none for a mode name the index has no code for.
+     * @throws IOException if the index cannot be mapped.
+     */
+    public List<Entry> top(String modeName, int limit) throws IOException {
+        int modeCode = modeName != null ? GameModes.codeOf(modeName) : -1;
+        if (limit <= 0 || recordCount == 0 || modeCode == 0) {
+            return List.of();
+        }
+        ByteBuffer map = indexMap();
+        // heap of record numbers ordered by score (lowest first), so the weakest is evicted
+        PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1,
+                (a, b) -> Integer.compare(map.getInt(a * RECORD_SIZE + 12), map.getInt(b * RECORD_SIZE + 12)));
+        for (int i = 0; i < recordCount; i++) {
+            int base = i * RECORD_SIZE;
+            if (modeCode >= 0 && Byte.toUnsignedInt(map.get(base + 30)) != modeCode) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(i);
+            } else if (map.getInt(base + 12) > map.getInt(best.peek() * RECORD_SIZE + 12)) {
+                best.poll();
+                best.add(i);
+            }
+        }
+        List<Entry> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(entry(best.poll()));
+        }
+        return result.reversed();
+    }
+
+    /**
+     * Decodes a replay directly from the memory-mapped data file.
+     * The returned replay shares the mapping and stays valid after the archive is closed.
+     *
+     * @param entry an entry of this archive.
+     * @return the replay.
+     * @throws IOException if the data file cannot be mapped.
+     * @throws IllegalArgumentException if the stored bytes are not a valid replay.
+     */
+    public Replay read(Entry entry) throws IOException {
+        ByteBuffer map = dataMap(entry.offset + entry.length);
+        return ReplayCodec.decode(map.slice((int) entry.offset, entry.length));
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            data.close();
+        } finally {
+            index.close();
+        }
+    }
+
+    private ByteBuffer indexMap() throws IOException {
+        long needed = (long) recordCount * RECORD_SIZE;
+        if (indexMap == null || indexMap.capacity() < needed) {
+            indexMap = index.map(FileChannel.MapMode.READ_ONLY, 0, needed);
+        }
+        return indexMap;
+    }
+
+    private ByteBuffer dataMap(long needed) throws IOException {
+        if (needed > Integer.MAX_VALUE) {
+            throw new IOException("Replay lies beyond the 2 GB mappable range");
+        }
+        if (dataMap == null || dataMap.capacity() < needed) {
+            dataMap = data.map(FileChannel.MapMode.READ_ONLY, 0, data.size());
+        }
+        return dataMap;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * One index record: everything needed to list, filter and rank a replay without decoding it.
+     */
+    public static final class Entry {
+
+        private final int recordNumber;
+        private final long offset;
+        private final int length;
+        private final int score;
+        private final int lines;
+        private final long startEpochMillis;
+        private final int level;
+        private final String modeName;
+
+        private Entry(int recordNumber, long offset, int length, int score, int lines,
+                      long startEpochMillis, int level, String modeName) {
+            this.recordNumber = recordNumber;
+            this.offset = offset;
+            this.length = length;
+            this.score = score;
+            this.lines = lines;
+            this.startEpochMillis = startEpochMillis;
+            this.level = level;
+            this.modeName = modeName;
+        }
+
+        public int getRecordNumber() {
+            return recordNumber;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public int getLines() {
+            return lines;
+        }
+
+        public long getStartEpochMillis() {
+            return startEpochMillis;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+
+        /**
+         * @return the mode name, or {@code null} if the mode is unknown to this version.
+         */
+        public String getModeName() {
+            return modeName;
+        }
+    }
+
+    /**
+     * Lists the best replays of an archive from the command line.
+     * Usage: {@code ReplayArchive [directory] [mode] [count]}.
+     *
+     * @param args optional directory (default {@code replays}), mode name and result count (default 50).
+     * @throws IOException if the archive cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(args.length > 0 ? args[0] : GameConfiguration.PATH_REPLAY_DIR);
+        String mode = args.length > 1 ? args[1] : null;
+        int count = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        try (ReplayArchive archive = open(directory)) {
+            int rank = 1;
+            for (Entry entry : archive.top(mode, count)) {
+                System.out.printf("%3d. %-6s score=%-7d lines=%-5d level=%-3d %tF %<tT%n", rank++,
+                        entry.getModeName(), entry.getScore(), entry.getLines(), entry.getLevel(),
+                        entry.getStartEpochMillis());
+            }
+        }
+    }
+}
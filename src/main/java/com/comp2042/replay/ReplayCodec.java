@@ -0,0 +1,173 @@
+package com.comp2042.replay;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts {@link Replay} objects to and from their binary file format.
+ * <p>
+ * <b>Layout (big-endian):</b>
+ * </p>
+ * <pre>
+ *   magic        4 bytes  "CWRP"
+ *   version      u16
+ *   modeLength   u16, followed by the UTF-8 mode name
+ *   seed         i64
+ *   startMillis  i64
+ *   eventCount   i32
+ *   logLength    i32, followed by the varint input log
+ *   finalScore   i32
+ *   finalLines   i32
+ *   finalLevel   i32
+ *   boardHash    i64
+ *   -- version 3 and later --
+ *   dataLength   i32, followed by the encoded keyframe snapshots
+ *   kfCount      i32
+ *   kfIndex      kfCount x (timeMillis i64, eventIndex i32, logOffset i32, dataOffset i32)
+ *   indexOffset  i32  offset of kfCount from the start of the replay
+ * </pre>
+ * <p>
+ * Version 2 added {@link ReplayAction#CHECKPOINT} events to the log and version 3 added keyframes;
+ * older files are still read. The trailing {@code indexOffset} lets a reader that knows where a
+ * replay ends find its keyframe index without parsing the log.
+ * </p>
+ * <p>
+ * Decoding wraps the log in place instead of copying it, so a replay read from a mapped or
+ * heap buffer shares that buffer's memory.
+ * </p>
+ */
+public final class ReplayCodec {
+
+    /** The four bytes every replay file starts with. */
+    public static final int MAGIC = 0x43575250; // "CWRP"
+
+    /** The format version written by this codec. */
+    public static final int VERSION = 3;
+
+    /** The first version whose logs contain {@link ReplayAction#CHECKPOINT} events. */
+    public static final int VERSION_CHECKPOINTS = 2;
+
+    /** The first version that stores keyframes. */
+    public static final int VERSION_KEYFRAMES = 3;
+
+    private static final int INDEX_ENTRY_SIZE = 8 + 4 + 4 + 4;
+
+    private static final int MIN_VERSION = 1;
+
+    private static final int FIXED_SIZE = 4 + 2 + 2 + 8 + 8 + 4 + 4 + 4 + 4 + 4 + 8;
+
+    private ReplayCodec() {
+    }
+
+    /**
+     * Serializes a replay.
+     *
+     * @param replay the replay to write.
+     * @return a buffer positioned at 0 holding the encoded replay.
+     */
+    public static ByteBuffer encode(Replay replay) {
+        byte[] mode = replay.getModeName().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer log = replay.getInputLog();
+        boolean withKeyframes = replay.getFormatVersion() >= VERSION_KEYFRAMES;
+        KeyframeIndex keyframes = replay.getKeyframes();
+        int keyframeBytes = withKeyframes
+                ? 4 + keyframes.getDataSize() + 4 + keyframes.size() * INDEX_ENTRY_SIZE + 4
+                : 0;
+        ByteBuffer out = ByteBuffer.allocate(FIXED_SIZE + mode.length + log.remaining() + keyframeBytes)
+                .order(ByteOrder.BIG_ENDIAN);
+        out.putInt(MAGIC);
+        out.putShort((short) replay.getFormatVersion());
+        out.putShort((short) mode.length);
+        out.put(mode);
+        out.putLong(replay.getSeed());
+        out.putLong(replay.getStartEpochMillis());
+        out.putInt(replay.getEventCount());
+        out.putInt(log.remaining());
+        out.put(log);
+        out.putInt(replay.getFinalScore());
+        out.putInt(replay.getFinalLines());
+        out.putInt(replay.getFinalLevel());
+        out.putLong(replay.getFinalBoardHash());
+        if (withKeyframes) {
+            out.putInt(keyframes.getDataSize());
+            out.put(keyframes.getData());
+            int indexOffset = out.position();
+            out.putInt(keyframes.size());
+            for (int i = 0; i < keyframes.size(); i++) {
+                out.putLong(keyframes.getTimeMillis(i));
+                out.putInt(keyframes.getEventIndex(i));
+                out.putInt(keyframes.getLogOffset(i));
+                out.putInt(keyframes.getDataOffset(i));
+            }
+            out.putInt(indexOffset);
+        }
+        return out.flip();
+    }
+
+    /**
+     * Reads a replay starting at the buffer's current position and advances past it.
+     *
+     * @param in the encoded data.
+     * @return the decoded replay.
+     * @throws IllegalArgumentException if the data is not a replay or uses an unknown version.
+     */
+    public static Replay decode(ByteBuffer in) {
+        in.order(ByteOrder.BIG_ENDIAN);
+        int start = in.position();
+        if (in.remaining() < FIXED_SIZE || in.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a replay file");
+        }
+        int version = Short.toUnsignedInt(in.getShort());
+        if (version < MIN_VERSION || version > VERSION) {
+            throw new IllegalArgumentException("Unsupported replay version " + version);
+        }
+        byte[] mode = new byte[Short.toUnsignedInt(in.getShort())];
+        in.get(mode);
+        long seed = in.getLong();
+        long startMillis = in.getLong();
+        int eventCount = in.getInt();
+        int logLength = in.getInt();
+        if (logLength < 0 || logLength > in.remaining()) {
+            throw new IllegalArgumentException("Replay input log is truncated");
+        }
+        ByteBuffer log = in.slice(in.position(), logLength);
+        in.position(in.position() + logLength);
+        int score = in.getInt();
+        int lines = in.getInt();
+        int level = in.getInt();
+        long boardHash = in.getLong();
+        KeyframeIndex keyframes = version >= VERSION_KEYFRAMES ? decodeKeyframes(in, start) : KeyframeIndex.EMPTY;
+        return new Replay(version, new String(mode, StandardCharsets.UTF_8), seed, startMillis, eventCount, log,
+                score, lines, level, boardHash, keyframes);
+    }
+
+    private static KeyframeIndex decodeKeyframes(ByteBuffer in, int start) {
+        int dataLength = in.getInt();
+        if (dataLength < 0 || dataLength > in.remaining()) {
+            throw new IllegalArgumentException("Replay keyframes are truncated");
+        }
+        ByteBuffer data = in.slice(in.position(), dataLength);
+        in.position(in.position() + dataLength);
+
+        int indexOffset = in.position() - start;
+        int count = in.getInt();
+        if (count < 0 || (long) count * INDEX_ENTRY_SIZE + 4 > in.remaining()) {
+            throw new IllegalArgumentException("Replay keyframe index is truncated");
+        }
+        long[] times = new long[count];
+        int[] eventIndex = new int[count];
+        int[] logOffset = new int[count];
+        int[] dataOffset = new int[count];
+        for (int i = 0; i < count; i++) {
+            times[i] = in.getLong();
+            eventIndex[i] = in.getInt();
+            logOffset[i] = in.getInt();
+            dataOffset[i] = in.getInt();
+        }
+        if (in.getInt() != indexOffset) {
+            throw new IllegalArgumentException("Replay keyframe index offset does not match");
+        }
+        return new KeyframeIndex(times, eventIndex, logOffset, dataOffset, data);
+    }
+}
@@ -0,0 +1,72 @@
+package com.comp2042.replay;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Handles the persistence of replay files to the local file system.
+ * <p>
+ * Mirrors {@link com.comp2042.util.ScoreFileHandler}: all file I/O is kept here, and failures are
+ * logged to standard error rather than thrown so that saving a replay can never interrupt a game.
+ * </p>
+ */
+public class ReplayFileHandler {
+
+    /** File extension used for replay files. */
+    public static final String EXTENSION = ".cwr";
+
+    private static final DateTimeFormatter FILE_STAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneId.systemDefault());
+
+    private final Path directory;
+
+    /**
+     * Constructs a handler that stores replays in the given directory.
+     *
+     * @param directory the directory path; created on first save if missing.
+     */
+    public ReplayFileHandler(String directory) {
+        this.directory = Path.of(directory);
+    }
+
+    /**
+     * Writes a replay to a new file named after its mode and start time.
+     *
+     * @param replay the finished replay.
+     * @return the path written, or {@code null} if saving failed.
+     */
+    public Path save(Replay replay) {
+        try {
+            Files.createDirectories(directory);
+            String name = replay.getModeName().toLowerCase() + "-"
+                    + FILE_STAMP.format(Instant.ofEpochMilli(replay.getStartEpochMillis())) + EXTENSION;
+            Path file = directory.resolve(name);
+            ByteBuffer data = ReplayCodec.encode(replay);
+            Files.write(file, data.array());
+            return file;
+        } catch (IOException e) {
+            System.err.println("Could not save replay: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Reads a replay file.
+     *
+     * @param file the file to read.
+     * @return the replay, or {@code null} if the file is missing or invalid.
+     */
+    public Replay load(Path file) {
+        try {
+            return ReplayCodec.decode(ByteBuffer.wrap(Files.readAllBytes(file)));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not load replay " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,535 @@
+package com.comp2042.replay;
+
+import com.comp2042.controllers.GameController;
+import com.comp2042.logic.board.SimpleBoard;
+import com.comp2042.logic.mode.GameMode;
+import com.comp2042.logic.mode.GameModes;
+import com.comp2042.managers.ScoreManager;
+import com.comp2042.model.GameSnapshot;
+import com.comp2042.model.MoveEvent;
+import com.comp2042.model.PieceLanding;
+import com.comp2042.util.EventSource;
+import com.comp2042.util.EventType;
+import com.comp2042.util.GameConfiguration;
+
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+/**
+ * Re-simulates a recorded game headlessly and checks that it ends exactly as it was recorded.
+ * <p>
+ * <b>How it works:</b> A fresh {@link GameController} is created without observers (so nothing is
+ * rendered) and without high score persistence. It is started with the recorded seed and then fed
+ * every event of the input log as fast as possible; recorded timings are ignored, because the
+ * gravity ticks themselves are part of the log. A private {@link InputRecorder} attached to the
+ * controller observes each piece lock and the end of the game.
+ * </p>
+ * <p>
+ * <b>Verification:</b> Every {@link ReplayAction#CHECKPOINT} in the log is compared against the
+ * re-simulated board hash and score, so a divergence is reported at the event whose piece lock first
+ * differs, not only at the end. The final score, lines, level and board hash are checked last.
+ * </p>
+ * <p>
+ * <b>Seeking:</b> A player instance can be advanced to any replay time with {@link #advanceTo(long)},
+ * or moved anywhere with {@link #seek(long)}. Seeking restores the latest keyframe at or before the
+ * target and re-simulates only the events after it, so its cost depends on the keyframe spacing rather
+ * than on how far into the game the target is.
+ * </p>
+ */
+public final class ReplayPlayer {
+
+    private static final MoveEvent GRAVITY = new MoveEvent(EventType.DOWN, EventSource.THREAD);
+    private static final MoveEvent SOFT_DROP = new MoveEvent(EventType.DOWN, EventSource.USER);
+    private static final MoveEvent HARD_DROP = new MoveEvent(null, EventSource.USER);
+    private static final MoveEvent HOLD = new MoveEvent(EventType.HOLD, EventSource.USER);
+
+    private final Replay replay;
+    private final GameController controller;
+    private final Probe probe;
+    private final Replay.EventCursor cursor;
+    private final boolean checkLocks;
+
+    private boolean hasPendingEvent;
+    private boolean exhausted;
+    private long positionMillis;
+    private int eventsApplied;
+    private int divergenceIndex = -1;
+    private String divergenceReason;
+
+    /**
+     * Creates a player positioned at the start of the replay.
+     *
+     * @param replay the recorded game.
+     * @throws IllegalArgumentException if the replay names an unknown game mode.
+     */
+    public ReplayPlayer(Replay replay) {
+        this(replay, null);
+    }
+
+    /**
+     * Creates a player positioned at the start of the replay that also passes every recorder hook of
+     * the simulated game on, e.g. to export what happens in it.
+     *
+     * @param replay the recorded game.
+     * @param listener receives the simulated game's recorder hooks after the player's own checks, or
+     *                 {@code null}. It sees one game however the player seeks: resetting the simulation
+     *                 to a keyframe is not reported as the game ending and starting again, and only the
+     *                 events replayed after the keyframe reach it (again, after seeking backwards).
+     * @throws IllegalArgumentException if the replay names an unknown game mode.
+     */
+    public ReplayPlayer(Replay replay, InputRecorder listener) {
+        this.replay = replay;
+        this.probe = new Probe(listener);
+        this.controller = new GameController(
+                new SimpleBoard(GameConfiguration.BOARD_HEIGHT, GameConfiguration.BOARD_WIDTH),
+                new ScoreManager(null),
+                replay.getSeed());
+        this.cursor = replay.cursor();
+        this.checkLocks = replay.hasCheckpoints();
+        controller.setGameMode(GameModes.forName(replay.getModeName()));
+        controller.setInputRecorder(probe);
+        controller.createNewGame(replay.getSeed());
+    }
+
+    /**
+     * Plays a replay to completion and verifies it.
+     *
+     * @param replay the recorded game.
+     * @return the outcome, including the first divergence if any.
+     * @throws IllegalArgumentException if the replay names an unknown game mode.
+     */
+    public static Result play(Replay replay) {
+        return play(replay, null);
+    }
+
+    /**
+     * Plays a replay to completion and verifies it, passing the simulated game's recorder hooks on.
+     *
+     * @param replay the recorded game.
+     * @param listener receives the recorder hooks, or {@code null}.
+     * @return the outcome, including the first divergence if any.
+     * @throws IllegalArgumentException if the replay names an unknown game mode.
+     */
+    public static Result play(Replay replay, InputRecorder listener) {
+        long startNanos = System.nanoTime();
+        ReplayPlayer player = new ReplayPlayer(replay, listener);
+        player.advanceTo(Long.MAX_VALUE);
+        return player.finish(startNanos);
+    }
+
+    /**
+     * Exposes the simulated game, e.g. to attach an observer that renders it.
+     *
+     * @return the controller driven by this player.
+     */
+    public GameController getController() {
+        return controller;
+    }
+
+    /**
+     * @return the replay time of the last event applied, in milliseconds.
+     */
+    public long getPositionMillis() {
+        return positionMillis;
+    }
+
+    /**
+     * @return true once every event has been applied or the simulation has diverged.
+     */
+    public boolean isFinished() {
+        return exhausted || hasDiverged();
+    }
+
+    /**
+     * @return true if the simulation no longer matches the recording.
+     */
+    public boolean hasDiverged() {
+        return divergenceIndex >= 0;
+    }
+
+    /**
+     * Applies every event up to and including the given replay time.
+     * Does nothing once the player is finished.
+     *
+     * @param timeMillis the replay time to advance to.
+     * @return false if the simulation has diverged.
+     */
+    public boolean advanceTo(long timeMillis) {
+        advanceTo(timeMillis, Integer.MAX_VALUE);
+        return !hasDiverged();
+    }
+
+    /**
+     * Applies events up to and including the given replay time, but no more than {@code maxEvents}
+     * of them. Callers with a per-frame budget use this to spread a large catch-up over several
+     * frames instead of stalling one.
+     *
+     * @param timeMillis the replay time to advance to.
+     * @param maxEvents the most events to apply in this call.
+     * @return the number of events applied.
+     */
+    public int advanceTo(long timeMillis, int maxEvents) {
+        int applied = 0;
+        while (!isFinished() && applied < maxEvents) {
+            if (!hasPendingEvent) {
+                if (!cursor.next()) {
+                    exhausted = true;
+                    if (checkLocks && probe.pendingLock) {
+                        diverge(cursor.getIndex(), "simulation locked a piece that the recording did not");
+                    }
+                    break;
+                }
+                hasPendingEvent = true;
+            }
+            if (cursor.getTimeMillis() > timeMillis) {
+                break;
+            }
+            hasPendingEvent = false;
+            positionMillis = cursor.getTimeMillis();
+            step();
+            applied++;
+        }
+        return applied;
+    }
+
+    /**
+     * Moves the simulation to a replay time, forwards or backwards.
+     * <p>
+     * Restores the nearest keyframe at or before the target when that is closer than the current
+     * position (or when seeking backwards), then re-simulates the remaining events.
+     * </p>
+     *
+     * @param timeMillis the replay time to seek to.
+     * @return false if the simulation diverged on the way.
+     */
+    public boolean seek(long timeMillis) {
+        KeyframeIndex keyframes = replay.getKeyframes();
+        int keyframe = keyframes.floor(timeMillis);
+        boolean backwards = timeMillis < positionMillis || hasDiverged();
+        int eventsConsumed = cursor.getIndex() + (hasPendingEvent ? 0 : 1);
+        boolean keyframeAhead = keyframe >= 0 && keyframes.getEventIndex(keyframe) > eventsConsumed;
+        if (backwards || keyframeAhead) {
+            // the reset ends the recording and the next input starts a new one; neither is passed on
+            probe.muted = true;
+            controller.createNewGame(replay.getSeed());
+            if (keyframe >= 0) {
+                controller.restoreSnapshot(keyframes.snapshot(keyframe));
+                cursor.reposition(keyframes.getLogOffset(keyframe), keyframes.getEventIndex(keyframe),
+                        keyframes.getTimeMillis(keyframe));
+                positionMillis = keyframes.getTimeMillis(keyframe);
+            } else {
+                cursor.reposition(0, 0, 0);
+                positionMillis = 0;
+            }
+            probe.muted = false;
+            probe.reset();
+            hasPendingEvent = false;
+            exhausted = false;
+            divergenceIndex = -1;
+            divergenceReason = null;
+        }
+        return advanceTo(timeMillis);
+    }
+
+    private void step() {
+        int index = cursor.getIndex();
+        ReplayAction action = cursor.getAction();
+
+        if (action == ReplayAction.CHECKPOINT) {
+            if (!probe.pendingLock) {
+                diverge(index, "recording has a piece lock here but the simulation did not lock a piece");
+                return;
+            }
+            probe.pendingLock = false;
+            if (probe.lockHash != cursor.getCheckpointHash() || probe.lockScore != cursor.getCheckpointScore()) {
+                diverge(index, "board/score after piece lock differs (expected score "
+                        + cursor.getCheckpointScore() + ", got " + probe.lockScore + ")");
+            }
+            return;
+        }
+        if (checkLocks && probe.pendingLock) {
+            diverge(index - 1, "simulation locked a piece that the recording did not");
+            return;
+        }
+        if (probe.ended) {
+            diverge(index, "simulated game ended before the recording did");
+            return;
+        }
+        apply(controller, action);
+        eventsApplied++;
+    }
+
+    private void diverge(int index, String reason) {
+        divergenceIndex = index;
+        divergenceReason = reason;
+    }
+
+    /**
+     * Ends the simulated game and compares its final statistics with the recording.
+     */
+    private Result finish(long startNanos) {
+        if (hasDiverged()) {
+            return Result.diverged(replay, divergenceIndex, divergenceReason, eventsApplied, startNanos, positionMillis);
+        }
+        controller.finishRecording();
+
+        String mismatch = null;
+        if (probe.score != replay.getFinalScore()) {
+            mismatch = "final score " + probe.score + " != recorded " + replay.getFinalScore();
+        } else if (probe.lines != replay.getFinalLines()) {
+            mismatch = "final lines " + probe.lines + " != recorded " + replay.getFinalLines();
+        } else if (probe.level != replay.getFinalLevel()) {
+            mismatch = "final level " + probe.level + " != recorded " + replay.getFinalLevel();
+        } else if (probe.boardHash != replay.getFinalBoardHash()) {
+            mismatch = "final board hash differs";
+        }
+        if (mismatch != null) {
+            return Result.diverged(replay, cursor.getIndex(), mismatch, eventsApplied, startNanos, positionMillis);
+        }
+        return new Result(true, -1, null, eventsApplied, System.nanoTime() - startNanos, positionMillis,
+                probe.score, probe.lines, probe.level);
+    }
+
+    /**
+     * Feeds one input to a controller exactly as playback does, so other headless drivers
+     * (e.g. simulations) exercise the same code path as a replayed game.
+     *
+     * @param controller the game to drive.
+     * @param action the input to apply.
+     * @throws IllegalStateException if the action is a {@link ReplayAction#CHECKPOINT}.
+     */
+    public static void apply(GameController controller, ReplayAction action) {
+        switch (action) {
+            case GRAVITY -> controller.onDownEvent(GRAVITY);
+            case SOFT_DROP -> controller.onDownEvent(SOFT_DROP);
+            case LEFT -> controller.onLeftEvent();
+            case RIGHT -> controller.onRightEvent();
+            case ROTATE -> controller.onRotateEvent();
+            case HARD_DROP -> controller.onHardDropEvent(HARD_DROP);
+            case HOLD -> controller.onHoldEvent(HOLD);
+            case UNDO -> controller.onUndoEvent();
+            case REDO -> controller.onRedoEvent();
+            case CHECKPOINT -> throw new IllegalStateException("Checkpoints are not inputs");
+        }
+    }
+
+    /**
+     * Observes the simulated game through the same hooks the real recorder uses.
+     */
+    private static final class Probe implements InputRecorder {
+
+        private final InputRecorder listener;
+        private boolean muted;
+        private boolean listenerInGame;
+        private boolean pendingLock;
+        private long lockHash;
+        private int lockScore;
+        private boolean ended;
+        private int score;
+        private int lines;
+        private int level;
+        private long boardHash;
+
+        Probe(InputRecorder listener) {
+            this.listener = listener;
+        }
+
+        private void reset() {
+            pendingLock = false;
+            ended = false;
+        }
+
+        @Override
+        public void onGameStarted(long seed, GameMode mode) {
+            // after a seek the listener's game simply goes on
+            if (listener != null && !listenerInGame) {
+                listenerInGame = true;
+                listener.onGameStarted(seed, mode);
+            }
+        }
+
+        @Override
+        public void onAction(ReplayAction action) {
+            if (listener != null) {
+                listener.onAction(action);
+            }
+        }
+
+        @Override
+        public void onPieceLanded(Supplier<PieceLanding> landing) {
+            if (listener != null) {
+                listener.onPieceLanded(landing);
+            }
+        }
+
+        @Override
+        public void onPieceLocked(long boardHash, int score) {
+            pendingLock = true;
+            lockHash = Replay.foldHash(boardHash);
+            lockScore = score;
+            if (listener != null) {
+                listener.onPieceLocked(boardHash, score);
+            }
+        }
+
+        @Override
+        public void onPieceSpawned(Supplier<GameSnapshot> snapshot) {
+            if (listener != null) {
+                listener.onPieceSpawned(snapshot);
+            }
+        }
+
+        @Override
+        public void onHistoryRestored(int historyDepth) {
+            if (listener != null) {
+                listener.onHistoryRestored(historyDepth);
+            }
+        }
+
+        @Override
+        public void onGameEnded(int score, int lines, int level, long boardHash) {
+            ended = true;
+            this.score = score;
+            this.lines = lines;
+            this.level = level;
+            this.boardHash = boardHash;
+            if (listener != null && !muted) {
+                listenerInGame = false;
+                listener.onGameEnded(score, lines, level, boardHash);
+            }
+        }
+    }
+
+    /**
+     * The outcome of playing a replay.
+     */
+    public static final class Result {
+
+        private final boolean verified;
+        private final int divergenceIndex;
+        private final String divergenceReason;
+        private final int eventsApplied;
+        private final long elapsedNanos;
+        private final long gameTimeMillis;
+        private final int score;
+        private final int lines;
+        private final int level;
+
+        private Result(boolean verified, int divergenceIndex, String divergenceReason, int eventsApplied,
+                       long elapsedNanos, long gameTimeMillis, int score, int lines, int level) {
+            this.verified = verified;
+            this.divergenceIndex = divergenceIndex;
+            this.divergenceReason = divergenceReason;
+            this.eventsApplied = eventsApplied;
+            this.elapsedNanos = elapsedNanos;
+            this.gameTimeMillis = gameTimeMillis;
+            this.score = score;
+            this.lines = lines;
+            this.level = level;
+        }
+
+        private static Result diverged(Replay replay, int index, String reason, int applied, long startNanos,
+                                       long gameTime) {
+            return new Result(false, index, reason, applied, System.nanoTime() - startNanos, gameTime,
+                    replay.getFinalScore(), replay.getFinalLines(), replay.getFinalLevel());
+        }
+
+        /**
+         * @return true if the simulation matched the recording at every checkpoint and at the end.
+         */
+        public boolean isVerified() {
+            return verified;
+        }
+
+        /**
+         * @return the index of the first event that diverged, or -1 if the replay verified.
+         */
+        public int getDivergenceIndex() {
+            return divergenceIndex;
+        }
+
+        /**
+         * @return a short description of the divergence, or {@code null} if the replay verified.
+         */
+        public String getDivergenceReason() {
+            return divergenceReason;
+        }
+
+        /**
+         * @return the number of inputs applied to the simulation.
+         */
+        public int getEventsApplied() {
+            return eventsApplied;
+        }
+
+        /**
+         * @return the wall-clock time the simulation took.
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * @return how many times faster than real time the replay was simulated.
+         */
+        public double getSpeedup() {
+            return elapsedNanos == 0 ? 0 : gameTimeMillis * 1_000_000.0 / elapsedNanos;
+        }
+
+        /**
+         * @return the final score of the simulation (the recorded score if it diverged).
+         */
+        public int getScore() {
+            return score;
+        }
+
+        /**
+         * @return the final lines of the simulation (the recorded lines if it diverged).
+         */
+        public int getLines() {
+            return lines;
+        }
+
+        /**
+         * @return the final level of the simulation (the recorded level if it diverged).
+         */
+        public int getLevel() {
+            return level;
+        }
+
+        @Override
+        public String toString() {
+            if (verified) {
+                return String.format("OK score=%d lines=%d level=%d events=%d %.1f ms (%.0fx real time)",
+                        score, lines, level, eventsApplied, elapsedNanos / 1e6, getSpeedup());
+            }
+            return "DIVERGED at event " + divergenceIndex + ": " + divergenceReason;
+        }
+    }
+
+    /**
+     * Verifies replay files from the command line.
+     * Usage: {@code ReplayPlayer <file.cwr>...}; exits with status 1 if any replay diverges.
+     *
+     * @param args paths of the replay files to check.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: ReplayPlayer <replay" + ReplayFileHandler.EXTENSION + ">...");
+            System.exit(2);
+        }
+        ReplayFileHandler fileHandler = new ReplayFileHandler(GameConfiguration.PATH_REPLAY_DIR);
+        boolean allVerified = true;
+        for (String arg : args) {
+            Replay replay = fileHandler.load(Path.of(arg));
+            if (replay == null) {
+                allVerified = false;
+                continue;
+            }
+            Result result = play(replay);
+            System.out.println(arg + ": " + result);
+            allVerified &= result.isVerified();
+        }
+        System.exit(allVerified ? 0 : 1);
+    }
+}
@@ -0,0 +1,298 @@
+package com.comp2042.replay;
+
+import com.comp2042.logic.mode.GameMode;
+import com.comp2042.model.GameSnapshot;
+import com.comp2042.util.GameClock;
+import com.comp2042.util.GameConfiguration;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Records a game as a compact input log instead of a sequence of board snapshots.
+ * <p>
+ * <b>Determinism:</b> The board is fully determined by the brick generator seed and the ordered
+ * list of inputs, so that is all that gets stored. A whole game typically fits in a few kilobytes.
+ * </p>
+ * <p>
+ * <b>Encoding:</b> Each event becomes one unsigned varint of
+ * {@code (millisSincePreviousEvent << 4) | actionCode}. Inputs arrive at most a few hundred
+ * milliseconds apart, so almost every event takes one or two bytes. Events are appended to a single
+ * growable {@code byte[]} that is reused across games, so recording allocates nothing per event.
+ * </p>
+ * <p>
+ * After each piece locks, a {@link ReplayAction#CHECKPOINT} event carrying a 32-bit fold of the
+ * board hash and the score is appended, which lets the replay player pinpoint the first piece at
+ * which a re-simulation diverges.
+ * </p>
+ * <p>
+ * <b>Keyframes:</b> Every {@code keyframeInterval} pieces a full {@link GameSnapshot} is encoded into a
+ * second buffer and its position in the log is noted, so playback can seek without re-simulating from
+ * the first piece. If a branching Undo later goes back past a keyframe, that keyframe is dropped,
+ * because resuming from it could not reproduce the Undo.
+ * </p>
+ * <p>
+ * When a game ends, the log is copied into an immutable {@link Replay} and handed to the sink
+ * (for example {@link ReplayFileHandler#save(Replay)}).
+ * </p>
+ */
+public class ReplayRecorder implements InputRecorder {
+
+    private static final int INITIAL_CAPACITY = 4096;
+    private static final int MAX_VARINT_BYTES = 10;
+
+    private final Consumer<Replay> sink;
+    private final LongSupplier nanoClock;
+    private final int keyframeInterval;
+    private final boolean timedFromClockZero;
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int length;
+    private int eventCount;
+    private boolean recording;
+    private String modeName;
+    private long seed;
+    private long startEpochMillis;
+    private long startNanos;
+    private long lastEventNanos;
+
+    private int piecesSinceKeyframe;
+    private int keyframeCount;
+    private long[] keyframeTime = new long[16];
+    private int[] keyframeEvent = new int[16];
+    private int[] keyframeLogOffset = new int[16];
+    private int[] keyframeDataOffset = new int[16];
+    private int[] keyframeDepth = new int[16];
+    private boolean[] keyframeValid = new boolean[16];
+    private byte[] keyframeData = new byte[INITIAL_CAPACITY];
+    private int keyframeDataLength;
+
+    /**
+     * Creates a recorder that uses the system clock.
+     *
+     * @param sink receives each finished replay; called on the game thread.
+     */
+    public ReplayRecorder(Consumer<Replay> sink) {
+        this(sink, System::nanoTime);
+    }
+
+    /**
+     * Creates a recorder with a custom monotonic clock, mainly for tests.
+     *
+     * @param sink receives each finished replay.
+     * @param nanoClock returns a monotonic time in nanoseconds.
+     */
+    public ReplayRecorder(Consumer<Replay> sink, LongSupplier nanoClock) {
+        this(sink, nanoClock, GameConfiguration.REPLAY_KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * Creates a recorder with a custom clock and keyframe spacing.
+     *
+     * @param sink receives each finished replay.
+     * @param nanoClock returns a monotonic time in nanoseconds.
+     * @param keyframeInterval the number of pieces between keyframes.
+     */
+    public ReplayRecorder(Consumer<Replay> sink, LongSupplier nanoClock, int keyframeInterval) {
+        this(sink, nanoClock, keyframeInterval, false);
+    }
+
+    /**
+     * Creates a recorder that times events by a game's play time rather than the system clock.
+     * <p>
+     * Event times are counted from the clock's zero instead of from the first input, and time spent
+     * paused or counting down is left out, so the replay lines up with a later live game measured by
+     * its own {@link GameClock} (see {@link GhostRace}).
+     * </p>
+     *
+     * @param sink receives each finished replay; called on the game thread.
+     * @param gameClock the play clock of the recorded game; it must be reset before each game starts.
+     */
+    public ReplayRecorder(Consumer<Replay> sink, GameClock gameClock) {
+        this(sink, () -> gameClock.elapsedMillis() * 1_000_000L, GameConfiguration.REPLAY_KEYFRAME_INTERVAL, true);
+    }
+
+    private ReplayRecorder(Consumer<Replay> sink, LongSupplier nanoClock, int keyframeInterval,
+                           boolean timedFromClockZero) {
+        if (keyframeInterval < 1) {
+            throw new IllegalArgumentException("Keyframe interval must be at least 1");
+        }
+        this.sink = sink;
+        this.nanoClock = nanoClock;
+        this.keyframeInterval = keyframeInterval;
+        this.timedFromClockZero = timedFromClockZero;
+    }
+
+    @Override
+    public void onGameStarted(long seed, GameMode mode) {
+        this.seed = seed;
+        this.modeName = mode.getName();
+        this.startEpochMillis = System.currentTimeMillis();
+        this.startNanos = timedFromClockZero ? 0 : nanoClock.getAsLong();
+        this.lastEventNanos = startNanos;
+        this.length = 0;
+        this.eventCount = 0;
+        this.piecesSinceKeyframe = 0;
+        this.keyframeCount = 0;
+        this.keyframeDataLength = 0;
+        this.recording = true;
+    }
+
+    @Override
+    public void onAction(ReplayAction action) {
+        if (!recording) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        long deltaMillis = Math.max(0, (now - lastEventNanos) / 1_000_000);
+        // advance by whole milliseconds only, so rounding never accumulates drift
+        lastEventNanos += deltaMillis * 1_000_000;
+
+        ensureCapacity(MAX_VARINT_BYTES);
+        length = VarInts.write((deltaMillis << ReplayAction.CODE_BITS) | action.getCode(), buffer, length);
+        eventCount++;
+    }
+
+    @Override
+    public void onPieceLocked(long boardHash, int score) {
+        if (!recording) {
+            return;
+        }
+        onAction(ReplayAction.CHECKPOINT);
+        ensureCapacity(2 * MAX_VARINT_BYTES);
+        length = VarInts.write(Replay.foldHash(boardHash), buffer, length);
+        length = VarInts.write(Integer.toUnsignedLong(score), buffer, length);
+    }
+
+    @Override
+    public void onPieceSpawned(Supplier<GameSnapshot> snapshot) {
+        if (!recording || ++piecesSinceKeyframe < keyframeInterval) {
+            return;
+        }
+        GameSnapshot state = snapshot.get();
+        if (state == null) {
+            return; // try again on the next piece
+        }
+        piecesSinceKeyframe = 0;
+        byte[] encoded = KeyframeCodec.encode(state);
+
+        if (keyframeCount == keyframeTime.length) {
+            int capacity = keyframeCount * 2;
+            keyframeTime = Arrays.copyOf(keyframeTime, capacity);
+            keyframeEvent = Arrays.copyOf(keyframeEvent, capacity);
+            keyframeLogOffset = Arrays.copyOf(keyframeLogOffset, capacity);
+            keyframeDataOffset = Arrays.copyOf(keyframeDataOffset, capacity);
+            keyframeDepth = Arrays.copyOf(keyframeDepth, capacity);
+            keyframeValid = Arrays.copyOf(keyframeValid, capacity);
+        }
+        if (keyframeDataLength + encoded.length > keyframeData.length) {
+            keyframeData = Arrays.copyOf(keyframeData, Math.max(keyframeData.length * 2, keyframeDataLength + encoded.length));
+        }
+        keyframeTime[keyframeCount] = (lastEventNanos - startNanos) / 1_000_000;
+        keyframeEvent[keyframeCount] = eventCount;
+        keyframeLogOffset[keyframeCount] = length;
+        keyframeDataOffset[keyframeCount] = keyframeDataLength;
+        keyframeDepth[keyframeCount] = state.getHistoryDepth();
+        keyframeValid[keyframeCount] = true;
+        keyframeCount++;
+        System.arraycopy(encoded, 0, keyframeData, keyframeDataLength, encoded.length);
+        keyframeDataLength += encoded.length;
+    }
+
+    @Override
+    public void onHistoryRestored(int historyDepth) {
+        if (!recording) {
+            return;
+        }
+        for (int i = 0; i < keyframeCount; i++) {
+            if (keyframeDepth[i] > historyDepth) {
+                keyframeValid[i] = false;
+            }
+        }
+    }
+
+    @Override
+    public void onGameEnded(int score, int lines, int level, long boardHash) {
+        if (!recording) {
+            return;
+        }
+        recording = false;
+        if (eventCount == 0) {
+            return; // nothing worth keeping
+        }
+        ByteBuffer log = ByteBuffer.wrap(Arrays.copyOf(buffer, length));
+        sink.accept(new Replay(ReplayCodec.VERSION, modeName, seed, startEpochMillis, eventCount, log,
+                score, lines, level, boardHash, buildKeyframeIndex()));
+    }
+
+    /**
+     * @return true between {@link #onGameStarted} and {@link #onGameEnded}.
+     */
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * @return the number of events recorded in the current game.
+     */
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * @return the number of bytes the current game's log occupies.
+     */
+    public int getLogSize() {
+        return length;
+    }
+
+    /**
+     * @return the number of keyframes taken in the current game, including ones later dropped.
+     */
+    public int getKeyframeCount() {
+        return keyframeCount;
+    }
+
+    /**
+     * Copies the keyframes that are still valid into an immutable index.
+     */
+    private KeyframeIndex buildKeyframeIndex() {
+        int valid = 0;
+        for (int i = 0; i < keyframeCount; i++) {
+            if (keyframeValid[i]) {
+                valid++;
+            }
+        }
+        long[] times = new long[valid];
+        int[] events = new int[valid];
+        int[] logOffsets = new int[valid];
+        int[] dataOffsets = new int[valid];
+        byte[] data = new byte[keyframeDataLength];
+        int dataLength = 0;
+        int k = 0;
+        for (int i = 0; i < keyframeCount; i++) {
+            if (!keyframeValid[i]) {
+                continue;
+            }
+            int end = i + 1 < keyframeCount ? keyframeDataOffset[i + 1] : keyframeDataLength;
+            int size = end - keyframeDataOffset[i];
+            System.arraycopy(keyframeData, keyframeDataOffset[i], data, dataLength, size);
+            times[k] = keyframeTime[i];
+            events[k] = keyframeEvent[i];
+            logOffsets[k] = keyframeLogOffset[i];
+            dataOffsets[k] = dataLength;
+            dataLength += size;
+            k++;
+        }
+        return new KeyframeIndex(times, events, logOffsets, dataOffsets, ByteBuffer.wrap(data, 0, dataLength));
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.comp2042.replay;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes unsigned integers as LEB128 variable-length bytes (7 payload bits per byte).
+ * <p>
+ * Small values, which dominate replay logs, take a single byte; a value only grows a byte for every
+ * additional 7 significant bits.
+ * </p>
+ */
+final class VarInts {
+
+    private VarInts() {
+    }
+
+    /**
+     * Writes a value into a byte array.
+     *
+     * @param value the non-negative value to write.
+     * @param target the destination array; must have at least 10 bytes free at {@code offset}.
+     * @param offset where to start writing.
+     * @return the offset just after the written bytes.
+     */
+    static int write(long value, byte[] target, int offset) {
+        while ((value & ~0x7FL) != 0) {
+            target[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[offset++] = (byte) value;
+        return offset;
+    }
+
+    /**
+     * Reads a value from the buffer's current position and advances it.
+     *
+     * @param buffer the source buffer.
+     * @return the decoded value.
+     * @throws IllegalStateException if the encoding is longer than 10 bytes or truncated.
+     */
+    static long read(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            if (!buffer.hasRemaining()) {
+                throw new IllegalStateException("Truncated varint in replay");
+            }
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in replay");
+    }
+}
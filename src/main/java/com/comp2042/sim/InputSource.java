@@ -0,0 +1,93 @@
+package com.comp2042.sim;
+
+import com.comp2042.replay.ReplayAction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Supplies the inputs that drive a simulated game, one {@link ReplayAction} at a time.
+ * <p>
+ * Inputs use the same vocabulary as replays, so anything a player can do (and nothing else) can be
+ * simulated, and the game itself decides whether an input is legal, just like it does for key presses.
+ * Sources are stateful and used by a single game on a single thread.
+ * </p>
+ */
+@FunctionalInterface
+public interface InputSource {
+
+    /**
+     * @return the next input to apply.
+     */
+    ReplayAction next();
+
+    /**
+     * Creates a source of random inputs with a fixed mix: mostly gravity and sideways moves,
+     * with occasional rotations, soft drops, hard drops and holds. Undo and redo are never drawn,
+     * so every game keeps moving forward.
+     *
+     * @param seed the seed; equal seeds produce equal input sequences.
+     * @return a new random source.
+     */
+    static InputSource random(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        return () -> {
+            int roll = random.nextInt(100);
+            if (roll < 30) return ReplayAction.GRAVITY;
+            if (roll < 48) return ReplayAction.LEFT;
+            if (roll < 66) return ReplayAction.RIGHT;
+            if (roll < 82) return ReplayAction.ROTATE;
+            if (roll < 88) return ReplayAction.SOFT_DROP;
+            if (roll < 97) return ReplayAction.HARD_DROP;
+            return ReplayAction.HOLD;
+        };
+    }
+
+    /**
+     * Creates a source that repeats a fixed script forever.
+     *
+     * @param script the inputs to cycle through.
+     * @return a new scripted source.
+     * @throws IllegalArgumentException if the script is empty or contains a checkpoint.
+     */
+    static InputSource script(List<ReplayAction> script) {
+        if (script.isEmpty()) {
+            throw new IllegalArgumentException("Input script is empty");
+        }
+        if (script.contains(ReplayAction.CHECKPOINT)) {
+            throw new IllegalArgumentException("Checkpoints are not inputs");
+        }
+        ReplayAction[] actions = script.toArray(new ReplayAction[0]);
+        int[] position = {0};
+        return () -> {
+            ReplayAction action = actions[position[0]];
+            position[0] = (position[0] + 1) % actions.length;
+            return action;
+        };
+    }
+
+    /**
+     * Parses a script of action names separated by whitespace or commas, e.g.
+     * {@code "LEFT LEFT ROTATE HARD_DROP"}. Lines starting with {@code #} are comments.
+     *
+     * @param text the script text.
+     * @return the parsed actions.
+     * @throws IllegalArgumentException if a token is not an action name.
+     */
+    static List<ReplayAction> parseScript(String text) {
+        List<ReplayAction> actions = new ArrayList<>();
+        for (String line : text.split("\\R")) {
+            if (line.strip().startsWith("#")) {
+                continue;
+            }
+            for (String token : line.split("[\\s,]+")) {
+                if (!token.isEmpty()) {
+                    actions.add(ReplayAction.valueOf(token.toUpperCase(Locale.ROOT)));
+                }
+            }
+        }
+        return actions;
+    }
+}
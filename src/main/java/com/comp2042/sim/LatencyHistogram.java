@@ -0,0 +1,122 @@
+package com.comp2042.sim;
+
+/**
+ * A fixed-size, log-linear histogram of latencies in nanoseconds.
+ * <p>
+ * <b>Why not a list of samples:</b> A simulation run can lock tens of millions of pieces, and keeping
+ * every sample would both allocate in the measured loop and need sorting afterwards. Instead, each
+ * power-of-two range is split into {@value #SUB_BUCKETS} equal buckets, so recording is a couple of
+ * shifts and one array increment, memory is constant (under 16 KB), and any percentile is accurate to
+ * within about 3%. Values below {@code 2 * SUB_BUCKETS} are counted exactly.
+ * </p>
+ * <p>
+ * <b>Threading:</b> Not thread-safe. Each worker records into its own histogram and the results are
+ * combined with {@link #add(LatencyHistogram)} once the workers are done.
+ * </p>
+ */
+public final class LatencyHistogram {
+
+    /** Number of buckets each power-of-two range is divided into. */
+    public static final int SUB_BUCKETS = 32;
+
+    private static final int SUB_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    private static final int FIRST_EXPONENT = SUB_BITS + 1;
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - FIRST_EXPONENT) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long max;
+    private long sum;
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos the measured latency; negative values are counted as zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[indexOf(value)]++;
+        totalCount++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Merges another histogram into this one.
+     *
+     * @param other the histogram to add.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns the latency below which the given fraction of samples fall.
+     *
+     * @param fraction a value between 0 and 1, e.g. 0.99 for the 99th percentile.
+     * @return the upper bound of the bucket holding that percentile, or 0 if nothing was recorded.
+     */
+    public long percentile(double fraction) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(fraction * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return the number of recorded samples.
+     */
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return the largest recorded latency, in nanoseconds.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * @return the mean latency in nanoseconds, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    private static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        int mantissa = (int) (value >>> shift) - SUB_BUCKETS;
+        return LINEAR_LIMIT + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + mantissa;
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + FIRST_EXPONENT;
+        long mantissa = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        int shift = exponent - SUB_BITS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,147 @@
+package com.comp2042.sim;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Periodically records a set of resource gauges so that slow growth becomes visible over long runs.
+ * <p>
+ * <b>Built-in gauges:</b>
+ * <ul>
+ * <li>{@code heapAfterGcBytes}: the heap still in use right after the most recent collection of each
+ * heap pool. Unlike the plain "used" figure it does not saw-tooth with allocation, so a rising floor
+ * means objects are being retained. No collection is forced to read it.</li>
+ * <li>{@code liveThreads}: the number of live JVM threads.</li>
+ * </ul>
+ * Callers add their own gauges (e.g. the number of scene graph nodes) with {@link #addGauge}.
+ * </p>
+ * <p>
+ * <b>Threading:</b> {@link #sample()} reads every gauge on the calling thread, so gauges that touch
+ * UI state must be sampled from the UI thread. Samples and reports may be read from any thread.
+ * </p>
+ */
+public final class ResourceSampler {
+
+    /** Name of the heap-after-GC gauge. */
+    public static final String HEAP_AFTER_GC = "heapAfterGcBytes";
+
+    /** Name of the live thread gauge. */
+    public static final String LIVE_THREADS = "liveThreads";
+
+    private final Map<String, LongSupplier> gauges = new LinkedHashMap<>();
+    private final List<Sample> samples = new ArrayList<>();
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * Creates a sampler with the built-in heap and thread gauges.
+     */
+    public ResourceSampler() {
+        gauges.put(HEAP_AFTER_GC, ResourceSampler::heapAfterGc);
+        gauges.put(LIVE_THREADS, () -> ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+
+    /**
+     * Adds a custom gauge. Must be called before the first sample.
+     *
+     * @param name the column name used in reports.
+     * @param gauge reads the current value.
+     * @throws IllegalStateException if sampling has already started.
+     */
+    public synchronized void addGauge(String name, LongSupplier gauge) {
+        if (!samples.isEmpty()) {
+            throw new IllegalStateException("Gauges must be added before sampling starts");
+        }
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * Reads every gauge once and stores the values.
+     *
+     * @return the new sample.
+     */
+    public synchronized Sample sample() {
+        long[] values = new long[gauges.size()];
+        int i = 0;
+        for (LongSupplier gauge : gauges.values()) {
+            values[i++] = gauge.getAsLong();
+        }
+        Sample sample = new Sample((System.nanoTime() - startNanos) / 1_000_000L, values);
+        samples.add(sample);
+        return sample;
+    }
+
+    /**
+     * @return the gauge names, in column order.
+     */
+    public synchronized List<String> getGaugeNames() {
+        return List.copyOf(gauges.keySet());
+    }
+
+    /**
+     * @return a copy of all samples taken so far.
+     */
+    public synchronized List<Sample> getSamples() {
+        return List.copyOf(samples);
+    }
+
+    /**
+     * Analyses the samples taken so far.
+     *
+     * @return the trend of every gauge.
+     */
+    public synchronized TrendReport report() {
+        return new TrendReport(getGaugeNames(), getSamples());
+    }
+
+    private static long heapAfterGc() {
+        long total = 0;
+        boolean known = false;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP) {
+                continue;
+            }
+            MemoryUsage afterGc = pool.getCollectionUsage();
+            if (afterGc != null) {
+                total += afterGc.getUsed();
+                known = true;
+            }
+        }
+        return known ? total : ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * The values of every gauge at one point in time.
+     */
+    public static final class Sample {
+
+        private final long timeMillis;
+        private final long[] values;
+
+        Sample(long timeMillis, long[] values) {
+            this.timeMillis = timeMillis;
+            this.values = values;
+        }
+
+        /**
+         * @return milliseconds since the sampler was created.
+         */
+        public long getTimeMillis() {
+            return timeMillis;
+        }
+
+        /**
+         * @param gaugeIndex the column, as in {@link ResourceSampler#getGaugeNames()}.
+         * @return the gauge value.
+         */
+        public long getValue(int gaugeIndex) {
+            return values[gaugeIndex];
+        }
+    }
+}
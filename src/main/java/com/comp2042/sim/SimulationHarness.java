@@ -0,0 +1,571 @@
+package com.comp2042.sim;
+
+import com.comp2042.ai.AutoPlayer;
+import com.comp2042.ai.Feature;
+import com.comp2042.ai.HeuristicBot;
+import com.comp2042.controllers.GameController;
+import com.comp2042.logic.board.SimpleBoard;
+import com.comp2042.logic.mode.GameMode;
+import com.comp2042.logic.mode.GameModes;
+import com.comp2042.logic.mode.NormalMode;
+import com.comp2042.managers.ScoreManager;
+import com.comp2042.replay.InputRecorder;
+import com.comp2042.replay.ReplayAction;
+import com.comp2042.replay.ReplayPlayer;
+import com.comp2042.util.GameConfiguration;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays many headless games in parallel and reports how fast the engine runs them.
+ * <p>
+ * <b>How it works:</b> Each game is a real {@link GameController} on a {@link SimpleBoard} with the
+ * configured {@link GameMode}, fed by an {@link InputSource} (or, with {@link Settings#bot}, an
+ * {@link AutoPlayer}) through the same code path replays use.
+ * A fixed pool of worker threads claims games from a shared counter until all are played. Game
+ * {@code i} always gets the same seed (derived from the base seed), and therefore the same bricks and
+ * inputs, no matter which worker plays it or how many workers there are.
+ * </p>
+ * <p>
+ * <b>What is measured:</b>
+ * <ul>
+ * <li>Throughput: pieces locked and games finished per second of wall time.</li>
+ * <li>Lock latency: the time taken by each input that locked a piece (merge, line clear, scoring
+ * and spawning the next brick), as p50/p99 from a {@link LatencyHistogram}.</li>
+ * <li>Allocation: bytes allocated by the worker threads per locked piece, read from the JVM's
+ * per-thread allocation counters where supported.</li>
+ * <li>Checksum: an order-independent digest of every game's outcome. Runs with the same settings
+ * must report the same checksum at any thread count; a difference means the engine is not
+ * deterministic (or an engine change altered the rules).</li>
+ * </ul>
+ * </p>
+ */
+public final class SimulationHarness {
+
+    private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+    private static final long INPUT_SALT = 0x5DEECE66DL;
+
+    /** Safety cap so a script that never drops a piece cannot spin forever. */
+    private static final int MAX_INPUTS_PER_PIECE = 500;
+
+    private final Settings settings;
+
+    /**
+     * Creates a harness for the given settings.
+     *
+     * @param settings what to simulate and how; later changes to it do not affect this harness.
+     */
+    public SimulationHarness(Settings settings) {
+        this.settings = settings.copy();
+    }
+
+    /**
+     * Plays every game and collects the measurements.
+     *
+     * @return the combined report of all workers.
+     * @throws IllegalStateException if a worker fails.
+     */
+    public Report run() {
+        AtomicInteger nextGame = new AtomicInteger();
+        List<Callable<Worker>> workers = new ArrayList<>();
+        for (int t = 0; t < settings.threads; t++) {
+            workers.add(() -> new Worker().playUntilDone(nextGame));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(settings.threads, runnable -> {
+            Thread thread = new Thread(runnable, "sim-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            long start = System.nanoTime();
+            List<Future<Worker>> futures = pool.invokeAll(workers);
+            long wallNanos = System.nanoTime() - start;
+
+            Report report = new Report(settings.threads, wallNanos);
+            for (Future<Worker> future : futures) {
+                report.merge(future.get());
+            }
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation worker failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Derives the seed of one game from the base seed (SplitMix64 finalizer), so neighbouring games
+     * get unrelated brick sequences.
+     *
+     * @param baseSeed the run's base seed.
+     * @param gameIndex the game number.
+     * @return the game's seed.
+     */
+    static long gameSeed(long baseSeed, int gameIndex) {
+        long z = baseSeed + (gameIndex + 1L) * SEED_STEP;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Plays games on one thread and keeps that thread's totals.
+     */
+    private final class Worker implements InputRecorder {
+
+        private final LatencyHistogram lockLatency = new LatencyHistogram();
+        private HeuristicBot bot;
+        private long pieces;
+        private long lines;
+        private long score;
+        private long checksum;
+        private int games;
+        private long allocatedBytes = -1;
+
+        // per-game state, written by the controller's recorder hooks
+        private boolean locked;
+        private boolean ended;
+        private int gamePieces;
+
+        Worker playUntilDone(AtomicInteger nextGame) {
+            long allocatedBefore = allocatedBytes();
+            int gameIndex;
+            while ((gameIndex = nextGame.getAndIncrement()) < settings.games) {
+                play(gameIndex);
+            }
+            long allocatedAfter = allocatedBytes();
+            if (allocatedBefore >= 0 && allocatedAfter >= 0) {
+                allocatedBytes = allocatedAfter - allocatedBefore;
+            }
+            return this;
+        }
+
+        private void play(int gameIndex) {
+            long seed = gameSeed(settings.seed, gameIndex);
+            GameController controller = new GameController(
+                    new SimpleBoard(GameConfiguration.BOARD_HEIGHT, GameConfiguration.BOARD_WIDTH),
+                    new ScoreManager(null), seed);
+            controller.setGameMode(GameModes.forName(settings.modeName));
+            controller.setInputRecorder(settings.exporter == null ? this : settings.exporter.recorder(this));
+            InputSource inputs;
+            if (settings.bot) {
+                if (bot == null) {
+                    bot = new HeuristicBot(settings.weights);
+                }
+                // registered before the game starts so the player sees the first brick
+                AutoPlayer player = new AutoPlayer(controller, bot, Double.POSITIVE_INFINITY);
+                controller.addObserver(player);
+                inputs = () -> {
+                    ReplayAction action = player.nextAction();
+                    return action != null ? action : ReplayAction.HARD_DROP;
+                };
+            } else if (settings.script != null) {
+                inputs = InputSource.script(settings.script);
+            } else {
+                inputs = InputSource.random(seed ^ INPUT_SALT);
+            }
+            controller.createNewGame(seed);
+
+            ended = false;
+            gamePieces = 0;
+            long inputBudget = (long) settings.maxPiecesPerGame * MAX_INPUTS_PER_PIECE;
+            for (long i = 0; i < inputBudget && !ended && gamePieces < settings.maxPiecesPerGame; i++) {
+                ReplayAction action = inputs.next();
+                locked = false;
+                long start = System.nanoTime();
+                ReplayPlayer.apply(controller, action);
+                if (locked) {
+                    lockLatency.record(System.nanoTime() - start);
+                }
+            }
+            if (!ended) {
+                // stopped by the piece cap: close the game so its totals are reported
+                controller.finishRecording();
+            }
+            games++;
+        }
+
+        @Override
+        public void onGameStarted(long seed, GameMode mode) {
+            checksum += seed;
+        }
+
+        @Override
+        public void onAction(ReplayAction action) {
+        }
+
+        @Override
+        public void onPieceLocked(long boardHash, int pieceScore) {
+            locked = true;
+            gamePieces++;
+            pieces++;
+        }
+
+        @Override
+        public void onGameEnded(int finalScore, int finalLines, int level, long boardHash) {
+            ended = true;
+            score += finalScore;
+            lines += finalLines;
+            checksum += gameSeed(boardHash, finalScore * 31 + finalLines);
+        }
+
+        private static long allocatedBytes() {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                    && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                return bean.getCurrentThreadAllocatedBytes();
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * What to simulate. Setters return {@code this} so settings can be chained.
+     */
+    public static final class Settings {
+
+        private int games = 1_000;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private long seed = 42L;
+        private String modeName = NormalMode.NAME;
+        private int maxPiecesPerGame = 10_000;
+        private List<ReplayAction> script;
+        private boolean bot;
+        private double[] weights = Feature.defaultWeights();
+        private TrainingExporter exporter;
+
+        /**
+         * @param games the number of games to play.
+         * @return these settings.
+         */
+        public Settings games(int games) {
+            if (games < 0) {
+                throw new IllegalArgumentException("Game count must not be negative: " + games);
+            }
+            this.games = games;
+            return this;
+        }
+
+        /**
+         * @param threads the number of worker threads.
+         * @return these settings.
+         */
+        public Settings threads(int threads) {
+            if (threads <= 0) {
+                throw new IllegalArgumentException("Thread count must be positive: " + threads);
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * @param seed the base seed every game seed is derived from.
+         * @return these settings.
+         */
+        public Settings seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * @param modeName the game mode, as returned by {@link GameMode#getName()}.
+         * @return these settings.
+         */
+        public Settings mode(String modeName) {
+            GameModes.forName(modeName); // fail fast on unknown names
+            this.modeName = modeName;
+            return this;
+        }
+
+        /**
+         * @param maxPiecesPerGame the number of locked pieces after which a game is stopped.
+         * @return these settings.
+         */
+        public Settings maxPiecesPerGame(int maxPiecesPerGame) {
+            if (maxPiecesPerGame <= 0) {
+                throw new IllegalArgumentException("Piece cap must be positive: " + maxPiecesPerGame);
+            }
+            this.maxPiecesPerGame = maxPiecesPerGame;
+            return this;
+        }
+
+        /**
+         * @param script inputs to repeat in every game, or {@code null} for random inputs.
+         * @return these settings.
+         */
+        public Settings script(List<ReplayAction> script) {
+            this.script = script == null ? null : List.copyOf(script);
+            return this;
+        }
+
+        /**
+         * @param bot whether a {@link HeuristicBot} plays the games instead of the script or random inputs.
+         * @return these settings.
+         */
+        public Settings bot(boolean bot) {
+            this.bot = bot;
+            return this;
+        }
+
+        /**
+         * @param weights the bot's weights, one per {@link Feature} by ordinal; copied.
+         * @return these settings.
+         */
+        public Settings weights(double[] weights) {
+            if (weights.length != Feature.count()) {
+                throw new IllegalArgumentException("Expected " + Feature.count() + " weights, got " + weights.length);
+            }
+            this.weights = weights.clone();
+            return this;
+        }
+
+        /**
+         * @param exporter where every placement of every game is exported to, or {@code null} for nowhere;
+         *                 shared by all workers and not closed by the harness.
+         * @return these settings.
+         */
+        public Settings export(TrainingExporter exporter) {
+            this.exporter = exporter;
+            return this;
+        }
+
+        Settings copy() {
+            return new Settings().games(games).threads(threads).seed(seed).mode(modeName)
+                    .maxPiecesPerGame(maxPiecesPerGame).script(script).bot(bot).weights(weights).export(exporter);
+        }
+    }
+
+    /**
+     * The combined measurements of one run.
+     */
+    public static final class Report {
+
+        private final int threads;
+        private final long wallNanos;
+        private final LatencyHistogram lockLatency = new LatencyHistogram();
+        private int games;
+        private long pieces;
+        private long lines;
+        private long score;
+        private long checksum;
+        private long allocatedBytes;
+
+        private Report(int threads, long wallNanos) {
+            this.threads = threads;
+            this.wallNanos = wallNanos;
+        }
+
+        private void merge(Worker worker) {
+            games += worker.games;
+            pieces += worker.pieces;
+            lines += worker.lines;
+            score += worker.score;
+            checksum += worker.checksum;
+            lockLatency.add(worker.lockLatency);
+            if (worker.allocatedBytes < 0 || allocatedBytes < 0) {
+                allocatedBytes = -1;
+            } else {
+                allocatedBytes += worker.allocatedBytes;
+            }
+        }
+
+        /**
+         * @return the number of worker threads used.
+         */
+        public int getThreads() {
+            return threads;
+        }
+
+        /**
+         * @return the number of games played.
+         */
+        public int getGames() {
+            return games;
+        }
+
+        /**
+         * @return the number of pieces locked in all games.
+         */
+        public long getPieces() {
+            return pieces;
+        }
+
+        /**
+         * @return the number of lines cleared in all games.
+         */
+        public long getLines() {
+            return lines;
+        }
+
+        /**
+         * @return the sum of the final scores of all games.
+         */
+        public long getTotalScore() {
+            return score;
+        }
+
+        /**
+         * @return the wall time of the run, in nanoseconds.
+         */
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        /**
+         * @return a digest of every game's outcome; equal settings give equal checksums.
+         */
+        public long getChecksum() {
+            return checksum;
+        }
+
+        /**
+         * @return pieces locked per second of wall time.
+         */
+        public double getPiecesPerSecond() {
+            return pieces * 1e9 / Math.max(1, wallNanos);
+        }
+
+        /**
+         * @return games finished per second of wall time.
+         */
+        public double getGamesPerSecond() {
+            return games * 1e9 / Math.max(1, wallNanos);
+        }
+
+        /**
+         * @return the lock latency histogram of all workers combined.
+         */
+        public LatencyHistogram getLockLatency() {
+            return lockLatency;
+        }
+
+        /**
+         * @return bytes allocated by the workers per locked piece, or -1 if the JVM cannot tell.
+         */
+        public double getBytesPerPiece() {
+            return allocatedBytes < 0 ? -1 : (double) allocatedBytes / Math.max(1, pieces);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "threads=%d games=%d pieces=%d lines=%d time=%.2f s%n"
+                            + "  %.0f pieces/s, %.1f games/s%n"
+                            + "  lock latency p50=%.2f us p99=%.2f us max=%.2f us%n"
+                            + "  allocation %s%n"
+                            + "  checksum %016x",
+                    threads, games, pieces, lines, wallNanos / 1e9,
+                    getPiecesPerSecond(), getGamesPerSecond(),
+                    lockLatency.percentile(0.50) / 1e3, lockLatency.percentile(0.99) / 1e3, lockLatency.getMax() / 1e3,
+                    allocatedBytes < 0 ? "unavailable" : String.format("%.0f bytes/piece", getBytesPerPiece()),
+                    checksum);
+        }
+    }
+
+    /**
+     * Runs the harness from the command line.
+     * <p>
+     * Usage: {@code SimulationHarness [--games N] [--threads N] [--seed N] [--mode NAME]
+     * [--max-pieces N] [--script FILE] [--bot] [--warmup N] [--scaling] [--export [DIR]]}.
+     * With {@code --bot} the games are played by the heuristic bot, which makes them realistic load:
+     * long games with frequent line clears.
+     * With {@code --scaling} the same run is repeated with 1, 2, 4, ... threads up to the number of
+     * cores, and a scaling table is printed.
+     * With {@code --export} the measured games are also streamed to training data shards (see
+     * {@link TrainingExporter}) in the given directory, {@value GameConfiguration#PATH_TRAINING_DIR} by
+     * default; the warm-up games are not.
+     * </p>
+     *
+     * @param args the options described above.
+     * @throws IOException if the script file cannot be read or the training data cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Settings settings = new Settings();
+        int warmupGames = 200;
+        boolean scaling = false;
+        Path exportDir = null;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            switch (option) {
+                case "--games" -> settings.games(Integer.parseInt(args[++i]));
+                case "--threads" -> settings.threads(Integer.parseInt(args[++i]));
+                case "--seed" -> settings.seed(Long.parseLong(args[++i]));
+                case "--mode" -> settings.mode(args[++i]);
+                case "--max-pieces" -> settings.maxPiecesPerGame(Integer.parseInt(args[++i]));
+                case "--script" -> settings.script(InputSource.parseScript(Files.readString(Path.of(args[++i]))));
+                case "--bot" -> settings.bot(true);
+                case "--warmup" -> warmupGames = Integer.parseInt(args[++i]);
+                case "--scaling" -> scaling = true;
+                case "--export" -> exportDir = Path.of(i + 1 < args.length && !args[i + 1].startsWith("--")
+                        ? args[++i] : GameConfiguration.PATH_TRAINING_DIR);
+                default -> {
+                    System.err.println("Unknown option: " + option);
+                    System.exit(2);
+                }
+            }
+        }
+
+        // let the JIT compile the engine before anything is measured
+        new SimulationHarness(settings.copy().games(warmupGames).seed(~settings.seed)).run();
+
+        if (exportDir != null) {
+            TrainingExporter exporter = new TrainingExporter(exportDir, new TrainingExporter.Settings());
+            try (exporter) {
+                settings.export(exporter);
+                runAndPrint(settings, scaling);
+            }
+            // printed once closing has flushed everything, so the totals are final
+            System.out.printf("exported %d records, %d bytes in %d shards to %s; games waited %.1f ms for the writer%n",
+                    exporter.getRecords(), exporter.getBytesWritten(), exporter.getShards(), exportDir,
+                    exporter.getStallNanos() / 1e6);
+        } else {
+            runAndPrint(settings, scaling);
+        }
+    }
+
+    private static void runAndPrint(Settings settings, boolean scaling) {
+        if (!scaling) {
+            System.out.println(new SimulationHarness(settings).run());
+            return;
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int t = 1; t < cores; t *= 2) {
+            threadCounts.add(t);
+        }
+        threadCounts.add(cores);
+
+        System.out.printf("%7s %12s %10s %8s %10s %10s %10s %12s %s%n", "threads", "pieces/s", "games/s",
+                "speedup", "efficiency", "p50 (us)", "p99 (us)", "bytes/piece", "checksum");
+        double baseline = 0;
+        Long expectedChecksum = null;
+        for (int threads : threadCounts) {
+            Report report = new SimulationHarness(settings.copy().threads(threads)).run();
+            if (baseline == 0) {
+                baseline = report.getPiecesPerSecond();
+                expectedChecksum = report.getChecksum();
+            }
+            double speedup = report.getPiecesPerSecond() / baseline;
+            System.out.printf("%7d %12.0f %10.1f %8.2f %9.0f%% %10.2f %10.2f %12.0f %016x%s%n", threads,
+                    report.getPiecesPerSecond(), report.getGamesPerSecond(), speedup, 100 * speedup / threads,
+                    report.getLockLatency().percentile(0.50) / 1e3, report.getLockLatency().percentile(0.99) / 1e3,
+                    report.getBytesPerPiece(), report.getChecksum(),
+                    report.getChecksum() == expectedChecksum ? "" : "  MISMATCH");
+        }
+    }
+}
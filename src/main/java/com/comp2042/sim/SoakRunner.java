@@ -0,0 +1,183 @@
+package com.comp2042.sim;
+
+import com.comp2042.controllers.GameController;
+import com.comp2042.logic.board.SimpleBoard;
+import com.comp2042.logic.mode.GameMode;
+import com.comp2042.logic.mode.NormalMode;
+import com.comp2042.logic.mode.ZenMode;
+import com.comp2042.managers.ScoreManager;
+import com.comp2042.model.GameObserver;
+import com.comp2042.model.ViewData;
+import com.comp2042.replay.ReplayPlayer;
+import com.comp2042.replay.ReplayRecorder;
+import com.comp2042.util.GameConfiguration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays the game engine non-stop for a long time and reports whether any resource keeps growing.
+ * <p>
+ * <b>What it exercises:</b> The run is divided into sessions that mirror how the UI is used. Each
+ * session builds a fresh {@link GameController} (as reloading the game scene does), alternates between
+ * Normal and Zen mode, records every game with a {@link ReplayRecorder} and restarts games on the same
+ * controller after each game over (as the restart button does). An observer that keeps nothing is
+ * attached, so every notification path runs.
+ * </p>
+ * <p>
+ * <b>What it reports:</b> A background thread feeds a {@link ResourceSampler} at a fixed interval, and
+ * the {@link TrendReport} is rewritten after every sample, so a run that is killed still leaves its
+ * latest report. The JavaFX layer has its own soak mode (scene graph gauges need the UI thread); this
+ * runner covers the engine alone.
+ * </p>
+ */
+public final class SoakRunner {
+
+    private final long durationMillis;
+    private final long sampleIntervalMillis;
+    private final int gamesPerSession;
+    private final Path outputDirectory;
+    private final ResourceSampler sampler = new ResourceSampler();
+
+    private volatile long gamesPlayed;
+    private volatile long sessions;
+
+    /**
+     * Creates a soak run.
+     *
+     * @param durationMillis how long to keep playing.
+     * @param sampleIntervalMillis the time between samples.
+     * @param gamesPerSession the number of games before the controller is replaced.
+     * @param outputDirectory where the report is written, or null to skip writing.
+     */
+    public SoakRunner(long durationMillis, long sampleIntervalMillis, int gamesPerSession, Path outputDirectory) {
+        this.durationMillis = durationMillis;
+        this.sampleIntervalMillis = sampleIntervalMillis;
+        this.gamesPerSession = gamesPerSession;
+        this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * Plays until the duration has passed, sampling in the background.
+     *
+     * @return the final trend report.
+     */
+    public TrendReport run() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "soak-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::sampleAndWrite, 0, sampleIntervalMillis, TimeUnit.MILLISECONDS);
+
+        long deadline = System.nanoTime() + durationMillis * 1_000_000L;
+        long seed = 1;
+        try {
+            while (System.nanoTime() < deadline) {
+                GameMode mode = sessions % 2 == 0 ? new NormalMode() : new ZenMode();
+                playSession(mode, seed++, deadline);
+                sessions++;
+            }
+        } finally {
+            scheduler.shutdownNow();
+            try {
+                scheduler.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        sampleAndWrite();
+        return sampler.report();
+    }
+
+    private void playSession(GameMode mode, long seed, long deadline) {
+        GameController controller = new GameController(
+                new SimpleBoard(GameConfiguration.BOARD_HEIGHT, GameConfiguration.BOARD_WIDTH),
+                new ScoreManager(null), seed);
+        controller.setGameMode(mode);
+        int[] endedGames = {0};
+        controller.setInputRecorder(new ReplayRecorder(replay -> endedGames[0]++));
+        controller.addObserver(new DiscardingObserver());
+        controller.createNewGame(seed);
+
+        InputSource inputs = InputSource.random(seed);
+        int started = 0;
+        while (started < gamesPerSession && System.nanoTime() < deadline) {
+            int before = endedGames[0];
+            // check the clock every few hundred inputs rather than on every one
+            for (int i = 0; i < 256 && endedGames[0] == before; i++) {
+                ReplayPlayer.apply(controller, inputs.next());
+            }
+            if (endedGames[0] != before) {
+                started++;
+                gamesPlayed++;
+                // like the restart button; Zen has already restarted, so this only replaces an empty game
+                controller.createNewGame();
+            }
+        }
+        controller.finishRecording();
+    }
+
+    private void sampleAndWrite() {
+        try {
+            sampler.sample();
+            if (outputDirectory != null) {
+                sampler.report().write(outputDirectory);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write soak report: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the number of games finished so far.
+     */
+    public long getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    /**
+     * @return the number of sessions (controller lifetimes) completed so far.
+     */
+    public long getSessions() {
+        return sessions;
+    }
+
+    /**
+     * Receives every notification and keeps nothing, like a renderer that only draws.
+     */
+    private static final class DiscardingObserver implements GameObserver {
+        @Override public void onBoardUpdated(ViewData viewData) {}
+        @Override public void onGameBackgroundUpdated(int[][] boardMatrix) {}
+        @Override public void onScoreUpdated(int score) {}
+        @Override public void onLevelUpdated(int level) {}
+        @Override public void onLineCleared(int lines, String message) {}
+        @Override public void onGameOver() {}
+        @Override public void onBrickDropped() {}
+        @Override public void onDangerStateChanged(boolean isDanger) {}
+    }
+
+    /**
+     * Runs a soak from the command line.
+     * Usage: {@code SoakRunner [minutes] [sampleSeconds] [gamesPerSession] [outputDir]}.
+     * Exits with status 1 if monotonic growth was detected.
+     *
+     * @param args optional duration (default 60), sample interval (default 10), games per session
+     *             (default 20) and output directory (default {@code soak}).
+     */
+    public static void main(String[] args) {
+        double minutes = args.length > 0 ? Double.parseDouble(args[0]) : 60;
+        long sampleSeconds = args.length > 1 ? Long.parseLong(args[1]) : 10;
+        int gamesPerSession = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        Path output = Path.of(args.length > 3 ? args[3] : GameConfiguration.PATH_SOAK_DIR);
+
+        SoakRunner runner = new SoakRunner((long) (minutes * 60_000), sampleSeconds * 1000, gamesPerSession, output);
+        TrendReport report = runner.run();
+        System.out.printf("%d games in %d sessions%n", runner.getGamesPlayed(), runner.getSessions());
+        System.out.print(report.toText());
+        System.exit(report.hasGrowth() ? 1 : 0);
+    }
+}
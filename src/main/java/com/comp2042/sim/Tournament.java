@@ -0,0 +1,1173 @@
+package com.comp2042.sim;
+
+import com.comp2042.ai.AutoPlayer;
+import com.comp2042.ai.BeamSearchBot;
+import com.comp2042.ai.Feature;
+import com.comp2042.ai.HeuristicBot;
+import com.comp2042.ai.PlacementPlanner;
+import com.comp2042.bot.ExternalBot;
+import com.comp2042.controllers.GameController;
+import com.comp2042.logic.board.SimpleBoard;
+import com.comp2042.logic.mode.GameMode;
+import com.comp2042.logic.mode.GameModes;
+import com.comp2042.logic.mode.NormalMode;
+import com.comp2042.managers.ScoreManager;
+import com.comp2042.replay.InputRecorder;
+import com.comp2042.replay.ReplayAction;
+import com.comp2042.replay.ReplayPlayer;
+import com.comp2042.util.GameConfiguration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Ranks bots against each other: plays matches between {@link PlacementPlanner}s and keeps Elo
+ * ratings and a points table.
+ * <p>
+ * <b>Matches:</b> A match is a race on shared seeds: both entrants play the same
+ * {@link Settings#gamesPerMatch} games (same bricks, same {@link GameMode}), each on its own board, and
+ * every game is won by whoever did better under the {@link Rule}. The entrant who wins more of the
+ * games wins the match. All matches of a round use the round's seeds, so an entrant plays each seed
+ * once per round and its result is compared with every opponent it meets in that round.
+ * </p>
+ * <p>
+ * <b>Formats:</b> {@link Format#ROUND_ROBIN} pairs everyone with everyone once (circle method);
+ * {@link Format#SWISS} plays a fixed number of rounds, pairing entrants with equal points against
+ * each other and avoiding rematches whenever the field can still be paired. With an odd number of
+ * entrants one sits out each round and gets a bye worth a match win, without a rating change.
+ * </p>
+ * <p>
+ * <b>Ratings:</b> Elo, updated per game against the opponent's rating before the match, with the
+ * matches applied in a fixed order, so the ratings do not depend on which thread finished first.
+ * Standings are ordered by match points, then rating.
+ * </p>
+ * <p>
+ * <b>Parallelism:</b> The games of a round are spread over a fixed thread pool. Planners are not
+ * thread-safe, so every game borrows an instance of its entrant's planner from a per-entrant pool and
+ * returns it afterwards; at most one instance per thread and entrant is ever created.
+ * </p>
+ * <p>
+ * <b>Checkpoints and reports:</b> After every round the results of all matches so far are written
+ * to {@code tournament-checkpoint.txt} (via a temporary file and a move), and the standings to
+ * {@code tournament-standings.csv} and {@code tournament-report.json}. Ratings, points and Swiss
+ * pairings are all derived from the recorded results, so a tournament whose directory holds a
+ * checkpoint resumes after its last round and ends where an uninterrupted run would.
+ * </p>
+ */
+public final class Tournament {
+
+    private static final String CHECKPOINT_FILE = "tournament-checkpoint.txt";
+    private static final String STANDINGS_FILE = "tournament-standings.csv";
+    private static final String REPORT_FILE = "tournament-report.json";
+    private static final int CHECKPOINT_VERSION = 2;
+    private static final long ROUND_SALT = 0x6A09E667F3BCC909L;
+
+    /** Safety cap so a planner that never drops a piece cannot spin forever. */
+    private static final int MAX_INPUTS_PER_PIECE = 500;
+
+    /** Pairings tried per Swiss round before falling back to pairing the next in line. */
+    private static final int PAIRING_BUDGET = 100_000;
+
+    /**
+     * How entrants are paired.
+     */
+    public enum Format {
+        /** Everyone meets everyone once. */
+        ROUND_ROBIN,
+        /** A fixed number of rounds, pairing entrants with equal points. */
+        SWISS
+    }
+
+    /**
+     * How a single game between two entrants is decided.
+     */
+    public enum Rule {
+        /** Higher final score wins, then more lines; a tie is a draw. */
+        SCORE,
+        /**
+         * Survival first: an entrant still alive at the piece cap beats one that topped out, and of
+         * two that topped out the one that locked more pieces wins. Otherwise as {@link #SCORE}.
+         */
+        SURVIVAL
+    }
+
+    private final List<Entrant> entrants;
+    private final Settings settings;
+    private final List<Match> matches = new ArrayList<>();
+    private final double[] ratings;
+    private final double[] points;
+    private int rounds;
+
+    /**
+     * Creates a tournament.
+     *
+     * @param entrants the bots, at least two, with distinct names.
+     * @param settings how to play; later changes to it do not affect this tournament.
+     * @throws IllegalArgumentException if there are fewer than two entrants or names repeat.
+     */
+    public Tournament(List<Entrant> entrants, Settings settings) {
+        if (entrants.size() < 2) {
+            throw new IllegalArgumentException("A tournament needs at least two entrants, got " + entrants.size());
+        }
+        if (entrants.stream().map(Entrant::getName).distinct().count() != entrants.size()) {
+            throw new IllegalArgumentException("Entrant names must be distinct: " + entrantNames(entrants));
+        }
+        this.entrants = List.copyOf(entrants);
+        this.settings = settings.copy();
+        this.ratings = new double[entrants.size()];
+        this.points = new double[entrants.size()];
+        Arrays.fill(ratings, this.settings.initialRating);
+    }
+
+    /**
+     * @return the number of rounds the tournament has in total.
+     */
+    public int getRoundCount() {
+        if (settings.format == Format.ROUND_ROBIN) {
+            int n = entrants.size();
+            return n % 2 == 0 ? n - 1 : n;
+        }
+        return settings.rounds;
+    }
+
+    /**
+     * Plays the remaining rounds, resuming from the checkpoint in the settings' directory if there is
+     * one.
+     *
+     * @param listener called with every finished match, byes included, e.g. to print progress.
+     * @return the standings after the last round.
+     * @throws IOException if the checkpoint or a report cannot be read or written.
+     * @throws IllegalStateException if the checkpoint is for another tournament, or a game fails.
+     */
+    public List<Standing> run(Consumer<Match> listener) throws IOException {
+        Path checkpoint = settings.directory.resolve(CHECKPOINT_FILE);
+        if (rounds == 0 && Files.exists(checkpoint)) {
+            load(checkpoint);
+        }
+        int total = getRoundCount();
+        if (rounds >= total) {
+            return getStandings();
+        }
+        List<ConcurrentLinkedQueue<PlacementPlanner>> planners = new ArrayList<>();
+        for (int e = 0; e < entrants.size(); e++) {
+            planners.add(new ConcurrentLinkedQueue<>());
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(settings.threads, runnable -> {
+            Thread thread = new Thread(runnable, "tournament-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            while (rounds < total) {
+                List<Match> round = playRound(rounds, pool, planners);
+                for (Match match : round) {
+                    apply(match);
+                }
+                matches.addAll(round);
+                rounds++;
+                save();
+                round.forEach(listener);
+            }
+        } finally {
+            pool.shutdownNow();
+            for (ConcurrentLinkedQueue<PlacementPlanner> queue : planners) {
+                for (PlacementPlanner planner : queue) {
+                    if (planner instanceof AutoCloseable closeable) {
+                        try {
+                            closeable.close();
+                        } catch (Exception ignored) {
+                            // the planner is discarded either way
+                        }
+                    }
+                }
+            }
+        }
+        return getStandings();
+    }
+
+    private List<Match> playRound(int round, ExecutorService pool, List<ConcurrentLinkedQueue<PlacementPlanner>> planners) {
+        int[][] pairs = settings.format == Format.ROUND_ROBIN ? roundRobinPairs(round) : swissPairs();
+
+        // every entrant that plays this round plays the round's seeds once
+        boolean[] playing = new boolean[entrants.size()];
+        for (int[] pair : pairs) {
+            if (pair[1] >= 0) {
+                playing[pair[0]] = true;
+                playing[pair[1]] = true;
+            }
+        }
+        int games = settings.gamesPerMatch;
+        List<Callable<GameResult>> tasks = new ArrayList<>();
+        for (int e = 0; e < entrants.size(); e++) {
+            for (int g = 0; g < games && playing[e]; g++) {
+                int entrant = e;
+                long seed = SimulationHarness.gameSeed(settings.seed ^ ROUND_SALT, round * games + g);
+                int game = g;
+                tasks.add(() -> play(entrant, game, seed, planners.get(entrant)));
+            }
+        }
+        GameResult[][] results = new GameResult[entrants.size()][games];
+        try {
+            for (Future<GameResult> future : pool.invokeAll(tasks)) {
+                GameResult result = future.get();
+                results[result.entrant][result.game] = result;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tournament interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Tournament game failed", e.getCause());
+        }
+
+        List<Match> played = new ArrayList<>();
+        for (int[] pair : pairs) {
+            int a = pair[0];
+            int b = pair[1];
+            if (b < 0) {
+                played.add(new Match(round + 1, entrants.get(a).getName(), null, 0, 0, 0, 0, 0));
+                continue;
+            }
+            int winsA = 0;
+            int winsB = 0;
+            long scoreA = 0;
+            long scoreB = 0;
+            for (int g = 0; g < games; g++) {
+                int outcome = compare(results[a][g], results[b][g]);
+                if (outcome > 0) {
+                    winsA++;
+                } else if (outcome < 0) {
+                    winsB++;
+                }
+                scoreA += results[a][g].score;
+                scoreB += results[b][g].score;
+            }
+            played.add(new Match(round + 1, entrants.get(a).getName(), entrants.get(b).getName(),
+                    winsA, games - winsA - winsB, winsB, scoreA, scoreB));
+        }
+        return played;
+    }
+
+    /** Positive if {@code a} won the game, negative if {@code b} did, 0 for a draw. */
+    private int compare(GameResult a, GameResult b) {
+        if (settings.rule == Rule.SURVIVAL) {
+            if (a.toppedOut != b.toppedOut) {
+                return a.toppedOut ? -1 : 1;
+            }
+            if (a.toppedOut && a.pieces != b.pieces) {
+                return Integer.compare(a.pieces, b.pieces);
+            }
+        }
+        if (a.score != b.score) {
+            return Integer.compare(a.score, b.score);
+        }
+        return Integer.compare(a.lines, b.lines);
+    }
+
+    /** Circle method: the first entrant stays put, the others rotate one place per round. */
+    private int[][] roundRobinPairs(int round) {
+        int n = entrants.size();
+        int slots = n % 2 == 0 ? n : n + 1;
+        int[] order = new int[slots];
+        order[0] = 0;
+        for (int i = 1; i < slots; i++) {
+            int e = 1 + Math.floorMod(i - 1 + round, slots - 1);
+            order[i] = e < n ? e : -1;
+        }
+        int[][] pairs = new int[slots / 2][];
+        for (int i = 0; i < slots / 2; i++) {
+            int a = order[i];
+            int b = order[slots - 1 - i];
+            pairs[i] = a < 0 ? new int[]{b, -1} : new int[]{a, b};
+        }
+        return pairs;
+    }
+
+    /** Swiss pairing from the current points and ratings, as derived from the recorded matches. */
+    private int[][] swissPairs() {
+        int n = entrants.size();
+        Integer[] order = new Integer[n];
+        for (int e = 0; e < n; e++) {
+            order[e] = e;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(e -> -points[e])
+                .thenComparingDouble(e -> -ratings[e]).thenComparingInt(e -> e));
+        boolean[] paired = new boolean[n];
+        List<int[]> pairs = new ArrayList<>();
+        if (n % 2 == 1) {
+            // the lowest-ranked entrant without a bye sits out
+            int bye = order[n - 1];
+            for (int i = n - 1; i >= 0; i--) {
+                if (!hadBye(entrants.get(order[i]).getName())) {
+                    bye = order[i];
+                    break;
+                }
+            }
+            paired[bye] = true;
+            pairs.add(new int[]{bye, -1});
+        }
+        boolean[][] met = new boolean[n][n];
+        for (Match match : matches) {
+            if (!match.isBye()) {
+                int a = indexOf(match.first);
+                int b = indexOf(match.second);
+                met[a][b] = true;
+                met[b][a] = true;
+            }
+        }
+        int fixed = pairs.size();
+        if (!pairWithoutRematches(order, paired, met, pairs, new int[]{PAIRING_BUDGET})) {
+            // every way to pair the field repeats a match (or the search gave up): take the next in line
+            pairs.subList(fixed, pairs.size()).clear();
+            for (int i = 0; i < n; i++) {
+                int a = order[i];
+                if (paired[a]) {
+                    continue;
+                }
+                int opponent = -1;
+                for (int j = i + 1; j < n && opponent < 0; j++) {
+                    if (!paired[order[j]]) {
+                        opponent = order[j];
+                    }
+                }
+                paired[a] = true;
+                paired[opponent] = true;
+                pairs.add(new int[]{a, opponent});
+            }
+        }
+        return pairs.toArray(new int[0][]);
+    }
+
+    /**
+     * Pairs the highest-ranked unpaired entrant with the nearest-ranked one it has not met, and
+     * backtracks when the rest of the field cannot be paired that way.
+     *
+     * @return whether everyone was paired; if not, {@code paired} and {@code pairs} are as on entry.
+     */
+    private static boolean pairWithoutRematches(Integer[] order, boolean[] paired, boolean[][] met,
+                                                List<int[]> pairs, int[] budget) {
+        int first = 0;
+        while (first < order.length && paired[order[first]]) {
+            first++;
+        }
+        if (first == order.length) {
+            return true;
+        }
+        int a = order[first];
+        paired[a] = true;
+        for (int j = first + 1; j < order.length && budget[0] > 0; j++) {
+            int b = order[j];
+            if (paired[b] || met[a][b]) {
+                continue;
+            }
+            budget[0]--;
+            paired[b] = true;
+            pairs.add(new int[]{a, b});
+            if (pairWithoutRematches(order, paired, met, pairs, budget)) {
+                return true;
+            }
+            pairs.remove(pairs.size() - 1);
+            paired[b] = false;
+        }
+        paired[a] = false;
+        return false;
+    }
+
+    private boolean hadBye(String name) {
+        for (Match match : matches) {
+            if (match.isBye() && match.first.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Adds a match to the points table and the ratings. */
+    private void apply(Match match) {
+        int a = indexOf(match.first);
+        if (match.isBye()) {
+            points[a] += 1;
+            return;
+        }
+        int b = indexOf(match.second);
+        points[a] += match.winsA > match.winsB ? 1 : match.winsA == match.winsB ? 0.5 : 0;
+        points[b] += match.winsB > match.winsA ? 1 : match.winsA == match.winsB ? 0.5 : 0;
+        int games = match.getGames();
+        double expectedA = 1 / (1 + Math.pow(10, (ratings[b] - ratings[a]) / 400));
+        double actualA = match.winsA + 0.5 * match.draws;
+        double change = settings.kFactor * (actualA - games * expectedA);
+        ratings[a] += change;
+        ratings[b] -= change;
+    }
+
+    private int indexOf(String name) {
+        for (int e = 0; e < entrants.size(); e++) {
+            if (entrants.get(e).getName().equals(name)) {
+                return e;
+            }
+        }
+        throw new IllegalStateException("Unknown entrant in checkpoint: " + name);
+    }
+
+    private GameResult play(int entrant, int game, long seed, ConcurrentLinkedQueue<PlacementPlanner> planners) {
+        PlacementPlanner planner = planners.poll();
+        if (planner == null) {
+            planner = entrants.get(entrant).newPlanner(Duration.ofMillis(settings.botMoveMillis));
+        }
+        try {
+            GameController controller = new GameController(
+                    new SimpleBoard(GameConfiguration.BOARD_HEIGHT, GameConfiguration.BOARD_WIDTH),
+                    new ScoreManager(null), seed);
+            controller.setGameMode(GameModes.forName(settings.modeName));
+            GameResult result = new GameResult(entrant, game);
+            controller.setInputRecorder(result);
+            AutoPlayer player = new AutoPlayer(controller, planner, Double.POSITIVE_INFINITY);
+            controller.addObserver(player);
+            controller.createNewGame(seed);
+
+            long inputBudget = (long) settings.maxPiecesPerGame * MAX_INPUTS_PER_PIECE;
+            for (long i = 0; i < inputBudget && !result.ended && result.pieces < settings.maxPiecesPerGame; i++) {
+                ReplayAction action = player.nextAction();
+                ReplayPlayer.apply(controller, action != null ? action : ReplayAction.HARD_DROP);
+            }
+            result.toppedOut = result.ended;
+            if (!result.ended) {
+                // stopped by the piece cap: close the game so its totals are reported
+                controller.finishRecording();
+            }
+            return result;
+        } finally {
+            planners.add(planner);
+        }
+    }
+
+    /**
+     * The outcome of one entrant's game, collected through the controller's recorder hooks.
+     */
+    private static final class GameResult implements InputRecorder {
+
+        private final int entrant;
+        private final int game;
+        private int pieces;
+        private int score;
+        private int lines;
+        private boolean ended;
+        private boolean toppedOut;
+
+        GameResult(int entrant, int game) {
+            this.entrant = entrant;
+            this.game = game;
+        }
+
+        @Override
+        public void onGameStarted(long seed, GameMode mode) {
+        }
+
+        @Override
+        public void onAction(ReplayAction action) {
+        }
+
+        @Override
+        public void onPieceLocked(long boardHash, int pieceScore) {
+            pieces++;
+        }
+
+        @Override
+        public void onGameEnded(int finalScore, int finalLines, int level, long boardHash) {
+            ended = true;
+            score = finalScore;
+            lines = finalLines;
+        }
+    }
+
+    // --- checkpoint and reports ---
+
+    private String identity() {
+        return "entrants=" + entrantNames(entrants) + "\nformat=" + settings.format + "\nrule=" + settings.rule
+                + "\nmode=" + settings.modeName + "\nseed=" + settings.seed + "\ngamesPerMatch=" + settings.gamesPerMatch
+                + "\nmaxPieces=" + settings.maxPiecesPerGame + "\ninitialRating=" + settings.initialRating
+                + "\nkFactor=" + settings.kFactor + "\nbotMoveMillis=" + settings.botMoveMillis + "\n";
+    }
+
+    private static String entrantNames(List<Entrant> entrants) {
+        StringBuilder names = new StringBuilder();
+        for (Entrant entrant : entrants) {
+            if (!names.isEmpty()) {
+                names.append(',');
+            }
+            names.append(entrant.getName());
+        }
+        return names.toString();
+    }
+
+    private void save() throws IOException {
+        StringBuilder text = new StringBuilder("# tournament checkpoint\n");
+        text.append("version=").append(CHECKPOINT_VERSION).append('\n');
+        text.append(identity());
+        text.append("rounds=").append(rounds).append('\n');
+        for (Match match : matches) {
+            text.append("match=").append(match.toCsv()).append('\n');
+        }
+        Files.createDirectories(settings.directory);
+        Path target = settings.directory.resolve(CHECKPOINT_FILE);
+        Path temporary = settings.directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temporary, text);
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.writeString(settings.directory.resolve(STANDINGS_FILE), toCsv());
+        Files.writeString(settings.directory.resolve(REPORT_FILE), toJson());
+    }
+
+    private void load(Path checkpoint) throws IOException {
+        Map<String, String> values = new LinkedHashMap<>();
+        List<Match> recorded = new ArrayList<>();
+        for (String line : Files.readAllLines(checkpoint)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            int split = line.indexOf('=');
+            if (split < 0) {
+                throw new IllegalStateException("Malformed checkpoint line: " + line);
+            }
+            String key = line.substring(0, split);
+            String value = line.substring(split + 1);
+            if (key.equals("match")) {
+                recorded.add(Match.parseCsv(value));
+            } else {
+                values.put(key, value);
+            }
+        }
+        if (!String.valueOf(CHECKPOINT_VERSION).equals(values.get("version"))) {
+            throw new IllegalStateException("Unsupported checkpoint version: " + values.get("version"));
+        }
+        StringBuilder stored = new StringBuilder();
+        for (String key : List.of("entrants", "format", "rule", "mode", "seed", "gamesPerMatch", "maxPieces",
+                "initialRating", "kFactor", "botMoveMillis")) {
+            stored.append(key).append('=').append(values.get(key)).append('\n');
+        }
+        if (!identity().contentEquals(stored)) {
+            throw new IllegalStateException("Checkpoint is for another tournament:\n" + stored);
+        }
+        for (Match match : recorded) {
+            apply(match);
+        }
+        matches.clear();
+        matches.addAll(recorded);
+        rounds = Integer.parseInt(values.get("rounds"));
+    }
+
+    /**
+     * @return the entrants ordered by match points, then rating.
+     */
+    public List<Standing> getStandings() {
+        List<Standing> standings = new ArrayList<>();
+        for (int e = 0; e < entrants.size(); e++) {
+            String name = entrants.get(e).getName();
+            int played = 0;
+            int won = 0;
+            int drawn = 0;
+            int lost = 0;
+            long score = 0;
+            int games = 0;
+            for (Match match : matches) {
+                if (match.isBye() || !match.first.equals(name) && !match.second.equals(name)) {
+                    continue;
+                }
+                boolean first = match.first.equals(name);
+                int mine = first ? match.winsA : match.winsB;
+                int theirs = first ? match.winsB : match.winsA;
+                played++;
+                if (mine > theirs) {
+                    won++;
+                } else if (mine == theirs) {
+                    drawn++;
+                } else {
+                    lost++;
+                }
+                score += first ? match.scoreA : match.scoreB;
+                games += match.getGames();
+            }
+            standings.add(new Standing(name, ratings[e], points[e], played, won, drawn, lost,
+                    games == 0 ? 0 : (double) score / games));
+        }
+        standings.sort(Comparator.comparingDouble(Standing::getPoints).reversed()
+                .thenComparing(Comparator.comparingDouble(Standing::getRating).reversed()));
+        return standings;
+    }
+
+    /**
+     * @return every match played so far, in order.
+     */
+    public List<Match> getMatches() {
+        return List.copyOf(matches);
+    }
+
+    /**
+     * Formats the standings: one row per entrant, best first.
+     *
+     * @return the CSV text.
+     */
+    public String toCsv() {
+        StringBuilder csv = new StringBuilder(Standing.CSV_HEADER).append('\n');
+        int rank = 1;
+        for (Standing standing : getStandings()) {
+            csv.append(rank++).append(',').append(standing.toCsv()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Formats the whole tournament: its settings, the standings and every match.
+     *
+     * @return the JSON text.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"format\": \"").append(settings.format).append("\",\n");
+        json.append("  \"rule\": \"").append(settings.rule).append("\",\n");
+        json.append("  \"mode\": \"").append(settings.modeName).append("\",\n");
+        json.append("  \"seed\": ").append(settings.seed).append(",\n");
+        json.append("  \"gamesPerMatch\": ").append(settings.gamesPerMatch).append(",\n");
+        json.append("  \"maxPiecesPerGame\": ").append(settings.maxPiecesPerGame).append(",\n");
+        json.append("  \"botMoveMillis\": ").append(settings.botMoveMillis).append(",\n");
+        json.append("  \"rounds\": ").append(rounds).append(",\n");
+        json.append("  \"totalRounds\": ").append(getRoundCount()).append(",\n");
+        json.append("  \"standings\": [");
+        List<Standing> standings = getStandings();
+        for (int i = 0; i < standings.size(); i++) {
+            Standing s = standings.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append(String.format(Locale.ROOT, "    {\"rank\": %d, \"name\": \"%s\", \"rating\": %.1f, \"points\": %s, "
+                            + "\"matches\": %d, \"wins\": %d, \"draws\": %d, \"losses\": %d, \"meanScore\": %.1f}",
+                    i + 1, s.name, s.rating, s.points, s.matches, s.wins, s.draws, s.losses, s.meanScore));
+        }
+        json.append("\n  ],\n  \"matches\": [");
+        for (int i = 0; i < matches.size(); i++) {
+            Match m = matches.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append(String.format(Locale.ROOT, "    {\"round\": %d, \"first\": \"%s\", \"second\": %s, \"winsFirst\": %d, "
+                            + "\"draws\": %d, \"winsSecond\": %d, \"scoreFirst\": %d, \"scoreSecond\": %d}",
+                    m.round, m.first, m.isBye() ? "null" : "\"" + m.second + "\"", m.winsA, m.draws, m.winsB,
+                    m.scoreA, m.scoreB));
+        }
+        json.append("\n  ]\n}\n");
+        return json.toString();
+    }
+
+    /**
+     * A bot taking part: a name and a way to create its planner.
+     */
+    public static final class Entrant {
+
+        private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_.-]+");
+
+        private final String name;
+        private final Supplier<? extends PlacementPlanner> factory;
+        private final List<String> command;
+
+        /**
+         * @param name a short name of letters, digits, {@code _ . -}; it appears in reports and checkpoints.
+         * @param factory creates a planner; called once per thread that plays for this entrant. A
+         *                planner that is {@link AutoCloseable} is closed when the tournament run ends.
+         * @throws IllegalArgumentException if the name contains other characters.
+         */
+        public Entrant(String name, Supplier<? extends PlacementPlanner> factory) {
+            this(name, factory, null);
+        }
+
+        private Entrant(String name, Supplier<? extends PlacementPlanner> factory, List<String> command) {
+            if (!NAME.matcher(name).matches()) {
+                throw new IllegalArgumentException("Entrant names may only use letters, digits, '_', '.' and '-': " + name);
+            }
+            this.name = name;
+            this.factory = factory;
+            this.command = command;
+        }
+
+        /**
+         * @param name the entrant's name.
+         * @param weights the heuristic weights, one per {@link Feature} by ordinal; copied.
+         * @return an entrant playing a greedy {@link HeuristicBot}.
+         */
+        public static Entrant heuristic(String name, double[] weights) {
+            double[] copy = weights.clone();
+            return new Entrant(name, () -> new HeuristicBot(copy));
+        }
+
+        /**
+         * @param name the entrant's name.
+         * @return an entrant playing the default {@link BeamSearchBot}.
+         */
+        public static Entrant beam(String name) {
+            return new Entrant(name, BeamSearchBot::new);
+        }
+
+        /**
+         * @param name the entrant's name.
+         * @param command the bot program and its arguments, see {@link ExternalBot}.
+         * @return an entrant playing an external bot; every thread launches its own process, which
+         *         may think for {@link Settings#botMoveMillis} about each move.
+         */
+        public static Entrant external(String name, List<String> command) {
+            return new Entrant(name, null, List.copyOf(command));
+        }
+
+        PlacementPlanner newPlanner(Duration botMoveTime) {
+            if (command == null) {
+                return factory.get();
+            }
+            try {
+                return ExternalBot.launch(command, true, botMoveTime);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start bot " + name, e);
+            }
+        }
+
+        /**
+         * @return the entrant's name.
+         */
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * The result of one pairing in one round, or a bye.
+     */
+    public static final class Match {
+
+        private final int round;
+        private final String first;
+        private final String second;
+        private final int winsA;
+        private final int draws;
+        private final int winsB;
+        private final long scoreA;
+        private final long scoreB;
+
+        private Match(int round, String first, String second, int winsA, int draws, int winsB,
+                      long scoreA, long scoreB) {
+            this.round = round;
+            this.first = first;
+            this.second = second;
+            this.winsA = winsA;
+            this.draws = draws;
+            this.winsB = winsB;
+            this.scoreA = scoreA;
+            this.scoreB = scoreB;
+        }
+
+        private String toCsv() {
+            return round + "," + first + "," + (second == null ? "" : second) + "," + winsA + "," + draws + ","
+                    + winsB + "," + scoreA + "," + scoreB;
+        }
+
+        private static Match parseCsv(String line) {
+            String[] p = line.split(",", -1);
+            if (p.length != 8) {
+                throw new IllegalStateException("Malformed match: " + line);
+            }
+            return new Match(Integer.parseInt(p[0]), p[1], p[2].isEmpty() ? null : p[2], Integer.parseInt(p[3]),
+                    Integer.parseInt(p[4]), Integer.parseInt(p[5]), Long.parseLong(p[6]), Long.parseLong(p[7]));
+        }
+
+        /**
+         * @return the round number, starting at 1.
+         */
+        public int getRound() {
+            return round;
+        }
+
+        /**
+         * @return the first entrant's name; for a bye, the entrant who sat out.
+         */
+        public String getFirst() {
+            return first;
+        }
+
+        /**
+         * @return the second entrant's name, or {@code null} for a bye.
+         */
+        public String getSecond() {
+            return second;
+        }
+
+        /**
+         * @return whether the first entrant sat this round out.
+         */
+        public boolean isBye() {
+            return second == null;
+        }
+
+        /**
+         * @return the games won by the first entrant.
+         */
+        public int getFirstWins() {
+            return winsA;
+        }
+
+        /**
+         * @return the games neither entrant won.
+         */
+        public int getDraws() {
+            return draws;
+        }
+
+        /**
+         * @return the games won by the second entrant.
+         */
+        public int getSecondWins() {
+            return winsB;
+        }
+
+        /**
+         * @return the number of games in the match; 0 for a bye.
+         */
+        public int getGames() {
+            return winsA + draws + winsB;
+        }
+
+        /**
+         * @return the first entrant's total score over the match.
+         */
+        public long getFirstScore() {
+            return scoreA;
+        }
+
+        /**
+         * @return the second entrant's total score over the match.
+         */
+        public long getSecondScore() {
+            return scoreB;
+        }
+
+        @Override
+        public String toString() {
+            if (isBye()) {
+                return String.format("round %3d  %-16s bye", round, first);
+            }
+            return String.format("round %3d  %-16s %3d - %-3d %-16s (%d draws, score %d vs %d)",
+                    round, first, winsA, winsB, second, draws, scoreA, scoreB);
+        }
+    }
+
+    /**
+     * One row of the standings.
+     */
+    public static final class Standing {
+
+        static final String CSV_HEADER = "rank,name,rating,points,matches,wins,draws,losses,meanScore";
+
+        private final String name;
+        private final double rating;
+        private final double points;
+        private final int matches;
+        private final int wins;
+        private final int draws;
+        private final int losses;
+        private final double meanScore;
+
+        private Standing(String name, double rating, double points, int matches, int wins, int draws, int losses,
+                         double meanScore) {
+            this.name = name;
+            this.rating = rating;
+            this.points = points;
+            this.matches = matches;
+            this.wins = wins;
+            this.draws = draws;
+            this.losses = losses;
+            this.meanScore = meanScore;
+        }
+
+        private String toCsv() {
+            return String.format(Locale.ROOT, "%s,%.1f,%s,%d,%d,%d,%d,%.1f",
+                    name, rating, points, matches, wins, draws, losses, meanScore);
+        }
+
+        /**
+         * @return the entrant's name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the Elo rating.
+         */
+        public double getRating() {
+            return rating;
+        }
+
+        /**
+         * @return the match points: 1 per match won or bye, 0.5 per match drawn.
+         */
+        public double getPoints() {
+            return points;
+        }
+
+        /**
+         * @return the number of matches played, byes excluded.
+         */
+        public int getMatches() {
+            return matches;
+        }
+
+        /**
+         * @return the number of matches won.
+         */
+        public int getWins() {
+            return wins;
+        }
+
+        /**
+         * @return the number of matches drawn.
+         */
+        public int getDraws() {
+            return draws;
+        }
+
+        /**
+         * @return the number of matches lost.
+         */
+        public int getLosses() {
+            return losses;
+        }
+
+        /**
+         * @return the mean final score per game played.
+         */
+        public double getMeanScore() {
+            return meanScore;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-16s %7.1f  %4.1f pts  %d-%d-%d  mean score %.1f",
+                    name, rating, points, wins, draws, losses, meanScore);
+        }
+    }
+
+    /**
+     * How to play the tournament. Setters return {@code this} so settings can be chained.
+     */
+    public static final class Settings {
+
+        private Format format = Format.ROUND_ROBIN;
+        private Rule rule = Rule.SCORE;
+        private int rounds = 5;
+        private int gamesPerMatch = 20;
+        private int maxPiecesPerGame = 500;
+        private String modeName = NormalMode.NAME;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private long seed = 42L;
+        private double initialRating = 1500;
+        private double kFactor = 16;
+        private Path directory = Path.of(GameConfiguration.PATH_TOURNAMENT_DIR);
+        private long botMoveMillis = GameConfiguration.BOT_MOVE_MILLIS;
+
+        /**
+         * @param format how entrants are paired.
+         * @return these settings.
+         */
+        public Settings format(Format format) {
+            this.format = format;
+            return this;
+        }
+
+        /**
+         * @param rule how a game is decided.
+         * @return these settings.
+         */
+        public Settings rule(Rule rule) {
+            this.rule = rule;
+            return this;
+        }
+
+        /**
+         * @param rounds the number of Swiss rounds; a round robin always plays every pairing once.
+         * @return these settings.
+         */
+        public Settings rounds(int rounds) {
+            if (rounds <= 0) {
+                throw new IllegalArgumentException("Round count must be positive: " + rounds);
+            }
+            this.rounds = rounds;
+            return this;
+        }
+
+        /**
+         * @param gamesPerMatch the number of shared-seed games in each match.
+         * @return these settings.
+         */
+        public Settings gamesPerMatch(int gamesPerMatch) {
+            if (gamesPerMatch <= 0) {
+                throw new IllegalArgumentException("Game count must be positive: " + gamesPerMatch);
+            }
+            this.gamesPerMatch = gamesPerMatch;
+            return this;
+        }
+
+        /**
+         * @param maxPiecesPerGame the number of locked pieces after which a game is stopped.
+         * @return these settings.
+         */
+        public Settings maxPiecesPerGame(int maxPiecesPerGame) {
+            if (maxPiecesPerGame <= 0) {
+                throw new IllegalArgumentException("Piece cap must be positive: " + maxPiecesPerGame);
+            }
+            this.maxPiecesPerGame = maxPiecesPerGame;
+            return this;
+        }
+
+        /**
+         * @param modeName the game mode, as returned by {@link GameMode#getName()}.
+         * @return these settings.
+         * @throws IllegalArgumentException if no mode has that name.
+         */
+        public Settings mode(String modeName) {
+            GameModes.forName(modeName); // fail fast on unknown names
+            this.modeName = modeName;
+            return this;
+        }
+
+        /**
+         * @param threads the number of threads playing games.
+         * @return these settings.
+         */
+        public Settings threads(int threads) {
+            if (threads <= 0) {
+                throw new IllegalArgumentException("Thread count must be positive: " + threads);
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * @param seed the base seed of all games.
+         * @return these settings.
+         */
+        public Settings seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * @param initialRating every entrant's Elo rating before the first round.
+         * @return these settings.
+         */
+        public Settings initialRating(double initialRating) {
+            this.initialRating = initialRating;
+            return this;
+        }
+
+        /**
+         * @param kFactor the largest Elo change a single game can cause.
+         * @return these settings.
+         */
+        public Settings kFactor(double kFactor) {
+            if (!(kFactor > 0)) {
+                throw new IllegalArgumentException("K factor must be positive: " + kFactor);
+            }
+            this.kFactor = kFactor;
+            return this;
+        }
+
+        /**
+         * @param directory where the checkpoint and the reports are kept (created if missing).
+         * @return these settings.
+         */
+        public Settings directory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        /**
+         * @param botMoveMillis how long an external bot may think about one move before the piece is
+         *                      hard-dropped; part of the checkpoint, so a resumed run keeps it.
+         * @return these settings.
+         */
+        public Settings botMoveMillis(long botMoveMillis) {
+            if (botMoveMillis <= 0) {
+                throw new IllegalArgumentException("Bot move time must be positive: " + botMoveMillis);
+            }
+            this.botMoveMillis = botMoveMillis;
+            return this;
+        }
+
+        private Settings copy() {
+            return new Settings().format(format).rule(rule).rounds(rounds).gamesPerMatch(gamesPerMatch)
+                    .maxPiecesPerGame(maxPiecesPerGame).mode(modeName).threads(threads).seed(seed)
+                    .initialRating(initialRating).kFactor(kFactor).directory(directory).botMoveMillis(botMoveMillis);
+        }
+    }
+
+    /**
+     * Runs a tournament from the command line, resuming from the directory's checkpoint if present.
+     * <p>
+     * Usage: {@code Tournament [--swiss ROUNDS] [--survival] [--games N] [--max-pieces N] [--mode NAME]
+     * [--threads N] [--seed N] [--dir DIR] [--bot-move-millis N] ENTRANT...}, where each entrant is {@code NAME=heuristic},
+     * {@code NAME=beam} or {@code NAME=external:COMMAND} (the command's words separated by spaces).
+     * Prints every match and, at the end, the standings.
+     * </p>
+     *
+     * @param args the options and entrants described above.
+     * @throws IOException if the checkpoint or a report cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        Settings settings = new Settings();
+        List<Entrant> entrants = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            switch (option) {
+                case "--swiss" -> settings.format(Format.SWISS).rounds(Integer.parseInt(args[++i]));
+                case "--survival" -> settings.rule(Rule.SURVIVAL);
+                case "--games" -> settings.gamesPerMatch(Integer.parseInt(args[++i]));
+                case "--max-pieces" -> settings.maxPiecesPerGame(Integer.parseInt(args[++i]));
+                case "--mode" -> settings.mode(args[++i]);
+                case "--threads" -> settings.threads(Integer.parseInt(args[++i]));
+                case "--seed" -> settings.seed(Long.parseLong(args[++i]));
+                case "--dir" -> settings.directory(Path.of(args[++i]));
+                case "--bot-move-millis" -> settings.botMoveMillis(Long.parseLong(args[++i]));
+                default -> {
+                    int split = option.indexOf('=');
+                    String name = split < 0 ? option : option.substring(0, split);
+                    String kind = split < 0 ? "" : option.substring(split + 1);
+                    if (kind.equals("heuristic")) {
+                        entrants.add(Entrant.heuristic(name, Feature.defaultWeights()));
+                    } else if (kind.equals("beam")) {
+                        entrants.add(Entrant.beam(name));
+                    } else if (kind.startsWith("external:")) {
+                        entrants.add(Entrant.external(name, List.of(kind.substring(9).trim().split("\\s+"))));
+                    } else {
+                        System.err.println("Unknown option or entrant: " + option);
+                        System.exit(2);
+                    }
+                }
+            }
+        }
+        Tournament tournament = new Tournament(entrants, settings);
+        List<Standing> standings = tournament.run(System.out::println);
+        System.out.println("(" + tournament.getMatches().size() + " matches, reports in " + settings.directory + ")");
+        for (int i = 0; i < standings.size(); i++) {
+            System.out.printf("%2d. %s%n", i + 1, standings.get(i));
+        }
+    }
+}
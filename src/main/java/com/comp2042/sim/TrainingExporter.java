@@ -0,0 +1,529 @@
+package com.comp2042.sim;
+
+import com.comp2042.ai.PlacementEnumerator;
+import com.comp2042.logic.mode.GameMode;
+import com.comp2042.model.BoardState;
+import com.comp2042.model.GameSnapshot;
+import com.comp2042.model.PieceLanding;
+import com.comp2042.replay.InputRecorder;
+import com.comp2042.replay.Replay;
+import com.comp2042.replay.ReplayAction;
+import com.comp2042.replay.ReplayPlayer;
+import com.comp2042.util.GameConfiguration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Streams what happens in headless games to disk as training data for evaluation models: one record
+ * per placed piece (the position it was placed in, and where it went) and one per finished game.
+ * <p>
+ * <b>Format:</b> Shard files named {@code training-00000.ttd}, {@code training-00001.ttd}, ... Each
+ * starts with a header and holds whole records, all big-endian and of fixed size, so a reader can
+ * seek to record {@code n} of a shard without scanning it:
+ * </p>
+ * <pre>
+ *   header     magic "TTRD", version u8, width u8, height u8, queue u8 (Q)
+ *   placement  1 u8, game seed i64, piece number i32,
+ *              height x row u16 (locked blocks without the piece, top row first, bit c = column c),
+ *              piece u8, hold u8 (0 = empty), flags u8 (bit 0: hold was used for this piece),
+ *              Q x next piece u8 (0 past the preview), rotation u8, x i8, y i8,
+ *              lines cleared u8, score gained i32
+ *   game end   2 u8, game seed i64, pieces i32, final score i32, lines i32, level i32
+ * </pre>
+ * <p>
+ * Bricks are {@link com.comp2042.logic.bricks.BrickTypes type IDs}; rotation, x and y are those of the
+ * game's 4x4 shape matrices. The piece, hold slot and preview are as they were when the piece came to
+ * rest, after any hold. The score gained is measured from the previous lock, so after an Undo it
+ * also contains the points the Undo took back.
+ * </p>
+ * <p>
+ * <b>Throughput:</b> Simulation threads never touch the disk. Each game ({@link #recorder}) appends its
+ * records to a buffer borrowed from a fixed pool and hands full buffers (and the last one when the
+ * game ends) to a bounded queue; a single writer thread drains the queue into a {@link FileChannel}
+ * and returns the buffers to the pool. The pool is the only back-pressure: when every buffer is
+ * waiting to be written, a game waits for the writer, and the time spent waiting is reported by
+ * {@link #getStallNanos()}. In steady state nothing is allocated per record except what the game
+ * allocates to describe the landing.
+ * </p>
+ * <p>
+ * <b>Sharding:</b> A new shard is started before a buffer would take the current one past
+ * {@link Settings#shardBytes}. Records never span shards. Shards already in the directory are kept:
+ * numbering continues after the highest one.
+ * </p>
+ */
+public final class TrainingExporter implements AutoCloseable {
+
+    /** Format version written to every shard header. */
+    public static final int VERSION = 1;
+
+    /** The first four bytes of every shard, "TTRD". */
+    public static final int MAGIC = 0x54545244;
+
+    /** Type byte of a placement record. */
+    public static final byte PLACEMENT = 1;
+
+    /** Type byte of a game end record. */
+    public static final byte GAME_END = 2;
+
+    /** Shard file names are this prefix, a five-digit number and {@link #SHARD_SUFFIX}. */
+    public static final String SHARD_PREFIX = "training-";
+
+    /** Extension of shard files. */
+    public static final String SHARD_SUFFIX = ".ttd";
+
+    /** Size of a shard header in bytes. */
+    public static final int HEADER_BYTES = 8;
+
+    /** Size of a game end record in bytes. */
+    public static final int GAME_END_BYTES = 1 + 8 + 4 * 4;
+
+    /** Marks the end of the queue for the writer. */
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private final Path directory;
+    private final Settings settings;
+    private final int width;
+    private final int height;
+    private final int fullRow;
+    private final int placementBytes;
+    private final BlockingQueue<ByteBuffer> free;
+    private final BlockingQueue<ByteBuffer> filled;
+    private final Thread writer;
+    private final LongAdder records = new LongAdder();
+    private final LongAdder stallNanos = new LongAdder();
+    private volatile IOException failure;
+    private volatile boolean closed;
+    private volatile long bytesWritten;
+    private volatile int shards;
+
+    // writer thread only
+    private FileChannel channel;
+    private long shardSize;
+    private int nextShard;
+
+    /**
+     * Opens an exporter for games on the standard board and starts its writer thread.
+     *
+     * @param directory where the shards are written (created if missing).
+     * @param settings buffer and shard sizes; later changes to it do not affect this exporter.
+     * @throws IOException if the directory cannot be created or listed.
+     */
+    public TrainingExporter(Path directory, Settings settings) throws IOException {
+        this.directory = directory;
+        this.settings = settings.copy();
+        this.width = GameConfiguration.BOARD_WIDTH;
+        this.height = GameConfiguration.BOARD_HEIGHT;
+        this.fullRow = (1 << width) - 1;
+        this.placementBytes = 1 + 8 + 4 + 2 * height + 3 + this.settings.queueLength + 3 + 1 + 4;
+        if (this.settings.bufferBytes < Math.max(placementBytes, GAME_END_BYTES)) {
+            throw new IllegalArgumentException("Buffers of " + this.settings.bufferBytes
+                    + " bytes cannot hold a record of " + placementBytes + " bytes");
+        }
+        Files.createDirectories(directory);
+        this.nextShard = nextShardNumber(directory);
+        this.free = new ArrayBlockingQueue<>(this.settings.buffers);
+        this.filled = new ArrayBlockingQueue<>(this.settings.buffers + 1);
+        for (int i = 0; i < this.settings.buffers; i++) {
+            free.add(ByteBuffer.allocateDirect(this.settings.bufferBytes));
+        }
+        this.writer = new Thread(this::writeLoop, "training-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private static int nextShardNumber(Path directory) throws IOException {
+        int next = 0;
+        try (DirectoryStream<Path> shards = Files.newDirectoryStream(directory, SHARD_PREFIX + "*" + SHARD_SUFFIX)) {
+            for (Path shard : shards) {
+                String name = shard.getFileName().toString();
+                String number = name.substring(SHARD_PREFIX.length(), name.length() - SHARD_SUFFIX.length());
+                try {
+                    next = Math.max(next, Integer.parseInt(number) + 1);
+                } catch (NumberFormatException ignored) {
+                    // not one of ours
+                }
+            }
+        }
+        return next;
+    }
+
+    /**
+     * @return the size of a placement record in bytes.
+     */
+    public int getPlacementBytes() {
+        return placementBytes;
+    }
+
+    /**
+     * Creates the recorder for one game. Attach it to the game's controller in place of (or wrapping)
+     * the recorder it would otherwise have; every hook is passed on to {@code next} first.
+     *
+     * @param next the recorder to pass the hooks on to, or {@code null}.
+     * @return a recorder that exports the game; use it for one game at a time, from one thread.
+     */
+    public InputRecorder recorder(InputRecorder next) {
+        return new Recorder(next);
+    }
+
+    /**
+     * Re-simulates a recorded game and exports it.
+     *
+     * @param replay the recorded game.
+     * @return the outcome of the re-simulation; records are only trustworthy if it verified.
+     * @throws IllegalArgumentException if the replay names an unknown game mode.
+     * @throws UncheckedIOException if the writer has failed.
+     */
+    public ReplayPlayer.Result export(Replay replay) {
+        return ReplayPlayer.play(replay, recorder(null));
+    }
+
+    private ByteBuffer acquire() {
+        checkOpen();
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            long start = System.nanoTime();
+            try {
+                buffer = free.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the training data writer", e);
+            }
+            stallNanos.add(System.nanoTime() - start);
+        }
+        return buffer;
+    }
+
+    private void submit(ByteBuffer buffer) {
+        buffer.flip();
+        // there are never more buffers than the queue holds, so this does not block
+        filled.add(buffer);
+    }
+
+    private void checkOpen() {
+        if (failure != null) {
+            throw new UncheckedIOException("Training data writer failed", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("Training data exporter is closed");
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            while (true) {
+                ByteBuffer buffer = filled.take();
+                if (buffer == END) {
+                    break;
+                }
+                if (failure == null) {
+                    try {
+                        write(buffer);
+                    } catch (IOException e) {
+                        failure = e;
+                    }
+                }
+                buffer.clear();
+                free.add(buffer);
+            }
+        } catch (InterruptedException e) {
+            // closing without draining
+        } finally {
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        int length = buffer.remaining();
+        if (channel == null || shardSize > HEADER_BYTES && shardSize + length > settings.shardBytes) {
+            openShard();
+        }
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        shardSize += length;
+        bytesWritten += length;
+    }
+
+    private void openShard() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        Path shard = directory.resolve(String.format("%s%05d%s", SHARD_PREFIX, nextShard++, SHARD_SUFFIX));
+        channel = FileChannel.open(shard, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).put((byte) VERSION).put((byte) width).put((byte) height).put((byte) settings.queueLength);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        shardSize = HEADER_BYTES;
+        bytesWritten += HEADER_BYTES;
+        shards++;
+    }
+
+    /**
+     * @return the number of records handed to the writer so far.
+     */
+    public long getRecords() {
+        return records.sum();
+    }
+
+    /**
+     * @return the number of bytes written to shards so far, headers included.
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * @return the number of shards started by this exporter.
+     */
+    public int getShards() {
+        return shards;
+    }
+
+    /**
+     * @return the total time games spent waiting for a free buffer, in nanoseconds; zero when the
+     *         disk keeps up.
+     */
+    public long getStallNanos() {
+        return stallNanos.sum();
+    }
+
+    /**
+     * Writes everything handed over so far, stops the writer and closes the last shard. Records of
+     * games that have not ended yet are lost.
+     *
+     * @throws IOException if writing failed at any point.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            filled.add(END);
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                writer.interrupt();
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Exports one game; all methods run on the game's thread.
+     */
+    private final class Recorder implements InputRecorder {
+
+        private final InputRecorder next;
+        private ByteBuffer buffer;
+        private long seed;
+        private int pieces;
+        private int lastScore;
+        private int outcomeAt = -1;
+
+        Recorder(InputRecorder next) {
+            this.next = next;
+        }
+
+        private void ensureRoom(int bytes) {
+            if (buffer == null) {
+                buffer = acquire();
+            } else if (buffer.remaining() < bytes) {
+                submit(buffer);
+                buffer = acquire();
+            }
+        }
+
+        @Override
+        public void onGameStarted(long seed, GameMode mode) {
+            if (next != null) {
+                next.onGameStarted(seed, mode);
+            }
+            this.seed = seed;
+            pieces = 0;
+            lastScore = 0;
+            outcomeAt = -1;
+        }
+
+        @Override
+        public void onAction(ReplayAction action) {
+            if (next != null) {
+                next.onAction(action);
+            }
+        }
+
+        @Override
+        public void onPieceLanded(Supplier<PieceLanding> landing) {
+            if (next != null) {
+                next.onPieceLanded(landing);
+            }
+            PieceLanding piece = landing.get();
+            BoardState state = piece.getState();
+            int[][] cells = state.getGrid().rows();
+            if (cells.length != height || cells[0].length != width) {
+                throw new IllegalStateException("Expected a " + width + "x" + height + " board, got "
+                        + cells[0].length + "x" + cells.length);
+            }
+            int brickId = state.getBrickId();
+            int rotation = state.getRotation();
+            int x = state.getX();
+            int y = state.getY();
+            int[] shape = PlacementEnumerator.shapeRows(brickId, rotation);
+
+            ensureRoom(placementBytes);
+            buffer.put(PLACEMENT).putLong(seed).putInt(pieces);
+            int lines = 0;
+            for (int r = 0; r < height; r++) {
+                int mask = 0;
+                int[] row = cells[r];
+                for (int c = 0; c < width; c++) {
+                    if (row[c] != 0) {
+                        mask |= 1 << c;
+                    }
+                }
+                buffer.putShort((short) mask);
+                int i = r - y;
+                if (i >= 0 && i < shape.length && shape[i] != 0) {
+                    int cellsOfPiece = x >= 0 ? shape[i] << x : shape[i] >>> -x;
+                    if ((mask | cellsOfPiece) == fullRow) {
+                        lines++;
+                    }
+                }
+            }
+            buffer.put((byte) brickId).put((byte) state.getHeldBrickId()).put((byte) (state.canHold() ? 0 : 1));
+            for (int q = 0; q < settings.queueLength; q++) {
+                buffer.put((byte) (q < piece.getUpcomingCount() ? piece.getUpcoming(q) : 0));
+            }
+            buffer.put((byte) rotation).put((byte) x).put((byte) y).put((byte) lines);
+            outcomeAt = buffer.position();
+            buffer.putInt(0);
+            records.increment();
+        }
+
+        @Override
+        public void onPieceLocked(long boardHash, int score) {
+            if (next != null) {
+                next.onPieceLocked(boardHash, score);
+            }
+            if (outcomeAt >= 0) {
+                buffer.putInt(outcomeAt, score - lastScore);
+                outcomeAt = -1;
+            }
+            lastScore = score;
+            pieces++;
+        }
+
+        @Override
+        public void onPieceSpawned(Supplier<GameSnapshot> snapshot) {
+            if (next != null) {
+                next.onPieceSpawned(snapshot);
+            }
+        }
+
+        @Override
+        public void onHistoryRestored(int historyDepth) {
+            if (next != null) {
+                next.onHistoryRestored(historyDepth);
+            }
+        }
+
+        @Override
+        public void onGameEnded(int score, int lines, int level, long boardHash) {
+            if (next != null) {
+                next.onGameEnded(score, lines, level, boardHash);
+            }
+            ensureRoom(GAME_END_BYTES);
+            buffer.put(GAME_END).putLong(seed).putInt(pieces).putInt(score).putInt(lines).putInt(level);
+            records.increment();
+            submit(buffer);
+            buffer = null;
+        }
+    }
+
+    /**
+     * Buffer and shard sizes. Setters return {@code this} so settings can be chained.
+     */
+    public static final class Settings {
+
+        private int bufferBytes = 256 * 1024;
+        private int buffers = 8;
+        private long shardBytes = 256L * 1024 * 1024;
+        private int queueLength = 5;
+
+        /**
+         * @param bufferBytes the size of each buffer; a game hands its records over in pieces of at most this size.
+         * @return these settings.
+         */
+        public Settings bufferBytes(int bufferBytes) {
+            if (bufferBytes <= 0) {
+                throw new IllegalArgumentException("Buffer size must be positive: " + bufferBytes);
+            }
+            this.bufferBytes = bufferBytes;
+            return this;
+        }
+
+        /**
+         * @param buffers the number of buffers, and so the most that can wait for the writer at once.
+         * @return these settings.
+         */
+        public Settings buffers(int buffers) {
+            if (buffers <= 0) {
+                throw new IllegalArgumentException("Buffer count must be positive: " + buffers);
+            }
+            this.buffers = buffers;
+            return this;
+        }
+
+        /**
+         * @param shardBytes the size a shard is not allowed to grow past, unless a single buffer is larger.
+         * @return these settings.
+         */
+        public Settings shardBytes(long shardBytes) {
+            if (shardBytes <= HEADER_BYTES) {
+                throw new IllegalArgumentException("Shard size must exceed the header: " + shardBytes);
+            }
+            this.shardBytes = shardBytes;
+            return this;
+        }
+
+        /**
+         * @param queueLength the number of preview bricks stored per placement.
+         * @return these settings.
+         */
+        public Settings queueLength(int queueLength) {
+            if (queueLength < 0 || queueLength > 255) {
+                throw new IllegalArgumentException("Queue length must be in [0, 255]: " + queueLength);
+            }
+            this.queueLength = queueLength;
+            return this;
+        }
+
+        private Settings copy() {
+            return new Settings().bufferBytes(bufferBytes).buffers(buffers).shardBytes(shardBytes)
+                    .queueLength(queueLength);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.comp2042.sim;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summarises how each gauge of a {@link ResourceSampler} developed over a run and flags steady growth.
+ * <p>
+ * <b>Growth detection:</b> Raw samples are noisy (a collection may not have run yet, a notification
+ * may be on screen), so the samples are split into {@value #WINDOWS} equal windows and only the
+ * <i>minimum</i> of each window is compared. A gauge is flagged when those floors never go down from
+ * one window to the next and the last floor is more than {@value #GROWTH_TOLERANCE_PERCENT}% above
+ * the first. A leak raises the floor steadily; healthy churn keeps returning to the same floor.
+ * </p>
+ * <p>
+ * The least-squares slope over all samples is reported too, scaled to units per hour, to estimate
+ * how long a kiosk can run before the growth matters.
+ * </p>
+ */
+public final class TrendReport {
+
+    /** Number of windows whose minima are compared. */
+    public static final int WINDOWS = 5;
+
+    /** Minimum growth, in percent of the first window's floor, for a gauge to be flagged. */
+    public static final int GROWTH_TOLERANCE_PERCENT = 10;
+
+    private final List<ResourceSampler.Sample> samples;
+    private final List<Trend> trends = new ArrayList<>();
+    private final List<String> names;
+
+    /**
+     * Analyses a set of samples.
+     *
+     * @param names the gauge names, in column order.
+     * @param samples the samples, oldest first.
+     */
+    public TrendReport(List<String> names, List<ResourceSampler.Sample> samples) {
+        this.names = List.copyOf(names);
+        this.samples = List.copyOf(samples);
+        for (int i = 0; i < names.size(); i++) {
+            trends.add(analyse(names.get(i), i));
+        }
+    }
+
+    private Trend analyse(String name, int column) {
+        int n = samples.size();
+        if (n == 0) {
+            return new Trend(name, 0, 0, 0, 0, 0, new long[0], false);
+        }
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        double meanT = 0;
+        double meanV = 0;
+        for (ResourceSampler.Sample s : samples) {
+            long v = s.getValue(column);
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+            meanT += s.getTimeMillis();
+            meanV += v;
+        }
+        meanT /= n;
+        meanV /= n;
+        double covariance = 0;
+        double variance = 0;
+        for (ResourceSampler.Sample s : samples) {
+            double dt = s.getTimeMillis() - meanT;
+            covariance += dt * (s.getValue(column) - meanV);
+            variance += dt * dt;
+        }
+        double slopePerHour = variance == 0 ? 0 : covariance / variance * 3_600_000.0;
+
+        long[] floors = new long[0];
+        boolean growing = false;
+        if (n >= 2 * WINDOWS) {
+            floors = new long[WINDOWS];
+            for (int w = 0; w < WINDOWS; w++) {
+                long floor = Long.MAX_VALUE;
+                for (int i = w * n / WINDOWS; i < (w + 1) * n / WINDOWS; i++) {
+                    floor = Math.min(floor, samples.get(i).getValue(column));
+                }
+                floors[w] = floor;
+            }
+            growing = true;
+            for (int w = 1; w < WINDOWS; w++) {
+                if (floors[w] < floors[w - 1]) {
+                    growing = false;
+                    break;
+                }
+            }
+            long first = floors[0];
+            long last = floors[WINDOWS - 1];
+            growing &= last > first && (last - first) * 100 > Math.abs(first) * GROWTH_TOLERANCE_PERCENT;
+        }
+        return new Trend(name, samples.getFirst().getValue(column), samples.getLast().getValue(column),
+                min, max, slopePerHour, floors, growing);
+    }
+
+    /**
+     * @return the analysis of every gauge, in column order.
+     */
+    public List<Trend> getTrends() {
+        return trends;
+    }
+
+    /**
+     * @return true if any gauge shows steady growth.
+     */
+    public boolean hasGrowth() {
+        return trends.stream().anyMatch(Trend::isGrowing);
+    }
+
+    /**
+     * Formats the summary as human-readable text.
+     *
+     * @return one line per gauge, plus a verdict.
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        long span = samples.isEmpty() ? 0 : samples.getLast().getTimeMillis() - samples.getFirst().getTimeMillis();
+        text.append(String.format("%d samples over %.1f minutes%n", samples.size(), span / 60_000.0));
+        text.append(String.format("%-20s %14s %14s %14s %14s %16s  %s%n",
+                "gauge", "first", "last", "min", "max", "slope/hour", "verdict"));
+        for (Trend t : trends) {
+            String verdict = t.getWindowFloors().length == 0 ? "too few samples"
+                    : t.isGrowing() ? "GROWING (window floors " + join(t.getWindowFloors()) + ")" : "stable";
+            text.append(String.format("%-20s %14d %14d %14d %14d %16.1f  %s%n",
+                    t.getName(), t.getFirst(), t.getLast(), t.getMin(), t.getMax(), t.getSlopePerHour(), verdict));
+        }
+        text.append(hasGrowth() ? "RESULT: monotonic growth detected" : "RESULT: no monotonic growth")
+                .append(System.lineSeparator());
+        return text.toString();
+    }
+
+    /**
+     * Formats the raw samples as CSV, with a header row of gauge names.
+     *
+     * @return the CSV text.
+     */
+    public String toCsv() {
+        StringBuilder csv = new StringBuilder("timeMillis");
+        for (String name : names) {
+            csv.append(',').append(name);
+        }
+        csv.append('\n');
+        for (ResourceSampler.Sample s : samples) {
+            csv.append(s.getTimeMillis());
+            for (int i = 0; i < names.size(); i++) {
+                csv.append(',').append(s.getValue(i));
+            }
+            csv.append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Writes {@code soak-report.txt} and {@code soak-samples.csv} into a directory, replacing older
+     * copies, so an interrupted run still leaves its latest report behind.
+     *
+     * @param directory the output directory (created if missing).
+     * @throws IOException if the files cannot be written.
+     */
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve("soak-report.txt"), toText());
+        Files.writeString(directory.resolve("soak-samples.csv"), toCsv());
+    }
+
+    private static String join(long[] values) {
+        StringBuilder s = new StringBuilder();
+        for (long v : values) {
+            if (!s.isEmpty()) {
+                s.append(" -> ");
+            }
+            s.append(v);
+        }
+        return s.toString();
+    }
+
+    /**
+     * How one gauge developed over the run.
+     */
+    public static final class Trend {
+
+        private final String name;
+        private final long first;
+        private final long last;
+        private final long min;
+        private final long max;
+        private final double slopePerHour;
+        private final long[] windowFloors;
+        private final boolean growing;
+
+        private Trend(String name, long first, long last, long min, long max, double slopePerHour,
+                      long[] windowFloors, boolean growing) {
+            this.name = name;
+            this.first = first;
+            this.last = last;
+            this.min = min;
+            this.max = max;
+            this.slopePerHour = slopePerHour;
+            this.windowFloors = windowFloors;
+            this.growing = growing;
+        }
+
+        /**
+         * @return the gauge name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the value of the first sample.
+         */
+        public long getFirst() {
+            return first;
+        }
+
+        /**
+         * @return the value of the last sample.
+         */
+        public long getLast() {
+            return last;
+        }
+
+        /**
+         * @return the smallest sampled value.
+         */
+        public long getMin() {
+            return min;
+        }
+
+        /**
+         * @return the largest sampled value.
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * @return the least-squares trend of the gauge, in units per hour.
+         */
+        public double getSlopePerHour() {
+            return slopePerHour;
+        }
+
+        /**
+         * @return the minimum of each window, or an empty array if there were too few samples.
+         */
+        public long[] getWindowFloors() {
+            return windowFloors.clone();
+        }
+
+        /**
+         * @return true if the gauge's floor rose steadily over the run.
+         */
+        public boolean isGrowing() {
+            return growing;
+        }
+    }
+}
@@ -0,0 +1,647 @@
+package com.comp2042.sim;
+
+import com.comp2042.ai.Feature;
+import com.comp2042.ai.HeuristicBot;
+import com.comp2042.util.GameConfiguration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Tunes the {@link Feature} weights of the heuristic bot offline with the cross-entropy method.
+ * <p>
+ * <b>Method:</b> The tuner keeps a normal distribution over weight vectors (a mean and a standard
+ * deviation per feature). Each generation samples a population from it, plays every candidate through
+ * the {@link SimulationHarness} with a {@link HeuristicBot}, and refits the distribution to the best
+ * (elite) fraction, smoothed towards the old one and kept above a noise floor so it does not collapse
+ * too early. The first candidate of every generation is the current mean itself. The bot only
+ * compares placements, so a weight vector and any positive multiple of it play identically: candidates
+ * are scaled to unit length, which keeps the search on the sphere where differences matter.
+ * </p>
+ * <p>
+ * <b>Fitness:</b> The mean final score per game, with games stopped at a piece cap. Score (rather
+ * than lines) rewards clearing several lines at once, and a bot that tops out early scores little.
+ * All candidates of a generation play the same seeded games (common random numbers), so the noise
+ * between candidates comes from their weights, not from luckier bricks; every generation uses fresh
+ * seeds, so the tuner does not overfit one set of games. Games are spread over all cores by the
+ * harness.
+ * </p>
+ * <p>
+ * <b>Checkpoints:</b> After every generation, the distribution, the best weights and the history are
+ * written to {@code tuner-checkpoint.txt} (via a temporary file and a move, so an interruption never
+ * leaves half a checkpoint), and the convergence curve to {@code tuner-curve.csv}. A tuner whose
+ * directory already holds a checkpoint resumes after its last generation. Sampling and game seeds are
+ * derived from the base seed and the generation number, so an interrupted and resumed run ends where
+ * an uninterrupted one would.
+ * </p>
+ */
+public final class WeightTuner {
+
+    private static final String CHECKPOINT_FILE = "tuner-checkpoint.txt";
+    private static final String CURVE_FILE = "tuner-curve.csv";
+    private static final int CHECKPOINT_VERSION = 1;
+    private static final long SAMPLE_SALT = 0x2545F4914F6CDD1DL;
+
+    private final Settings settings;
+
+    private double[] mean;
+    private double[] deviation;
+    private double[] bestWeights;
+    private double bestFitness = Double.NEGATIVE_INFINITY;
+    private final List<Generation> history = new ArrayList<>();
+
+    /**
+     * Creates a tuner.
+     *
+     * @param settings what to tune and how; later changes to it do not affect this tuner.
+     */
+    public WeightTuner(Settings settings) {
+        this.settings = settings.copy();
+        this.mean = normalize(this.settings.initialWeights);
+        this.deviation = new double[mean.length];
+        Arrays.fill(deviation, this.settings.initialDeviation);
+        this.bestWeights = mean.clone();
+    }
+
+    /**
+     * Runs generations until {@link Settings#generations} are done, resuming from the checkpoint in the
+     * settings' directory if there is one.
+     *
+     * @param listener called after each generation, e.g. to print progress.
+     * @return the whole history, including generations restored from the checkpoint.
+     * @throws IOException if the checkpoint cannot be read or written.
+     * @throws IllegalStateException if the checkpoint is for other features, or a game fails.
+     */
+    public List<Generation> run(Consumer<Generation> listener) throws IOException {
+        Path checkpoint = settings.directory.resolve(CHECKPOINT_FILE);
+        if (history.isEmpty() && Files.exists(checkpoint)) {
+            load(checkpoint);
+        }
+        while (history.size() < settings.generations) {
+            Generation generation = step(history.size());
+            history.add(generation);
+            save();
+            listener.accept(generation);
+        }
+        return List.copyOf(history);
+    }
+
+    private Generation step(int index) {
+        int size = settings.population;
+        int features = mean.length;
+        SplittableRandom random = new SplittableRandom(SimulationHarness.gameSeed(settings.seed ^ SAMPLE_SALT, index));
+        double[][] candidates = new double[size][];
+        candidates[0] = mean.clone();
+        for (int c = 1; c < size; c++) {
+            double[] weights = new double[features];
+            for (int f = 0; f < features; f++) {
+                weights[f] = mean[f] + deviation[f] * gaussian(random);
+            }
+            candidates[c] = normalize(weights);
+        }
+
+        long gameSeed = SimulationHarness.gameSeed(settings.seed, index);
+        double[] fitness = new double[size];
+        long games = 0;
+        long pieces = 0;
+        long start = System.nanoTime();
+        for (int c = 0; c < size; c++) {
+            SimulationHarness.Report report = new SimulationHarness(new SimulationHarness.Settings()
+                    .games(settings.gamesPerCandidate).threads(settings.threads).seed(gameSeed)
+                    .maxPiecesPerGame(settings.maxPiecesPerGame).bot(true).weights(candidates[c])).run();
+            fitness[c] = (double) report.getTotalScore() / Math.max(1, report.getGames());
+            games += report.getGames();
+            pieces += report.getPieces();
+        }
+        long wallNanos = System.nanoTime() - start;
+
+        // best first; ties keep the earlier candidate, so the order is reproducible
+        Integer[] order = new Integer[size];
+        for (int c = 0; c < size; c++) {
+            order[c] = c;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(fitness[b], fitness[a]));
+        int elites = Math.max(2, (int) Math.ceil(size * settings.eliteFraction));
+        double eliteFitness = 0;
+        double[] eliteMean = new double[features];
+        for (int e = 0; e < elites; e++) {
+            eliteFitness += fitness[order[e]];
+            for (int f = 0; f < features; f++) {
+                eliteMean[f] += candidates[order[e]][f] / elites;
+            }
+        }
+        double[] eliteDeviation = new double[features];
+        for (int e = 0; e < elites; e++) {
+            for (int f = 0; f < features; f++) {
+                double d = candidates[order[e]][f] - eliteMean[f];
+                eliteDeviation[f] += d * d / elites;
+            }
+        }
+        double alpha = settings.smoothing;
+        double spread = 0;
+        for (int f = 0; f < features; f++) {
+            mean[f] = alpha * eliteMean[f] + (1 - alpha) * mean[f];
+            deviation[f] = Math.max(settings.minDeviation,
+                    alpha * Math.sqrt(eliteDeviation[f]) + (1 - alpha) * deviation[f]);
+            spread += deviation[f] / features;
+        }
+        mean = normalize(mean);
+
+        double generationBest = fitness[order[0]];
+        if (generationBest > bestFitness) {
+            bestFitness = generationBest;
+            bestWeights = candidates[order[0]].clone();
+        }
+        double meanFitness = 0;
+        for (double f : fitness) {
+            meanFitness += f / size;
+        }
+        return new Generation(index + 1, generationBest, meanFitness, eliteFitness / elites, fitness[0], spread,
+                games, pieces, wallNanos);
+    }
+
+    /** A standard normal sample (Box-Muller; the second value is dropped to keep the stream simple). */
+    private static double gaussian(SplittableRandom random) {
+        double u = 1 - random.nextDouble(); // (0, 1]
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static double[] normalize(double[] weights) {
+        double norm = 0;
+        for (double w : weights) {
+            norm += w * w;
+        }
+        norm = Math.sqrt(norm);
+        double[] unit = weights.clone();
+        if (norm > 0) {
+            for (int i = 0; i < unit.length; i++) {
+                unit[i] /= norm;
+            }
+        }
+        return unit;
+    }
+
+    private void save() throws IOException {
+        StringBuilder text = new StringBuilder("# weight tuner checkpoint\n");
+        text.append("version=").append(CHECKPOINT_VERSION).append('\n');
+        text.append("features=").append(featureNames()).append('\n');
+        text.append("mean=").append(join(mean)).append('\n');
+        text.append("deviation=").append(join(deviation)).append('\n');
+        text.append("best=").append(join(bestWeights)).append('\n');
+        text.append("bestFitness=").append(bestFitness).append('\n');
+        for (Generation generation : history) {
+            text.append("generation=").append(generation.toCsv()).append('\n');
+        }
+        Files.createDirectories(settings.directory);
+        Path target = settings.directory.resolve(CHECKPOINT_FILE);
+        Path temporary = settings.directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temporary, text);
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.writeString(settings.directory.resolve(CURVE_FILE), toCsv());
+    }
+
+    private void load(Path checkpoint) throws IOException {
+        Map<String, String> values = new LinkedHashMap<>();
+        List<Generation> generations = new ArrayList<>();
+        for (String line : Files.readAllLines(checkpoint)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            int split = line.indexOf('=');
+            if (split < 0) {
+                throw new IllegalStateException("Malformed checkpoint line: " + line);
+            }
+            String key = line.substring(0, split);
+            String value = line.substring(split + 1);
+            if (key.equals("generation")) {
+                generations.add(Generation.parseCsv(value));
+            } else {
+                values.put(key, value);
+            }
+        }
+        if (!String.valueOf(CHECKPOINT_VERSION).equals(values.get("version"))) {
+            throw new IllegalStateException("Unsupported checkpoint version: " + values.get("version"));
+        }
+        if (!featureNames().equals(values.get("features"))) {
+            throw new IllegalStateException("Checkpoint is for features " + values.get("features")
+                    + ", not " + featureNames());
+        }
+        mean = parse(values.get("mean"));
+        deviation = parse(values.get("deviation"));
+        bestWeights = parse(values.get("best"));
+        bestFitness = Double.parseDouble(values.get("bestFitness"));
+        history.clear();
+        history.addAll(generations);
+    }
+
+    private static String featureNames() {
+        StringBuilder names = new StringBuilder();
+        for (Feature feature : Feature.values()) {
+            if (!names.isEmpty()) {
+                names.append(',');
+            }
+            names.append(feature.name());
+        }
+        return names.toString();
+    }
+
+    private static String join(double[] values) {
+        StringBuilder s = new StringBuilder();
+        for (double v : values) {
+            if (!s.isEmpty()) {
+                s.append(',');
+            }
+            s.append(v); // Double.toString round-trips exactly
+        }
+        return s.toString();
+    }
+
+    private static double[] parse(String text) {
+        if (text == null) {
+            throw new IllegalStateException("Checkpoint is missing a weight vector");
+        }
+        String[] parts = text.split(",");
+        if (parts.length != Feature.count()) {
+            throw new IllegalStateException("Expected " + Feature.count() + " values, got " + parts.length);
+        }
+        double[] values = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Double.parseDouble(parts[i]);
+        }
+        return values;
+    }
+
+    /**
+     * Formats the convergence curve: one row per generation.
+     *
+     * @return the CSV text.
+     */
+    public String toCsv() {
+        StringBuilder csv = new StringBuilder(Generation.CSV_HEADER).append('\n');
+        for (Generation generation : history) {
+            csv.append(generation.toCsv()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * @return the mean of the current distribution, scaled to unit length: the tuner's best guess.
+     */
+    public double[] getMeanWeights() {
+        return mean.clone();
+    }
+
+    /**
+     * @return the single candidate with the highest fitness seen so far.
+     */
+    public double[] getBestWeights() {
+        return bestWeights.clone();
+    }
+
+    /**
+     * @return the fitness of {@link #getBestWeights()} in its own generation's games.
+     */
+    public double getBestFitness() {
+        return bestFitness;
+    }
+
+    /**
+     * The outcome of one generation, a point of the convergence curve.
+     */
+    public static final class Generation {
+
+        static final String CSV_HEADER =
+                "generation,bestFitness,meanFitness,eliteFitness,meanCandidateFitness,spread,games,pieces,wallNanos";
+
+        private final int index;
+        private final double bestFitness;
+        private final double meanFitness;
+        private final double eliteFitness;
+        private final double meanCandidateFitness;
+        private final double spread;
+        private final long games;
+        private final long pieces;
+        private final long wallNanos;
+
+        private Generation(int index, double bestFitness, double meanFitness, double eliteFitness,
+                           double meanCandidateFitness, double spread, long games, long pieces, long wallNanos) {
+            this.index = index;
+            this.bestFitness = bestFitness;
+            this.meanFitness = meanFitness;
+            this.eliteFitness = eliteFitness;
+            this.meanCandidateFitness = meanCandidateFitness;
+            this.spread = spread;
+            this.games = games;
+            this.pieces = pieces;
+            this.wallNanos = wallNanos;
+        }
+
+        private String toCsv() {
+            return index + "," + bestFitness + "," + meanFitness + "," + eliteFitness + "," + meanCandidateFitness
+                    + "," + spread + "," + games + "," + pieces + "," + wallNanos;
+        }
+
+        private static Generation parseCsv(String line) {
+            String[] p = line.split(",");
+            if (p.length != 9) {
+                throw new IllegalStateException("Malformed generation: " + line);
+            }
+            return new Generation(Integer.parseInt(p[0]), Double.parseDouble(p[1]), Double.parseDouble(p[2]),
+                    Double.parseDouble(p[3]), Double.parseDouble(p[4]), Double.parseDouble(p[5]),
+                    Long.parseLong(p[6]), Long.parseLong(p[7]), Long.parseLong(p[8]));
+        }
+
+        /**
+         * @return the generation number, starting at 1.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return the fitness of the generation's best candidate.
+         */
+        public double getBestFitness() {
+            return bestFitness;
+        }
+
+        /**
+         * @return the average fitness over the whole population.
+         */
+        public double getMeanFitness() {
+            return meanFitness;
+        }
+
+        /**
+         * @return the average fitness of the elite the distribution was refitted to.
+         */
+        public double getEliteFitness() {
+            return eliteFitness;
+        }
+
+        /**
+         * @return the fitness of the distribution's mean going into this generation.
+         */
+        public double getMeanCandidateFitness() {
+            return meanCandidateFitness;
+        }
+
+        /**
+         * @return the average standard deviation of the distribution afterwards; falls as it converges.
+         */
+        public double getSpread() {
+            return spread;
+        }
+
+        /**
+         * @return the number of games played.
+         */
+        public long getGames() {
+            return games;
+        }
+
+        /**
+         * @return the number of pieces locked in those games.
+         */
+        public long getPieces() {
+            return pieces;
+        }
+
+        /**
+         * @return the wall time of the generation, in nanoseconds.
+         */
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        /**
+         * @return games finished per second of wall time.
+         */
+        public double getGamesPerSecond() {
+            return games * 1e9 / Math.max(1, wallNanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("gen %3d  best %9.1f  elite %9.1f  mean %9.1f  centre %9.1f  spread %.4f  %6.1f games/s",
+                    index, bestFitness, eliteFitness, meanFitness, meanCandidateFitness, spread, getGamesPerSecond());
+        }
+    }
+
+    /**
+     * How to tune. Setters return {@code this} so settings can be chained.
+     */
+    public static final class Settings {
+
+        private int generations = 30;
+        private int population = 24;
+        private double eliteFraction = 0.25;
+        private int gamesPerCandidate = 100;
+        private int maxPiecesPerGame = 300;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private long seed = 42L;
+        private double[] initialWeights = Feature.defaultWeights();
+        private double initialDeviation = 0.2;
+        private double minDeviation = 0.01;
+        private double smoothing = 0.7;
+        private Path directory = Path.of(GameConfiguration.PATH_TUNING_DIR);
+
+        /**
+         * @param generations the total number of generations, counting those restored from a checkpoint.
+         * @return these settings.
+         */
+        public Settings generations(int generations) {
+            if (generations <= 0) {
+                throw new IllegalArgumentException("Generation count must be positive: " + generations);
+            }
+            this.generations = generations;
+            return this;
+        }
+
+        /**
+         * @param population the number of candidates per generation.
+         * @return these settings.
+         */
+        public Settings population(int population) {
+            if (population < 2) {
+                throw new IllegalArgumentException("Population must be at least 2: " + population);
+            }
+            this.population = population;
+            return this;
+        }
+
+        /**
+         * @param eliteFraction the share of the population the distribution is refitted to.
+         * @return these settings.
+         */
+        public Settings eliteFraction(double eliteFraction) {
+            if (!(eliteFraction > 0 && eliteFraction <= 1)) {
+                throw new IllegalArgumentException("Elite fraction must be in (0, 1]: " + eliteFraction);
+            }
+            this.eliteFraction = eliteFraction;
+            return this;
+        }
+
+        /**
+         * @param gamesPerCandidate the number of games each candidate plays.
+         * @return these settings.
+         */
+        public Settings gamesPerCandidate(int gamesPerCandidate) {
+            if (gamesPerCandidate <= 0) {
+                throw new IllegalArgumentException("Game count must be positive: " + gamesPerCandidate);
+            }
+            this.gamesPerCandidate = gamesPerCandidate;
+            return this;
+        }
+
+        /**
+         * @param maxPiecesPerGame the number of locked pieces after which a game is stopped.
+         * @return these settings.
+         */
+        public Settings maxPiecesPerGame(int maxPiecesPerGame) {
+            if (maxPiecesPerGame <= 0) {
+                throw new IllegalArgumentException("Piece cap must be positive: " + maxPiecesPerGame);
+            }
+            this.maxPiecesPerGame = maxPiecesPerGame;
+            return this;
+        }
+
+        /**
+         * @param threads the number of threads playing games.
+         * @return these settings.
+         */
+        public Settings threads(int threads) {
+            if (threads <= 0) {
+                throw new IllegalArgumentException("Thread count must be positive: " + threads);
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * @param seed the base seed of all sampling and games.
+         * @return these settings.
+         */
+        public Settings seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * @param initialWeights the starting mean, one weight per {@link Feature} by ordinal; copied.
+         * @return these settings.
+         */
+        public Settings initialWeights(double[] initialWeights) {
+            if (initialWeights.length != Feature.count()) {
+                throw new IllegalArgumentException("Expected " + Feature.count() + " weights, got "
+                        + initialWeights.length);
+            }
+            this.initialWeights = initialWeights.clone();
+            return this;
+        }
+
+        /**
+         * @param initialDeviation the starting standard deviation of every (unit-scaled) weight.
+         * @return these settings.
+         */
+        public Settings initialDeviation(double initialDeviation) {
+            if (!(initialDeviation > 0)) {
+                throw new IllegalArgumentException("Deviation must be positive: " + initialDeviation);
+            }
+            this.initialDeviation = initialDeviation;
+            return this;
+        }
+
+        /**
+         * @param minDeviation the noise floor the standard deviations never fall below.
+         * @return these settings.
+         */
+        public Settings minDeviation(double minDeviation) {
+            if (minDeviation < 0) {
+                throw new IllegalArgumentException("Deviation must not be negative: " + minDeviation);
+            }
+            this.minDeviation = minDeviation;
+            return this;
+        }
+
+        /**
+         * @param smoothing how far the distribution moves towards the elite each generation, in (0, 1].
+         * @return these settings.
+         */
+        public Settings smoothing(double smoothing) {
+            if (!(smoothing > 0 && smoothing <= 1)) {
+                throw new IllegalArgumentException("Smoothing must be in (0, 1]: " + smoothing);
+            }
+            this.smoothing = smoothing;
+            return this;
+        }
+
+        /**
+         * @param directory where the checkpoint and the curve are kept (created if missing).
+         * @return these settings.
+         */
+        public Settings directory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        private Settings copy() {
+            return new Settings().generations(generations).population(population).eliteFraction(eliteFraction)
+                    .gamesPerCandidate(gamesPerCandidate).maxPiecesPerGame(maxPiecesPerGame).threads(threads)
+                    .seed(seed).initialWeights(initialWeights).initialDeviation(initialDeviation)
+                    .minDeviation(minDeviation).smoothing(smoothing).directory(directory);
+        }
+    }
+
+    /**
+     * Runs the tuner from the command line, resuming from the directory's checkpoint if present.
+     * <p>
+     * Usage: {@code WeightTuner [--generations N] [--population N] [--games N] [--max-pieces N]
+     * [--threads N] [--seed N] [--dir DIR]}. Prints one line per generation and, at the end, the mean
+     * and best weights by feature.
+     * </p>
+     *
+     * @param args the options described above.
+     * @throws IOException if the checkpoint cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        Settings settings = new Settings();
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            switch (option) {
+                case "--generations" -> settings.generations(Integer.parseInt(args[++i]));
+                case "--population" -> settings.population(Integer.parseInt(args[++i]));
+                case "--games" -> settings.gamesPerCandidate(Integer.parseInt(args[++i]));
+                case "--max-pieces" -> settings.maxPiecesPerGame(Integer.parseInt(args[++i]));
+                case "--threads" -> settings.threads(Integer.parseInt(args[++i]));
+                case "--seed" -> settings.seed(Long.parseLong(args[++i]));
+                case "--dir" -> settings.directory(Path.of(args[++i]));
+                default -> {
+                    System.err.println("Unknown option: " + option);
+                    System.exit(2);
+                }
+            }
+        }
+        WeightTuner tuner = new WeightTuner(settings);
+        List<Generation> history = tuner.run(System.out::println);
+        if (!history.isEmpty()) {
+            System.out.println("(" + history.size() + " generations, curve in "
+                    + settings.directory.resolve(CURVE_FILE) + ")");
+        }
+        double[] mean = tuner.getMeanWeights();
+        double[] best = tuner.getBestWeights();
+        System.out.printf("%-20s %10s %10s%n", "feature", "mean", "best");
+        for (Feature feature : Feature.values()) {
+            System.out.printf("%-20s %10.4f %10.4f%n", feature, mean[feature.ordinal()], best[feature.ordinal()]);
+        }
+    }
+}
@@ -18,6 +18,7 @@ import java.util.List;
  * <ul>
  * <li>Drawing the main game grid and the static background blocks.</li>
  * <li>Rendering the active falling piece and its "Ghost" projection.</li>
+ * <li>Outlining a suggested placement (the hint) on its own layer, in modes that offer one.</li>
  * <li>Displaying the queue of upcoming bricks.</li>
  * <li>Displaying the currently held brick.</li>
  * </ul>
@@ -34,6 +35,7 @@ public class GameRenderer {
     // Drawing buffers (Rectangle objects are reused to improve performance)
     private Rectangle[][] displayMatrix;
     private Rectangle[][] ghostRectangles;
+    private Rectangle[][] hintRectangles;
     private Rectangle[][] activeRectangles;
     private List<Rectangle[][]> nextBrickRectangleList;
     private Rectangle[][] holdBrickRectangles;
@@ -58,7 +60,7 @@ public class GameRenderer {
      * <p>
      * This creates the scene graph nodes (Rectangles) once at startup to avoid
      * object creation overhead during the game loop. It sets up layers for the background,
-     * ghost piece, and active piece.
+     * ghost piece, hint, and active piece.
      * </p>
      *
      * @param boardMatrix the initial state of the board (used to size the grid)
@@ -69,6 +71,7 @@ public class GameRenderer {
 
         displayMatrix = new Rectangle[boardMatrix.length][boardMatrix[0].length];
         ghostRectangles = new Rectangle[boardMatrix.length][boardMatrix[0].length];
+        hintRectangles = new Rectangle[boardMatrix.length][boardMatrix[0].length];
         activeRectangles = new Rectangle[boardMatrix.length][boardMatrix[0].length];
 
         int hiddenRows = GameConfiguration.HIDDEN_ROWS;
@@ -99,7 +102,17 @@ public class GameRenderer {
                 ghostRectangles[i][j] = ghostRectangle;
                 gamePanel.add(ghostRectangle, j, i - hiddenRows);
 
-                // Layer 3: Active Piece (Falling block)
+                // Layer 3: Hint (dashed outline of the suggested placement)
+                Rectangle hintRectangle = new Rectangle(brickSize, brickSize);
+                hintRectangle.setFill(Color.TRANSPARENT);
+                hintRectangle.setStrokeWidth(GameConfiguration.HINT_STROKE_WIDTH);
+                hintRectangle.setStrokeType(StrokeType.INSIDE);
+                hintRectangle.getStrokeDashArray().setAll(4.0, 3.0);
+                hintRectangle.setVisible(false);
+                hintRectangles[i][j] = hintRectangle;
+                gamePanel.add(hintRectangle, j, i - hiddenRows);
+
+                // Layer 4: Active Piece (Falling block)
                 Rectangle activeRectangle = new Rectangle(brickSize, brickSize);
                 activeRectangle.setFill(Color.TRANSPARENT);
                 activeRectangle.setStrokeWidth(strokeWidth);
@@ -202,6 +215,44 @@ public class GameRenderer {
         refreshHoldBrick(brick);
     }
 
+    /**
+     * Outlines the suggested placement of the falling brick, replacing any previous hint.
+     * The hint layer is independent of the falling brick, so it stays put while the brick moves.
+     *
+     * @param shape the brick's shape matrix in its suggested rotation (cells hold the brick ID)
+     * @param x the board column of the matrix's left edge
+     * @param y the board row of the matrix's top edge
+     */
+    public void showHint(int[][] shape, int x, int y) {
+        clearHint();
+        int hiddenRows = GameConfiguration.HIDDEN_ROWS;
+        for (int i = 0; i < shape.length; i++) {
+            for (int j = 0; j < shape[i].length; j++) {
+                int row = y + i;
+                int column = x + j;
+                if (shape[i][j] != 0 && row >= hiddenRows && row < hintRectangles.length
+                        && column >= 0 && column < hintRectangles[0].length) {
+                    hintRectangles[row][column].setStroke(colorManager.getPaint(shape[i][j]));
+                    hintRectangles[row][column].setVisible(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the hint outline, e.g. once the brick it was for has locked.
+     */
+    public void clearHint() {
+        if (hintRectangles == null) {
+            return;
+        }
+        for (int i = GameConfiguration.HIDDEN_ROWS; i < hintRectangles.length; i++) {
+            for (int j = 0; j < hintRectangles[i].length; j++) {
+                hintRectangles[i][j].setVisible(false);
+            }
+        }
+    }
+
     /**
      * Updates the "Next Pieces" sidebar.
      *
@@ -0,0 +1,157 @@
+package com.comp2042.ui;
+
+import com.comp2042.managers.ColorManager;
+import com.comp2042.model.GameObserver;
+import com.comp2042.model.ViewData;
+import com.comp2042.util.GameConfiguration;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Label;
+import javafx.scene.paint.Color;
+
+/**
+ * Draws the ghost race board: a small, read-only view of a recorded game played alongside the live one.
+ * <p>
+ * <b>Why a Canvas:</b> Unlike {@link GameRenderer}, which keeps several hundred {@link javafx.scene.shape.Rectangle}
+ * nodes in the scene graph, this renderer paints onto a single {@link Canvas}. The ghost only needs
+ * the locked blocks and the falling piece, so one node and a few dozen fill calls per redraw keep it
+ * well inside the frame budget.
+ * </p>
+ * <p>
+ * <b>Dirty tracking:</b> As a {@link GameObserver} of the ghost game, it only records the latest
+ * state when notified. {@link #render()} is called every frame but repaints only if something
+ * changed since the last repaint. All calls happen on the JavaFX thread, because the ghost is
+ * advanced from an animation timer.
+ * </p>
+ */
+public class GhostRenderer implements GameObserver {
+
+    private static final Color FINISHED_SHADE = Color.rgb(0, 0, 0, 0.6);
+
+    private final Canvas canvas;
+    private final Label scoreLabel;
+    private final ColorManager colorManager;
+    private final Color gridColor = Color.web(GameConfiguration.COLOR_GRID_HEX);
+
+    private int[][] boardMatrix;
+    private ViewData viewData;
+    private int score;
+    private boolean finished;
+    private boolean dirty;
+
+    /**
+     * Constructs a new GhostRenderer.
+     *
+     * @param canvas the canvas to paint the ghost board on
+     * @param scoreLabel the label showing the ghost's score (may be null)
+     * @param colorManager the manager providing color definitions
+     */
+    public GhostRenderer(Canvas canvas, Label scoreLabel, ColorManager colorManager) {
+        this.canvas = canvas;
+        this.scoreLabel = scoreLabel;
+        this.colorManager = colorManager;
+    }
+
+    /**
+     * Forgets the previous ghost and blanks the canvas, e.g. when a new race starts.
+     */
+    public void reset() {
+        boardMatrix = null;
+        viewData = null;
+        score = 0;
+        finished = false;
+        dirty = true;
+        render();
+    }
+
+    /**
+     * Repaints the canvas if the ghost state changed since the last call.
+     */
+    public void render() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.setFill(Color.BLACK);
+        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        int hiddenRows = GameConfiguration.HIDDEN_ROWS;
+        if (boardMatrix != null) {
+            for (int i = hiddenRows; i < boardMatrix.length; i++) {
+                for (int j = 0; j < boardMatrix[i].length; j++) {
+                    if (boardMatrix[i][j] != 0) {
+                        fillCell(gc, boardMatrix[i][j], j, i - hiddenRows);
+                    }
+                }
+            }
+        }
+
+        if (viewData != null && !finished) {
+            int[][] brickData = viewData.getBrickData();
+            for (int i = 0; i < brickData.length; i++) {
+                for (int j = 0; j < brickData[i].length; j++) {
+                    int y = viewData.getyPosition() + i;
+                    if (brickData[i][j] != 0 && y >= hiddenRows) {
+                        fillCell(gc, brickData[i][j], viewData.getxPosition() + j, y - hiddenRows);
+                    }
+                }
+            }
+        }
+
+        if (finished) {
+            gc.setFill(FINISHED_SHADE);
+            gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        }
+
+        if (scoreLabel != null) {
+            scoreLabel.setText(finished ? "Final: " + score : "Ghost: " + score);
+        }
+    }
+
+    private void fillCell(GraphicsContext gc, int brickId, int col, int row) {
+        int size = GameConfiguration.GHOST_BRICK_SIZE;
+        gc.setFill(colorManager.getPaint(brickId));
+        gc.fillRect(col * size, row * size, size, size);
+        gc.setStroke(gridColor);
+        gc.strokeRect(col * size + 0.5, row * size + 0.5, size - 1, size - 1);
+    }
+
+    @Override
+    public void onBoardUpdated(ViewData viewData) {
+        this.viewData = viewData;
+        dirty = true;
+    }
+
+    @Override
+    public void onGameBackgroundUpdated(int[][] boardMatrix) {
+        // the rows are immutable snapshots, so keeping the reference is safe
+        this.boardMatrix = boardMatrix;
+        dirty = true;
+    }
+
+    @Override
+    public void onScoreUpdated(int score) {
+        this.score = score;
+        dirty = true;
+    }
+
+    @Override
+    public void onLevelUpdated(int level) {}
+
+    @Override
+    public void onLineCleared(int lines, String message) {}
+
+    @Override
+    public void onGameOver() {
+        finished = true;
+        dirty = true;
+    }
+
+    @Override
+    public void onBrickDropped() {}
+
+    @Override
+    public void onDangerStateChanged(boolean isDanger) {}
+}
@@ -100,6 +100,18 @@ public class GameConfiguration {
     /** Hex code for the dark grey grid lines. */
     public static final String COLOR_GRID_HEX = "#2b2b2b";
 
+    /** The width/height of a single cell in the small ghost race board, in pixels. */
+    public static final int GHOST_BRICK_SIZE = 8;
+
+    /**
+     * The most replay events the ghost race may apply in a single frame.
+     * Larger catch-ups are spread over the following frames.
+     */
+    public static final int GHOST_MAX_EVENTS_PER_FRAME = 32;
+
+    /** Thickness of the dashed outline that marks the suggested placement in Zen mode. */
+    public static final double HINT_STROKE_WIDTH = 2.0;
+
     // --- AUDIO PATHS ---
     public static final String PATH_MUSIC_BG = "/audio/background_music.mp3";
     public static final String PATH_AUDIO_CLEAR = "/audio/line_clear.wav";
@@ -129,9 +141,102 @@ public class GameConfiguration {
     /** Base score awarded per line cleared (before multipliers). */
     public static final int SCORE_PER_LINE = 50;
 
+    /** Score for a T-spin that clears no lines; each line it clears adds the same again. */
+    public static final int TSPIN_SCORE = 400;
+
+    /** Score for a mini T-spin that clears no lines; each line it clears doubles it. */
+    public static final int TSPIN_MINI_SCORE = 100;
+
     /** Total lines required to advance to the next level. */
     public static final int LINES_PER_LEVEL_UP = 10;
 
     /** Local file path for persisting high scores. */
     public static final String PATH_HIGHEST_SCORE = "highest_score.txt";
-}
\ No newline at end of file
+
+    /** Local directory where finished games are saved as replay files. */
+    public static final String PATH_REPLAY_DIR = "replays";
+
+    /**
+     * Number of pieces between full-state keyframes in a replay.
+     * Smaller values make seeking faster at the cost of larger replay files.
+     */
+    public static final int REPLAY_KEYFRAME_INTERVAL = 20;
+
+    // --- SOAK TESTING ---
+
+    /** Local directory where soak runs write their trend report and samples. */
+    public static final String PATH_SOAK_DIR = "soak";
+
+    /** Seconds between resource samples during a UI soak run. */
+    public static final int SOAK_SAMPLE_INTERVAL_SECONDS = 30;
+
+    /** Seconds between reloads of the game scene (with a mode switch) during a UI soak run. */
+    public static final int SOAK_SCENE_RESTART_SECONDS = 300;
+
+    /** Inputs per second fed to the game by the UI soak autoplayer. */
+    public static final int SOAK_INPUTS_PER_SECOND = 20;
+
+    // --- AUTOPLAYER ---
+
+    /** Bricks placed per second by the heuristic autoplayer when it is switched on in the UI. */
+    public static final double BOT_PIECES_PER_SECOND = 2.0;
+
+    /** Bricks the beam-search bot looks ahead, counting the falling one (at most the preview plus one). */
+    public static final int BOT_SEARCH_DEPTH = 3;
+
+    /** Search states the beam-search bot keeps per level. */
+    public static final int BOT_BEAM_WIDTH = 32;
+
+    /** Rollouts the Monte-Carlo evaluator plays per placement, unless its time budget runs out first. */
+    public static final int ROLLOUT_COUNT = 128;
+
+    /** Bricks a rollout plays after the evaluated placement before it counts as survived. */
+    public static final int ROLLOUT_HORIZON = 30;
+
+    /** Milliseconds the hint service may keep deepening its search for one brick. */
+    public static final long HINT_BUDGET_MILLIS = 150;
+
+    /** Tallest perfect clear the solver searches for, in lines. */
+    public static final int PC_MAX_LINES = 4;
+
+    /** Milliseconds the perfect-clear solver may search one position before it gives up. */
+    public static final long PC_TIME_LIMIT_MILLIS = 1000;
+
+    /** Local directory where the weight tuner keeps its checkpoint and convergence curve. */
+    public static final String PATH_TUNING_DIR = "tuning";
+
+    /** Local directory where the tournament runner keeps its checkpoint and reports. */
+    public static final String PATH_TOURNAMENT_DIR = "tournament";
+
+    /** Local directory where exported training data shards are written by default. */
+    public static final String PATH_TRAINING_DIR = "training";
+
+    /**
+     * System property with the command line of an external bot (words separated by spaces). When it
+     * is set, the autoplayer is driven by that bot instead of the built-in one.
+     */
+    public static final String BOT_COMMAND_PROPERTY = "tetris.bot";
+
+    /** System property that switches the external bot protocol to binary frames when set to true. */
+    public static final String BOT_BINARY_PROPERTY = "tetris.bot.binary";
+
+    /** Milliseconds an external bot may take to answer the handshake before it is given up on. */
+    public static final long BOT_HANDSHAKE_MILLIS = 5000;
+
+    /**
+     * Milliseconds an external bot may think about one move in a tournament; a piece it has not
+     * answered for by then is hard-dropped where it is.
+     */
+    public static final long BOT_MOVE_MILLIS = 200;
+
+    // --- SESSION HOSTING ---
+
+    /** Resolution of the shared gravity timer used by headless session hosts, in milliseconds. */
+    public static final int HOST_TIMER_TICK_MILLIS = 5;
+
+    /**
+     * Number of slots in the shared gravity timer (a power of two). Timeouts further away than
+     * slots times tick simply wait for extra rotations, so this only trades memory for bucket length.
+     */
+    public static final int HOST_TIMER_WHEEL_SLOTS = 512;
+}
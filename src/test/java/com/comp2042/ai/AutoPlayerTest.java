@@ -0,0 +1,109 @@
+package com.comp2042.ai;
+
+import com.comp2042.controllers.GameController;
+import com.comp2042.logic.board.SimpleBoard;
+import com.comp2042.logic.mode.GameModes;
+import com.comp2042.logic.mode.NormalMode;
+import com.comp2042.logic.mode.ZenMode;
+import com.comp2042.managers.ScoreManager;
+import com.comp2042.model.GameObserver;
+import com.comp2042.model.ViewData;
+import com.comp2042.replay.ReplayAction;
+import com.comp2042.util.GameConfiguration;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AutoPlayerTest {
+
+    /** Counts what the game reports back. */
+    private static final class Counter implements GameObserver {
+        int locks;
+        int lines;
+        boolean gameOver;
+
+        @Override public void onBoardUpdated(ViewData viewData) {}
+        @Override public void onGameBackgroundUpdated(int[][] boardMatrix) { locks++; }
+        @Override public void onScoreUpdated(int score) {}
+        @Override public void onLevelUpdated(int level) {}
+        @Override public void onLineCleared(int lines, String message) { this.lines += lines; }
+        @Override public void onGameOver() { gameOver = true; }
+        @Override public void onBrickDropped() {}
+        @Override public void onDangerStateChanged(boolean isDanger) {}
+    }
+
+    private static GameController newGame(String modeName, AutoPlayer[] player, Counter counter, double pps) {
+        GameController controller = new GameController(
+                new SimpleBoard(GameConfiguration.BOARD_HEIGHT, GameConfiguration.BOARD_WIDTH),
+                new ScoreManager(null), 21L);
+        controller.setGameMode(GameModes.forName(modeName));
+        player[0] = new AutoPlayer(controller, new HeuristicBot(), pps);
+        controller.addObserver(player[0]);
+        controller.addObserver(counter);
+        controller.createNewGame(21L);
+        counter.locks = 0;
+        return controller;
+    }
+
+    @Test
+    void testBotClearsLinesWithoutToppingOut() {
+        AutoPlayer[] player = new AutoPlayer[1];
+        Counter counter = new Counter();
+        newGame(NormalMode.NAME, player, counter, Double.POSITIVE_INFINITY);
+
+        for (int i = 0; i < 20_000 && counter.locks < 500; i++) {
+            ReplayAction action = player[0].nextAction();
+            assertNotNull(action, "The bot should always have a move before topping out");
+            player[0].apply(action);
+        }
+
+        // 500 bricks are 2000 cells; a 10 x 20 playfield can only survive that by clearing
+        assertEquals(500, counter.locks);
+        assertFalse(counter.gameOver, "The bot should not top out in 500 pieces");
+        assertTrue(counter.lines >= 180, "Expected steady line clears, got " + counter.lines);
+    }
+
+    @Test
+    void testUpdateSpreadsInputsOverTheConfiguredTime() {
+        AutoPlayer[] player = new AutoPlayer[1];
+        Counter counter = new Counter();
+        newGame(ZenMode.NAME, player, counter, 2.0);
+        long second = 1_000_000_000L;
+
+        // nothing is due at the very start of a brick, and a brick takes half a second in total
+        assertEquals(0, player[0].update(0));
+        int early = player[0].update(second / 4);
+        assertEquals(0, counter.locks, "A brick should not lock before its time is up");
+        int rest = player[0].update(second / 2);
+        assertEquals(1, counter.locks, "The brick should lock once its time is up");
+        assertTrue(early + rest >= 1);
+
+        // after that, one brick per half second
+        for (long now = second / 2; now <= 10 * second; now += second / 60) {
+            player[0].update(now);
+        }
+        assertTrue(counter.locks >= 19 && counter.locks <= 21, "Expected about 20 bricks, got " + counter.locks);
+    }
+
+    @Test
+    void testNoInputsAfterGameOver() {
+        AutoPlayer[] player = new AutoPlayer[1];
+        Counter counter = new Counter();
+        GameController controller = newGame(NormalMode.NAME, player, counter, Double.POSITIVE_INFINITY);
+        player[0].onGameOver();
+
+        assertNull(player[0].nextAction());
+        assertEquals(0, player[0].update(System.nanoTime()));
+
+        // a new game brings the player back
+        controller.createNewGame(5L);
+        assertNotNull(player[0].nextAction());
+    }
+
+    @Test
+    void testRejectsNonPositiveSpeed() {
+        GameController controller = new GameController();
+        assertThrows(IllegalArgumentException.class, () -> new AutoPlayer(controller, new HeuristicBot(), 0));
+        assertThrows(IllegalArgumentException.class, () -> new AutoPlayer(controller, new HeuristicBot(), Double.NaN));
+    }
+}
@@ -0,0 +1,138 @@
+package com.comp2042.ai;
+
+import com.comp2042.controllers.GameController;
+import com.comp2042.logic.TestBoards;
+import com.comp2042.logic.board.SimpleBoard;
+import com.comp2042.logic.mode.GameModes;
+import com.comp2042.logic.mode.NormalMode;
+import com.comp2042.managers.ScoreManager;
+import com.comp2042.replay.ReplayAction;
+import com.comp2042.util.GameConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeamSearchBotTest {
+
+    private static final int WIDTH = GameConfiguration.BOARD_WIDTH;
+    private static final int HEIGHT = GameConfiguration.BOARD_HEIGHT;
+    private static final int SPAWN_X = WIDTH / 2 - GameConfiguration.SPAWN_X_OFFSET;
+    private static final int I_BRICK = 1;
+    private static final int O_BRICK = 4;
+
+    @Test
+    void testHoldsForTheBrickThatFitsTheWell() {
+        BeamSearchBot bot = new BeamSearchBot(1, 8, Feature.defaultWeights(), ForkJoinPool.commonPool());
+
+        // an O cannot use the well, the held I clears all four rows
+        Plan plan = bot.plan(TestBoards.wellBoard(HEIGHT, WIDTH, 4), O_BRICK, 0, SPAWN_X, 0, I_BRICK, true,
+                new int[]{O_BRICK});
+        assertTrue(plan.isHold(), "Expected a hold, got " + plan);
+        assertEquals(I_BRICK, plan.getBrickId());
+
+        // without hold the O has to go somewhere else
+        Plan noHold = bot.plan(TestBoards.wellBoard(HEIGHT, WIDTH, 4), O_BRICK, 0, SPAWN_X, 0, I_BRICK, false,
+                new int[]{O_BRICK});
+        assertFalse(noHold.isHold());
+        assertEquals(O_BRICK, noHold.getBrickId());
+    }
+
+    @Test
+    void testHoldFromEmptySlotBringsInThePreview() {
+        BeamSearchBot bot = new BeamSearchBot(1, 8, Feature.defaultWeights(), ForkJoinPool.commonPool());
+
+        Plan plan = bot.plan(TestBoards.wellBoard(HEIGHT, WIDTH, 4), O_BRICK, 0, SPAWN_X, 0, 0, true,
+                new int[]{I_BRICK, O_BRICK});
+
+        assertTrue(plan.isHold(), "Expected a hold, got " + plan);
+        assertEquals(I_BRICK, plan.getBrickId(), "Holding into an empty slot plays the next brick");
+    }
+
+    @Test
+    void testPlaysThroughAutoPlayerWithHolds() {
+        GameController controller = new GameController(new SimpleBoard(HEIGHT, WIDTH), new ScoreManager(null), 4L);
+        controller.setGameMode(GameModes.forName(NormalMode.NAME));
+        BeamSearchBot bot = new BeamSearchBot(3, 8, Feature.defaultWeights(), ForkJoinPool.commonPool());
+        AutoPlayer player = new AutoPlayer(controller, bot, Double.POSITIVE_INFINITY);
+        controller.addObserver(player);
+        controller.createNewGame(4L);
+
+        int holds = 0;
+        int drops = 0;
+        for (int i = 0; i < 10_000 && drops < 200; i++) {
+            ReplayAction action = player.nextAction();
+            assertNotNull(action, "The bot should not top out");
+            holds += action == ReplayAction.HOLD ? 1 : 0;
+            drops += action == ReplayAction.HARD_DROP ? 1 : 0;
+            player.apply(action);
+        }
+
+        assertEquals(200, drops);
+        assertTrue(holds > 0, "With the preview in view, hold should be worth using sometimes");
+        assertTrue(holds <= drops, "At most one hold per brick");
+        assertTrue(TestBoards.countCells(controller.getBoard()) < 60, "The stack should stay low");
+    }
+
+    @Test
+    void testPlansDoNotDependOnThePoolSize() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            BeamSearchBot a = new BeamSearchBot(4, 24, Feature.defaultWeights(), single);
+            BeamSearchBot b = new BeamSearchBot(4, 24, Feature.defaultWeights(), several);
+            Random random = new Random(9);
+            for (int round = 0; round < 10; round++) {
+                int[][] board = TestBoards.randomRows(random, HEIGHT, WIDTH, 6, 60);
+                int brick = 1 + random.nextInt(7);
+                int held = random.nextInt(8);
+                int[] preview = {1 + random.nextInt(7), 1 + random.nextInt(7), 1 + random.nextInt(7)};
+
+                Plan first = a.plan(board, brick, 0, SPAWN_X, 0, held, true, preview);
+                Plan second = b.plan(board, brick, 0, SPAWN_X, 0, held, true, preview);
+
+                assertEquals(String.valueOf(first), String.valueOf(second), "Round " + round);
+                assertEquals(a.getNodeCount(), b.getNodeCount());
+            }
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    @Test
+    void testMergesTranspositionsThroughTheTable() {
+        BeamSearchBot bot = new BeamSearchBot(3, 32, Feature.defaultWeights(), ForkJoinPool.commonPool());
+        Random random = new Random(5);
+        for (int round = 0; round < 5; round++) {
+            bot.plan(TestBoards.randomRows(random, HEIGHT, WIDTH, 6, 60), 1 + random.nextInt(7), 0, SPAWN_X, 0, 0,
+                    true, new int[]{2, 3, 6});
+        }
+
+        // the same stack is reachable by playing two bricks in either order, so twins must turn up
+        TranspositionTable table = bot.getTable();
+        assertTrue(table.getHits() > 0, table.toString());
+        assertTrue(table.getStores() > 0, table.toString());
+    }
+
+    @Test
+    void testNoPlanWhenTheSpawnIsBlocked() {
+        int[][] board = new int[HEIGHT][WIDTH];
+        for (int r = 0; r < HEIGHT; r++) {
+            board[r][SPAWN_X + 1] = 1;
+        }
+        BeamSearchBot bot = new BeamSearchBot();
+
+        assertNull(bot.plan(board, 6, 0, SPAWN_X, 0, 0, false, new int[]{1, 2}));
+    }
+
+    @Test
+    void testRejectsInvalidSettings() {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        assertThrows(IllegalArgumentException.class, () -> new BeamSearchBot(0, 8, Feature.defaultWeights(), pool));
+        assertThrows(IllegalArgumentException.class, () -> new BeamSearchBot(2, 0, Feature.defaultWeights(), pool));
+        assertThrows(IllegalArgumentException.class, () -> new BeamSearchBot(2, 8, new double[2], pool));
+    }
+}
@@ -0,0 +1,224 @@
+package com.comp2042.ai;
+
+import com.comp2042.logic.TestBoards;
+import com.comp2042.model.PersistentGrid;
+import com.comp2042.util.GameConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardFeaturesTest {
+
+    private static final int WIDTH = GameConfiguration.BOARD_WIDTH;
+    private static final int HEIGHT = GameConfiguration.BOARD_HEIGHT;
+
+    /**
+     * Locks a brick into a copy of the board and removes full rows, the slow way.
+     */
+    private static int[][] place(int[][] board, int brickId, int rotation, int x, int y) {
+        int[][] cells = new int[HEIGHT][];
+        for (int r = 0; r < HEIGHT; r++) {
+            cells[r] = board[r].clone();
+        }
+        int[] shape = PlacementEnumerator.shapeRows(brickId, rotation);
+        for (int i = 0; i < shape.length; i++) {
+            for (int k = 0; k < 32; k++) {
+                if ((shape[i] >>> k & 1) != 0) {
+                    assertEquals(0, cells[y + i][x + k], "Placement must not overlap the stack");
+                    cells[y + i][x + k] = brickId;
+                }
+            }
+        }
+        int[][] result = new int[HEIGHT][WIDTH];
+        int target = HEIGHT - 1;
+        for (int r = HEIGHT - 1; r >= 0; r--) {
+            boolean full = true;
+            for (int c = 0; c < WIDTH; c++) {
+                full &= cells[r][c] != 0;
+            }
+            if (!full) {
+                result[target--] = cells[r];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes every feature except lines cleared straight from the cells.
+     */
+    private static int[] reference(int[][] board) {
+        int[] heights = new int[WIDTH];
+        int holes = 0;
+        int columnTransitions = 0;
+        for (int c = 0; c < WIDTH; c++) {
+            for (int r = 0; r < HEIGHT; r++) {
+                if (board[r][c] != 0) {
+                    heights[c] = HEIGHT - r;
+                    break;
+                }
+            }
+            boolean below = true; // the floor
+            for (int r = HEIGHT - 1; r >= 0; r--) {
+                boolean filled = board[r][c] != 0;
+                if (filled != below) {
+                    columnTransitions++;
+                }
+                if (!filled && HEIGHT - r < heights[c]) {
+                    holes++;
+                }
+                below = filled;
+            }
+        }
+        int rowTransitions = 0;
+        for (int r = 0; r < HEIGHT; r++) {
+            boolean left = true; // the wall
+            for (int c = 0; c <= WIDTH; c++) {
+                boolean filled = c == WIDTH || board[r][c] != 0;
+                if (filled != left) {
+                    rowTransitions++;
+                }
+                left = filled;
+            }
+        }
+        int aggregate = 0;
+        int bumpiness = 0;
+        int wells = 0;
+        for (int c = 0; c < WIDTH; c++) {
+            aggregate += heights[c];
+            if (c + 1 < WIDTH) {
+                bumpiness += Math.abs(heights[c] - heights[c + 1]);
+            }
+            int left = c == 0 ? Integer.MAX_VALUE : heights[c - 1];
+            int right = c == WIDTH - 1 ? Integer.MAX_VALUE : heights[c + 1];
+            int depth = Math.min(left, right) - heights[c];
+            if (depth > 0) {
+                wells += depth * (depth + 1) / 2;
+            }
+        }
+        int[] values = new int[Feature.count()];
+        values[Feature.AGGREGATE_HEIGHT.ordinal()] = aggregate;
+        values[Feature.HOLES.ordinal()] = holes;
+        values[Feature.BUMPINESS.ordinal()] = bumpiness;
+        values[Feature.WELLS.ordinal()] = wells;
+        values[Feature.ROW_TRANSITIONS.ordinal()] = rowTransitions;
+        values[Feature.COLUMN_TRANSITIONS.ordinal()] = columnTransitions;
+        return values;
+    }
+
+    @Test
+    void testLoadedBoardMatchesReference() {
+        Random random = new Random(11);
+        BoardFeatures features = new BoardFeatures();
+        for (int round = 0; round < 50; round++) {
+            int[][] board = TestBoards.randomStack(random, HEIGHT, WIDTH);
+            features.load(board);
+            int[] expected = reference(board);
+            for (Feature feature : Feature.values()) {
+                if (feature != Feature.LINES_CLEARED) {
+                    assertEquals(expected[feature.ordinal()], features.getBase(feature), feature + " in round " + round);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testIncrementalFeaturesMatchRecomputingEveryPlacement() {
+        Random random = new Random(3);
+        BoardFeatures features = new BoardFeatures();
+        PlacementEnumerator enumerator = new PlacementEnumerator();
+        double[] weights = Feature.defaultWeights();
+        int clears = 0;
+        for (int round = 0; round < 60; round++) {
+            int[][] board = TestBoards.randomStack(random, HEIGHT, WIDTH);
+            features.load(board);
+            for (int brickId = 1; brickId <= 7; brickId++) {
+                int count = enumerator.enumerate(PersistentGrid.of(board), brickId);
+                for (int i = 0; i < count; i++) {
+                    int rotation = enumerator.getRotation(i);
+                    int x = enumerator.getX(i);
+                    int y = enumerator.getY(i);
+                    double score = features.evaluate(brickId, rotation, x, y, weights);
+
+                    int[][] after = place(board, brickId, rotation, x, y);
+                    int[] expected = reference(after);
+                    int lines = (TestBoards.countCells(board) + 4 - TestBoards.countCells(after)) / WIDTH;
+                    expected[Feature.LINES_CLEARED.ordinal()] = lines;
+                    clears += lines > 0 ? 1 : 0;
+
+                    double expectedScore = 0;
+                    for (Feature feature : Feature.values()) {
+                        String where = feature + " for brick " + brickId + " at " + x + "," + y + " r" + rotation;
+                        assertEquals(expected[feature.ordinal()], features.get(feature), where);
+                        expectedScore += weights[feature.ordinal()] * expected[feature.ordinal()];
+                    }
+                    assertEquals(expectedScore, score, 1e-9);
+                }
+            }
+        }
+        // make sure the line clear branch was actually exercised
+        assertTrue(clears > 100, "Expected many clearing placements, got " + clears);
+    }
+
+    @Test
+    void testIncrementalHashMatchesHashingTheResultingBoard() {
+        Random random = new Random(21);
+        BoardFeatures features = new BoardFeatures();
+        BoardFeatures fresh = new BoardFeatures();
+        PlacementEnumerator enumerator = new PlacementEnumerator();
+        for (int round = 0; round < 30; round++) {
+            int[][] board = TestBoards.randomStack(random, HEIGHT, WIDTH);
+            features.load(board);
+            for (int brickId = 1; brickId <= 7; brickId++) {
+                int count = enumerator.enumerate(PersistentGrid.of(board), brickId);
+                for (int i = 0; i < count; i++) {
+                    int rotation = enumerator.getRotation(i);
+                    int x = enumerator.getX(i);
+                    int y = enumerator.getY(i);
+                    features.evaluate(brickId, rotation, x, y, Feature.defaultWeights());
+
+                    fresh.load(place(board, brickId, rotation, x, y));
+                    assertEquals(fresh.getBaseHash(), features.getHash(),
+                            "Hash for brick " + brickId + " at " + x + "," + y + " r" + rotation);
+                }
+            }
+        }
+        // colours do not matter, only which cells are filled
+        int[][] recoloured = TestBoards.randomStack(new Random(4), HEIGHT, WIDTH);
+        features.load(recoloured);
+        long hash = features.getBaseHash();
+        for (int[] row : recoloured) {
+            for (int c = 0; c < WIDTH; c++) {
+                row[c] = row[c] != 0 ? 1 : 0;
+            }
+        }
+        fresh.load(recoloured);
+        assertEquals(hash, fresh.getBaseHash());
+    }
+
+    @Test
+    void testBaseIsUnchangedByEvaluation() {
+        int[][] board = TestBoards.randomStack(new Random(8), HEIGHT, WIDTH);
+        BoardFeatures features = new BoardFeatures();
+        features.load(board);
+        int holes = features.getBase(Feature.HOLES);
+
+        // evaluating works on scratch space only, so candidates never see each other
+        PlacementEnumerator enumerator = new PlacementEnumerator();
+        int count = enumerator.enumerate(PersistentGrid.of(board), 1);
+        for (int i = 0; i < count; i++) {
+            features.evaluate(1, enumerator.getRotation(i), enumerator.getX(i), enumerator.getY(i),
+                    Feature.defaultWeights());
+        }
+        assertEquals(holes, features.getBase(Feature.HOLES));
+        assertEquals(reference(board)[Feature.HOLES.ordinal()], holes);
+    }
+
+    @Test
+    void testRejectsWrongBoardSize() {
+        BoardFeatures features = new BoardFeatures();
+        assertThrows(IllegalArgumentException.class, () -> features.load(new int[HEIGHT][WIDTH + 1]));
+        assertThrows(IllegalArgumentException.class, () -> new BoardFeatures(40, HEIGHT));
+    }
+}
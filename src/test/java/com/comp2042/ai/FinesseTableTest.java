@@ -0,0 +1,99 @@
+package com.comp2042.ai;
+
+import com.comp2042.util.GameConfiguration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FinesseTableTest {
+
+    private static final int WIDTH = GameConfiguration.BOARD_WIDTH;
+    private static final int HEIGHT = GameConfiguration.BOARD_HEIGHT;
+    private static final int SPAWN_X = WIDTH / 2 - GameConfiguration.SPAWN_X_OFFSET;
+    private static final int I = 1;
+    private static final int O = 4;
+    private static final int T = 6;
+
+    private static FinesseTable table;
+
+    @BeforeAll
+    static void setUp() {
+        table = new FinesseTable();
+    }
+
+    @Test
+    void testEmptySurfaceTable() {
+        // every brick spawns flat, so dropping it where it is takes nothing
+        for (int id = 1; id <= 7; id++) {
+            assertEquals(0, table.optimalPresses(id, 0, SPAWN_X), "Brick " + id + " at spawn");
+        }
+        assertEquals(1, table.optimalPresses(T, 0, SPAWN_X - 1));
+        assertEquals(2, table.optimalPresses(T, 0, SPAWN_X - 2), "Two taps, or DAS and one tap back");
+        assertEquals(1, table.optimalPresses(T, 0, 0), "Holding left reaches the wall in one press");
+        assertEquals(3, table.optimalPresses(T, 3, SPAWN_X), "One rotate key: three turns for the last rotation");
+
+        assertEquals(List.of(FinesseTable.Key.DAS_LEFT), table.optimalSequence(T, 0, 0));
+        assertEquals(List.of(FinesseTable.Key.ROTATE, FinesseTable.Key.DAS_RIGHT), table.optimalSequence(I, 1, WIDTH - 2));
+        assertEquals(2, table.optimalSequence(T, 0, SPAWN_X - 2).size());
+
+        // off the board
+        assertEquals(-1, table.optimalPresses(T, 0, WIDTH - 2));
+        assertNull(table.optimalSequence(T, 0, -3));
+    }
+
+    @Test
+    void testBoardBelowSpawnRowsUsesTable() {
+        int[][] board = new int[HEIGHT][WIDTH];
+        for (int r = HEIGHT - 3; r < HEIGHT; r++) {
+            Arrays.fill(board[r], 1, WIDTH, 7);
+        }
+
+        // T flat at the left wall lands on the stack, as a plain drop
+        assertEquals(1, table.optimalPresses(board, T, 0, 0, HEIGHT - 6));
+        // the I drops into the well left of the stack
+        assertEquals(2, table.optimalPresses(board, I, 1, -1, HEIGHT - 4));
+    }
+
+    @Test
+    void testTuckNeedsSoftDrop() {
+        int[][] board = new int[HEIGHT][WIDTH];
+        // an overhang over the two leftmost columns
+        board[HEIGHT - 3][0] = 7;
+
+        // the O (cells in columns 1-2 of its matrix) under the overhang: soft drop, then slide left
+        assertEquals(2, table.optimalPresses(board, O, 0, -1, HEIGHT - 3));
+
+        // through a gap at the right it takes one more press to get there
+        Arrays.fill(board[HEIGHT - 3], 0, WIDTH - 2, 7);
+        assertEquals(3, table.optimalPresses(board, O, 0, -1, HEIGHT - 3));
+
+        // with a roof all the way across, nothing gets in
+        Arrays.fill(board[HEIGHT - 3], 7);
+        assertEquals(-1, table.optimalPresses(board, O, 0, -1, HEIGHT - 3));
+    }
+
+    @Test
+    void testStackInSpawnRowsUsesSearch() {
+        int[][] board = new int[HEIGHT][WIDTH];
+        // a column up to the top on the right wall stops DAS one column early
+        for (int[] row : board) {
+            row[WIDTH - 1] = 7;
+        }
+
+        assertEquals(2, table.optimalPresses(T, 0, WIDTH - 4), "On an empty surface this takes two presses");
+        assertEquals(1, table.optimalPresses(board, T, 0, WIDTH - 4, HEIGHT - 3), "DAS now stops right there");
+    }
+
+    @Test
+    void testRejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> table.optimalPresses(8, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> table.optimalPresses(O, 1, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> table.optimalPresses(new int[HEIGHT][WIDTH + 1], T, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new FinesseTable(WIDTH, 3));
+    }
+}
@@ -0,0 +1,215 @@
+package com.comp2042.ai;
+
+import com.comp2042.controllers.GameController;
+import com.comp2042.logic.board.SimpleBoard;
+import com.comp2042.logic.mode.GameMode;
+import com.comp2042.logic.mode.GameModes;
+import com.comp2042.logic.mode.NormalMode;
+import com.comp2042.logic.mode.ZenMode;
+import com.comp2042.managers.ScoreManager;
+import com.comp2042.model.GameObserver;
+import com.comp2042.model.ViewData;
+import com.comp2042.replay.ReplayAction;
+import com.comp2042.replay.ReplayPlayer;
+import com.comp2042.util.GameConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HintServiceTest {
+
+    private static final int WIDTH = GameConfiguration.BOARD_WIDTH;
+    private static final int HEIGHT = GameConfiguration.BOARD_HEIGHT;
+
+    private static GameController newGame(long seed) {
+        GameController controller = new GameController(new SimpleBoard(HEIGHT, WIDTH), new ScoreManager(null), seed);
+        controller.setGameMode(GameModes.forName(ZenMode.NAME));
+        return controller;
+    }
+
+    /** Remembers the falling brick as the renderer would see it. */
+    private static final class Watcher implements GameObserver {
+        volatile ViewData view;
+
+        @Override public void onBoardUpdated(ViewData viewData) { view = viewData; }
+        @Override public void onGameBackgroundUpdated(int[][] boardMatrix) {}
+        @Override public void onScoreUpdated(int score) {}
+        @Override public void onLevelUpdated(int level) {}
+        @Override public void onLineCleared(int lines, String message) {}
+        @Override public void onGameOver() {}
+        @Override public void onBrickDropped() {}
+        @Override public void onDangerStateChanged(boolean isDanger) {}
+    }
+
+    /** Waits for the next hint that is still current, skipping clears and stale ones. */
+    private static HintService.Hint awaitCurrent(BlockingQueue<HintService.Hint> hints, HintService service)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            HintService.Hint hint = hints.poll(100, TimeUnit.MILLISECONDS);
+            if (hint != null && service.isCurrent(hint)) {
+                return hint;
+            }
+        }
+        return fail("No current hint arrived");
+    }
+
+    @Test
+    void testHintsTheFallingBrickAndDeepensWithinBudget() throws InterruptedException {
+        GameController controller = newGame(3L);
+        BlockingQueue<HintService.Hint> hints = new LinkedBlockingQueue<>();
+        List<HintService.Hint> all = new ArrayList<>();
+        Watcher watcher = new Watcher();
+        try (HintService service = new HintService(controller, hint -> {
+            if (hint != null) {
+                synchronized (all) {
+                    all.add(hint);
+                }
+                hints.add(hint);
+            }
+        }, 2_000, 3, 8)) {
+            controller.addObserver(watcher);
+            controller.addObserver(service);
+            controller.createNewGame(3L);
+
+            HintService.Hint hint = awaitCurrent(hints, service);
+            int falling = firstCell(watcher.view.getBrickData());
+            assertEquals(falling, hint.getPlan().getBrickId());
+            assertFalse(hint.getPlan().isHold(), "Hints never suggest a hold");
+
+            // the hint must be a reachable lock position of the falling brick
+            PlacementEnumerator enumerator = new PlacementEnumerator();
+            int count = enumerator.enumerate(controller.getBoard(), falling,
+                    PlacementEnumerator.rotationOf(falling, watcher.view.getBrickData()),
+                    watcher.view.getxPosition(), watcher.view.getyPosition());
+            boolean reachable = false;
+            for (int i = 0; i < count; i++) {
+                reachable |= enumerator.getRotation(i) == hint.getPlan().getRotation()
+                        && enumerator.getX(i) == hint.getPlan().getX() && enumerator.getY(i) == hint.getPlan().getY();
+            }
+            assertTrue(reachable, "Hint " + hint + " is not a reachable placement");
+            assertEquals(4, countCells(hint.getShape()));
+
+            // with a generous budget the search keeps deepening to the limit
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (System.nanoTime() < deadline && hint.getDepth() < 3) {
+                HintService.Hint next = hints.poll(100, TimeUnit.MILLISECONDS);
+                hint = service.isCurrent(next) ? next : hint;
+            }
+            synchronized (all) {
+                assertEquals(List.of(1, 2, 3), all.stream().filter(service::isCurrent)
+                        .map(HintService.Hint::getDepth).toList());
+            }
+        }
+    }
+
+    @Test
+    void testNewBrickMakesTheOldHintStale() throws InterruptedException {
+        GameController controller = newGame(5L);
+        BlockingQueue<HintService.Hint> hints = new LinkedBlockingQueue<>();
+        List<Boolean> clears = new ArrayList<>();
+        try (HintService service = new HintService(controller, hint -> {
+            if (hint == null) {
+                synchronized (clears) {
+                    clears.add(true);
+                }
+            } else {
+                hints.add(hint);
+            }
+        }, 20, 2, 8)) {
+            controller.addObserver(service);
+            controller.createNewGame(5L);
+            HintService.Hint first = awaitCurrent(hints, service);
+
+            ReplayPlayer.apply(controller, ReplayAction.HARD_DROP);
+
+            assertFalse(service.isCurrent(first), "A lock must make the hint stale at once");
+            synchronized (clears) {
+                assertFalse(clears.isEmpty(), "The listener should be told to clear the old hint");
+            }
+            HintService.Hint second = awaitCurrent(hints, service);
+            assertNotSame(first, second);
+
+            // moving the brick does not restart the search
+            long searches = service.getSearchCount();
+            ReplayPlayer.apply(controller, ReplayAction.LEFT);
+            ReplayPlayer.apply(controller, ReplayAction.ROTATE);
+            assertEquals(searches, service.getSearchCount());
+            assertTrue(service.isCurrent(second));
+        }
+    }
+
+    @Test
+    void testRapidChangesCancelStaleSearches() throws InterruptedException {
+        GameController controller = newGame(9L);
+        BlockingQueue<HintService.Hint> hints = new LinkedBlockingQueue<>();
+        // a budget far beyond the test, so only cancellation can stop a search early
+        try (HintService service = new HintService(controller, hint -> {
+            if (hint != null) {
+                hints.add(hint);
+            }
+        }, 60_000, GameConfiguration.PREVIEW_COUNT + 1, 64)) {
+            controller.addObserver(service);
+            controller.createNewGame(9L);
+            long started = service.getSearchCount();
+            for (int i = 0; i < 20; i++) {
+                ReplayPlayer.apply(controller, ReplayAction.HARD_DROP);
+            }
+
+            HintService.Hint last = awaitCurrent(hints, service);
+
+            assertEquals(started + 20, service.getSearchCount(), "Each new brick should start one search");
+            assertTrue(service.getCancelledCount() > 0, "Superseded searches should have been cancelled");
+            assertTrue(service.isCurrent(last));
+        }
+    }
+
+    @Test
+    void testDisabledServiceStaysQuiet() {
+        GameController controller = newGame(2L);
+        GameMode normal = GameModes.forName(NormalMode.NAME);
+        controller.setGameMode(normal);
+        List<HintService.Hint> hints = new ArrayList<>();
+        try (HintService service = new HintService(controller, hint -> {
+            if (hint != null) {
+                hints.add(hint);
+            }
+        })) {
+            service.setEnabled(normal.isHintEnabled());
+            controller.addObserver(service);
+            controller.createNewGame(2L);
+            ReplayPlayer.apply(controller, ReplayAction.HARD_DROP);
+
+            assertFalse(service.isEnabled());
+            assertEquals(0, service.getSearchCount());
+        }
+        assertTrue(GameModes.forName(ZenMode.NAME).isHintEnabled());
+    }
+
+    private static int firstCell(int[][] shape) {
+        for (int[] row : shape) {
+            for (int value : row) {
+                if (value != 0) {
+                    return value;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static int countCells(int[][] shape) {
+        int count = 0;
+        for (int[] row : shape) {
+            for (int value : row) {
+                count += value != 0 ? 1 : 0;
+            }
+        }
+        return count;
+    }
+}
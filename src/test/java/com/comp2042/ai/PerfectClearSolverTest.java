@@ -0,0 +1,174 @@
+package com.comp2042.ai;
+
+import com.comp2042.util.GameConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerfectClearSolverTest {
+
+    private static final int WIDTH = GameConfiguration.BOARD_WIDTH;
+    private static final int HEIGHT = GameConfiguration.BOARD_HEIGHT;
+    private static final int SPAWN_X = WIDTH / 2 - GameConfiguration.SPAWN_X_OFFSET;
+    private static final int I = 1;
+    private static final int J = 2;
+    private static final int L = 3;
+    private static final int O = 4;
+    private static final int S = 5;
+    private static final int T = 6;
+    private static final int Z = 7;
+
+    /** The bottom rows filled, except the given columns. */
+    private static int[][] rows(int count, int... gaps) {
+        int[][] board = new int[HEIGHT][WIDTH];
+        for (int r = HEIGHT - count; r < HEIGHT; r++) {
+            for (int c = 0; c < WIDTH; c++) {
+                board[r][c] = 7;
+            }
+            for (int c : gaps) {
+                board[r][c] = 0;
+            }
+        }
+        return board;
+    }
+
+    private static PerfectClearSolver solver(ForkJoinPool pool) {
+        return new PerfectClearSolver(4, Duration.ofSeconds(20), pool);
+    }
+
+    /** Plays the placements (checking that each is reachable) and returns the board they leave. */
+    private static int[][] play(int[][] start, PerfectClearResult result) {
+        int[][] board = new int[HEIGHT][];
+        for (int r = 0; r < HEIGHT; r++) {
+            board[r] = start[r].clone();
+        }
+        PlacementEnumerator enumerator = new PlacementEnumerator();
+        for (Plan plan : result.getPlacements()) {
+            int count = enumerator.enumerate(board, plan.getBrickId(), 0, SPAWN_X, 0);
+            boolean reachable = false;
+            for (int i = 0; i < count; i++) {
+                reachable |= enumerator.getRotation(i) == plan.getRotation() && enumerator.getX(i) == plan.getX()
+                        && enumerator.getY(i) == plan.getY();
+            }
+            assertTrue(reachable, plan + " is not reachable");
+            PlacementEnumerator.lock(board, plan.getBrickId(), plan.getRotation(), plan.getX(), plan.getY());
+        }
+        return board;
+    }
+
+    private static boolean isEmpty(int[][] board) {
+        for (int[] row : board) {
+            for (int cell : row) {
+                if (cell != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Test
+    void testFindsTwoLineClearFromAnEmptyBoard() {
+        int[][] board = new int[HEIGHT][WIDTH];
+        int[] preview = {I, O, O, I};
+
+        PerfectClearResult result = solver(ForkJoinPool.commonPool()).solve(board, O, 0, SPAWN_X, 0, 0, true, preview);
+
+        assertTrue(result.isFound(), result.toString());
+        assertEquals(2, result.getLines(), "The lowest possible clear should be found first");
+        assertEquals(5, result.getPlacements().size());
+        assertTrue(isEmpty(play(board, result)), "The placements should empty the board");
+    }
+
+    @Test
+    void testHoldsWhenTheFallingBrickDoesNotFit() {
+        // a one-wide well four deep takes nothing but a vertical I
+        int[][] board = rows(4, WIDTH - 1);
+
+        PerfectClearResult result = solver(ForkJoinPool.commonPool()).solve(board, S, 0, SPAWN_X, 0, 0, true,
+                new int[]{I, Z});
+
+        assertTrue(result.isFound(), result.toString());
+        Plan only = result.getPlacements().get(0);
+        assertTrue(only.isHold());
+        assertEquals(I, only.getBrickId());
+        assertEquals(1, result.getPlacements().size());
+    }
+
+    @Test
+    void testProvesImpossiblePositions() {
+        PerfectClearSolver solver = solver(ForkJoinPool.commonPool());
+
+        // the well needs an I, and no I is coming
+        PerfectClearResult noI = solver.solve(rows(4, WIDTH - 1), O, 0, SPAWN_X, 0, O, true, new int[]{O, S});
+        // three cells plus any number of bricks never make whole lines of ten, up to four lines
+        int[][] three = new int[HEIGHT][WIDTH];
+        three[HEIGHT - 1][0] = three[HEIGHT - 1][1] = three[HEIGHT - 1][2] = 1;
+        PerfectClearResult count = solver.solve(three, T, 0, SPAWN_X, 0, 0, true, new int[]{I, L, J, S, Z, O});
+        // two wells need two I's (or verticals T, L, J), so only flat bricks cannot even the columns up
+        PerfectClearResult parity = solver.solve(rows(2, 0, 2), O, 0, SPAWN_X, 0, 0, true, new int[]{S, Z});
+
+        assertEquals(PerfectClearResult.Status.IMPOSSIBLE, noI.getStatus(), noI.toString());
+        assertEquals(PerfectClearResult.Status.IMPOSSIBLE, count.getStatus());
+        assertEquals(0, count.getNodeCount(), "No line height passes the cell count");
+        assertEquals(PerfectClearResult.Status.IMPOSSIBLE, parity.getStatus());
+        assertTrue(parity.getPlacements().isEmpty());
+    }
+
+    @Test
+    void testSameSolutionOnAnyPool() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            int[][] board = new int[HEIGHT][WIDTH];
+            int[] preview = {L, L, I, I, S};
+
+            PerfectClearResult first = solver(single).solve(board, O, 0, SPAWN_X, 0, 0, true, preview);
+            PerfectClearResult second = solver(several).solve(board, O, 0, SPAWN_X, 0, 0, true, preview);
+
+            assertTrue(first.isFound(), first.toString());
+            assertEquals(first.getPlacements().toString(), second.getPlacements().toString());
+            assertTrue(isEmpty(play(board, second)));
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    @Test
+    void testGivesUpAtTheTimeLimit() {
+        PerfectClearSolver solver = new PerfectClearSolver(4, Duration.ofNanos(1), ForkJoinPool.commonPool());
+        int[][] board = new int[HEIGHT][WIDTH];
+
+        PerfectClearResult result = solver.solve(board, T, 0, SPAWN_X, 0, 0, true, new int[]{L, O, S, I, Z, J, T, L, O});
+
+        assertEquals(PerfectClearResult.Status.TIMED_OUT, result.getStatus());
+        assertTrue(result.getPlacements().isEmpty());
+    }
+
+    @Test
+    void testZeroTimeLimitMeansNoLimit() {
+        PerfectClearSolver solver = new PerfectClearSolver(4, Duration.ZERO, ForkJoinPool.commonPool());
+        int[][] board = new int[HEIGHT][WIDTH];
+
+        PerfectClearResult result = solver.solve(board, O, 0, SPAWN_X, 0, 0, true, new int[]{I, O, O, I});
+
+        assertTrue(result.isFound(), result.toString());
+        assertEquals(2, result.getLines());
+    }
+
+    @Test
+    void testRejectsInvalidInput() {
+        PerfectClearSolver solver = new PerfectClearSolver();
+        int[][] board = new int[HEIGHT][WIDTH];
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(board, 8, 0, SPAWN_X, 0, 0, true, new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(board, T, 0, SPAWN_X, 0, 0, true, new int[]{0}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PerfectClearSolver(0, Duration.ofSeconds(1), ForkJoinPool.commonPool()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PerfectClearSolver(4, Duration.ofMillis(-1), ForkJoinPool.commonPool()));
+    }
+}
@@ -0,0 +1,132 @@
+package com.comp2042.ai;
+
+import com.comp2042.logic.board.SimpleBoard;
+import com.comp2042.model.BoardState;
+import com.comp2042.model.PersistentGrid;
+import com.comp2042.replay.ReplayAction;
+import com.comp2042.util.GameConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlacementEnumeratorTest {
+
+    private static final int WIDTH = GameConfiguration.BOARD_WIDTH;
+    private static final int HEIGHT = GameConfiguration.BOARD_HEIGHT;
+    private static final int O_BRICK = 4;
+
+    /**
+     * Plays a path on a real board and returns the locked brick's final state, failing if any input is rejected.
+     */
+    private static BoardState play(PersistentGrid grid, int brickId, List<ReplayAction> path) {
+        SimpleBoard board = new SimpleBoard(HEIGHT, WIDTH);
+        board.newGame(1L);
+        BoardState fresh = board.captureState();
+        board.restoreFullState(new BoardState(grid, brickId, 0, WIDTH / 2 - GameConfiguration.SPAWN_X_OFFSET, 0,
+                0, true, fresh.getGeneratorState()));
+        for (ReplayAction action : path.subList(0, path.size() - 1)) {
+            boolean moved = switch (action) {
+                case LEFT -> board.moveBrickLeft();
+                case RIGHT -> board.moveBrickRight();
+                case ROTATE -> board.rotateLeftBrick();
+                case SOFT_DROP -> board.moveBrickDown();
+                default -> throw new AssertionError("Unexpected input " + action);
+            };
+            assertTrue(moved, "Every input on the path should succeed: " + path);
+        }
+        assertEquals(ReplayAction.HARD_DROP, path.getLast());
+        board.hardDrop();
+        return board.captureState();
+    }
+
+    private static PersistentGrid randomStack(Random random) {
+        int[][] cells = new int[HEIGHT][WIDTH];
+        for (int y = HEIGHT - 8; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                cells[y][x] = random.nextInt(100) < 45 ? 1 : 0;
+            }
+        }
+        return PersistentGrid.of(cells);
+    }
+
+    @Test
+    void testEmptyBoardPlacementCounts() {
+        PlacementEnumerator enumerator = new PlacementEnumerator();
+        PersistentGrid empty = PersistentGrid.empty(HEIGHT, WIDTH);
+
+        // one placement per column offset and distinct rotation
+        assertEquals(17, enumerator.enumerate(empty, 1), "I: 7 flat + 10 upright");
+        assertEquals(9, enumerator.enumerate(empty, O_BRICK), "O has a single rotation");
+        assertEquals(34, enumerator.enumerate(empty, 6), "T: 8 + 9 + 8 + 9");
+        assertEquals(17, enumerator.enumerate(empty, 5), "S: 8 flat + 9 upright");
+    }
+
+    @Test
+    void testEveryPathReachesItsPlacementOnARealBoard() {
+        PlacementEnumerator enumerator = new PlacementEnumerator();
+        Random random = new Random(5);
+        for (int round = 0; round < 20; round++) {
+            PersistentGrid grid = randomStack(random);
+            for (int brickId = 1; brickId <= 7; brickId++) {
+                int count = enumerator.enumerate(grid, brickId);
+                Set<String> seen = new HashSet<>();
+                for (int i = 0; i < count; i++) {
+                    BoardState locked = play(grid, brickId, enumerator.getPath(i));
+                    assertEquals(enumerator.getRotation(i), locked.getRotation(), "Rotation of placement " + i);
+                    assertEquals(enumerator.getX(i), locked.getX(), "X of placement " + i);
+                    assertEquals(enumerator.getY(i), locked.getY(), "Y of placement " + i);
+                    assertTrue(seen.add(locked.getRotation() + "," + locked.getX() + "," + locked.getY()),
+                            "Placements should be unique");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFindsTuckUnderOverhang() {
+        // a two-row cave on the left, open to the sky only in columns 0-1
+        int[][] cells = new int[HEIGHT][WIDTH];
+        for (int x = 2; x < WIDTH; x++) {
+            cells[HEIGHT - 3][x] = 1;
+        }
+        for (int x = 6; x < WIDTH; x++) {
+            cells[HEIGHT - 2][x] = 1;
+            cells[HEIGHT - 1][x] = 1;
+        }
+        PersistentGrid grid = PersistentGrid.of(cells);
+        PlacementEnumerator enumerator = new PlacementEnumerator();
+
+        int count = enumerator.enumerate(grid, O_BRICK);
+
+        boolean tucked = false;
+        for (int i = 0; i < count; i++) {
+            PersistentGrid after = grid.merge(new int[][]{{0, 0, 0, 0}, {0, 4, 4, 0}, {0, 4, 4, 0}, {0, 0, 0, 0}},
+                    enumerator.getX(i), enumerator.getY(i));
+            if (after.get(HEIGHT - 1, 5) != 0 && after.get(HEIGHT - 2, 4) != 0) {
+                tucked = true;
+                List<ReplayAction> path = enumerator.getPath(i);
+                assertTrue(path.contains(ReplayAction.SOFT_DROP), "A tuck needs a soft drop before sliding");
+                assertEquals(enumerator.getY(i), play(grid, O_BRICK, path).getY());
+            }
+        }
+        assertTrue(tucked, "The O brick should be slid under the overhang");
+    }
+
+    @Test
+    void testBlockedSpawnHasNoPlacements() {
+        int[][] cells = new int[HEIGHT][WIDTH];
+        for (int y = 0; y < HEIGHT; y++) {
+            cells[y][WIDTH / 2] = 1;
+        }
+        PlacementEnumerator enumerator = new PlacementEnumerator();
+
+        assertEquals(0, enumerator.enumerate(PersistentGrid.of(cells), O_BRICK));
+        assertThrows(IndexOutOfBoundsException.class, () -> enumerator.getX(0));
+        assertThrows(IllegalArgumentException.class, () -> enumerator.enumerate(new int[4][4], 1, 0, 0, 0));
+    }
+}
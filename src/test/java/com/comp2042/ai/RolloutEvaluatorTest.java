@@ -0,0 +1,164 @@
+package com.comp2042.ai;
+
+import com.comp2042.ai.RolloutEvaluator.Policy;
+import com.comp2042.ai.RolloutEvaluator.Settings;
+import com.comp2042.logic.TestBoards;
+import com.comp2042.util.GameConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RolloutEvaluatorTest {
+
+    private static final int WIDTH = GameConfiguration.BOARD_WIDTH;
+    private static final int HEIGHT = GameConfiguration.BOARD_HEIGHT;
+    private static final int SPAWN_X = WIDTH / 2 - GameConfiguration.SPAWN_X_OFFSET;
+    private static final int I_BRICK = 1;
+    private static final int O_BRICK = 4;
+
+    /** The lowest landing of a vertical I in the last column, as {rotation, x, y}. */
+    private static int[] wellDrop(int[][] board) {
+        PlacementEnumerator enumerator = new PlacementEnumerator();
+        int count = enumerator.enumerate(board, I_BRICK, 0, SPAWN_X, 0);
+        int[] best = null;
+        for (int i = 0; i < count; i++) {
+            int[] shape = PlacementEnumerator.shapeRows(I_BRICK, enumerator.getRotation(i));
+            int columns = 0;
+            for (int row : shape) {
+                columns |= row << enumerator.getX(i);
+            }
+            if (columns == 1 << (WIDTH - 1) && (best == null || enumerator.getY(i) > best[2])) {
+                best = new int[]{enumerator.getRotation(i), enumerator.getX(i), enumerator.getY(i)};
+            }
+        }
+        assertNotNull(best, "The I should reach the well");
+        return best;
+    }
+
+    /** Some reachable placement of a brick, as {rotation, x, y}. */
+    private static int[] anyDrop(int[][] board, int brickId) {
+        PlacementEnumerator enumerator = new PlacementEnumerator();
+        assertTrue(enumerator.enumerate(board, brickId, 0, SPAWN_X, 0) > 0);
+        return new int[]{enumerator.getRotation(0), enumerator.getX(0), enumerator.getY(0)};
+    }
+
+    @Test
+    void testSameSeedGivesTheSameEstimateOnAnyPool() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            Settings settings = new Settings().rollouts(40).horizon(20).policy(Policy.RANDOM);
+            RolloutEvaluator a = new RolloutEvaluator(settings, single);
+            RolloutEvaluator b = new RolloutEvaluator(settings, several);
+            int[][] board = TestBoards.wellBoard(HEIGHT, WIDTH, 8);
+            int[] drop = wellDrop(board);
+
+            RolloutEstimate first = a.evaluate(board, I_BRICK, drop[0], drop[1], drop[2], new int[]{6}, 3L);
+            RolloutEstimate second = b.evaluate(board, I_BRICK, drop[0], drop[1], drop[2], new int[]{6}, 3L);
+            RolloutEstimate other = b.evaluate(board, I_BRICK, drop[0], drop[1], drop[2], new int[]{6}, 4L);
+
+            assertEquals(40, first.getRollouts());
+            assertEquals(first.toString(), second.toString());
+            assertEquals(first.getScoreVariance(), second.getScoreVariance());
+            assertNotEquals(first.toString(), other.toString(), "A different seed should play different games");
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    @Test
+    void testTallStacksSurviveLessOften() {
+        RolloutEvaluator evaluator = new RolloutEvaluator(new Settings().rollouts(64).horizon(25).policy(Policy.RANDOM),
+                ForkJoinPool.commonPool());
+        int[][] lowBoard = TestBoards.wellBoard(HEIGHT, WIDTH, 2);
+        int[][] highBoard = TestBoards.wellBoard(HEIGHT, WIDTH, HEIGHT - 8);
+        int[] lowDrop = anyDrop(lowBoard, O_BRICK);
+        int[] highDrop = anyDrop(highBoard, O_BRICK);
+
+        // an O on top of a low and of a towering stack
+        RolloutEstimate low = evaluator.evaluate(lowBoard, O_BRICK, lowDrop[0], lowDrop[1], lowDrop[2], new int[0], 1L);
+        RolloutEstimate high = evaluator.evaluate(highBoard, O_BRICK, highDrop[0], highDrop[1], highDrop[2], new int[0], 1L);
+
+        assertTrue(low.getSurvivalMean() > high.getSurvivalMean(), low + " vs " + high);
+        assertTrue(high.getSurvivalRate() < 1, high.toString());
+        assertTrue(high.getSurvivalVariance() >= 0);
+        assertEquals(25, low.getHorizon());
+    }
+
+    @Test
+    void testScoreIncludesTheEvaluatedClear() {
+        RolloutEvaluator evaluator = new RolloutEvaluator(new Settings().rollouts(8).horizon(1),
+                ForkJoinPool.commonPool());
+        int[] drop = wellDrop(TestBoards.wellBoard(HEIGHT, WIDTH, 4));
+
+        RolloutEstimate estimate = evaluator.evaluate(TestBoards.wellBoard(HEIGHT, WIDTH, 4), I_BRICK,
+                drop[0], drop[1], drop[2], new int[]{O_BRICK}, 7L);
+
+        // four lines at once, then one O on an empty board that clears nothing
+        assertEquals(16 * GameConfiguration.SCORE_PER_LINE, estimate.getScoreMean(), 1e-9);
+        assertEquals(0, estimate.getScoreVariance(), 1e-9);
+        assertEquals(1.0, estimate.getSurvivalRate());
+    }
+
+    @Test
+    void testGreedyRolloutsOutlastRandomOnes() {
+        Settings settings = new Settings().rollouts(24).horizon(60);
+        RolloutEvaluator greedy = new RolloutEvaluator(settings.policy(Policy.GREEDY), ForkJoinPool.commonPool());
+        RolloutEvaluator random = new RolloutEvaluator(settings.policy(Policy.RANDOM), ForkJoinPool.commonPool());
+        int[] drop = wellDrop(TestBoards.wellBoard(HEIGHT, WIDTH, 4));
+
+        RolloutEstimate smart = greedy.evaluate(TestBoards.wellBoard(HEIGHT, WIDTH, 4), I_BRICK,
+                drop[0], drop[1], drop[2], new int[0], 2L);
+        RolloutEstimate blind = random.evaluate(TestBoards.wellBoard(HEIGHT, WIDTH, 4), I_BRICK,
+                drop[0], drop[1], drop[2], new int[0], 2L);
+
+        assertEquals(1.0, smart.getSurvivalRate(), smart.toString());
+        assertTrue(smart.getSurvivalMean() > blind.getSurvivalMean(), smart + " vs " + blind);
+        assertTrue(smart.getScoreMean() > blind.getScoreMean(), smart + " vs " + blind);
+    }
+
+    @Test
+    void testExhaustedBudgetStopsEarly() {
+        RolloutEvaluator evaluator = new RolloutEvaluator(new Settings().rollouts(10_000).horizon(200)
+                .timeBudget(Duration.ofMillis(20)), ForkJoinPool.commonPool());
+        int[] drop = wellDrop(TestBoards.wellBoard(HEIGHT, WIDTH, 4));
+
+        long start = System.nanoTime();
+        RolloutEstimate estimate = evaluator.evaluate(TestBoards.wellBoard(HEIGHT, WIDTH, 4), I_BRICK,
+                drop[0], drop[1], drop[2], new int[0], 5L);
+        long elapsed = System.nanoTime() - start;
+
+        assertTrue(estimate.getRollouts() < 10_000, estimate.toString());
+        // the rollouts already running when time is up still finish, so allow some slack
+        assertTrue(elapsed < Duration.ofSeconds(2).toNanos(), "Took " + elapsed / 1_000_000 + " ms");
+    }
+
+    @Test
+    void testZeroBudgetMeansNoLimit() {
+        RolloutEvaluator evaluator = new RolloutEvaluator(new Settings().rollouts(64).horizon(40)
+                .timeBudget(Duration.ZERO), ForkJoinPool.commonPool());
+        int[] drop = wellDrop(TestBoards.wellBoard(HEIGHT, WIDTH, 4));
+
+        RolloutEstimate estimate = evaluator.evaluate(TestBoards.wellBoard(HEIGHT, WIDTH, 4), I_BRICK,
+                drop[0], drop[1], drop[2], new int[0], 5L);
+
+        assertEquals(64, estimate.getRollouts(), estimate.toString());
+    }
+
+    @Test
+    void testRejectsInvalidInput() {
+        RolloutEvaluator evaluator = new RolloutEvaluator();
+        int[][] board = TestBoards.wellBoard(HEIGHT, WIDTH, 4);
+        // overlapping the stack
+        assertThrows(IllegalArgumentException.class,
+                () -> evaluator.evaluate(board, O_BRICK, 0, 0, HEIGHT - 2, new int[0], 1L));
+        assertThrows(IllegalArgumentException.class,
+                () -> evaluator.evaluate(board, O_BRICK, 0, 0, 0, new int[]{9}, 1L));
+        assertThrows(IllegalArgumentException.class, () -> new Settings().rollouts(0));
+        assertThrows(IllegalArgumentException.class, () -> new Settings().timeBudget(Duration.ofMillis(-1)));
+    }
+}
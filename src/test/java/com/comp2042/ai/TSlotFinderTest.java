@@ -0,0 +1,74 @@
+package com.comp2042.ai;
+
+import com.comp2042.logic.TSpinDetector;
+import com.comp2042.logic.TestBoards;
+import com.comp2042.model.PersistentGrid;
+import com.comp2042.model.TSpin;
+import com.comp2042.util.GameConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TSlotFinderTest {
+
+    private static final int WIDTH = GameConfiguration.BOARD_WIDTH;
+    private static final int HEIGHT = GameConfiguration.BOARD_HEIGHT;
+
+    @Test
+    void testFindsTSpinDouble() {
+        int[][] board = TestBoards.doubleSlot(HEIGHT, WIDTH);
+
+        List<TSlotFinder.TSlot> slots = new TSlotFinder().find(board);
+
+        assertEquals(1, slots.size(), slots.toString());
+        TSlotFinder.TSlot slot = slots.get(0);
+        assertEquals(2, slot.getLines());
+        assertEquals(3, slot.getX());
+        assertEquals(HEIGHT - 3, slot.getY());
+        assertTrue(slot.isReachable(), "The T can spin in under the overhang");
+        // the detector agrees that locking there after a rotation is a full T-spin
+        assertEquals(TSpin.FULL, TSpinDetector.classify(PersistentGrid.of(board), TSpinDetector.T_BRICK,
+                slot.getRotation(), slot.getX(), slot.getY(), 0));
+    }
+
+    @Test
+    void testCountsLinesPerSlot() {
+        int[][] single = TestBoards.doubleSlot(HEIGHT, WIDTH);
+        single[HEIGHT - 1][0] = 0;
+        int[][] zero = TestBoards.doubleSlot(HEIGHT, WIDTH);
+        zero[HEIGHT - 1][0] = 0;
+        zero[HEIGHT - 2][0] = 0;
+
+        assertEquals(1, new TSlotFinder().find(single).get(0).getLines(), "Only the flat row fills up");
+        assertEquals(0, new TSlotFinder().find(zero).get(0).getLines());
+    }
+
+    @Test
+    void testIgnoresOpenBoardsAndWellsWithoutOverhang() {
+        int[][] open = TestBoards.doubleSlot(HEIGHT, WIDTH);
+        open[HEIGHT - 3][3] = 0;
+
+        assertTrue(new TSlotFinder().find(new int[HEIGHT][WIDTH]).isEmpty());
+        assertTrue(new TSlotFinder().find(open).isEmpty(), "Without an overhang a T just drops in");
+    }
+
+    @Test
+    void testCoveredSlotIsUnreachable() {
+        int[][] board = TestBoards.doubleSlot(HEIGHT, WIDTH);
+        // a roof over the whole slot, with the pivot's top still empty
+        TestBoards.fillRow(board, HEIGHT - 4);
+
+        List<TSlotFinder.TSlot> slots = new TSlotFinder().find(board);
+
+        assertEquals(1, slots.size());
+        assertFalse(slots.get(0).isReachable());
+    }
+
+    @Test
+    void testRejectsWrongBoardSize() {
+        assertThrows(IllegalArgumentException.class, () -> new TSlotFinder().find(new int[HEIGHT][WIDTH + 1]));
+        assertThrows(IllegalArgumentException.class, () -> new TSlotFinder(31, HEIGHT));
+    }
+}
@@ -0,0 +1,132 @@
+package com.comp2042.ai;
+
+import com.comp2042.ai.TranspositionTable.Replacement;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+    @Test
+    void testStoreThenProbe() {
+        TranspositionTable table = new TranspositionTable(1 << 10, Replacement.ALWAYS);
+
+        assertEquals(TranspositionTable.MISS, table.probe(42L));
+        assertTrue(table.store(42L, -3.5f, 7));
+        long entry = table.probe(42L);
+
+        assertNotEquals(TranspositionTable.MISS, entry);
+        assertEquals(-3.5f, TranspositionTable.score(entry));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(2, table.getProbes());
+        assertEquals(1, table.getHits());
+        assertEquals(0.5, table.getHitRate(), 1e-9);
+    }
+
+    @Test
+    void testPoliciesForTheSameKey() {
+        TranspositionTable best = new TranspositionTable(64, Replacement.BEST_SCORE);
+        best.store(1L, 5f, 1);
+        assertFalse(best.store(1L, 4f, 9), "A lower score must not replace a higher one");
+        assertTrue(best.store(1L, 6f, 0));
+        assertEquals(6f, TranspositionTable.score(best.probe(1L)));
+        assertEquals(1, best.getRejectedStores());
+
+        TranspositionTable deep = new TranspositionTable(64, Replacement.DEPTH_PREFERRED);
+        deep.store(1L, 5f, 3);
+        assertFalse(deep.store(1L, 9f, 2), "A shallower entry must not replace a deeper one");
+        assertTrue(deep.store(1L, 1f, 3));
+        assertEquals(1f, TranspositionTable.score(deep.probe(1L)));
+
+        TranspositionTable always = new TranspositionTable(64, Replacement.ALWAYS);
+        always.store(1L, 5f, 9);
+        assertTrue(always.store(1L, 1f, 0));
+        assertEquals(1f, TranspositionTable.score(always.probe(1L)));
+    }
+
+    @Test
+    void testFullWindowEvictsTheLeastValuableEntry() {
+        // four slots: every key shares the one probe window
+        TranspositionTable table = new TranspositionTable(TranspositionTable.PROBE_WINDOW, Replacement.BEST_SCORE);
+        for (int key = 1; key <= 4; key++) {
+            assertTrue(table.store(key, key * 10f, 0));
+        }
+
+        assertFalse(table.store(5L, 5f, 0), "Worse than everything in the window");
+        assertTrue(table.store(6L, 15f, 0));
+
+        assertEquals(TranspositionTable.MISS, table.probe(1L), "The lowest score should have been evicted");
+        assertEquals(15f, TranspositionTable.score(table.probe(6L)));
+        assertEquals(20f, TranspositionTable.score(table.probe(2L)));
+        assertEquals(1, table.getEvictions());
+    }
+
+    @Test
+    void testNewGenerationHidesOldEntries() {
+        TranspositionTable table = new TranspositionTable(64, Replacement.BEST_SCORE);
+        table.store(9L, 100f, 0);
+
+        table.newGeneration();
+
+        assertEquals(TranspositionTable.MISS, table.probe(9L));
+        // stale entries do not count against new ones
+        assertTrue(table.store(9L, -100f, 0));
+        assertEquals(-100f, TranspositionTable.score(table.probe(9L)));
+    }
+
+    @Test
+    void testConcurrentReadersNeverSeeAnotherKeysValue() throws InterruptedException {
+        // a small table over many keys keeps writers fighting over the same slots
+        TranspositionTable table = new TranspositionTable(256, Replacement.ALWAYS);
+        int threads = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger wrong = new AtomicInteger();
+        AtomicInteger hits = new AtomicInteger();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 200_000; i++) {
+                    long key = 1 + random.nextInt(2_000);
+                    if (random.nextBoolean()) {
+                        // the score and depth are functions of the key, so any other pair is a torn read
+                        table.store(key, key, (int) (key & 0xFF));
+                    } else {
+                        long entry = table.probe(key);
+                        if (entry != TranspositionTable.MISS) {
+                            hits.incrementAndGet();
+                            if (TranspositionTable.score(entry) != key || TranspositionTable.depth(entry) != (key & 0xFF)) {
+                                wrong.incrementAndGet();
+                            }
+                        }
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(0, wrong.get(), "A probe returned a value stored under another key");
+        assertTrue(hits.get() > 0);
+        assertTrue(table.getStores() > 0);
+    }
+
+    @Test
+    void testRejectsBadCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0, Replacement.ALWAYS));
+        assertEquals(1024, new TranspositionTable(1000, Replacement.ALWAYS).getCapacity());
+    }
+}
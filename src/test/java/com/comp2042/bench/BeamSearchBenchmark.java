@@ -0,0 +1,117 @@
+package com.comp2042.bench;
+
+import com.comp2042.ai.BeamSearchBot;
+import com.comp2042.ai.Feature;
+import com.comp2042.util.GameConfiguration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how many search nodes (scored placements) the beam-search bot gets through per second, and
+ * how that scales with the size of its fork/join pool.
+ * <p>
+ * Not a unit test: run it manually, e.g. with
+ * {@code java -cp target/classes:target/test-classes com.comp2042.bench.BeamSearchBenchmark [depth] [width]}.
+ * Every pool size plans the same positions (random stacks, bricks, hold slots and previews), so the node
+ * counts match and the speedup is a straight ratio of throughput. On a single core only the first row
+ * is meaningful.
+ * </p>
+ */
+public final class BeamSearchBenchmark {
+
+    private static final int POSITIONS = 64;
+    private static final int ROUNDS = 4;
+
+    private BeamSearchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : GameConfiguration.PREVIEW_COUNT + 1;
+        int width = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+
+        Position[] positions = new Position[POSITIONS];
+        Random random = new Random(17);
+        for (int i = 0; i < POSITIONS; i++) {
+            positions[i] = new Position(random);
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> poolSizes = new ArrayList<>();
+        for (int n = 1; n < cores; n *= 2) {
+            poolSizes.add(n);
+        }
+        poolSizes.add(cores);
+
+        System.out.printf("depth %d, beam width %d, %d cores%n", depth, width, cores);
+        System.out.printf("%7s %14s %10s %10s %10s %10s %8s %11s%n", "threads", "nodes/s", "plans/s",
+                "p50 (ms)", "p99 (ms)", "nodes/plan", "speedup", "efficiency");
+        double baseline = 0;
+        for (int threads : poolSizes) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                BeamSearchBot bot = new BeamSearchBot(depth, width, Feature.defaultWeights(), pool);
+                // warm up, on this pool's threads as well as the JIT
+                for (int i = 0; i < 2 * POSITIONS; i++) {
+                    positions[i % POSITIONS].plan(bot);
+                }
+                long[] times = new long[POSITIONS * ROUNDS];
+                long nodes = 0;
+                long start = System.nanoTime();
+                for (int i = 0; i < times.length; i++) {
+                    long planStart = System.nanoTime();
+                    positions[i % POSITIONS].plan(bot);
+                    times[i] = System.nanoTime() - planStart;
+                    nodes += bot.getNodeCount();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                Arrays.sort(times);
+                double nodesPerSecond = nodes / seconds;
+                if (baseline == 0) {
+                    baseline = nodesPerSecond;
+                }
+                double speedup = nodesPerSecond / baseline;
+                System.out.printf("%7d %14.0f %10.1f %10.2f %10.2f %10d %8.2f %10.0f%%%n", threads, nodesPerSecond,
+                        times.length / seconds, times[times.length / 2] / 1e6,
+                        times[(int) (times.length * 0.99)] / 1e6, nodes / times.length, speedup,
+                        100 * speedup / threads);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /** A position to plan: a ragged stack, the falling brick, the hold slot and a full preview. */
+    private static final class Position {
+        final int[][] board;
+        final int brick;
+        final int held;
+        final int[] preview = new int[GameConfiguration.PREVIEW_COUNT];
+
+        Position(Random random) {
+            int height = GameConfiguration.BOARD_HEIGHT;
+            int width = GameConfiguration.BOARD_WIDTH;
+            board = new int[height][width];
+            int stackHeight = 2 + random.nextInt(8);
+            for (int y = height - stackHeight; y < height; y++) {
+                int gap = random.nextInt(width);
+                for (int x = 0; x < width; x++) {
+                    board[y][x] = x != gap && random.nextInt(100) < 80 ? 1 : 0;
+                }
+            }
+            brick = 1 + random.nextInt(7);
+            held = random.nextInt(8);
+            for (int i = 0; i < preview.length; i++) {
+                preview[i] = 1 + random.nextInt(7);
+            }
+        }
+
+        void plan(BeamSearchBot bot) {
+            bot.plan(board, brick, 0, GameConfiguration.BOARD_WIDTH / 2 - GameConfiguration.SPAWN_X_OFFSET, 0,
+                    held, true, preview);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.comp2042.bench;
+
+import com.comp2042.bot.ExternalBot;
+import com.comp2042.bot.SampleBot;
+import com.comp2042.sim.LatencyHistogram;
+import com.comp2042.util.GameConfiguration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Measures the round trip to an external bot process in each wire format.
+ * <p>
+ * Not a unit test: run it manually, e.g. with
+ * {@code java -cp target/classes:target/test-classes com.comp2042.bench.ExternalBotBenchmark [turns]}.
+ * It launches the bundled {@link SampleBot} once per format and asks it about the same sequence of
+ * boards: a half-filled board with a different hole each turn, so the bot's own search costs about
+ * the same every time. The first {@value #WARMUP_TURNS} turns of each run warm up both JVMs and are
+ * not measured. The sample bot's search is part of every round trip, so the difference between the
+ * rows is what the format and the framing cost.
+ * </p>
+ */
+public final class ExternalBotBenchmark {
+
+    private static final int WARMUP_TURNS = 2_000;
+    private static final int WIDTH = GameConfiguration.BOARD_WIDTH;
+    private static final int HEIGHT = GameConfiguration.BOARD_HEIGHT;
+
+    private ExternalBotBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int turns = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+
+        System.out.printf("%-8s %8s %12s %10s %10s %10s %10s%n",
+                "format", "turns", "turns/s", "mean us", "p50 us", "p99 us", "max us");
+        run("json", SampleBot.command(), false, turns);
+        run("binary", SampleBot.command(), true, turns);
+        run("keys", SampleBot.command("--keys"), false, turns);
+    }
+
+    private static void run(String label, List<String> command, boolean binary, int turns) throws Exception {
+        int[][] board = new int[HEIGHT][WIDTH];
+        for (int r = HEIGHT / 2; r < HEIGHT; r++) {
+            for (int c = 0; c < WIDTH; c++) {
+                board[r][c] = 1;
+            }
+        }
+        int[] preview = {1, 2, 3, 4, 5};
+        int spawnX = WIDTH / 2 - GameConfiguration.SPAWN_X_OFFSET;
+        try (ExternalBot bot = ExternalBot.launch(command, binary, Duration.ofSeconds(5))) {
+            for (int i = 0; i < WARMUP_TURNS; i++) {
+                turn(bot, board, i, spawnX, preview);
+            }
+            LatencyHistogram latency = new LatencyHistogram();
+            long start = System.nanoTime();
+            for (int i = 0; i < turns; i++) {
+                long sent = System.nanoTime();
+                turn(bot, board, i, spawnX, preview);
+                latency.record(System.nanoTime() - sent);
+            }
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("%-8s %8d %12.0f %10.1f %10.1f %10.1f %10.1f%n",
+                    label, turns, turns * 1e9 / elapsed, latency.getMean() / 1e3,
+                    latency.percentile(0.50) / 1e3, latency.percentile(0.99) / 1e3, latency.getMax() / 1e3);
+            if (bot.getTimeouts() > 0) {
+                System.out.printf("  %d turns timed out%n", bot.getTimeouts());
+            }
+        }
+    }
+
+    private static void turn(ExternalBot bot, int[][] board, int i, int spawnX, int[] preview) {
+        int row = HEIGHT / 2 + i % (HEIGHT / 2);
+        int column = i % WIDTH;
+        board[row][column] = 0;
+        bot.plan(board, 1 + i % 7, 0, spawnX, 0, 0, false, preview);
+        board[row][column] = 1;
+    }
+}
@@ -0,0 +1,145 @@
+package com.comp2042.bench;
+
+import com.comp2042.ai.PerfectClearResult;
+import com.comp2042.ai.PerfectClearSolver;
+import com.comp2042.util.GameConfiguration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how often and how fast the perfect-clear solver solves the standard opening positions, for
+ * each pool size.
+ * <p>
+ * Not a unit test: run it manually, e.g. with
+ * {@code java -cp target/classes:target/test-classes com.comp2042.bench.PerfectClearBenchmark [sequences] [limitMillis]}.
+ * Each opening is solved for the same 7-bag sequences (seeds 0, 1, ...) with the given time limit:
+ * </p>
+ * <ul>
+ *     <li><b>2-line, game preview:</b> an empty board with what the game shows (the falling brick, an
+ *     empty hold slot and the preview).</li>
+ *     <li><b>4-line, first bag:</b> the classic perfect-clear opener, an empty board with ten known
+ *     bricks after the falling one.</li>
+ *     <li><b>4-line, second clear:</b> the same, but the sequence starts three bricks into a bag, the
+ *     way it does for the perfect clear after a first one.</li>
+ *     <li><b>4-line, 4x4 leftover:</b> four rows filled except the four leftmost columns, the last
+ *     step of many perfect-clear setups, with the game preview.</li>
+ * </ul>
+ * <p>
+ * Without time-outs the found counts must match across pool sizes. On a single core only the first
+ * row per opening is meaningful.
+ * </p>
+ */
+public final class PerfectClearBenchmark {
+
+    private static final int WIDTH = GameConfiguration.BOARD_WIDTH;
+    private static final int HEIGHT = GameConfiguration.BOARD_HEIGHT;
+    private static final int SPAWN_X = WIDTH / 2 - GameConfiguration.SPAWN_X_OFFSET;
+
+    private PerfectClearBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int sequences = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        long limitMillis = args.length > 1 ? Long.parseLong(args[1]) : GameConfiguration.PC_TIME_LIMIT_MILLIS;
+
+        int[][] empty = new int[HEIGHT][WIDTH];
+        int[][] leftover = new int[HEIGHT][WIDTH];
+        for (int r = HEIGHT - 4; r < HEIGHT; r++) {
+            Arrays.fill(leftover[r], 4, WIDTH, 7);
+        }
+        Opening[] openings = {
+                new Opening("2-line, game preview", empty, 0, GameConfiguration.PREVIEW_COUNT),
+                new Opening("4-line, first bag", empty, 0, 10),
+                new Opening("4-line, second clear", empty, 3, 10),
+                new Opening("4-line, 4x4 leftover", leftover, 0, GameConfiguration.PREVIEW_COUNT),
+        };
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> poolSizes = new ArrayList<>();
+        for (int n = 1; n < cores; n *= 2) {
+            poolSizes.add(n);
+        }
+        poolSizes.add(cores);
+
+        System.out.printf("%d sequences per opening, %d ms limit, %d cores%n", sequences, limitMillis, cores);
+        System.out.printf("%-22s %7s %6s %10s %9s %9s %10s %10s%n", "opening", "threads", "found", "impossible",
+                "timed out", "ms/solve", "p99 ms", "nodes/s");
+        for (Opening opening : openings) {
+            for (int threads : poolSizes) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                try {
+                    PerfectClearSolver solver = new PerfectClearSolver(4, Duration.ofMillis(limitMillis), pool);
+                    // warm up on a sequence that is not measured
+                    opening.solve(solver, -1);
+                    int[] outcomes = new int[PerfectClearResult.Status.values().length];
+                    long[] times = new long[sequences];
+                    long nodes = 0;
+                    for (int i = 0; i < sequences; i++) {
+                        PerfectClearResult result = opening.solve(solver, i);
+                        outcomes[result.getStatus().ordinal()]++;
+                        times[i] = result.getElapsedNanos();
+                        nodes += result.getNodeCount();
+                    }
+                    Arrays.sort(times);
+                    long total = Arrays.stream(times).sum();
+                    System.out.printf("%-22s %7d %6d %10d %9d %9.1f %10.1f %10.0f%n", opening.name, threads,
+                            outcomes[PerfectClearResult.Status.FOUND.ordinal()],
+                            outcomes[PerfectClearResult.Status.IMPOSSIBLE.ordinal()],
+                            outcomes[PerfectClearResult.Status.TIMED_OUT.ordinal()],
+                            total / 1e6 / sequences, times[(int) Math.ceil(0.99 * sequences) - 1] / 1e6,
+                            nodes / (total / 1e9));
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+
+    /** A starting board and how much of a 7-bag sequence is known. */
+    private static final class Opening {
+        final String name;
+        final int[][] board;
+        final int skip;
+        final int preview;
+
+        Opening(String name, int[][] board, int skip, int preview) {
+            this.name = name;
+            this.board = board;
+            this.skip = skip;
+            this.preview = preview;
+        }
+
+        PerfectClearResult solve(PerfectClearSolver solver, long seed) {
+            int[] sequence = bags(seed, skip + 1 + preview);
+            int[] known = Arrays.copyOfRange(sequence, skip + 1, sequence.length);
+            return solver.solve(board, sequence[skip], 0, SPAWN_X, 0, 0, true, known);
+        }
+    }
+
+    /** The first {@code count} bricks of a sequence of shuffled 7-bags. */
+    private static int[] bags(long seed, int count) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] sequence = new int[count];
+        int[] bag = new int[7];
+        for (int i = 0; i < count; i++) {
+            if (i % 7 == 0) {
+                for (int k = 0; k < 7; k++) {
+                    bag[k] = k + 1;
+                }
+                for (int k = 6; k > 0; k--) {
+                    int j = random.nextInt(k + 1);
+                    int swap = bag[k];
+                    bag[k] = bag[j];
+                    bag[j] = swap;
+                }
+            }
+            sequence[i] = bag[i % 7];
+        }
+        return sequence;
+    }
+}
@@ -0,0 +1,88 @@
+package com.comp2042.bench;
+
+import com.comp2042.ai.PlacementEnumerator;
+import com.comp2042.model.PersistentGrid;
+import com.comp2042.replay.ReplayAction;
+import com.comp2042.util.GameConfiguration;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures how long a full placement enumeration takes, and how much it allocates, per brick type.
+ * <p>
+ * Not a unit test: run it manually, e.g. with
+ * {@code java -cp target/classes:target/test-classes com.comp2042.bench.PlacementEnumeratorBenchmark}.
+ * Boards are random stacks of 4 to 12 rows with holes, so overhangs and tucks are common. Every
+ * placement's path is copied out as well, since a bot reads them all. Allocation should be zero.
+ * </p>
+ */
+public final class PlacementEnumeratorBenchmark {
+
+    private static final int BOARDS = 256;
+    private static final int ROUNDS = 200;
+
+    private PlacementEnumeratorBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        PersistentGrid[] boards = new PersistentGrid[BOARDS];
+        Random random = new Random(11);
+        for (int i = 0; i < BOARDS; i++) {
+            boards[i] = randomStack(random, 4 + random.nextInt(9));
+        }
+        PlacementEnumerator enumerator = new PlacementEnumerator();
+        ReplayAction[] path = new ReplayAction[1024];
+
+        // warm up
+        for (int i = 0; i < 20_000; i++) {
+            run(enumerator, boards[i % BOARDS], 1 + i % 7, path);
+        }
+
+        System.out.printf("%6s %12s %10s %12s %12s%n", "brick", "placements", "p50 (us)", "p99 (us)", "bytes/call");
+        long[] times = new long[BOARDS * ROUNDS];
+        for (int brick = 1; brick <= 7; brick++) {
+            long placements = 0;
+            long allocatedBefore = allocatedBytes();
+            for (int i = 0; i < times.length; i++) {
+                long start = System.nanoTime();
+                placements += run(enumerator, boards[i % BOARDS], brick, path);
+                times[i] = System.nanoTime() - start;
+            }
+            long allocated = allocatedBytes() - allocatedBefore;
+            Arrays.sort(times);
+            System.out.printf("%6d %12.1f %10.2f %12.2f %12.1f%n", brick, (double) placements / times.length,
+                    times[times.length / 2] / 1e3, times[(int) (times.length * 0.99)] / 1e3,
+                    (double) allocated / times.length);
+        }
+    }
+
+    private static int run(PlacementEnumerator enumerator, PersistentGrid board, int brick, ReplayAction[] path) {
+        int count = enumerator.enumerate(board, brick);
+        for (int i = 0; i < count; i++) {
+            enumerator.copyPath(i, path);
+        }
+        return count;
+    }
+
+    private static PersistentGrid randomStack(Random random, int stackHeight) {
+        int height = GameConfiguration.BOARD_HEIGHT;
+        int width = GameConfiguration.BOARD_WIDTH;
+        int[][] cells = new int[height][width];
+        for (int y = height - stackHeight; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                cells[y][x] = random.nextInt(100) < 70 ? 1 : 0;
+            }
+        }
+        return PersistentGrid.of(cells);
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            return bean.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+}
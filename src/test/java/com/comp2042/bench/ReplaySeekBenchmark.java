@@ -0,0 +1,204 @@
+package com.comp2042.bench;
+
+import com.comp2042.controllers.GameController;
+import com.comp2042.logic.board.SimpleBoard;
+import com.comp2042.logic.bricks.BrickTypes;
+import com.comp2042.logic.mode.NormalMode;
+import com.comp2042.managers.ScoreManager;
+import com.comp2042.model.BoardState;
+import com.comp2042.model.MoveEvent;
+import com.comp2042.model.PersistentGrid;
+import com.comp2042.replay.KeyframeIndex;
+import com.comp2042.replay.Replay;
+import com.comp2042.replay.ReplayPlayer;
+import com.comp2042.replay.ReplayRecorder;
+import com.comp2042.util.EventSource;
+import com.comp2042.util.EventType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures replay seek latency for games of increasing length, with and without keyframes.
+ * <p>
+ * Not a unit test: run it manually, e.g. from the IDE or with
+ * {@code java -cp target/classes:target/test-classes com.comp2042.bench.ReplaySeekBenchmark}.
+ * Games are generated by a simple greedy placer so they can run for thousands of pieces.
+ * With keyframes the latency should stay flat as the games get longer; without them it grows linearly.
+ * </p>
+ */
+public final class ReplaySeekBenchmark {
+
+    private static final int[] GAME_PIECES = {250, 1_000, 4_000, 16_000};
+    private static final int SEEKS = 300;
+    private static final int SEEKS_WITHOUT_KEYFRAMES = 20;
+
+    private static final MoveEvent GRAVITY = new MoveEvent(EventType.DOWN, EventSource.THREAD);
+    private static final MoveEvent HARD_DROP = new MoveEvent(null, EventSource.USER);
+
+    private ReplaySeekBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        // warm up the simulation and the seek path before measuring anything
+        measure(recordGame(1_000, 99L), SEEKS, new Random(1));
+
+        System.out.printf("%8s %8s %10s %9s | %12s %12s %12s | %16s%n",
+                "pieces", "events", "keyframes", "kf bytes", "p50 (us)", "p99 (us)", "max (us)", "no-kf p50 (us)");
+        for (int pieces : GAME_PIECES) {
+            Replay replay = recordGame(pieces, pieces);
+            long[] withKeyframes = measure(replay, SEEKS, new Random(pieces));
+
+            Replay bare = new Replay(replay.getFormatVersion(), replay.getModeName(), replay.getSeed(),
+                    replay.getStartEpochMillis(), replay.getEventCount(), replay.getInputLog(),
+                    replay.getFinalScore(), replay.getFinalLines(), replay.getFinalLevel(),
+                    replay.getFinalBoardHash(), KeyframeIndex.EMPTY);
+            long[] withoutKeyframes = measure(bare, SEEKS_WITHOUT_KEYFRAMES, new Random(pieces));
+
+            System.out.printf("%8d %8d %10d %9d | %12.1f %12.1f %12.1f | %16.1f%n",
+                    countPieces(replay), replay.getEventCount(), replay.getKeyframes().size(),
+                    replay.getKeyframes().getDataSize(),
+                    percentile(withKeyframes, 0.50), percentile(withKeyframes, 0.99),
+                    percentile(withKeyframes, 1.0), percentile(withoutKeyframes, 0.50));
+        }
+    }
+
+    /**
+     * Seeks to random targets (alternating far backwards and forwards) and returns each latency in nanoseconds.
+     */
+    private static long[] measure(Replay replay, int seeks, Random random) {
+        ReplayPlayer player = new ReplayPlayer(replay);
+        player.advanceTo(Long.MAX_VALUE);
+        long end = player.getPositionMillis();
+
+        long[] latencies = new long[seeks];
+        for (int i = 0; i < seeks; i++) {
+            long target = (long) (random.nextDouble() * end);
+            long start = System.nanoTime();
+            if (!player.seek(target)) {
+                throw new IllegalStateException("Replay diverged while seeking");
+            }
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000.0;
+    }
+
+    private static int countPieces(Replay replay) {
+        int pieces = 0;
+        Replay.EventCursor cursor = replay.cursor();
+        while (cursor.next()) {
+            if (cursor.getAction() == com.comp2042.replay.ReplayAction.CHECKPOINT) {
+                pieces++;
+            }
+        }
+        return pieces;
+    }
+
+    /**
+     * Plays a game with a greedy placer and records it with a simulated clock (100 ms per input).
+     */
+    private static Replay recordGame(int pieces, long seed) {
+        List<Replay> saved = new ArrayList<>();
+        long[] nanos = {0};
+        GameController controller = new GameController(new SimpleBoard(24, 10), new ScoreManager(null), seed);
+        controller.setGameMode(new NormalMode());
+        controller.setInputRecorder(new ReplayRecorder(saved::add, () -> nanos[0]));
+        controller.createNewGame();
+
+        for (int piece = 0; piece < pieces && saved.isEmpty(); piece++) {
+            BoardState state = controller.captureSnapshot().getBoard();
+            int[] placement = choosePlacement(state);
+
+            for (int r = 0; r < placement[0]; r++) {
+                nanos[0] += 100_000_000L;
+                controller.onRotateEvent();
+            }
+            int x = controller.captureSnapshot().getBoard().getX();
+            while (x != placement[1]) {
+                nanos[0] += 100_000_000L;
+                if (x < placement[1]) {
+                    controller.onRightEvent();
+                } else {
+                    controller.onLeftEvent();
+                }
+                int moved = controller.captureSnapshot().getBoard().getX();
+                if (moved == x) {
+                    break; // blocked
+                }
+                x = moved;
+            }
+            for (int g = 0; g < 3; g++) {
+                nanos[0] += 100_000_000L;
+                controller.onDownEvent(GRAVITY);
+            }
+            nanos[0] += 100_000_000L;
+            controller.onHardDropEvent(HARD_DROP);
+        }
+        controller.finishRecording();
+        return saved.getFirst();
+    }
+
+    /**
+     * Picks the rotation count and column that minimise a classic height/holes/bumpiness heuristic.
+     */
+    private static int[] choosePlacement(BoardState state) {
+        PersistentGrid grid = state.getGrid();
+        List<int[][]> shapes = BrickTypes.create(state.getBrickId()).getShapeMatrix();
+        double bestScore = Double.NEGATIVE_INFINITY;
+        int[] best = {0, state.getX()};
+        for (int r = 0; r < shapes.size(); r++) {
+            int[][] shape = shapes.get((state.getRotation() + r) % shapes.size());
+            for (int x = -3; x < grid.getWidth(); x++) {
+                if (grid.intersects(shape, x, 0)) {
+                    continue;
+                }
+                int y = 0;
+                while (!grid.intersects(shape, x, y + 1)) {
+                    y++;
+                }
+                PersistentGrid merged = grid.merge(shape, x, y);
+                int lines = merged.countFullRows();
+                double score = evaluate(merged.clearFullRows()) + 0.76 * lines;
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = new int[]{r, x};
+                }
+            }
+        }
+        return best;
+    }
+
+    private static double evaluate(PersistentGrid grid) {
+        int height = grid.getHeight();
+        int aggregate = 0;
+        int holes = 0;
+        int bumpiness = 0;
+        int previous = -1;
+        for (int col = 0; col < grid.getWidth(); col++) {
+            int top = 0;
+            while (top < height && grid.get(top, col) == 0) {
+                top++;
+            }
+            int columnHeight = height - top;
+            for (int row = top + 1; row < height; row++) {
+                if (grid.get(row, col) == 0) {
+                    holes++;
+                }
+            }
+            aggregate += columnHeight;
+            if (previous >= 0) {
+                bumpiness += Math.abs(columnHeight - previous);
+            }
+            previous = columnHeight;
+        }
+        return -0.51 * aggregate - 0.36 * holes - 0.18 * bumpiness;
+    }
+}
@@ -0,0 +1,89 @@
+package com.comp2042.bench;
+
+import com.comp2042.ai.PlacementEnumerator;
+import com.comp2042.ai.RolloutEstimate;
+import com.comp2042.ai.RolloutEvaluator;
+import com.comp2042.ai.RolloutEvaluator.Policy;
+import com.comp2042.ai.RolloutEvaluator.Settings;
+import com.comp2042.util.GameConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how many rollouts (and bricks inside them) the Monte-Carlo evaluator plays per second, for
+ * each rollout policy and pool size.
+ * <p>
+ * Not a unit test: run it manually, e.g. with
+ * {@code java -cp target/classes:target/test-classes com.comp2042.bench.RolloutBenchmark [rollouts] [horizon]}.
+ * Every row evaluates the same placement with the same seed and no time budget, so the estimates must
+ * match across pool sizes; the last column prints them as a check. On a single core only the first row
+ * per policy is meaningful.
+ * </p>
+ */
+public final class RolloutBenchmark {
+
+    private static final int EVALUATIONS = 20;
+
+    private RolloutBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int rollouts = args.length > 0 ? Integer.parseInt(args[0]) : GameConfiguration.ROLLOUT_COUNT;
+        int horizon = args.length > 1 ? Integer.parseInt(args[1]) : GameConfiguration.ROLLOUT_HORIZON;
+
+        int height = GameConfiguration.BOARD_HEIGHT;
+        int width = GameConfiguration.BOARD_WIDTH;
+        int[][] board = new int[height][width];
+        for (int y = height - 6; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                board[y][x] = (x + y) % 4 != 0 ? 1 : 0;
+            }
+        }
+        // the first reachable placement of an O
+        int oBrick = 4;
+        PlacementEnumerator enumerator = new PlacementEnumerator();
+        enumerator.enumerate(board, oBrick, 0, width / 2 - GameConfiguration.SPAWN_X_OFFSET, 0);
+        int rotation = enumerator.getRotation(0);
+        int x = enumerator.getX(0);
+        int y = enumerator.getY(0);
+        int[] preview = {1, 6, 3};
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> poolSizes = new ArrayList<>();
+        for (int n = 1; n < cores; n *= 2) {
+            poolSizes.add(n);
+        }
+        poolSizes.add(cores);
+
+        System.out.printf("%d rollouts of up to %d bricks, %d cores%n", rollouts, horizon, cores);
+        System.out.printf("%-7s %7s %12s %12s %10s  %s%n", "policy", "threads", "rollouts/s", "bricks/s",
+                "ms/eval", "estimate");
+        for (Policy policy : Policy.values()) {
+            Settings settings = new Settings().rollouts(rollouts).horizon(horizon).policy(policy);
+            for (int threads : poolSizes) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                try {
+                    RolloutEvaluator evaluator = new RolloutEvaluator(settings, pool);
+                    for (int i = 0; i < 3; i++) {
+                        evaluator.evaluate(board, oBrick, rotation, x, y, preview, i);
+                    }
+                    RolloutEstimate estimate = null;
+                    double bricks = 0;
+                    long start = System.nanoTime();
+                    for (int i = 0; i < EVALUATIONS; i++) {
+                        estimate = evaluator.evaluate(board, oBrick, rotation, x, y, preview, 99L);
+                        bricks += estimate.getSurvivalMean() * estimate.getRollouts();
+                    }
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    System.out.printf("%-7s %7d %12.0f %12.0f %10.2f  %s%n", policy, threads,
+                            (double) EVALUATIONS * rollouts / seconds, bricks / seconds,
+                            1000 * seconds / EVALUATIONS, estimate);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+}
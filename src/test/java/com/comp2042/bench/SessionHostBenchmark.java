@@ -0,0 +1,133 @@
+package com.comp2042.bench;
+
+import com.comp2042.host.GameSession;
+import com.comp2042.host.SessionHost;
+import com.comp2042.logic.mode.ZenMode;
+import com.comp2042.sim.InputSource;
+import com.comp2042.sim.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds how many concurrent sessions one JVM can host per core at a target gravity tick rate.
+ * <p>
+ * Not a unit test: run it manually, e.g. with
+ * {@code java -cp target/classes:target/test-classes com.comp2042.bench.SessionHostBenchmark [ticksPerSecond] [inputsPerTick]}.
+ * Each step opens twice as many Zen sessions as the last (Zen never ends, so the load stays constant),
+ * lets them settle, then measures for a few seconds. Each session also has a simulated client on its
+ * own virtual thread that sends a few random inputs per gravity interval, as a connected bot would.
+ * A step is sustained when the sessions achieve at least {@value #SUSTAINED_FRACTION} of the target
+ * tick rate and the p99 gravity lateness stays below one interval; the benchmark stops at the first
+ * step that is not.
+ * </p>
+ */
+public final class SessionHostBenchmark {
+
+    private static final int FIRST_STEP = 250;
+    private static final int MAX_SESSIONS = 256_000;
+    private static final long SETTLE_MILLIS = 1_000;
+    private static final long MEASURE_MILLIS = 3_000;
+    private static final double SUSTAINED_FRACTION = 0.95;
+
+    private SessionHostBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int ticksPerSecond = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int inputsPerTick = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        long intervalMillis = 1000 / ticksPerSecond;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        // warm up the engine, the mailboxes and the timer before measuring anything
+        run(FIRST_STEP, intervalMillis, inputsPerTick);
+
+        System.out.printf("target %d ticks/s per session (%d ms), %d inputs per tick, %d cores%n",
+                ticksPerSecond, intervalMillis, inputsPerTick, cores);
+        System.out.printf("%9s %14s %14s %8s %12s %12s %10s%n",
+                "sessions", "target tick/s", "actual tick/s", "ratio", "p50 late ms", "p99 late ms", "heap MB");
+
+        int sustained = 0;
+        for (int sessions = FIRST_STEP; sessions <= MAX_SESSIONS; sessions *= 2) {
+            Step step = run(sessions, intervalMillis, inputsPerTick);
+            double target = sessions * 1000.0 / intervalMillis;
+            double ratio = step.ticksPerSecond / target;
+            boolean ok = ratio >= SUSTAINED_FRACTION && step.lateness.percentile(0.99) < intervalMillis * 1_000_000L;
+            System.out.printf("%9d %14.0f %14.0f %8.2f %12.2f %12.2f %10d%s%n",
+                    sessions, target, step.ticksPerSecond, ratio,
+                    step.lateness.percentile(0.50) / 1e6, step.lateness.percentile(0.99) / 1e6,
+                    step.heapBytes >> 20, ok ? "" : "  <- not sustained");
+            if (!ok) {
+                break;
+            }
+            sustained = sessions;
+        }
+        System.out.printf("sustained %d sessions, about %d per core%n", sustained, sustained / cores);
+    }
+
+    private static Step run(int count, long intervalMillis, int inputsPerTick) throws InterruptedException {
+        SessionHost host = new SessionHost();
+        List<GameSession> sessions = new ArrayList<>(count);
+        List<Thread> clients = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            GameSession session = host.open(new ZenMode(), i, level -> intervalMillis);
+            sessions.add(session);
+            if (inputsPerTick > 0) {
+                InputSource inputs = InputSource.random(i);
+                clients.add(Thread.ofVirtual().start(() -> sendInputs(session, inputs, intervalMillis, inputsPerTick)));
+            }
+        }
+        Thread.sleep(SETTLE_MILLIS);
+
+        long ticksBefore = totalTicks(sessions);
+        long start = System.nanoTime();
+        Thread.sleep(MEASURE_MILLIS);
+        long ticks = totalTicks(sessions) - ticksBefore;
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Runtime runtime = Runtime.getRuntime();
+        long heap = runtime.totalMemory() - runtime.freeMemory();
+
+        for (Thread client : clients) {
+            client.interrupt();
+        }
+        host.close();
+        for (Thread client : clients) {
+            client.join();
+        }
+        LatencyHistogram lateness = new LatencyHistogram();
+        for (GameSession session : sessions) {
+            lateness.add(session.getGravityLateness());
+        }
+        return new Step(ticks / seconds, lateness, heap);
+    }
+
+    private static long totalTicks(List<GameSession> sessions) {
+        long total = 0;
+        for (GameSession session : sessions) {
+            total += session.getGravityTicks();
+        }
+        return total;
+    }
+
+    private record Step(double ticksPerSecond, LatencyHistogram lateness, long heapBytes) {
+    }
+
+    /**
+     * A simulated client: sleeps for a gravity interval, then sends a burst of inputs, until the
+     * session closes or the client is interrupted.
+     */
+    private static void sendInputs(GameSession session, InputSource inputs, long intervalMillis, int inputsPerTick) {
+        try {
+            while (true) {
+                Thread.sleep(intervalMillis);
+                for (int i = 0; i < inputsPerTick; i++) {
+                    if (!session.submit(inputs.next())) {
+                        return;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // the step is over
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.comp2042.bench;
+
+import com.comp2042.ai.TranspositionTable;
+import com.comp2042.ai.TranspositionTable.Replacement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures probe and store throughput of the transposition table with several threads hammering one
+ * shared table, together with its hit rate and how often writers lose a compare-and-set race.
+ * <p>
+ * Not a unit test: run it manually, e.g. with
+ * {@code java -cp target/classes:target/test-classes com.comp2042.bench.TranspositionTableBenchmark [capacity] [keys]}.
+ * Each thread draws keys from the same key space, so threads probe and overwrite each other's entries;
+ * three probes are made for every store, roughly the mix of a beam search. Thread counts run up to twice
+ * the number of cores, so the last rows show the table under oversubscription.
+ * </p>
+ */
+public final class TranspositionTableBenchmark {
+
+    private static final int OPERATIONS_PER_THREAD = 4_000_000;
+
+    private TranspositionTableBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int capacity = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 16;
+        int keySpace = args.length > 1 ? Integer.parseInt(args[1]) : capacity;
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int n = 1; n < 2 * cores; n *= 2) {
+            threadCounts.add(n);
+        }
+        threadCounts.add(2 * cores);
+
+        System.out.printf("%d slots, %d keys, %d cores%n", capacity, keySpace, cores);
+        System.out.printf("%-16s %7s %10s %8s %12s %10s%n", "policy", "threads", "Mops/s", "hits",
+                "contended", "evictions");
+        for (Replacement policy : Replacement.values()) {
+            // warm up the JIT once per policy
+            run(new TranspositionTable(capacity, policy), 1, keySpace);
+            for (int threads : threadCounts) {
+                TranspositionTable table = new TranspositionTable(capacity, policy);
+                double seconds = run(table, threads, keySpace);
+                long operations = (long) threads * OPERATIONS_PER_THREAD;
+                System.out.printf("%-16s %7d %10.1f %7.1f%% %12d %10d%n", policy, threads,
+                        operations / seconds / 1e6, 100 * table.getHitRate(), table.getContention(),
+                        table.getEvictions());
+            }
+        }
+    }
+
+    /** Runs the threads against the table at once and returns the wall time in seconds. */
+    private static double run(TranspositionTable table, int threads, int keySpace) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = new SplittableRandom(31L * t + 7);
+            workers.add(Thread.ofPlatform().start(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    long key = random.nextInt(keySpace) * 0x9E3779B97F4A7C15L;
+                    if ((i & 3) == 0) {
+                        table.store(key, (float) random.nextDouble(), random.nextInt(8));
+                    } else {
+                        table.probe(key);
+                    }
+                }
+            }));
+        }
+        ready.await();
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return (System.nanoTime() - begin) / 1e9;
+    }
+}
@@ -0,0 +1,156 @@
+package com.comp2042.bot;
+
+import com.comp2042.replay.ReplayAction;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BotCodecTest {
+
+    private static final int WIDTH = 10;
+    private static final int HEIGHT = 24;
+
+    private static BotTurn sampleTurn() {
+        int[][] board = new int[HEIGHT][WIDTH];
+        for (int c = 0; c < WIDTH - 1; c++) {
+            board[HEIGHT - 1][c] = 3;
+        }
+        board[HEIGHT - 2][0] = 1;
+        BotTurn turn = new BotTurn();
+        turn.set(42, board, 6, 1, 3, 2, 5, false, new int[]{1, 2, 7});
+        return turn;
+    }
+
+    private static void assertSameTurn(BotTurn expected, BotTurn actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getBrickId(), actual.getBrickId());
+        assertEquals(expected.getRotation(), actual.getRotation());
+        assertEquals(expected.getX(), actual.getX());
+        assertEquals(expected.getY(), actual.getY());
+        assertEquals(expected.getHeldId(), actual.getHeldId());
+        assertEquals(expected.canHold(), actual.canHold());
+        assertEquals(expected.getQueueLength(), actual.getQueueLength());
+        for (int i = 0; i < expected.getQueueLength(); i++) {
+            assertEquals(expected.getQueue(i), actual.getQueue(i), "Queue entry " + i);
+        }
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int r = 0; r < expected.getHeight(); r++) {
+            assertEquals(expected.getRow(r), actual.getRow(r), "Row " + r);
+        }
+    }
+
+    private static ByteBuffer json(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testTurnRoundTripsInBothFormats() {
+        BotTurn turn = sampleTurn();
+        for (boolean binary : new boolean[]{false, true}) {
+            BotCodec codec = new BotCodec(binary);
+            ByteBuffer buffer = ByteBuffer.allocate(BotChannel.MAX_MESSAGE);
+            codec.encodeTurn(turn, buffer);
+            buffer.flip();
+
+            BotTurn decoded = new BotTurn();
+            codec.decodeTurn(buffer, WIDTH, decoded);
+
+            assertSameTurn(turn, decoded);
+            assertEquals(0b1_1111_1111, decoded.getRow(HEIGHT - 1), "Bit c should be column c");
+        }
+    }
+
+    @Test
+    void testRepliesRoundTripInBothFormats() {
+        for (boolean binary : new boolean[]{false, true}) {
+            BotCodec codec = new BotCodec(binary);
+            ByteBuffer buffer = ByteBuffer.allocate(BotChannel.MAX_MESSAGE);
+            BotReply decoded = new BotReply();
+
+            BotReply move = new BotReply();
+            move.setPlacement(9, true, 3, -1, 20);
+            codec.encodeReply(move, buffer);
+            codec.decodeReply(buffer.flip(), decoded);
+            assertEquals(BotReply.Kind.PLACEMENT, decoded.getKind());
+            assertEquals(9, decoded.getId());
+            assertTrue(decoded.isHold());
+            assertEquals(3, decoded.getRotation());
+            assertEquals(-1, decoded.getX(), "Negative columns must survive");
+            assertEquals(20, decoded.getY());
+
+            BotReply keys = new BotReply();
+            keys.setKeys(10);
+            keys.addKey(ReplayAction.HOLD);
+            keys.addKey(ReplayAction.ROTATE);
+            keys.addKey(ReplayAction.LEFT);
+            keys.addKey(ReplayAction.SOFT_DROP);
+            keys.addKey(ReplayAction.HARD_DROP);
+            codec.encodeReply(keys, buffer.clear());
+            codec.decodeReply(buffer.flip(), decoded);
+            assertEquals(BotReply.Kind.KEYS, decoded.getKind());
+            assertEquals(10, decoded.getId());
+            assertEquals(5, decoded.getKeyCount());
+            assertEquals(ReplayAction.HOLD, decoded.getKey(0));
+            assertEquals(ReplayAction.SOFT_DROP, decoded.getKey(3));
+
+            BotReply none = new BotReply();
+            none.setNone(11);
+            codec.encodeReply(none, buffer.clear());
+            codec.decodeReply(buffer.flip(), decoded);
+            assertEquals(BotReply.Kind.NONE, decoded.getKind());
+            assertEquals(11, decoded.getId());
+        }
+    }
+
+    @Test
+    void testJsonSkipsUnknownFields() {
+        BotCodec codec = new BotCodec(false);
+        BotReply reply = new BotReply();
+
+        codec.decodeReply(json("{\"eval\":{\"score\":[1.5,-2e3],\"note\":\"a \\\"b\\\"\"},\"type\":\"move\","
+                + "\"id\":3,\"rotation\":2,\"x\":4,\"y\":18,\"debug\":null}"), reply);
+
+        assertEquals(BotReply.Kind.PLACEMENT, reply.getKind());
+        assertEquals(3, reply.getId());
+        assertFalse(reply.isHold(), "A missing hold should mean no hold");
+        assertEquals(2, reply.getRotation());
+        assertEquals(4, reply.getX());
+        assertEquals(18, reply.getY());
+    }
+
+    @Test
+    void testMalformedMessagesAreRejected() {
+        BotCodec json = new BotCodec(false);
+        BotCodec binary = new BotCodec(true);
+        BotReply reply = new BotReply();
+        BotTurn turn = new BotTurn();
+
+        assertThrows(IllegalArgumentException.class, () -> json.decodeReply(json("{\"type\":\"move\",\"id\":"), reply));
+        assertThrows(IllegalArgumentException.class, () -> json.decodeReply(json("{\"type\":\"dance\",\"id\":1}"), reply));
+        assertThrows(IllegalArgumentException.class,
+                () -> json.decodeReply(json("{\"type\":\"keys\",\"id\":1,\"keys\":[\"jump\"]}"), reply));
+        assertThrows(IllegalArgumentException.class, () -> json.decodeTurn(json("[1,2,3]"), WIDTH, turn));
+        assertThrows(IllegalArgumentException.class,
+                () -> binary.decodeReply(ByteBuffer.wrap(new byte[]{BotCodec.MOVE, 0, 0}), reply));
+        assertThrows(IllegalArgumentException.class,
+                () -> binary.decodeReply(ByteBuffer.wrap(new byte[]{99, 0, 0, 0, 1}), reply));
+    }
+
+    @Test
+    void testQuitIsRecognised() {
+        for (boolean binary : new boolean[]{false, true}) {
+            BotCodec codec = new BotCodec(binary);
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            codec.encodeQuit(buffer);
+            assertTrue(codec.isQuit(buffer.flip()));
+
+            BotReply none = new BotReply();
+            none.setNone(1);
+            codec.encodeReply(none, buffer.clear());
+            assertFalse(codec.isQuit(buffer.flip()), "A reply is not a quit");
+        }
+    }
+}
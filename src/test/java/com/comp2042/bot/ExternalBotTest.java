@@ -0,0 +1,138 @@
+package com.comp2042.bot;
+
+import com.comp2042.ai.PlacementEnumerator;
+import com.comp2042.ai.Plan;
+import com.comp2042.util.GameConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalBotTest {
+
+    private static final int WIDTH = GameConfiguration.BOARD_WIDTH;
+    private static final int HEIGHT = GameConfiguration.BOARD_HEIGHT;
+    private static final int SPAWN_X = WIDTH / 2 - GameConfiguration.SPAWN_X_OFFSET;
+
+    private static int[][] board() {
+        int[][] board = new int[HEIGHT][WIDTH];
+        for (int c = 0; c < WIDTH - 1; c++) {
+            board[HEIGHT - 1][c] = 2;
+            board[HEIGHT - 2][c] = c % 3 == 0 ? 0 : 4;
+        }
+        return board;
+    }
+
+    private static void assertReachable(int[][] board, int brickId, Plan plan) {
+        PlacementEnumerator enumerator = new PlacementEnumerator(WIDTH, HEIGHT);
+        int count = enumerator.enumerate(board, brickId, 0, SPAWN_X, 0);
+        for (int i = 0; i < count; i++) {
+            if (enumerator.getRotation(i) == plan.getRotation() && enumerator.getX(i) == plan.getX()
+                    && enumerator.getY(i) == plan.getY()) {
+                return;
+            }
+        }
+        fail("The bot's plan should be a reachable placement: " + plan);
+    }
+
+    private static void playTurns(List<String> command, boolean binary) throws IOException {
+        try (ExternalBot bot = ExternalBot.launch(command, binary, Duration.ofSeconds(10))) {
+            assertTrue(bot.isAlive());
+            int[][] board = board();
+            for (int brickId = 1; brickId <= 7; brickId++) {
+                Plan plan = bot.plan(board, brickId, 0, SPAWN_X, 0, 0, true, new int[]{1, 2, 3});
+                assertNotNull(plan, "The sample bot should answer brick " + brickId);
+                assertFalse(plan.isHold());
+                assertEquals(brickId, plan.getBrickId());
+                assertReachable(board, brickId, plan);
+            }
+            assertEquals(7, bot.getLatency().getCount(), "Every answered turn should be timed");
+            assertTrue(bot.getLatency().getMax() > 0);
+            assertEquals(0, bot.getTimeouts());
+            assertEquals(0, bot.getMalformedReplies());
+        }
+    }
+
+    @Test
+    void testSampleBotPlaysOverJsonLines() throws IOException {
+        playTurns(SampleBot.command(), false);
+    }
+
+    @Test
+    void testSampleBotPlaysOverBinaryFrames() throws IOException {
+        playTurns(SampleBot.command(), true);
+    }
+
+    @Test
+    void testKeySequencesAreTurnedIntoPlacements() throws IOException {
+        playTurns(SampleBot.command("--keys"), false);
+    }
+
+    @Test
+    void testZeroWaitNeverBlocks() throws IOException {
+        try (ExternalBot bot = ExternalBot.launch(SampleBot.command(), true, Duration.ZERO)) {
+            int[][] board = board();
+            // the first call only sends the turn; later calls pick the answer up once it has arrived
+            Plan plan = null;
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (plan == null && System.nanoTime() < deadline) {
+                plan = bot.plan(board, 6, 0, SPAWN_X, 0, 0, true, new int[0]);
+                Thread.onSpinWait();
+            }
+            assertNotNull(plan, "The answer should arrive on a later call");
+            assertEquals(1, bot.getLatency().getCount(), "The turn should have been sent only once");
+            assertEquals(0, bot.getTimeouts(), "Zero-wait misses are not timeouts");
+        }
+    }
+
+    @Test
+    void testReplyForALockedPieceIsNotUsedForTheNext() throws Exception {
+        // the bot takes half a second per reply, so the answer for the next board cannot be there at once
+        try (ExternalBot bot = ExternalBot.launch(SlowBot.command(500), false, Duration.ZERO)) {
+            int[][] board = board();
+            assertNull(bot.plan(board, 6, 0, SPAWN_X, 0, 0, true, new int[0]), "Zero wait only sends the turn");
+            // let the answer arrive, then ask about the next T after the first one locked without it
+            Thread.sleep(1_500);
+            int[][] next = board();
+            next[HEIGHT - 3][0] = 6;
+            next[HEIGHT - 3][1] = 6;
+            next[HEIGHT - 3][2] = 6;
+            next[HEIGHT - 4][1] = 6;
+            assertNull(bot.plan(next, 6, 0, SPAWN_X, 0, 0, true, new int[0]),
+                    "The answer for the previous board must not be used");
+
+            Plan plan = null;
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (plan == null && System.nanoTime() < deadline) {
+                plan = bot.plan(next, 6, 0, SPAWN_X, 0, 0, true, new int[0]);
+                Thread.onSpinWait();
+            }
+            assertNotNull(plan);
+            assertReachable(next, 6, plan);
+            assertEquals(1, bot.getLatency().getCount(), "Only the answer for the new board is taken");
+        }
+    }
+
+    @Test
+    void testHoldThatCannotBeMadeIsIgnored() throws IOException {
+        try (ExternalBot bot = ExternalBot.launch(HoldingBot.command(), true, Duration.ofSeconds(10))) {
+            Plan plan = bot.plan(board(), 6, 0, SPAWN_X, 0, 2, false, new int[]{3});
+            assertNotNull(plan);
+            assertFalse(plan.isHold());
+            assertEquals(6, plan.getBrickId(), "Without a hold the falling brick is the one placed");
+
+            Plan held = bot.plan(board(), 6, 0, SPAWN_X, 0, 2, true, new int[]{3});
+            assertTrue(held.isHold());
+            assertEquals(2, held.getBrickId(), "A hold swaps in the held brick");
+        }
+    }
+
+    @Test
+    void testProgramWithoutHandshakeIsRejected() {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        assertThrows(IOException.class, () -> ExternalBot.launch(List.of(java, "-version"), false, Duration.ZERO));
+    }
+}
@@ -0,0 +1,48 @@
+package com.comp2042.bot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A bot program for tests that asks to hold on every turn, whether or not the game allows it, and
+ * places the brick unrotated where it is.
+ */
+final class HoldingBot {
+
+    private HoldingBot() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        BotChannel channel = new BotChannel(System.in, System.out);
+        String hello = channel.readLine();
+        int width = Integer.parseInt(BotCodec.field(hello, "width"));
+        boolean binary = "binary".equals(BotCodec.field(hello, "format"));
+        channel.sendLine(BotCodec.ready("holding"));
+        channel.setBinary(binary);
+
+        BotCodec codec = new BotCodec(binary);
+        BotTurn turn = new BotTurn();
+        BotReply reply = new BotReply();
+        ByteBuffer message;
+        while ((message = channel.read()) != null) {
+            if (codec.isQuit(message)) {
+                break;
+            }
+            codec.decodeTurn(message, width, turn);
+            reply.setPlacement(turn.getId(), true, 0, turn.getX(), turn.getY());
+            codec.encodeReply(reply, channel.startMessage());
+            channel.send();
+        }
+    }
+
+    static List<String> command() {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(HoldingBot.class.getName());
+        return command;
+    }
+}
@@ -0,0 +1,64 @@
+package com.comp2042.bot;
+
+import com.comp2042.ai.HeuristicBot;
+import com.comp2042.ai.Plan;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A bot program for tests that plays the {@link HeuristicBot} like {@link SampleBot}, but waits a
+ * fixed number of milliseconds before every reply, so a test knows an answer cannot be there yet.
+ */
+final class SlowBot {
+
+    private SlowBot() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        long delayMillis = Long.parseLong(args[0]);
+        BotChannel channel = new BotChannel(System.in, System.out);
+        String hello = channel.readLine();
+        int width = Integer.parseInt(BotCodec.field(hello, "width"));
+        int height = Integer.parseInt(BotCodec.field(hello, "height"));
+        boolean binary = "binary".equals(BotCodec.field(hello, "format"));
+        channel.sendLine(BotCodec.ready("slow"));
+        channel.setBinary(binary);
+
+        BotCodec codec = new BotCodec(binary);
+        BotTurn turn = new BotTurn();
+        BotReply reply = new BotReply();
+        HeuristicBot bot = new HeuristicBot();
+        int[][] board = new int[height][width];
+        ByteBuffer message;
+        while ((message = channel.read()) != null) {
+            if (codec.isQuit(message)) {
+                break;
+            }
+            codec.decodeTurn(message, width, turn);
+            turn.copyBoard(board);
+            Plan plan = bot.plan(board, turn.getBrickId(), turn.getRotation(), turn.getX(), turn.getY(),
+                    turn.getHeldId(), turn.canHold(), new int[0]);
+            Thread.sleep(delayMillis);
+            if (plan == null) {
+                reply.setNone(turn.getId());
+            } else {
+                reply.setPlacement(turn.getId(), plan.isHold(), plan.getRotation(), plan.getX(), plan.getY());
+            }
+            codec.encodeReply(reply, channel.startMessage());
+            channel.send();
+        }
+    }
+
+    static List<String> command(long delayMillis) {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(SlowBot.class.getName());
+        command.add(Long.toString(delayMillis));
+        return command;
+    }
+}
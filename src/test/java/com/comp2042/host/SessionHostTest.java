@@ -0,0 +1,134 @@
+package com.comp2042.host;
+
+import com.comp2042.logic.mode.NormalMode;
+import com.comp2042.logic.mode.ZenMode;
+import com.comp2042.replay.ReplayAction;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionHostTest {
+
+    private static final long FAST_GRAVITY_MILLIS = 5;
+
+    private static void waitFor(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail(message);
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void testGravityDrivesEverySession() throws Exception {
+        try (SessionHost host = new SessionHost()) {
+            List<GameSession> sessions = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                sessions.add(host.open(new ZenMode(), i, level -> FAST_GRAVITY_MILLIS));
+            }
+
+            waitFor(() -> sessions.stream().allMatch(s -> s.getGravityTicks() >= 5),
+                    "Every session should receive gravity from the shared timer");
+            assertEquals(200, host.getSessionCount());
+            assertTrue(sessions.getFirst().call(c -> c.getBoard().length).get() > 0,
+                    "Queries run on the session thread");
+        }
+    }
+
+    @Test
+    void testPauseStopsGravityAndInputsUntilResumed() throws Exception {
+        try (SessionHost host = new SessionHost()) {
+            GameSession session = host.open(new ZenMode(), 7, level -> FAST_GRAVITY_MILLIS);
+            waitFor(() -> session.getGravityTicks() > 0, "Gravity should start");
+
+            session.pause();
+            waitFor(() -> session.getState() == GameSession.State.PAUSED, "Session should pause");
+            long ticks = session.getGravityTicks();
+            session.submit(ReplayAction.LEFT);
+            Thread.sleep(50);
+            // the call is queued behind the input, so the input has been handled (and ignored) by now
+            session.call(c -> null).get();
+            assertEquals(ticks, session.getGravityTicks(), "No gravity while paused");
+            assertEquals(0, session.getInputsApplied(), "Inputs are ignored while paused");
+
+            session.resume();
+            waitFor(() -> session.getGravityTicks() > ticks, "Gravity should continue after resume");
+            session.submit(ReplayAction.RIGHT);
+            waitFor(() -> session.getInputsApplied() == 1, "Inputs apply again after resume");
+        }
+    }
+
+    @Test
+    void testGameOverWaitsForRestart() throws Exception {
+        try (SessionHost host = new SessionHost()) {
+            GameSession session = host.open(new NormalMode(), 3, level -> 60_000);
+            // hard drops alone stack pieces in the middle until the board is full
+            for (int i = 0; i < 200; i++) {
+                session.submit(ReplayAction.HARD_DROP);
+            }
+            waitFor(() -> session.getState() == GameSession.State.GAME_OVER, "Normal games should end");
+
+            session.restart();
+            waitFor(() -> session.getState() == GameSession.State.RUNNING, "Restart should start a new game");
+        }
+    }
+
+    @Test
+    void testCloseTearsDownSessionAndHost() throws Exception {
+        SessionHost host = new SessionHost();
+        GameSession first = host.open(new ZenMode(), 1, level -> FAST_GRAVITY_MILLIS);
+        GameSession second = host.open(new ZenMode(), 2, level -> FAST_GRAVITY_MILLIS);
+
+        first.close();
+        assertTrue(first.awaitClosed(Duration.ofSeconds(5)));
+        assertEquals(GameSession.State.CLOSED, first.getState());
+        assertNull(host.get(first.getId()), "Closed sessions leave the host");
+        assertFalse(first.submit(ReplayAction.LEFT), "Closed sessions reject inputs");
+        assertTrue(first.call(c -> 1).isCompletedExceptionally());
+        long ticks = first.getGravityTicks();
+        Thread.sleep(30);
+        assertEquals(ticks, first.getGravityTicks(), "Gravity stops with the session");
+
+        host.close();
+        assertEquals(GameSession.State.CLOSED, second.getState());
+        assertEquals(0, host.getSessionCount());
+        assertThrows(IllegalStateException.class, () -> host.open(new ZenMode(), 3));
+    }
+
+    @Test
+    void testQueriesRacingCloseAlwaysComplete() throws Exception {
+        try (SessionHost host = new SessionHost()) {
+            for (int round = 0; round < 50; round++) {
+                GameSession session = host.open(new ZenMode(), round, level -> 60_000);
+                List<CompletableFuture<Integer>> answers = new ArrayList<>();
+                Thread caller = Thread.ofPlatform().start(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        answers.add(session.call(c -> 1));
+                    }
+                });
+                session.close();
+                caller.join();
+
+                // every query is either answered before the close or failed by it, never left hanging
+                for (CompletableFuture<Integer> answer : answers) {
+                    try {
+                        assertEquals(1, answer.get(5, TimeUnit.SECONDS));
+                    } catch (ExecutionException e) {
+                        assertInstanceOf(IllegalStateException.class, e.getCause());
+                    }
+                }
+                assertTrue(session.awaitClosed(Duration.ofSeconds(5)));
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.comp2042.host;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    @Test
+    void testTimeoutsFireInDeadlineOrderAndNeverEarly() throws InterruptedException {
+        try (TimerWheel wheel = new TimerWheel("test-wheel", 2, 8)) {
+            List<Integer> fired = new CopyOnWriteArrayList<>();
+            CountDownLatch done = new CountDownLatch(3);
+            long start = System.nanoTime();
+            long[] firedAt = new long[3];
+            // 60 ms is several rotations of an 8-slot, 2 ms wheel
+            int[] delays = {60, 5, 25};
+            for (int i = 0; i < delays.length; i++) {
+                int index = i;
+                wheel.schedule(() -> {
+                    firedAt[index] = System.nanoTime() - start;
+                    fired.add(delays[index]);
+                    done.countDown();
+                }, delays[i], TimeUnit.MILLISECONDS);
+            }
+
+            assertTrue(done.await(5, TimeUnit.SECONDS), "All timeouts should fire");
+            assertEquals(List.of(5, 25, 60), fired);
+            for (int i = 0; i < delays.length; i++) {
+                assertTrue(firedAt[i] >= TimeUnit.MILLISECONDS.toNanos(delays[i]),
+                        "Timeout of " + delays[i] + " ms fired early");
+            }
+        }
+    }
+
+    @Test
+    void testCancelledTimeoutNeverFires() throws InterruptedException {
+        try (TimerWheel wheel = new TimerWheel("test-wheel", 1, 16)) {
+            CountDownLatch cancelledRan = new CountDownLatch(1);
+            CountDownLatch laterRan = new CountDownLatch(1);
+            TimerWheel.Timeout timeout = wheel.schedule(cancelledRan::countDown, 10, TimeUnit.MILLISECONDS);
+            wheel.schedule(laterRan::countDown, 30, TimeUnit.MILLISECONDS);
+
+            assertTrue(timeout.cancel());
+            assertFalse(timeout.cancel(), "A timeout can only be cancelled once");
+            assertTrue(laterRan.await(5, TimeUnit.SECONDS));
+            assertEquals(1, cancelledRan.getCount(), "Cancelled task must not run");
+        }
+    }
+
+    @Test
+    void testClosedWheelRejectsNewTimeouts() {
+        TimerWheel wheel = new TimerWheel("test-wheel", 1, 4);
+        wheel.close();
+
+        assertThrows(IllegalStateException.class, () -> wheel.schedule(() -> { }, 1, TimeUnit.MILLISECONDS));
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel("bad", 1, 6));
+    }
+}
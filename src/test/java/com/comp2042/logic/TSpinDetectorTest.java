@@ -0,0 +1,102 @@
+package com.comp2042.logic;
+
+import com.comp2042.logic.board.SimpleBoard;
+import com.comp2042.model.BoardState;
+import com.comp2042.model.ClearRow;
+import com.comp2042.model.PersistentGrid;
+import com.comp2042.model.TSpin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TSpinDetectorTest {
+
+    private static final int HEIGHT = 20;
+    private static final int WIDTH = 10;
+    private static final int T = TSpinDetector.T_BRICK;
+
+    private SimpleBoard board;
+
+    @BeforeEach
+    void setUp() {
+        board = new SimpleBoard(HEIGHT, WIDTH);
+        board.newGame(7);
+    }
+
+    /** Puts a T on the given grid, without touching the generator. */
+    private void place(int[][] grid, int brickId, int rotation, int x, int y) {
+        byte[] generator = board.captureState().getGeneratorState();
+        board.restoreFullState(new BoardState(PersistentGrid.of(grid), brickId, rotation, x, y, 0, true, generator));
+    }
+
+    @Test
+    void testRotationIntoSlotIsFullTSpin() {
+        // pointing left right above the slot; one rotation turns it to point down into it
+        place(TestBoards.doubleSlot(HEIGHT, WIDTH), T, 3, 3, HEIGHT - 3);
+        assertTrue(board.rotateLeftBrick());
+        assertEquals(0, board.getLastRotationKick(), "The rotation needed no kick");
+
+        board.mergeBrickToBackground();
+        ClearRow clear = board.clearRows();
+
+        assertEquals(TSpin.FULL, clear.getSpin(), "Both corners in front and one behind are blocked");
+        assertEquals(2, clear.getLinesRemoved());
+    }
+
+    @Test
+    void testOneFrontCornerIsMini() {
+        // pointing up on a filled row with a hole under it: both back corners and one front corner blocked
+        place(TestBoards.doubleSlot(HEIGHT, WIDTH), T, 1, 3, HEIGHT - 3);
+        assertTrue(board.rotateLeftBrick());
+
+        board.mergeBrickToBackground();
+        ClearRow clear = board.clearRows();
+
+        assertEquals(TSpin.MINI, clear.getSpin());
+        assertEquals(1, clear.getLinesRemoved());
+    }
+
+    @Test
+    void testMovingAfterRotationIsNoSpin() {
+        // a move after a rotation forgets the rotation
+        place(new int[HEIGHT][WIDTH], T, 3, 3, 0);
+        assertTrue(board.rotateLeftBrick());
+        assertEquals(0, board.getLastRotationKick());
+        assertTrue(board.moveBrickDown());
+        assertEquals(TSpinDetector.NO_ROTATION, board.getLastRotationKick());
+
+        // the same lock as the double, but the brick got there without rotating
+        place(TestBoards.doubleSlot(HEIGHT, WIDTH), T, 0, 3, HEIGHT - 3);
+        board.mergeBrickToBackground();
+        ClearRow clear = board.clearRows();
+
+        assertEquals(TSpin.NONE, clear.getSpin(), "Dropping into a slot is not a spin");
+        assertEquals(2, clear.getLinesRemoved());
+    }
+
+    @Test
+    void testSpinIsReportedOnce() {
+        place(TestBoards.doubleSlot(HEIGHT, WIDTH), T, 3, 3, HEIGHT - 3);
+        board.rotateLeftBrick();
+        board.mergeBrickToBackground();
+        board.clearRows();
+
+        // a second clear without a new lock reports nothing
+        assertEquals(TSpin.NONE, board.clearRows().getSpin());
+    }
+
+    @Test
+    void testClassifyIgnoresOtherBricksAndOpenCorners() {
+        PersistentGrid slot = PersistentGrid.of(TestBoards.doubleSlot(HEIGHT, WIDTH));
+        PersistentGrid open = PersistentGrid.empty(HEIGHT, WIDTH);
+
+        assertEquals(TSpin.FULL, TSpinDetector.classify(slot, T, 0, 3, HEIGHT - 3, 0));
+        // an L rotated into the same place is not a T-spin
+        assertEquals(TSpin.NONE, TSpinDetector.classify(slot, 3, 0, 3, HEIGHT - 3, 0));
+        assertEquals(TSpin.NONE, TSpinDetector.classify(slot, T, 0, 3, HEIGHT - 3, TSpinDetector.NO_ROTATION));
+        // only one corner blocked (the floor counts as two)
+        assertEquals(TSpin.NONE, TSpinDetector.classify(open, T, 0, 3, 5, 0));
+        assertEquals(TSpin.NONE, TSpinDetector.classify(open, T, 2, 3, HEIGHT - 2, 0));
+    }
+}
@@ -0,0 +1,86 @@
+package com.comp2042.logic;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Boards shared by tests of the engine and of the bots, so a fixture is defined once.
+ */
+public final class TestBoards {
+
+    private TestBoards() {
+    }
+
+    /**
+     * Fills a row with blocks, leaving the given columns empty.
+     *
+     * @return the board, for chaining.
+     */
+    public static int[][] fillRow(int[][] board, int row, int... gaps) {
+        Arrays.fill(board[row], 1);
+        for (int c : gaps) {
+            board[row][c] = 0;
+        }
+        return board;
+    }
+
+    /** A T-spin double slot centred on column 4, with the overhang on the left. */
+    public static int[][] doubleSlot(int height, int width) {
+        int[][] board = new int[height][width];
+        fillRow(board, height - 1, 4);
+        fillRow(board, height - 2, 3, 4, 5);
+        board[height - 3][3] = 1;
+        return board;
+    }
+
+    /** Rows filled up to the given height, except for a well in the last column. */
+    public static int[][] wellBoard(int height, int width, int rows) {
+        int[][] board = new int[height][width];
+        for (int r = height - rows; r < height; r++) {
+            for (int c = 0; c < width - 1; c++) {
+                board[r][c] = 7;
+            }
+        }
+        return board;
+    }
+
+    /** The bottom rows with every cell filled at the given chance, in percent. */
+    public static int[][] randomRows(Random random, int height, int width, int rows, int percent) {
+        int[][] board = new int[height][width];
+        for (int r = height - rows; r < height; r++) {
+            for (int c = 0; c < width; c++) {
+                board[r][c] = random.nextInt(100) < percent ? 1 : 0;
+            }
+        }
+        return board;
+    }
+
+    /**
+     * A ragged stack with a single gap per row near the bottom, so many placements clear lines.
+     */
+    public static int[][] randomStack(Random random, int height, int width) {
+        int[][] cells = new int[height][width];
+        int top = height - 1 - random.nextInt(10);
+        for (int r = top; r < height; r++) {
+            int gap = random.nextInt(width);
+            for (int c = 0; c < width; c++) {
+                boolean dense = r > height - 5;
+                if (c != gap && random.nextInt(100) < (dense ? 95 : 55)) {
+                    cells[r][c] = 1 + random.nextInt(7);
+                }
+            }
+        }
+        return cells;
+    }
+
+    /** Counts the blocks on a board. */
+    public static int countCells(int[][] board) {
+        int count = 0;
+        for (int[] row : board) {
+            for (int value : row) {
+                count += value != 0 ? 1 : 0;
+            }
+        }
+        return count;
+    }
+}
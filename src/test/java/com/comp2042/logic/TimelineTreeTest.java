@@ -0,0 +1,154 @@
+package com.comp2042.logic;
+
+import com.comp2042.model.BoardMemento;
+import com.comp2042.model.PersistentGrid;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimelineTreeTest {
+
+    private static final int[][] DOT = {{1}};
+
+    private TimelineTree timeline;
+    private PersistentGrid start;
+
+    @BeforeEach
+    void setUp() {
+        timeline = new TimelineTree();
+        start = PersistentGrid.empty(20, 10);
+        timeline.reset(start, 0, 1);
+    }
+
+    @Test
+    void testUndoThenRedoRestoresSameState() {
+        PersistentGrid afterMove = start.merge(DOT, 0, 19);
+        timeline.commit(afterMove, 10, 1);
+
+        // undo goes back to the empty board
+        BoardMemento undone = timeline.undo();
+        assertEquals(0, undone.getGrid().get(19, 0));
+        assertEquals(0, undone.getScore());
+
+        // redo brings the move back
+        BoardMemento redone = timeline.redo();
+        assertEquals(1, redone.getGrid().get(19, 0));
+        assertEquals(10, redone.getScore());
+    }
+
+    @Test
+    void testPlayingAfterUndoCreatesBranch() {
+        TimelineTree.Node left = timeline.commit(start.merge(DOT, 0, 19), 10, 1);
+        timeline.undo();
+
+        // a different move from the same state should branch instead of overwriting
+        TimelineTree.Node right = timeline.commit(start.merge(DOT, 9, 19), 20, 1);
+
+        assertEquals(2, timeline.getRoot().getChildren().size(), "Both alternatives should be kept");
+
+        // we can still jump back to the first branch
+        BoardMemento state = timeline.jumpTo(left);
+        assertEquals(1, state.getGrid().get(19, 0));
+        assertEquals(0, state.getGrid().get(19, 9), "The other branch's block must not leak in");
+        assertSame(left, timeline.getCursor());
+        assertNotSame(left, right);
+    }
+
+    @Test
+    void testRepeatingSameMoveReusesChild() {
+        PersistentGrid afterMove = start.merge(DOT, 0, 19);
+        TimelineTree.Node first = timeline.commit(afterMove, 10, 1);
+        timeline.undo();
+
+        TimelineTree.Node second = timeline.commit(start.merge(DOT, 0, 19), 10, 1);
+
+        assertSame(first, second, "Replaying the same move should not create a duplicate branch");
+        assertEquals(2, timeline.getNodeCount());
+    }
+
+    @Test
+    void testDeltaOnlyStoresChangedRows() {
+        TimelineTree.Node node = timeline.commit(start.merge(new int[][]{{1}, {1}}, 3, 18), 0, 1);
+        assertEquals(2, node.getChangedRowCount());
+    }
+
+    @Test
+    void testPruningKeepsUsageWithinBudget() {
+        TimelineTree small = new TimelineTree(2_000);
+        small.reset(start, 0, 1);
+
+        // build a long line of play so there are no side branches to prune
+        PersistentGrid grid = start;
+        for (int i = 0; i < 200; i++) {
+            grid = grid.merge(DOT, i % 10, 19 - (i / 10) % 20);
+            small.commit(grid, i, 1);
+        }
+
+        assertTrue(small.getUsedBytes() <= 2_000, "Usage should be bounded by the budget");
+
+        // the current state must survive pruning intact
+        BoardMemento undone = small.undo();
+        assertNotNull(undone);
+        assertEquals(198, undone.getScore());
+    }
+
+    @Test
+    void testNodesKeepTheirIdentityWhenTheRootAdvances() {
+        TimelineTree small = new TimelineTree(2_000);
+        small.reset(start, 0, 1);
+
+        PersistentGrid grid = start;
+        List<TimelineTree.Node> line = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            grid = grid.merge(DOT, i % 10, 19 - (i / 10) % 20);
+            line.add(small.commit(grid, i, 1));
+        }
+
+        TimelineTree.Node root = small.getRoot();
+        assertTrue(line.stream().anyMatch(n -> n == root), "The folded root should be a node handed out by commit");
+        assertNull(root.getParent());
+        assertEquals(0, root.getDepth());
+        assertEquals(small.getNodeCount() - 1, small.getCursor().getDepth(), "A single line has one node per move");
+
+        // a node taken before the root moved past its parent can still be jumped to
+        TimelineTree.Node kept = line.get(line.indexOf(root) + 1);
+        BoardMemento state = small.jumpTo(kept);
+        assertEquals(kept.getScore(), state.getScore());
+        assertEquals(1, kept.getDepth());
+    }
+
+    /** Plays three moves stacked in one column from the root, returns to the root and gives the first. */
+    private TimelineTree.Node playSideBranch(TimelineTree tree, int column) {
+        TimelineTree.Node first = tree.commit(start.merge(DOT, column, 19), 1, 1);
+        tree.commit(start.merge(DOT, column, 19).merge(DOT, column, 18), 2, 1);
+        tree.commit(start.merge(DOT, column, 19).merge(DOT, column, 18).merge(DOT, column, 17), 3, 1);
+        tree.jumpTo(tree.getRoot());
+        return first;
+    }
+
+    @Test
+    void testColdestSideBranchesArePrunedFirst() {
+        TimelineTree small = new TimelineTree(2_000);
+        small.reset(start, 0, 1);
+
+        // two side branches of three moves off the root, about as much as one pruning frees; the left one
+        // is visited last, then play goes on from the root
+        TimelineTree.Node right = playSideBranch(small, 9);
+        TimelineTree.Node left = playSideBranch(small, 0);
+        PersistentGrid grid = start.merge(DOT, 5, 19);
+        small.commit(grid, 3, 1);
+        int i = 0;
+        while (small.getRoot().getChildren().contains(right)) {
+            grid = grid.merge(DOT, i % 10, 18 - (i / 10) % 19);
+            small.commit(grid, 4 + i, 1);
+            i++;
+        }
+
+        assertTrue(small.getRoot().getChildren().contains(left), "The warmer branch should outlive the colder one");
+        assertEquals(0, small.getRoot().getDepth());
+    }
+}
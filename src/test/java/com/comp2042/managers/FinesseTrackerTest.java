@@ -0,0 +1,87 @@
+package com.comp2042.managers;
+
+import com.comp2042.controllers.GameController;
+import com.comp2042.logic.board.SimpleBoard;
+import com.comp2042.model.MoveEvent;
+import com.comp2042.util.EventSource;
+import com.comp2042.util.EventType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FinesseTrackerTest {
+
+    private static final int T = 6;
+
+    @Test
+    void testJudgesEachLock() {
+        FinesseTracker tracker = new FinesseTracker(10, 24);
+        int[][] empty = new int[24][10];
+
+        // one tap left is the optimum
+        tracker.onKeyPressed();
+        tracker.onPieceLocked(empty, T, 0, 2, 21);
+        assertEquals(0, tracker.getLastExtraPresses());
+
+        // two taps where holding the key once reaches the wall
+        tracker.onKeyPressed();
+        tracker.onKeyPressed();
+        tracker.onPieceLocked(empty, T, 0, 0, 21);
+        assertEquals(1, tracker.getLastExtraPresses());
+
+        assertEquals(2, tracker.getPieces());
+        assertEquals(1, tracker.getFaults());
+        assertEquals(3, tracker.getPresses());
+        assertEquals(2, tracker.getOptimalPresses());
+        assertEquals(1, tracker.getExtraPresses());
+        assertEquals(0.5, tracker.getAccuracy(), 1e-9);
+    }
+
+    @Test
+    void testSkipsBricksWithoutPresses() {
+        FinesseTracker tracker = new FinesseTracker(10, 24);
+
+        // a gravity-only lock, and one whose presses were undone
+        tracker.onPieceLocked(new int[24][10], T, 0, 3, 21);
+        tracker.onKeyPressed();
+        tracker.onPieceReset();
+        assertFalse(tracker.hasPendingPresses());
+        tracker.onPieceLocked(new int[24][10], T, 0, 3, 21);
+
+        assertEquals(0, tracker.getPieces());
+        assertEquals(1.0, tracker.getAccuracy(), "Nothing judged yet counts as perfect");
+    }
+
+    @Test
+    void testControllerReportsLocksAndResetsPerGame() {
+        GameController controller = new GameController(new SimpleBoard(24, 10), new ScoreManager(null), 3);
+        controller.createNewGame(3);
+        FinesseTracker tracker = controller.getFinesseTracker();
+        MoveEvent drop = new MoveEvent(null, EventSource.USER);
+
+        // every brick spawns flat, and one column left takes one tap
+        tracker.onKeyPressed();
+        controller.onLeftEvent();
+        controller.onHardDropEvent(drop);
+        // the next brick ends up in the same place the long way round
+        for (int i = 0; i < 3; i++) {
+            tracker.onKeyPressed();
+        }
+        controller.onLeftEvent();
+        controller.onLeftEvent();
+        controller.onRightEvent();
+        controller.onHardDropEvent(drop);
+        // presses before a hold do not count for the brick that comes out
+        tracker.onKeyPressed();
+        controller.onLeftEvent();
+        controller.onHoldEvent(new MoveEvent(EventType.HOLD, EventSource.USER));
+        controller.onHardDropEvent(drop);
+
+        assertEquals(2, tracker.getPieces());
+        assertEquals(1, tracker.getFaults());
+        assertEquals(2, tracker.getExtraPresses());
+
+        controller.createNewGame(4);
+        assertEquals(0, tracker.getPieces(), "A new game starts new statistics");
+    }
+}
@@ -1,6 +1,12 @@
 package com.comp2042.managers;
 
+import com.comp2042.model.TSpin;
+import com.comp2042.util.GameConfiguration;
 import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ScoreManagerTest {
@@ -12,11 +18,11 @@ class ScoreManagerTest {
 
         // soft drops should add exactly 1 point
         sm.onSoftDrop();
-        assertEquals(1, sm.scoreProperty().get());
+        assertEquals(1, sm.getScore());
 
         // hard drops should add points equal to the rows dropped (e.g. 5 rows = 5 points)
         sm.onHardDrop(5);
-        assertEquals(6, sm.scoreProperty().get());
+        assertEquals(6, sm.getScore());
     }
 
     @Test
@@ -27,13 +33,55 @@ class ScoreManagerTest {
         // simulate some gameplay to increase the score
         sm.onSoftDrop();
         sm.onSoftDrop();
-        assertEquals(2, sm.scoreProperty().get());
+        assertEquals(2, sm.getScore());
 
         // use the restore function (from the undo feature) to revert to a previous score
         sm.restoreState(0, 1);
 
-        // verify that the score property actually went back to 0
-        assertEquals(0, sm.scoreProperty().get(), "Score should revert to 0 after restoreState");
-        assertEquals(1, sm.levelProperty().get(), "Level should match restored value");
+        // verify that the score actually went back to 0
+        assertEquals(0, sm.getScore(), "Score should revert to 0 after restoreState");
+        assertEquals(1, sm.getLevel(), "Level should match restored value");
+    }
+
+    @Test
+    void testListenersOnlySeeActualChanges() {
+        ScoreManager sm = new ScoreManager(null);
+        List<Integer> scores = new ArrayList<>();
+        List<Integer> levels = new ArrayList<>();
+        sm.setScoreListener(scores::add);
+        sm.setLevelListener(levels::add);
+
+        // a hard drop of zero rows does not change the score, so nobody should be told
+        sm.onHardDrop(0);
+        assertTrue(scores.isEmpty());
+
+        // every clear reports its new score, but the level only changes once, after 10 lines
+        sm.onRowsCleared(4);
+        sm.onRowsCleared(4);
+        sm.onRowsCleared(4);
+        assertEquals(List.of(800, 1600, 2400), scores);
+        assertEquals(List.of(2), levels);
+        assertEquals(2, sm.getLevel());
+        assertEquals(12, sm.getTotalLinesCleared());
+    }
+
+    @Test
+    void testTSpinScoring() {
+        ScoreManager sm = new ScoreManager(null);
+
+        // a T-spin double is worth the full T-spin base for the spin and once more per line
+        sm.onRowsCleared(2, TSpin.FULL);
+        assertEquals(3 * GameConfiguration.TSPIN_SCORE, sm.getScore());
+        assertEquals(2, sm.getTotalLinesCleared());
+
+        // a mini with no lines still scores, but adds no lines
+        sm.onRowsCleared(0, TSpin.MINI);
+        assertEquals(3 * GameConfiguration.TSPIN_SCORE + GameConfiguration.TSPIN_MINI_SCORE, sm.getScore());
+        assertEquals(2, sm.getTotalLinesCleared(), "A spin without lines should not count lines");
+
+        // no spin scores like the plain overload
+        sm.reset();
+        sm.onRowsCleared(2, TSpin.NONE);
+        assertEquals(4 * GameConfiguration.SCORE_PER_LINE, sm.getScore());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,60 @@
+package com.comp2042.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactMementoTest {
+
+    @Test
+    void testRoundTripKeepsEveryCell() {
+        // build a board using every color so all 3 bits get exercised
+        int[][] matrix = new int[24][10];
+        for (int row = 16; row < 24; row++) {
+            for (int col = 0; col < 10; col++) {
+                matrix[row][col] = (row + col) % 8;
+            }
+        }
+        PersistentGrid grid = PersistentGrid.of(matrix);
+
+        CompactMemento compact = CompactMemento.encode(grid, 1234, 3);
+        PersistentGrid decoded = compact.decodeGrid();
+
+        for (int row = 0; row < 24; row++) {
+            for (int col = 0; col < 10; col++) {
+                assertEquals(matrix[row][col], decoded.get(row, col), "Cell mismatch at " + row + "," + col);
+                assertEquals(matrix[row][col], compact.cellAt(row, col));
+            }
+        }
+        assertEquals(1234, compact.getScore());
+        assertEquals(3, compact.getLevel());
+    }
+
+    @Test
+    void testEmptyRowsAreRunLengthEncoded() {
+        // only the bottom row has a block, so the 23 rows above should be skipped
+        PersistentGrid grid = PersistentGrid.empty(24, 10).merge(new int[][]{{6}}, 4, 23);
+
+        CompactMemento compact = CompactMemento.encode(grid, 0, 1);
+
+        assertEquals(23, compact.getEmptyPrefix());
+        assertEquals(1, compact.getCells().length, "One row of 10 cells fits in a single word");
+        assertTrue(compact.estimatedSizeBytes() < 100, "A nearly empty board should take well under 100 bytes");
+    }
+
+    @Test
+    void testRejectsValuesWiderThanThreeBits() {
+        PersistentGrid grid = PersistentGrid.of(new int[][]{{8}});
+        assertThrows(IllegalArgumentException.class, () -> CompactMemento.encode(grid, 0, 1));
+    }
+
+    @Test
+    void testConvertsToAndFromBoardMemento() {
+        BoardMemento memento = new BoardMemento(new int[][]{{0, 2}, {3, 0}}, 50, 2);
+
+        BoardMemento restored = CompactMemento.of(memento).toMemento();
+
+        assertArrayEquals(memento.getBoardState(), restored.getBoardState());
+        assertEquals(50, restored.getScore());
+        assertEquals(2, restored.getLevel());
+    }
+}
@@ -0,0 +1,64 @@
+package com.comp2042.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentGridTest {
+
+    private static final int[][] FLAT_BAR = {
+            {1, 1, 1, 1}
+    };
+
+    @Test
+    void testMergeOnlyCopiesTouchedRows() {
+        PersistentGrid before = PersistentGrid.empty(20, 10);
+
+        // lock a flat bar into the bottom row
+        PersistentGrid after = before.merge(FLAT_BAR, 0, 19);
+
+        // the original grid must not see the new blocks
+        assertEquals(0, before.get(19, 0), "Old version should stay untouched");
+        assertEquals(1, after.get(19, 0));
+
+        // every row except the one we wrote into should be shared by reference
+        assertEquals(19, after.sharedRowCount(before), "Only the touched row should be reallocated");
+    }
+
+    @Test
+    void testClearFullRowsShiftsRowsDown() {
+        int[][] matrix = new int[4][2];
+        matrix[1][0] = 3;              // partial row that should fall
+        matrix[3] = new int[]{1, 1};   // full row that should be removed
+        PersistentGrid grid = PersistentGrid.of(matrix);
+
+        assertEquals(1, grid.countFullRows());
+        PersistentGrid cleared = grid.clearFullRows();
+
+        // the partial row moves down by one and the top becomes empty
+        assertEquals(3, cleared.get(2, 0), "Rows above a cleared line should shift down");
+        assertTrue(cleared.isRowEmpty(0));
+        assertEquals(0, cleared.countFullRows());
+
+        // the shifted row is the same object, not a copy
+        assertSame(grid.rows()[1], cleared.rows()[2]);
+    }
+
+    @Test
+    void testOfMakesDefensiveCopy() {
+        int[][] matrix = new int[2][2];
+        PersistentGrid grid = PersistentGrid.of(matrix);
+
+        // changing the source array must not leak into the grid
+        matrix[0][0] = 9;
+        assertEquals(0, grid.get(0, 0));
+    }
+
+    @Test
+    void testIntersectsWallsAndBlocks() {
+        PersistentGrid grid = PersistentGrid.empty(4, 4).merge(new int[][]{{5}}, 2, 3);
+
+        assertFalse(grid.intersects(FLAT_BAR, 0, 0));
+        assertTrue(grid.intersects(FLAT_BAR, 1, 0), "Bar sticking out on the right should collide");
+        assertTrue(grid.intersects(FLAT_BAR, 0, 3), "Bar overlapping a locked block should collide");
+    }
+}
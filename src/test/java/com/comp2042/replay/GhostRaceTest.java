@@ -0,0 +1,151 @@
+package com.comp2042.replay;
+
+import com.comp2042.controllers.GameController;
+import com.comp2042.logic.board.SimpleBoard;
+import com.comp2042.logic.mode.NormalMode;
+import com.comp2042.logic.mode.ZenMode;
+import com.comp2042.managers.ScoreManager;
+import com.comp2042.model.MoveEvent;
+import com.comp2042.util.EventSource;
+import com.comp2042.util.EventType;
+import com.comp2042.util.GameClock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GhostRaceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testGhostStaysInStepWithLiveClock() {
+        Replay replay = ReplayPlayerTest.recordGame(new NormalMode(), 11L, 2_000, 20);
+        GhostRace ghost = new GhostRace(replay);
+
+        // drive the ghost at 60 frames per second and compare against plain playback now and then
+        long frame = 0;
+        while (!ghost.isFinished()) {
+            frame += 16;
+            ghost.update(frame);
+            if (frame % 1600 == 0) {
+                ReplayPlayer reference = new ReplayPlayer(replay);
+                reference.advanceTo(frame);
+                assertEquals(reference.getPositionMillis(), ghost.getPositionMillis());
+            }
+        }
+        assertTrue(ghost.getMaxUpdateNanos() >= ghost.getAverageUpdateNanos());
+    }
+
+    /**
+     * Feeds a game pseudo-random inputs 50 ms of play time apart, pausing it once along the way.
+     *
+     * @return the number of inputs fed.
+     */
+    private static int playInputs(GameController game, GameClock clock, long[] wallNanos, long seed, int maxInputs,
+                                  int pauseAfter, long pauseMillis, BooleanSupplier stop, Runnable afterEach) {
+        Random random = new Random(seed);
+        clock.start();
+        int i = 0;
+        for (; i < maxInputs && !stop.getAsBoolean(); i++) {
+            if (i == pauseAfter) {
+                clock.pause();
+                wallNanos[0] += pauseMillis * 1_000_000L;
+                clock.start();
+            }
+            wallNanos[0] += 50_000_000L;
+            switch (random.nextInt(6)) {
+                case 0 -> game.onLeftEvent();
+                case 1 -> game.onRightEvent();
+                case 2 -> game.onRotateEvent();
+                case 3 -> game.onHoldEvent(new MoveEvent(EventType.HOLD, EventSource.USER));
+                default -> game.onDownEvent(new MoveEvent(EventType.DOWN, EventSource.THREAD));
+            }
+            afterEach.run();
+        }
+        return i;
+    }
+
+    @Test
+    void testGhostRecordedOnGameClockStaysInStepAcrossPauses() {
+        long seed = 17L;
+        List<Replay> saved = new ArrayList<>();
+        long[] recordedWall = {0};
+        GameClock recordedClock = new GameClock(() -> recordedWall[0]);
+        GameController recorded = new GameController(new SimpleBoard(24, 10), new ScoreManager(null), seed);
+        recorded.setInputRecorder(new ReplayRecorder(saved::add, recordedClock));
+        recorded.createNewGame(seed);
+        // the recorded game is paused for ten seconds early on
+        int inputs = playInputs(recorded, recordedClock, recordedWall, seed, 1_500, 40, 10_000,
+                () -> !saved.isEmpty(), () -> { });
+        recorded.finishRecording();
+        GhostRace ghost = new GhostRace(saved.getFirst());
+
+        // the live game gets the same inputs at the same play times, but is paused somewhere else
+        long[] liveWall = {0};
+        GameClock liveClock = new GameClock(() -> liveWall[0]);
+        GameController live = new GameController(new SimpleBoard(24, 10), new ScoreManager(null), seed);
+        live.createNewGame(seed);
+        int[] checked = {0};
+        playInputs(live, liveClock, liveWall, seed, inputs, inputs / 2, 3_000, () -> false, () -> {
+            ghost.update(liveClock.elapsedMillis());
+            ReplayPlayerTest.assertSameState(live.captureSnapshot(), ghost.getController().captureSnapshot());
+            checked[0]++;
+        });
+        assertEquals(inputs, checked[0]);
+        assertTrue(inputs > 80, "Both pauses should fall inside the game");
+    }
+
+    @Test
+    void testBudgetSpreadsLargeCatchUpOverFrames() {
+        Replay replay = ReplayPlayerTest.recordGame(new NormalMode(), 5L, 500, 20);
+        GhostRace ghost = new GhostRace(replay, 5);
+
+        // a huge jump in live time must still apply at most 5 events per update
+        int updates = 0;
+        int applied;
+        int total = 0;
+        while ((applied = ghost.update(Long.MAX_VALUE)) > 0) {
+            assertTrue(applied <= 5, "Update exceeded its event budget");
+            total += applied;
+            updates++;
+        }
+        assertTrue(ghost.isFinished());
+        assertEquals(replay.getEventCount(), total);
+        assertTrue(updates >= total / 5);
+
+        ReplayPlayer reference = new ReplayPlayer(replay);
+        reference.advanceTo(Long.MAX_VALUE);
+        ReplayPlayerTest.assertSameState(reference.getController().captureSnapshot(),
+                ghost.getController().captureSnapshot());
+    }
+
+    @Test
+    void testLoadBestPicksHighestScoringGameOfMode() throws IOException {
+        assertNull(GhostRace.loadBest(directory, NormalMode.NAME), "An empty directory has no ghost");
+
+        Replay best = null;
+        try (ReplayArchive archive = ReplayArchive.open(directory)) {
+            for (long seed = 1; seed <= 4; seed++) {
+                Replay replay = ReplayPlayerTest.recordGame(new NormalMode(), seed, 800, 20);
+                archive.append(replay);
+                if (best == null || replay.getFinalScore() > best.getFinalScore()) {
+                    best = replay;
+                }
+            }
+        }
+
+        GhostRace ghost = GhostRace.loadBest(directory, NormalMode.NAME);
+        assertNotNull(ghost);
+        assertEquals(best.getSeed(), ghost.getReplay().getSeed());
+        assertNull(GhostRace.loadBest(directory, ZenMode.NAME), "No Zen game has been archived");
+    }
+}
@@ -0,0 +1,81 @@
+package com.comp2042.replay;
+
+import com.comp2042.logic.mode.NormalMode;
+import com.comp2042.logic.mode.ZenMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    private static Replay replay(String mode, int score, byte... log) {
+        return new Replay(ReplayCodec.VERSION, mode, score * 31L, 1_700_000_000_000L + score, log.length,
+                ByteBuffer.wrap(log), score, score / 100, 1, score);
+    }
+
+    @Test
+    void testTopQueryUsesIndexOrderAndModeFilter() throws IOException {
+        try (ReplayArchive archive = ReplayArchive.open(directory)) {
+            archive.append(replay(NormalMode.NAME, 300, (byte) 0x12));
+            archive.append(replay(ZenMode.NAME, 9000, (byte) 0x12));
+            archive.append(replay(NormalMode.NAME, 1200, (byte) 0x12));
+            archive.append(replay(NormalMode.NAME, 50, (byte) 0x12));
+            archive.append(replay(NormalMode.NAME, 700, (byte) 0x12));
+
+            List<ReplayArchive.Entry> top = archive.top(NormalMode.NAME, 3);
+
+            assertEquals(3, top.size());
+            assertEquals(1200, top.get(0).getScore());
+            assertEquals(700, top.get(1).getScore());
+            assertEquals(300, top.get(2).getScore());
+            assertEquals(9000, archive.top(null, 1).getFirst().getScore(), "No filter should include Zen");
+
+            archive.append(replay("Sprint", 5000, (byte) 0x12));
+            assertTrue(archive.top("Sprint", 3).isEmpty(), "A mode the index has no code for matches nothing");
+        }
+    }
+
+    @Test
+    void testReplaysSurviveReopenAndReadBack() throws IOException {
+        try (ReplayArchive archive = ReplayArchive.open(directory)) {
+            archive.append(replay(NormalMode.NAME, 100, (byte) 0x12, (byte) 0x23));
+            archive.append(replay(ZenMode.NAME, 200, (byte) 0x34));
+        }
+
+        try (ReplayArchive archive = ReplayArchive.open(directory)) {
+            assertEquals(2, archive.size());
+            Replay second = archive.read(archive.entry(1));
+            assertEquals(ZenMode.NAME, second.getModeName());
+            assertEquals(200, second.getFinalScore());
+            assertEquals(ByteBuffer.wrap(new byte[]{0x34}), second.getInputLog());
+        }
+    }
+
+    @Test
+    void testPartialIndexRecordIsDiscarded() throws IOException {
+        try (ReplayArchive archive = ReplayArchive.open(directory)) {
+            archive.append(replay(NormalMode.NAME, 100, (byte) 0x12));
+        }
+        // simulate a crash in the middle of writing the next index record
+        try (FileChannel index = FileChannel.open(directory.resolve(ReplayArchive.INDEX_FILE), StandardOpenOption.APPEND)) {
+            index.write(ByteBuffer.wrap(new byte[7]));
+        }
+
+        try (ReplayArchive archive = ReplayArchive.open(directory)) {
+            assertEquals(1, archive.size());
+            archive.append(replay(NormalMode.NAME, 500, (byte) 0x12));
+            assertEquals(500, archive.read(archive.entry(1)).getFinalScore());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.comp2042.replay;
+
+import com.comp2042.controllers.GameController;
+import com.comp2042.logic.board.SimpleBoard;
+import com.comp2042.logic.mode.GameMode;
+import com.comp2042.logic.mode.NormalMode;
+import com.comp2042.logic.mode.ZenMode;
+import com.comp2042.managers.ScoreManager;
+import com.comp2042.model.GameSnapshot;
+import com.comp2042.model.MoveEvent;
+import com.comp2042.util.EventSource;
+import com.comp2042.util.EventType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayPlayerTest {
+
+    /**
+     * Plays a pseudo-random game through a real controller and returns its recording.
+     */
+    private static Replay recordGame(long seed, int inputs) {
+        return recordGame(new NormalMode(), seed, inputs, 20);
+    }
+
+    static Replay recordGame(GameMode mode, long seed, int inputs, int keyframeInterval) {
+        List<Replay> saved = new ArrayList<>();
+        long[] nanos = {0};
+        GameController controller = new GameController(new SimpleBoard(24, 10), new ScoreManager(null), seed);
+        controller.setGameMode(mode);
+        controller.setInputRecorder(new ReplayRecorder(saved::add, () -> nanos[0], keyframeInterval));
+        controller.createNewGame();
+
+        // undo and redo are only drawn in modes with branching undo
+        int choices = mode.isBranchingUndoEnabled() ? 10 : 8;
+        Random random = new Random(seed);
+        for (int i = 0; i < inputs && saved.isEmpty(); i++) {
+            nanos[0] += 50_000_000L;
+            switch (random.nextInt(choices)) {
+                case 0 -> controller.onLeftEvent();
+                case 1 -> controller.onRightEvent();
+                case 2 -> controller.onRotateEvent();
+                case 3 -> controller.onDownEvent(new MoveEvent(EventType.DOWN, EventSource.USER));
+                case 4 -> controller.onHardDropEvent(new MoveEvent(null, EventSource.USER));
+                case 5 -> controller.onHoldEvent(new MoveEvent(EventType.HOLD, EventSource.USER));
+                case 8 -> controller.onUndoEvent();
+                case 9 -> controller.onRedoEvent();
+                default -> controller.onDownEvent(new MoveEvent(EventType.DOWN, EventSource.THREAD));
+            }
+        }
+        controller.finishRecording();
+        assertEquals(1, saved.size(), "Exactly one game should have been recorded");
+        return saved.getFirst();
+    }
+
+    @Test
+    void testReplayReproducesRecordedGame() {
+        Replay replay = recordGame(123L, 2_000);
+
+        ReplayPlayer.Result result = ReplayPlayer.play(replay);
+
+        assertTrue(result.isVerified(), () -> "Replay should verify but got: " + result);
+        assertEquals(replay.getFinalScore(), result.getScore());
+    }
+
+    @Test
+    void testReplayAfterCodecRoundTrip() {
+        Replay replay = ReplayCodec.decode(ReplayCodec.encode(recordGame(5L, 1_000)));
+        assertTrue(ReplayPlayer.play(replay).isVerified());
+    }
+
+    @Test
+    void testWrongSeedIsReportedAtFirstDifferentLock() {
+        Replay original = recordGame(99L, 2_000);
+        // same inputs, different pieces: the first piece lock should already disagree
+        Replay tampered = new Replay(original.getFormatVersion(), original.getModeName(), original.getSeed() + 1,
+                original.getStartEpochMillis(), original.getEventCount(), original.getInputLog(),
+                original.getFinalScore(), original.getFinalLines(), original.getFinalLevel(),
+                original.getFinalBoardHash());
+
+        ReplayPlayer.Result result = ReplayPlayer.play(tampered);
+
+        assertFalse(result.isVerified());
+        assertTrue(result.getDivergenceIndex() >= 0);
+        assertTrue(result.getDivergenceIndex() < original.getEventCount(), "Divergence should be found mid-game");
+        assertNotNull(result.getDivergenceReason());
+    }
+
+    @Test
+    void testSeekMatchesSequentialPlayback() {
+        Replay replay = ReplayCodec.decode(ReplayCodec.encode(recordGame(new NormalMode(), 7L, 3_000, 3)));
+        assertTrue(replay.getKeyframes().size() > 2, "The game should be long enough to have keyframes");
+
+        ReplayPlayer seeking = new ReplayPlayer(replay);
+        seeking.advanceTo(Long.MAX_VALUE);
+        long end = seeking.getPositionMillis();
+
+        // jump backwards and forwards and compare with a player that never seeks
+        for (long target : new long[]{end / 2, end / 5, end - 1, 0, end * 3 / 4}) {
+            assertTrue(seeking.seek(target), "Seeking should not diverge");
+
+            ReplayPlayer sequential = new ReplayPlayer(replay);
+            sequential.advanceTo(target);
+            assertSameState(sequential.getController().captureSnapshot(), seeking.getController().captureSnapshot());
+        }
+    }
+
+    @Test
+    void testZenReplayWithUndoSeeksCorrectly() {
+        Replay replay = recordGame(new ZenMode(), 11L, 3_000, 2);
+        assertTrue(replay.getKeyframes().size() > 0);
+        assertTrue(ReplayPlayer.play(replay).isVerified());
+
+        ReplayPlayer seeking = new ReplayPlayer(replay);
+        seeking.advanceTo(Long.MAX_VALUE);
+        long end = seeking.getPositionMillis();
+        for (long target = end; target >= 0; target -= Math.max(1, end / 7)) {
+            assertTrue(seeking.seek(target), "Undo must never reach behind the keyframe used");
+            ReplayPlayer sequential = new ReplayPlayer(replay);
+            sequential.advanceTo(target);
+            assertSameState(sequential.getController().captureSnapshot(), seeking.getController().captureSnapshot());
+        }
+    }
+
+    static void assertSameState(GameSnapshot expected, GameSnapshot actual) {
+        assertEquals(expected.getBoard().getGrid().contentHash(), actual.getBoard().getGrid().contentHash());
+        assertEquals(expected.getScore(), actual.getScore());
+        assertEquals(expected.getLines(), actual.getLines());
+        assertEquals(expected.getBoard().getBrickId(), actual.getBoard().getBrickId());
+        assertEquals(expected.getBoard().getX(), actual.getBoard().getX());
+        assertEquals(expected.getBoard().getY(), actual.getBoard().getY());
+        assertArrayEquals(expected.getBoard().getGeneratorState(), actual.getBoard().getGeneratorState());
+    }
+}
@@ -0,0 +1,98 @@
+package com.comp2042.replay;
+
+import com.comp2042.logic.mode.ZenMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayRecorderTest {
+
+    private final List<Replay> saved = new ArrayList<>();
+    private long nanos;
+    private ReplayRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new ReplayRecorder(saved::add, () -> nanos);
+    }
+
+    private void actAfter(long millis, ReplayAction action) {
+        nanos += millis * 1_000_000;
+        recorder.onAction(action);
+    }
+
+    @Test
+    void testEventsKeepOrderAndTiming() {
+        recorder.onGameStarted(42L, new ZenMode());
+        actAfter(5, ReplayAction.LEFT);
+        actAfter(400, ReplayAction.GRAVITY);
+        actAfter(0, ReplayAction.HARD_DROP);
+        recorder.onGameEnded(100, 1, 1, 7L);
+
+        assertEquals(1, saved.size());
+        Replay replay = saved.getFirst();
+        assertEquals(ZenMode.NAME, replay.getModeName());
+        assertEquals(42L, replay.getSeed());
+        assertEquals(3, replay.getEventCount());
+
+        Replay.EventCursor cursor = replay.cursor();
+        assertTrue(cursor.next());
+        assertEquals(ReplayAction.LEFT, cursor.getAction());
+        assertEquals(5, cursor.getTimeMillis());
+        assertTrue(cursor.next());
+        assertEquals(ReplayAction.GRAVITY, cursor.getAction());
+        assertEquals(405, cursor.getTimeMillis());
+        assertTrue(cursor.next());
+        assertEquals(ReplayAction.HARD_DROP, cursor.getAction());
+        assertEquals(405, cursor.getTimeMillis());
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    void testTypicalEventsTakeAtMostTwoBytes() {
+        recorder.onGameStarted(1L, new ZenMode());
+        for (int i = 0; i < 1000; i++) {
+            actAfter(400, ReplayAction.GRAVITY);
+        }
+        // 400 << 4 needs 13 bits, so each event is a two-byte varint
+        assertEquals(2000, recorder.getLogSize());
+    }
+
+    @Test
+    void testCodecRoundTrip() {
+        recorder.onGameStarted(-9L, new ZenMode());
+        actAfter(1, ReplayAction.ROTATE);
+        actAfter(100_000, ReplayAction.HOLD);
+        recorder.onGameEnded(250, 3, 2, 0xCAFEL);
+        Replay original = saved.getFirst();
+
+        Replay decoded = ReplayCodec.decode(ReplayCodec.encode(original));
+
+        assertEquals(original.getSeed(), decoded.getSeed());
+        assertEquals(original.getModeName(), decoded.getModeName());
+        assertEquals(original.getEventCount(), decoded.getEventCount());
+        assertEquals(original.getInputLog(), decoded.getInputLog(), "Input log bytes should survive unchanged");
+        assertEquals(250, decoded.getFinalScore());
+        assertEquals(3, decoded.getFinalLines());
+        assertEquals(2, decoded.getFinalLevel());
+        assertEquals(0xCAFEL, decoded.getFinalBoardHash());
+    }
+
+    @Test
+    void testEmptyGameIsNotSaved() {
+        recorder.onGameStarted(1L, new ZenMode());
+        recorder.onGameEnded(0, 0, 1, 0L);
+        assertTrue(saved.isEmpty());
+    }
+
+    @Test
+    void testRejectsForeignData() {
+        ByteBuffer junk = ByteBuffer.wrap(new byte[64]);
+        assertThrows(IllegalArgumentException.class, () -> ReplayCodec.decode(junk));
+    }
+}
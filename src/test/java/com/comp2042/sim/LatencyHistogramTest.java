@@ -0,0 +1,52 @@
+package com.comp2042.sim;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testPercentilesAreWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+
+        // log-linear buckets with 32 steps per power of two are accurate to about 3%
+        assertEquals(50_000, histogram.percentile(0.50), 50_000 * 0.04);
+        assertEquals(99_000, histogram.percentile(0.99), 99_000 * 0.04);
+        assertEquals(100_000, histogram.percentile(1.0));
+        assertEquals(100_000, histogram.getMax());
+        assertEquals(50_000.5, histogram.getMean(), 0.001);
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(5);
+        histogram.record(40);
+
+        assertEquals(3, histogram.percentile(0.1));
+        assertEquals(5, histogram.percentile(0.5));
+        assertEquals(40, histogram.percentile(0.9));
+    }
+
+    @Test
+    void testMergeCombinesCountsAndMax() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            a.record(1_000);
+        }
+        b.record(5_000_000);
+
+        a.add(b);
+
+        assertEquals(100, a.getCount());
+        assertEquals(5_000_000, a.getMax());
+        assertTrue(a.percentile(0.5) < 1_100, "The median should stay in the 1000ns bucket");
+        assertEquals(5_000_000, a.percentile(1.0));
+        assertEquals(0, new LatencyHistogram().percentile(0.99), "An empty histogram reports 0");
+    }
+}
@@ -0,0 +1,68 @@
+package com.comp2042.sim;
+
+import com.comp2042.logic.mode.ZenMode;
+import com.comp2042.replay.ReplayAction;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationHarnessTest {
+
+    @Test
+    void testResultsDoNotDependOnThreadCount() {
+        SimulationHarness.Settings settings = new SimulationHarness.Settings().games(40).seed(7L).threads(1);
+
+        SimulationHarness.Report single = new SimulationHarness(settings).run();
+        SimulationHarness.Report parallel = new SimulationHarness(settings.threads(3)).run();
+
+        // every game is seeded by its index, so the same work is done whoever plays it
+        assertEquals(40, single.getGames());
+        assertEquals(single.getGames(), parallel.getGames());
+        assertEquals(single.getPieces(), parallel.getPieces());
+        assertEquals(single.getTotalScore(), parallel.getTotalScore());
+        assertEquals(single.getChecksum(), parallel.getChecksum(), "Same settings must give the same checksum");
+        assertEquals(single.getPieces(), single.getLockLatency().getCount(), "Every lock should be timed");
+    }
+
+    @Test
+    void testDifferentSeedsPlayDifferentGames() {
+        SimulationHarness.Settings settings = new SimulationHarness.Settings().games(20).threads(2);
+
+        long first = new SimulationHarness(settings.seed(1L)).run().getChecksum();
+        long second = new SimulationHarness(settings.seed(2L)).run().getChecksum();
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void testScriptedHardDropsToppleEveryGame() {
+        SimulationHarness.Report report = new SimulationHarness(new SimulationHarness.Settings()
+                .games(5).threads(1).mode(ZenMode.NAME)
+                .script(InputSource.parseScript("# stack everything in the middle\nHARD_DROP"))).run();
+
+        assertEquals(5, report.getGames());
+        assertTrue(report.getPieces() > 5, "Each game should lock several pieces before topping out");
+        assertEquals(0, report.getLines(), "Dropping straight down never completes a line");
+    }
+
+    @Test
+    void testScriptThatNeverLocksStillTerminates() {
+        SimulationHarness.Report report = new SimulationHarness(new SimulationHarness.Settings()
+                .games(3).threads(1).maxPiecesPerGame(2).script(List.of(ReplayAction.LEFT, ReplayAction.RIGHT))).run();
+
+        assertEquals(3, report.getGames());
+        assertEquals(0, report.getPieces());
+    }
+
+    @Test
+    void testBotPlaysLongGamesThatClearLines() {
+        SimulationHarness.Report report = new SimulationHarness(new SimulationHarness.Settings()
+                .games(2).threads(1).maxPiecesPerGame(300).bot(true)).run();
+
+        // the bot survives to the piece cap, clearing almost every row it fills
+        assertEquals(600, report.getPieces());
+        assertTrue(report.getLines() >= 200, "Expected the bot to clear lines, got " + report.getLines());
+    }
+}
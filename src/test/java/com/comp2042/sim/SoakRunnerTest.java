@@ -0,0 +1,28 @@
+package com.comp2042.sim;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SoakRunnerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testShortRunPlaysSessionsAndWritesReport() {
+        SoakRunner runner = new SoakRunner(1_500, 100, 3, directory);
+
+        TrendReport report = runner.run();
+
+        assertTrue(runner.getGamesPlayed() > 0);
+        assertTrue(runner.getSessions() > 1, "Sessions should rotate through the modes");
+        assertTrue(report.getTrends().size() >= 2, "Heap and thread gauges should be reported");
+        assertTrue(Files.exists(directory.resolve("soak-report.txt")));
+        assertTrue(Files.exists(directory.resolve("soak-samples.csv")));
+    }
+}
@@ -0,0 +1,148 @@
+package com.comp2042.sim;
+
+import com.comp2042.ai.Feature;
+import com.comp2042.ai.PlacementPlanner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentTest {
+
+    /** Never plans, so every brick is hard-dropped where it spawns. */
+    private static final PlacementPlanner IDLE = (board, brickId, rotation, x, y, heldId, canHold, preview) -> null;
+
+    private static List<Tournament.Entrant> entrants(int count) {
+        double[] bad = Feature.defaultWeights();
+        bad[Feature.HOLES.ordinal()] = 0.5;
+        bad[Feature.AGGREGATE_HEIGHT.ordinal()] = 0.3;
+        List<Tournament.Entrant> entrants = new ArrayList<>();
+        entrants.add(Tournament.Entrant.heuristic("greedy", Feature.defaultWeights()));
+        entrants.add(new Tournament.Entrant("idle", () -> IDLE));
+        entrants.add(Tournament.Entrant.heuristic("sloppy", bad));
+        for (int i = entrants.size(); i < count; i++) {
+            double[] weights = Feature.defaultWeights();
+            weights[Feature.BUMPINESS.ordinal()] *= 1 + i * 0.5;
+            entrants.add(Tournament.Entrant.heuristic("greedy-" + i, weights));
+        }
+        return entrants.subList(0, count);
+    }
+
+    /** A quick tournament: a few short games per match. */
+    private static Tournament.Settings small(Path directory) {
+        return new Tournament.Settings().gamesPerMatch(3).maxPiecesPerGame(40).threads(2).seed(5L)
+                .directory(directory);
+    }
+
+    private static String key(Tournament.Match match) {
+        String a = match.getFirst();
+        String b = match.getSecond();
+        return a.compareTo(b) < 0 ? a + "/" + b : b + "/" + a;
+    }
+
+    @Test
+    void testRoundRobinPairsEveryoneOnce(@TempDir Path temp) throws IOException {
+        Tournament tournament = new Tournament(entrants(4), small(temp));
+
+        List<Tournament.Standing> standings = tournament.run(match -> { });
+
+        List<Tournament.Match> matches = tournament.getMatches();
+        assertEquals(3, tournament.getRoundCount());
+        assertEquals(6, matches.size(), "4 entrants should play 6 matches");
+        Set<String> pairings = new HashSet<>();
+        for (Tournament.Match match : matches) {
+            assertFalse(match.isBye());
+            assertEquals(3, match.getGames());
+            assertTrue(pairings.add(key(match)), "Rematch: " + match);
+        }
+        assertEquals("idle", standings.get(standings.size() - 1).getName(), "Dropping at spawn should come last");
+        assertEquals(0, standings.get(standings.size() - 1).getPoints());
+        double ratingSum = standings.stream().mapToDouble(Tournament.Standing::getRating).sum();
+        assertEquals(4 * 1500, ratingSum, 1e-6, "Elo only moves rating between players");
+    }
+
+    @Test
+    void testSwissGivesEachByeOnceAndAvoidsRematches(@TempDir Path temp) throws IOException {
+        Tournament tournament = new Tournament(entrants(5),
+                small(temp).format(Tournament.Format.SWISS).rounds(4));
+
+        tournament.run(match -> { });
+
+        Set<String> byes = new HashSet<>();
+        Set<String> pairings = new HashSet<>();
+        for (Tournament.Match match : tournament.getMatches()) {
+            if (match.isBye()) {
+                assertTrue(byes.add(match.getFirst()), "Second bye for " + match.getFirst());
+            } else {
+                assertTrue(pairings.add(key(match)), "Rematch: " + match);
+            }
+        }
+        assertEquals(4, byes.size(), "One bye per round");
+        assertEquals(8, pairings.size());
+        for (Tournament.Standing standing : tournament.getStandings()) {
+            assertEquals(4, standing.getMatches() + (byes.contains(standing.getName()) ? 1 : 0));
+        }
+    }
+
+    @Test
+    void testResumedRunEndsWhereAnUninterruptedOneDoes(@TempDir Path temp) throws IOException {
+        Tournament straight = new Tournament(entrants(4),
+                small(temp.resolve("straight")).format(Tournament.Format.SWISS).rounds(3));
+        List<Tournament.Standing> expected = straight.run(match -> { });
+
+        // stop after one round, then pick the run up again with a fresh tournament
+        Path resumedDir = temp.resolve("resumed");
+        new Tournament(entrants(4), small(resumedDir).format(Tournament.Format.SWISS).rounds(1)).run(match -> { });
+        List<Integer> announced = new ArrayList<>();
+        Tournament resumed = new Tournament(entrants(4), small(resumedDir).format(Tournament.Format.SWISS).rounds(3));
+        List<Tournament.Standing> actual = resumed.run(match -> announced.add(match.getRound()));
+
+        assertEquals(List.of(2, 2, 3, 3), announced, "Only the missing rounds should be played");
+        assertEquals(straight.getMatches().toString(), resumed.getMatches().toString());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getName(), actual.get(i).getName(), "Rank " + (i + 1));
+            assertEquals(expected.get(i).getRating(), actual.get(i).getRating(), 1e-9);
+        }
+        assertEquals(Files.readString(temp.resolve("straight/tournament-report.json")),
+                Files.readString(resumedDir.resolve("tournament-report.json")));
+    }
+
+    @Test
+    void testReportsAreWrittenAndCheckpointIsChecked(@TempDir Path temp) throws IOException {
+        new Tournament(entrants(3), small(temp).rule(Tournament.Rule.SURVIVAL)).run(match -> { });
+
+        List<String> csv = Files.readAllLines(temp.resolve("tournament-standings.csv"));
+        assertEquals("rank,name,rating,points,matches,wins,draws,losses,meanScore", csv.get(0));
+        assertEquals(4, csv.size());
+        assertTrue(csv.get(1).startsWith("1,"));
+        String json = Files.readString(temp.resolve("tournament-report.json"));
+        assertTrue(json.contains("\"rule\": \"SURVIVAL\""));
+        assertTrue(json.contains("\"second\": null"), "Three entrants should leave a bye each round");
+
+        Tournament other = new Tournament(entrants(3), small(temp).seed(6L));
+        assertThrows(IllegalStateException.class, () -> other.run(match -> { }),
+                "A checkpoint of another tournament must not be resumed");
+        assertTrue(json.contains("\"botMoveMillis\": 200"));
+        Tournament slower = new Tournament(entrants(3), small(temp).rule(Tournament.Rule.SURVIVAL).botMoveMillis(1_000));
+        assertThrows(IllegalStateException.class, () -> slower.run(match -> { }),
+                "Resuming must not change how long external bots may think");
+    }
+
+    @Test
+    void testInvalidEntrantsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new Tournament.Entrant("two words", () -> IDLE));
+        assertThrows(IllegalArgumentException.class, () -> new Tournament(entrants(1), new Tournament.Settings()));
+        assertThrows(IllegalArgumentException.class, () -> new Tournament.Settings().botMoveMillis(0));
+        List<Tournament.Entrant> twins = List.of(new Tournament.Entrant("a", () -> IDLE),
+                new Tournament.Entrant("a", () -> IDLE));
+        assertThrows(IllegalArgumentException.class, () -> new Tournament(twins, new Tournament.Settings()));
+    }
+}
@@ -0,0 +1,232 @@
+package com.comp2042.sim;
+
+import com.comp2042.ai.AutoPlayer;
+import com.comp2042.ai.HeuristicBot;
+import com.comp2042.ai.PlacementEnumerator;
+import com.comp2042.controllers.GameController;
+import com.comp2042.logic.board.SimpleBoard;
+import com.comp2042.logic.mode.GameModes;
+import com.comp2042.logic.mode.NormalMode;
+import com.comp2042.managers.ScoreManager;
+import com.comp2042.replay.Replay;
+import com.comp2042.replay.ReplayAction;
+import com.comp2042.replay.ReplayPlayer;
+import com.comp2042.replay.ReplayRecorder;
+import com.comp2042.util.GameConfiguration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainingExporterTest {
+
+    private static final int WIDTH = GameConfiguration.BOARD_WIDTH;
+    private static final int HEIGHT = GameConfiguration.BOARD_HEIGHT;
+
+    private static List<Path> shards(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(TrainingExporter.SHARD_SUFFIX)).sorted().toList();
+        }
+    }
+
+    /** Checks every header and record of a shard and returns the records, type byte included. */
+    private static List<ByteBuffer> records(Path shard, int placementBytes) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(shard));
+        assertEquals(TrainingExporter.MAGIC, data.getInt());
+        assertEquals(TrainingExporter.VERSION, data.get());
+        assertEquals(WIDTH, data.get());
+        assertEquals(HEIGHT, data.get());
+        assertEquals(5, data.get());
+        List<ByteBuffer> records = new ArrayList<>();
+        while (data.hasRemaining()) {
+            byte type = data.get(data.position());
+            int length = type == TrainingExporter.PLACEMENT ? placementBytes : TrainingExporter.GAME_END_BYTES;
+            assertTrue(type == TrainingExporter.PLACEMENT || type == TrainingExporter.GAME_END, "Bad record type " + type);
+            assertTrue(data.remaining() >= length, "Record cut off at the end of " + shard);
+            records.add(data.slice(data.position(), length));
+            data.position(data.position() + length);
+        }
+        return records;
+    }
+
+    private static List<ByteBuffer> allRecords(Path directory, TrainingExporter exporter) throws IOException {
+        List<ByteBuffer> records = new ArrayList<>();
+        for (Path shard : shards(directory)) {
+            records.addAll(records(shard, exporter.getPlacementBytes()));
+        }
+        return records;
+    }
+
+    @Test
+    void testHarnessGamesExportOneRecordPerPieceAndGame(@TempDir Path temp) throws IOException {
+        TrainingExporter exporter = new TrainingExporter(temp, new TrainingExporter.Settings());
+        SimulationHarness.Report report = new SimulationHarness(new SimulationHarness.Settings()
+                .games(6).threads(2).seed(3L).bot(true).maxPiecesPerGame(60).export(exporter)).run();
+        exporter.close();
+
+        List<ByteBuffer> records = allRecords(temp, exporter);
+        assertEquals(report.getPieces() + report.getGames(), records.size());
+        assertEquals(records.size(), exporter.getRecords());
+        assertEquals(1, exporter.getShards());
+        assertEquals(Files.size(shards(temp).getFirst()), exporter.getBytesWritten());
+
+        long lines = 0;
+        long score = 0;
+        long finalScores = 0;
+        int placements = 0;
+        for (ByteBuffer record : records) {
+            if (record.get(0) == TrainingExporter.GAME_END) {
+                score += record.getInt(13);
+                finalScores += record.getInt(13);
+                lines += record.getInt(17);
+                continue;
+            }
+            placements++;
+            // the piece must fit the board it was placed on, and nothing may stick out of the rows
+            int[] rows = new int[HEIGHT];
+            for (int r = 0; r < HEIGHT; r++) {
+                rows[r] = record.getShort(13 + 2 * r) & 0xFFFF;
+                assertEquals(0, rows[r] >>> WIDTH);
+            }
+            int at = 13 + 2 * HEIGHT;
+            int brickId = record.get(at);
+            int[] queue = new int[5];
+            for (int q = 0; q < 5; q++) {
+                queue[q] = record.get(at + 3 + q);
+                assertTrue(queue[q] >= 1 && queue[q] <= 7, "Preview should be full: " + queue[q]);
+            }
+            int rotation = record.get(at + 8);
+            int x = record.get(at + 9);
+            int y = record.get(at + 10);
+            int[] shape = PlacementEnumerator.shapeRows(brickId, rotation);
+            for (int i = 0; i < shape.length; i++) {
+                if (shape[i] != 0) {
+                    int mask = x >= 0 ? shape[i] << x : shape[i] >>> -x;
+                    assertEquals(0, mask & rows[y + i], "Piece overlaps the board");
+                    assertEquals(0, mask >>> WIDTH, "Piece sticks out of the board");
+                }
+            }
+            lines -= record.get(at + 11);
+            score -= record.getInt(at + 12);
+        }
+        assertEquals(report.getPieces(), placements);
+        assertEquals(report.getTotalScore(), finalScores);
+        assertEquals(0, score, "Score gained per piece should add up to the final scores");
+        assertEquals(0, lines, "Lines per piece should add up to the final line counts");
+    }
+
+    @Test
+    void testShardsRollOverWithoutSplittingRecords(@TempDir Path temp) throws IOException {
+        TrainingExporter.Settings settings = new TrainingExporter.Settings().bufferBytes(1_000).buffers(2).shardBytes(4_000);
+        TrainingExporter exporter = new TrainingExporter(temp, settings);
+        new SimulationHarness(new SimulationHarness.Settings()
+                .games(4).threads(1).seed(9L).bot(true).maxPiecesPerGame(80).export(exporter)).run();
+        exporter.close();
+
+        List<Path> shards = shards(temp);
+        assertEquals(exporter.getShards(), shards.size());
+        assertTrue(shards.size() > 1, "Small shards should have rolled over");
+        long total = 0;
+        for (Path shard : shards) {
+            assertTrue(Files.size(shard) <= 4_000, shard + " is too big");
+            total += records(shard, exporter.getPlacementBytes()).size();
+        }
+        assertEquals(exporter.getRecords(), total);
+
+        // a second exporter adds shards instead of overwriting them
+        TrainingExporter next = new TrainingExporter(temp, settings);
+        new SimulationHarness(new SimulationHarness.Settings().games(1).threads(1).bot(true).maxPiecesPerGame(5)
+                .export(next)).run();
+        next.close();
+        assertEquals(shards.size() + 1, shards(temp).size());
+    }
+
+    /**
+     * Plays a bot game, recording it and, if an exporter is given, exporting it as it is played.
+     */
+    private static Replay playBotGame(long seed, TrainingExporter exporter) {
+        List<Replay> saved = new ArrayList<>();
+        ReplayRecorder recorder = new ReplayRecorder(saved::add);
+        GameController controller = new GameController(new SimpleBoard(HEIGHT, WIDTH), new ScoreManager(null), seed);
+        controller.setGameMode(GameModes.forName(NormalMode.NAME));
+        controller.setInputRecorder(exporter == null ? recorder : exporter.recorder(recorder));
+        AutoPlayer player = new AutoPlayer(controller, new HeuristicBot(), Double.POSITIVE_INFINITY);
+        controller.addObserver(player);
+        controller.createNewGame(seed);
+        for (int i = 0; i < 2_000; i++) {
+            ReplayAction action = player.nextAction();
+            ReplayPlayer.apply(controller, action != null ? action : ReplayAction.HARD_DROP);
+        }
+        controller.finishRecording();
+        assertEquals(1, saved.size());
+        return saved.getFirst();
+    }
+
+    @Test
+    void testReplayExportMatchesLiveExport(@TempDir Path temp) throws IOException {
+        Path live = temp.resolve("live");
+        Path replayed = temp.resolve("replayed");
+
+        TrainingExporter liveExporter = new TrainingExporter(live, new TrainingExporter.Settings());
+        Replay replay = playBotGame(21L, liveExporter);
+        liveExporter.close();
+
+        TrainingExporter replayExporter = new TrainingExporter(replayed, new TrainingExporter.Settings());
+        ReplayPlayer.Result result = replayExporter.export(replay);
+        replayExporter.close();
+
+        assertTrue(result.isVerified(), () -> "Replay should verify but got: " + result);
+        assertTrue(replayExporter.getRecords() > 1);
+        assertArrayEquals(Files.readAllBytes(shards(live).getFirst()), Files.readAllBytes(shards(replayed).getFirst()),
+                "Re-simulating a game should export the same records as playing it");
+    }
+
+    @Test
+    void testSeekingPlayerExportsOneGame(@TempDir Path temp) throws IOException {
+        Replay replay = playBotGame(8L, null);
+        assertTrue(replay.getKeyframes().size() > 1, "The game should be long enough to have keyframes");
+
+        TrainingExporter exporter = new TrainingExporter(temp, new TrainingExporter.Settings());
+        ReplayPlayer player = new ReplayPlayer(replay, exporter.recorder(null));
+        player.advanceTo(Long.MAX_VALUE);
+        long end = player.getPositionMillis();
+        // jump back onto keyframes, forwards past one, and back to the start
+        assertTrue(player.seek(end / 2));
+        assertTrue(player.seek(end / 4));
+        assertTrue(player.seek(end * 3 / 4));
+        assertTrue(player.seek(0));
+        player.advanceTo(Long.MAX_VALUE);
+        player.getController().finishRecording();
+        exporter.close();
+
+        List<ByteBuffer> records = allRecords(temp, exporter);
+        long ends = records.stream().filter(r -> r.get(0) == TrainingExporter.GAME_END).count();
+        assertEquals(1, ends, "Seeking must not end the exported game");
+        ByteBuffer last = records.getLast();
+        assertEquals(TrainingExporter.GAME_END, last.get(0));
+        assertEquals(replay.getSeed(), last.getLong(1));
+        assertEquals(replay.getFinalScore(), last.getInt(13));
+    }
+
+    @Test
+    void testClosedExporterRejectsGames(@TempDir Path temp) throws IOException {
+        TrainingExporter exporter = new TrainingExporter(temp, new TrainingExporter.Settings());
+        exporter.close();
+        exporter.close();
+
+        SimulationHarness harness = new SimulationHarness(new SimulationHarness.Settings().games(1).threads(1)
+                .export(exporter));
+        assertThrows(IllegalStateException.class, harness::run);
+        assertTrue(shards(temp).isEmpty(), "Nothing was written, so no shard should exist");
+        assertThrows(IllegalArgumentException.class,
+                () -> new TrainingExporter(temp, new TrainingExporter.Settings().bufferBytes(16)));
+    }
+}
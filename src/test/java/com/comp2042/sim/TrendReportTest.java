@@ -0,0 +1,69 @@
+package com.comp2042.sim;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendReportTest {
+
+    private static List<ResourceSampler.Sample> series(long... values) {
+        List<ResourceSampler.Sample> samples = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            samples.add(new ResourceSampler.Sample(i * 60_000L, new long[]{values[i]}));
+        }
+        return samples;
+    }
+
+    @Test
+    void testSteadyLeakIsFlagged() {
+        // a saw-tooth whose floor creeps up by 10 units every sample
+        long[] values = new long[50];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1_000 + i * 10 + (i % 3) * 200;
+        }
+
+        TrendReport report = new TrendReport(List.of("heap"), series(values));
+
+        TrendReport.Trend trend = report.getTrends().getFirst();
+        assertTrue(trend.isGrowing());
+        assertTrue(report.hasGrowth());
+        assertTrue(trend.getSlopePerHour() > 500, "Growth of 10 per minute is about 600 per hour");
+        assertTrue(report.toText().contains("GROWING"));
+    }
+
+    @Test
+    void testHealthySawToothIsStable() {
+        // allocation churn goes up and down but always returns to the same floor
+        long[] values = new long[50];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1_000 + (i % 5) * 400;
+        }
+
+        TrendReport report = new TrendReport(List.of("heap"), series(values));
+
+        assertFalse(report.hasGrowth());
+    }
+
+    @Test
+    void testSmallRiseWithinToleranceIsNotFlagged() {
+        // a one-off step of 2% (e.g. a cache warming up) is not a leak
+        long[] values = new long[20];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i < 10 ? 1_000 : 1_020;
+        }
+
+        assertFalse(new TrendReport(List.of("threads"), series(values)).hasGrowth());
+    }
+
+    @Test
+    void testTooFewSamplesAreNotJudged() {
+        TrendReport report = new TrendReport(List.of("nodes"), series(1, 2, 3, 4));
+
+        assertFalse(report.hasGrowth());
+        assertEquals(0, report.getTrends().getFirst().getWindowFloors().length);
+        assertTrue(report.toCsv().startsWith("timeMillis,nodes\n0,1\n"));
+    }
+}
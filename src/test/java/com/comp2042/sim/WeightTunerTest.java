@@ -0,0 +1,96 @@
+package com.comp2042.sim;
+
+import com.comp2042.ai.Feature;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeightTunerTest {
+
+    /** A quick tuning run: a few short games per candidate. */
+    private static WeightTuner.Settings small(Path directory) {
+        return new WeightTuner.Settings().population(6).gamesPerCandidate(3).maxPiecesPerGame(40).threads(2)
+                .seed(11L).directory(directory);
+    }
+
+    @Test
+    void testResumedRunEndsWhereAnUninterruptedOneDoes(@TempDir Path temp) throws IOException {
+        WeightTuner straight = new WeightTuner(small(temp.resolve("straight")).generations(3));
+        List<WeightTuner.Generation> expected = straight.run(generation -> { });
+
+        // stop after one generation, then pick the run up again with a fresh tuner
+        Path resumedDir = temp.resolve("resumed");
+        new WeightTuner(small(resumedDir).generations(1)).run(generation -> { });
+        List<Integer> announced = new ArrayList<>();
+        WeightTuner resumed = new WeightTuner(small(resumedDir).generations(3));
+        List<WeightTuner.Generation> actual = resumed.run(generation -> announced.add(generation.getIndex()));
+
+        assertEquals(List.of(2, 3), announced, "Only the missing generations should be played");
+        assertEquals(3, actual.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expected.get(i).getBestFitness(), actual.get(i).getBestFitness(), "Generation " + (i + 1));
+            assertEquals(expected.get(i).getMeanFitness(), actual.get(i).getMeanFitness());
+        }
+        assertArrayEquals(straight.getMeanWeights(), resumed.getMeanWeights());
+        assertArrayEquals(straight.getBestWeights(), resumed.getBestWeights());
+    }
+
+    @Test
+    void testImprovesOnBadStartingWeights(@TempDir Path temp) throws IOException {
+        // a bot that loves holes and tall stacks barely clears anything
+        double[] bad = Feature.defaultWeights();
+        bad[Feature.HOLES.ordinal()] = 0.5;
+        bad[Feature.AGGREGATE_HEIGHT.ordinal()] = 0.3;
+        WeightTuner tuner = new WeightTuner(small(temp).initialWeights(bad).initialDeviation(0.5).generations(4));
+
+        List<WeightTuner.Generation> history = tuner.run(generation -> { });
+
+        WeightTuner.Generation first = history.get(0);
+        WeightTuner.Generation last = history.get(history.size() - 1);
+        assertTrue(last.getMeanCandidateFitness() > first.getMeanCandidateFitness(),
+                "The distribution's mean should play better: " + first + " -> " + last);
+        assertTrue(tuner.getMeanWeights()[Feature.HOLES.ordinal()] < 0.5 / norm(bad), "Holes should look worse");
+        assertTrue(last.getGames() == 6 * 3 && last.getGamesPerSecond() > 0);
+    }
+
+    @Test
+    void testWritesCheckpointAndCurve(@TempDir Path temp) throws IOException {
+        WeightTuner tuner = new WeightTuner(small(temp).generations(2));
+        tuner.run(generation -> { });
+
+        List<String> curve = Files.readAllLines(temp.resolve("tuner-curve.csv"));
+        assertEquals(3, curve.size(), "Header plus one row per generation");
+        assertTrue(curve.get(0).startsWith("generation,bestFitness"));
+        assertTrue(Files.readString(temp.resolve("tuner-checkpoint.txt")).contains("features=AGGREGATE_HEIGHT,"));
+        assertFalse(Files.exists(temp.resolve("tuner-checkpoint.txt.tmp")), "The temporary file should be moved");
+
+        // the mean is kept at unit length, since scaling the weights does not change the bot
+        assertEquals(1.0, norm(tuner.getMeanWeights()), 1e-9);
+    }
+
+    @Test
+    void testRejectsCheckpointForOtherFeatures(@TempDir Path temp) throws IOException {
+        Files.writeString(temp.resolve("tuner-checkpoint.txt"), "version=1\nfeatures=HOLES\n");
+
+        WeightTuner tuner = new WeightTuner(small(temp).generations(1));
+
+        assertThrows(IllegalStateException.class, () -> tuner.run(generation -> { }));
+        assertThrows(IllegalArgumentException.class, () -> new WeightTuner.Settings().population(1));
+        assertThrows(IllegalArgumentException.class, () -> new WeightTuner.Settings().eliteFraction(0));
+    }
+
+    private static double norm(double[] weights) {
+        double sum = 0;
+        for (double w : weights) {
+            sum += w * w;
+        }
+        return Math.sqrt(sum);
+    }
+}
@@ -0,0 +1,59 @@
+package com.comp2042.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameClockTest {
+
+    @Test
+    void testOnlyCountsTimeWhileRunning() {
+        long[] nanos = {0};
+        GameClock clock = new GameClock(() -> nanos[0]);
+
+        // time before start is ignored
+        nanos[0] += 3_000_000_000L;
+        assertEquals(0, clock.elapsedMillis());
+
+        clock.start();
+        nanos[0] += 1_500_000_000L;
+        assertEquals(1500, clock.elapsedMillis());
+
+        // paused time is not counted
+        clock.pause();
+        nanos[0] += 10_000_000_000L;
+        assertEquals(1500, clock.elapsedMillis());
+
+        clock.start();
+        nanos[0] += 250_000_000L;
+        assertEquals(1750, clock.elapsedMillis());
+    }
+
+    @Test
+    void testRepeatedStartAndPauseAreHarmless() {
+        long[] nanos = {0};
+        GameClock clock = new GameClock(() -> nanos[0]);
+
+        clock.start();
+        nanos[0] += 100_000_000L;
+        clock.start();
+        nanos[0] += 100_000_000L;
+        clock.pause();
+        clock.pause();
+
+        assertEquals(200, clock.elapsedMillis(), "A second start must not restart the running interval");
+        assertFalse(clock.isRunning());
+    }
+
+    @Test
+    void testResetStopsAndClears() {
+        long[] nanos = {0};
+        GameClock clock = new GameClock(() -> nanos[0]);
+        clock.start();
+        nanos[0] += 500_000_000L;
+
+        clock.reset();
+
+        assertEquals(0, clock.elapsedMillis());
+        assertFalse(clock.isRunning());
+    }
+}